@@ -0,0 +1,231 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.api.ApiServer;
+import edu.ccrm.cli.ServeCommand;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.BackupService;
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.metrics.LatencyHistogram;
+import edu.ccrm.report.ReportExporter;
+import edu.ccrm.report.ReportViews;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load test of the HTTP API with enrollment traffic: each
+ * client sends one request at a time, 80% enrollments and 20% withdrawals
+ * of random student and course pairs, and the latency of every request is
+ * recorded. Duplicates (409), credit limit rejections (422) and
+ * withdrawals of unknown enrollments (404) are expected answers, not
+ * errors. Unlike the JMH benchmarks this runs from its own main method:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar edu.ccrm.bench.ApiLoadTest
+ *     [--url http://host:port] [--clients N] [--duration seconds] [--warmup seconds]
+ *     [--students N] [--courses N]
+ * </pre>
+ * Without {@code --url} a server with a synthetic data set is started in
+ * the same JVM on a free port.
+ */
+public final class ApiLoadTest {
+    private static final Pattern STUDENT_ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+    private static final Pattern COURSE_CODE = Pattern.compile("\"code\":\"([^\"]+)\"");
+    private static final int ENROLL_PERCENT = 80;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<String> studentIds;
+    private final List<String> courseCodes;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private ApiLoadTest(HttpClient client, String baseUrl, List<String> studentIds,
+            List<String> courseCodes) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.studentIds = studentIds;
+        this.courseCodes = courseCodes;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Serve the API as the serve command does
+        ServeCommand.enableNoDelay();
+        String url = null;
+        int clients = 32;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        int students = 10_000;
+        int courses = 200;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url" -> url = args[++i];
+                case "--clients" -> clients = Integer.parseInt(args[++i]);
+                case "--duration" -> durationSeconds = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmupSeconds = Integer.parseInt(args[++i]);
+                case "--students" -> students = Integer.parseInt(args[++i]);
+                case "--courses" -> courses = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        ApiServer server = null;
+        List<String> studentIds;
+        List<String> courseCodes;
+        if (url == null) {
+            BenchmarkData data = BenchmarkData.students(students, courses);
+            ReportViews reportViews = new ReportViews(data.studentService, data.courseService,
+                data.enrollmentService, data.snapshotLock);
+            BackupService backupService = new BackupService(Files.createTempDirectory("ccrm-load-test"),
+                data.importExportService, ExportFormat.CSV, false);
+            server = new ApiServer(0, ApiServer.DEFAULT_THREADS, data.studentService, data.courseService,
+                data.enrollmentService, new ReportExporter(reportViews, data.studentService), backupService);
+            server.start();
+            url = "http://localhost:" + server.getPort();
+            studentIds = data.studentService.findAll().stream().map(Student::getId).toList();
+            courseCodes = data.courseService.findAll().stream().map(Course::getCode).toList();
+            System.out.printf("Started an embedded server on %s with %d students and %d courses (%s)%n",
+                url, studentIds.size(), courseCodes.size(),
+                server.isUsingVirtualThreads() ? "virtual threads" : "platform threads");
+        } else {
+            studentIds = fetchIds(client, url + "/api/students?limit=1000", STUDENT_ID);
+            courseCodes = fetchIds(client, url + "/api/courses?limit=1000", COURSE_CODE);
+            if (studentIds.isEmpty() || courseCodes.isEmpty()) {
+                throw new IllegalStateException("The server at " + url + " has no students or courses");
+            }
+        }
+
+        try {
+            new ApiLoadTest(client, url, studentIds, courseCodes)
+                .run(clients, warmupSeconds, durationSeconds);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    private static List<String> fetchIds(HttpClient client, String url, Pattern pattern)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + url + " returned " + response.statusCode());
+        }
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = pattern.matcher(response.body());
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    private void run(int clients, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(this::clientLoop, "ccrm-load-client-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        System.out.printf("Warming up %d clients for %d s%n", clients, warmupSeconds);
+        Thread.sleep(warmupSeconds * 1000L);
+        latencies.reset();
+        statusCounts.clear();
+        failures.reset();
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(durationSeconds * 1000L);
+        recording = false;
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+        report(elapsedSeconds);
+    }
+
+    private void clientLoop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            String studentId = studentIds.get(random.nextInt(studentIds.size()));
+            String courseCode = courseCodes.get(random.nextInt(courseCodes.size()));
+            HttpRequest request = random.nextInt(100) < ENROLL_PERCENT
+                ? enrollRequest(studentId, courseCode)
+                : HttpRequest.newBuilder(URI.create(
+                        baseUrl + "/api/enrollments/" + studentId + "/" + courseCode))
+                    .DELETE()
+                    .build();
+            long begin = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (recording) {
+                    latencies.record(System.nanoTime() - begin);
+                    statusCounts.computeIfAbsent(response.statusCode(), status -> new LongAdder())
+                        .increment();
+                }
+            } catch (IOException e) {
+                if (recording) {
+                    failures.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private HttpRequest enrollRequest(String studentId, String courseCode) {
+        String body = "{\"studentId\":\"" + studentId + "\",\"courseCode\":\"" + courseCode + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/enrollments"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private void report(double elapsedSeconds) {
+        LatencyHistogram.Snapshot snapshot = latencies.snapshot();
+        long errors = failures.sum();
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+        for (Map.Entry<Integer, Long> entry : statuses.entrySet()) {
+            if (entry.getKey() >= 500) {
+                errors += entry.getValue();
+            }
+        }
+
+        System.out.printf("%nRequests:   %d in %.1f s (%.0f req/s)%n", snapshot.getCount(), elapsedSeconds,
+            snapshot.getCount() / elapsedSeconds);
+        System.out.printf("Latency:    p50 %s  p90 %s  p99 %s  p99.9 %s  max %s%n",
+            millis(snapshot.getPercentileNanos(50)), millis(snapshot.getPercentileNanos(90)),
+            millis(snapshot.getPercentileNanos(99)), millis(snapshot.getPercentileNanos(99.9)),
+            millis(snapshot.getMaxNanos()));
+        System.out.println("Statuses:   " + statuses);
+        System.out.println("Errors:     " + errors);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f ms", nanos / 1e6);
+    }
+}
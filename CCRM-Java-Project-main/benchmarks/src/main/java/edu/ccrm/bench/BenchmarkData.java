@@ -0,0 +1,106 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.CourseServiceImpl;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.SnapshotLock;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.service.StudentServiceImpl;
+import java.util.Random;
+
+/**
+ * Synthetic data set shared by the benchmarks. The same size and seed
+ * always produce the same students, courses and enrollments, so results
+ * are comparable between runs.
+ */
+final class BenchmarkData {
+    static final long SEED = 42;
+    static final int DEPARTMENTS = 40;
+    static final int ENROLLMENTS_PER_STUDENT = 5;
+
+    final SnapshotLock snapshotLock = new SnapshotLock();
+    final StudentService studentService = new StudentServiceImpl(snapshotLock);
+    final CourseService courseService = new CourseServiceImpl(snapshotLock);
+    final EnrollmentService enrollmentService = new EnrollmentServiceImpl(snapshotLock);
+    final ImportExportService importExportService =
+        new ImportExportService(studentService, courseService, enrollmentService, snapshotLock);
+    final int studentCount;
+    final int courseCount;
+
+    private BenchmarkData(int studentCount, int courseCount) {
+        this.studentCount = studentCount;
+        this.courseCount = courseCount;
+    }
+
+    /**
+     * Courses only, no students
+     */
+    static BenchmarkData courses(int courseCount) {
+        BenchmarkData data = new BenchmarkData(0, courseCount);
+        data.addCourses();
+        return data;
+    }
+
+    /**
+     * Courses plus students with about five graded or active enrollments each
+     */
+    static BenchmarkData students(int studentCount, int courseCount) {
+        BenchmarkData data = new BenchmarkData(studentCount, courseCount);
+        data.addCourses();
+        data.addStudents(new Random(SEED));
+        return data;
+    }
+
+    static String studentId(int index) {
+        return "S" + index;
+    }
+
+    static String regNo(int index) {
+        return "R" + index;
+    }
+
+    static String courseCode(int index) {
+        return "C" + index;
+    }
+
+    static String department(int index) {
+        return "D" + (index % DEPARTMENTS);
+    }
+
+    private void addCourses() {
+        Semester[] semesters = Semester.values();
+        for (int c = 0; c < courseCount; c++) {
+            courseService.save(new Course.Builder(courseCode(c))
+                .title("Course " + c)
+                .credits(1 + c % 4)
+                .department(department(c))
+                .semester(semesters[c % semesters.length])
+                .build());
+        }
+    }
+
+    private void addStudents(Random random) {
+        Grade[] grades = Grade.values();
+        for (int s = 0; s < studentCount; s++) {
+            Student student = new Student(studentId(s), "Student " + s, "s" + s + "@example.edu", regNo(s));
+            studentService.save(student);
+            for (int e = 0; e < ENROLLMENTS_PER_STUDENT; e++) {
+                Course course = courseService.findById(courseCode(random.nextInt(courseCount)));
+                try {
+                    enrollmentService.enroll(student, course);
+                    if (random.nextBoolean()) {
+                        enrollmentService.assignGrade(student, course, grades[random.nextInt(grades.length)]);
+                    }
+                } catch (Exception duplicateOrOverLimit) {
+                    // Random picks may repeat a course or exceed the credit limit
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CourseServiceImpl filters at several catalog sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseServiceBenchmark {
+    @Param({"100", "1000", "10000"})
+    int courses;
+
+    private BenchmarkData data;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.courses(courses);
+    }
+
+    @Benchmark
+    public List<Course> findByDepartment() {
+        return data.courseService.findByDepartment(
+            BenchmarkData.department(ThreadLocalRandom.current().nextInt(BenchmarkData.DEPARTMENTS)));
+    }
+
+    @Benchmark
+    public List<Course> findBySemester() {
+        Semester[] semesters = Semester.values();
+        return data.courseService.findBySemester(
+            semesters[ThreadLocalRandom.current().nextInt(semesters.length)]);
+    }
+
+    @Benchmark
+    public List<Course> findByPredicate() {
+        return data.courseService.findByPredicate(course -> course.getCredits() >= 3);
+    }
+}
@@ -0,0 +1,54 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EnrollmentServiceImpl.enroll into a data set of the given size. Every
+ * call enrolls a new student, so no call hits the duplicate check; the data
+ * set is rebuilt each iteration so it does not keep growing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrollBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int students;
+
+    private BenchmarkData data;
+    private Course[] courses;
+    private long next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        data = BenchmarkData.students(students, Math.max(50, students / 100));
+        courses = data.courseService.findAll().toArray(new Course[0]);
+        next = 0;
+    }
+
+    @Benchmark
+    public Enrollment enroll() throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        long id = next++;
+        Student student = new Student("N" + id, "New Student", "new@example.edu", "NR" + id);
+        return data.enrollmentService.enroll(student, courses[(int) (id % courses.length)]);
+    }
+}
@@ -0,0 +1,55 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read paths of EnrollmentServiceImpl at several data set sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrollmentServiceBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int students;
+
+    private BenchmarkData data;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.students(students, Math.max(50, students / 100));
+    }
+
+    private Student randomStudent() {
+        return data.studentService.findById(
+            BenchmarkData.studentId(ThreadLocalRandom.current().nextInt(students)));
+    }
+
+    @Benchmark
+    public List<Enrollment> findByStudent() {
+        return data.enrollmentService.findByStudent(randomStudent());
+    }
+
+    @Benchmark
+    public double calculateGpa() {
+        return data.enrollmentService.calculateGpa(randomStudent(), Semester.FALL_2025);
+    }
+}
@@ -0,0 +1,87 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportProgress;
+import edu.ccrm.service.CourseServiceImpl;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.StudentServiceImpl;
+import edu.ccrm.util.RecursiveFileUtil;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ImportExportService export and import at several data set sizes, plain
+ * and compressed. Imports load into empty services each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportExportBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int students;
+
+    @Param({"CSV", "GZIP"})
+    ExportFormat format;
+
+    private BenchmarkData data;
+    private Path workDirectory;
+    private Path exported;
+    private Path exportTarget;
+
+    @Setup
+    public void setUp() throws IOException {
+        data = BenchmarkData.students(students, Math.max(50, students / 100));
+        workDirectory = Files.createTempDirectory("ccrm-bench");
+        exported = workDirectory.resolve("exported");
+        exportTarget = workDirectory.resolve("target");
+        data.importExportService.exportData(exported, format);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        RecursiveFileUtil.parallelDeleteDirectory(workDirectory);
+    }
+
+    @Benchmark
+    public Path exportData() throws IOException {
+        data.importExportService.exportData(exportTarget, format);
+        return exportTarget;
+    }
+
+    @Benchmark
+    public ImportExportService importData() throws IOException {
+        ImportExportService target = emptyService();
+        target.importData(exported);
+        return target;
+    }
+
+    @Benchmark
+    public ImportExportService importDataParallel() throws IOException {
+        ImportExportService target = emptyService();
+        target.importData(exported, ImportProgress.silent());
+        return target;
+    }
+
+    private static ImportExportService emptyService() {
+        return new ImportExportService(
+            new StudentServiceImpl(), new CourseServiceImpl(), new EnrollmentServiceImpl());
+    }
+}
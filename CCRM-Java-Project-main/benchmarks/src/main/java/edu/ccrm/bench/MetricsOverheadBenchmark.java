@@ -0,0 +1,75 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of timing one operation with an OperationTimer, against two bare
+ * clock reads. The contended case records into the same timer from four
+ * threads, as a busy service would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private OperationTimer timer;
+
+    @Setup
+    public void setUp() {
+        timer = MetricsRegistry.getInstance().timer("bench.overhead");
+    }
+
+    @Benchmark
+    public long clockOnly() {
+        long start = System.nanoTime();
+        return System.nanoTime() - start;
+    }
+
+    @Benchmark
+    public void timed() {
+        timer.stop(timer.start());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void timedContended() {
+        timer.stop(timer.start());
+    }
+
+    @Benchmark
+    public void timedDisabled(DisabledState state) {
+        timer.stop(timer.start());
+    }
+
+    /**
+     * Switches metrics off for the disabled case only
+     */
+    @State(Scope.Benchmark)
+    public static class DisabledState {
+        @Setup
+        public void setUp() {
+            MetricsRegistry.getInstance().setEnabled(false);
+        }
+
+        @TearDown
+        public void tearDown() {
+            MetricsRegistry.getInstance().setEnabled(true);
+        }
+    }
+}
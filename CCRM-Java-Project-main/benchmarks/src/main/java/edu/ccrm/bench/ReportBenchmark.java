@@ -0,0 +1,53 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.report.EnrollmentReport;
+import edu.ccrm.report.ReportEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How report generation scales with the number of threads. Compare the
+ * parallelism 1 score with the others to see the speedup on this machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+    @Param({"200000"})
+    int students;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    private ReportEngine engine;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.students(students, 2_000);
+        engine = new ReportEngine(data.courseService, data.enrollmentService, parallelism);
+        EnrollmentReport sequential = new ReportEngine(data.courseService, data.enrollmentService).generate();
+        EnrollmentReport parallel = engine.generate();
+        if (!sequential.getCourses().equals(parallel.getCourses())
+                || !sequential.getDepartments().equals(parallel.getDepartments())) {
+            throw new IllegalStateException("Parallel report differs from the sequential one");
+        }
+    }
+
+    @Benchmark
+    public EnrollmentReport generate() {
+        return engine.generate();
+    }
+}
@@ -0,0 +1,49 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Student;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * StudentServiceImpl queries at several data set sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentServiceBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int students;
+
+    private BenchmarkData data;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkData.students(students, Math.max(50, students / 100));
+    }
+
+    @Benchmark
+    public List<Student> findTopPerformers() {
+        return data.studentService.findTopPerformers(10);
+    }
+
+    @Benchmark
+    public Student findByRegNo() {
+        return data.studentService.findByRegNo(
+            BenchmarkData.regNo(ThreadLocalRandom.current().nextInt(students)));
+    }
+}
@@ -0,0 +1,161 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.api.ApiServer;
+import edu.ccrm.cli.ServeCommand;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.io.BackupService;
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.report.ReportExporter;
+import edu.ccrm.report.ReportViews;
+import edu.ccrm.wire.WireClient;
+import edu.ccrm.wire.WireCommand;
+import edu.ccrm.wire.WireProtocol;
+import edu.ccrm.wire.WireResult;
+import edu.ccrm.wire.WireServer;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares bulk throughput of the HTTP API, one operation per request,
+ * with the binary protocol sent one operation per request, pipelined, and
+ * pipelined in batches. Every mode runs the same seeded stream of
+ * enrollments and grade updates against a fresh copy of the same data,
+ * over one connection:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar edu.ccrm.bench.WireLoadTest
+ *     [--operations N] [--students N] [--courses N] [--batch N] [--window N]
+ * </pre>
+ */
+public final class WireLoadTest {
+    private static final int ENROLL_PERCENT = 80;
+    private static final Grade[] GRADES = Grade.values();
+
+    private WireLoadTest() {
+    }
+
+    /**
+     * Runs one mode against a server and returns how many operations succeeded
+     */
+    private interface Mode {
+        long run(BenchmarkData data, List<WireCommand> operations) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Serve the API as the serve command does
+        ServeCommand.enableNoDelay();
+        int operations = 20_000;
+        int students = 10_000;
+        int courses = 200;
+        int batchSize = WireClient.DEFAULT_BATCH_SIZE;
+        int window = WireClient.DEFAULT_WINDOW;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--operations" -> operations = Integer.parseInt(args[++i]);
+                case "--students" -> students = Integer.parseInt(args[++i]);
+                case "--courses" -> courses = Integer.parseInt(args[++i]);
+                case "--batch" -> batchSize = Integer.parseInt(args[++i]);
+                case "--window" -> window = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+        }
+        List<WireCommand> stream = operations(operations, students, courses);
+        int pipelineWindow = window;
+        int pipelineBatch = batchSize;
+
+        System.out.printf("%d operations, %d students, %d courses, batch %d, window %d%n%n",
+            operations, students, courses, batchSize, window);
+        System.out.printf("%-22s %10s %12s %10s %8s%n", "Mode", "Seconds", "Ops/s", "Succeeded", "Speedup");
+        double baseline = measure("HTTP, one per request", students, courses, stream,
+            WireLoadTest::runHttp, 0);
+        measure("Binary, one per request", students, courses, stream,
+            (data, ops) -> runWire(data, ops, 1, 1), baseline);
+        measure("Binary, pipelined", students, courses, stream,
+            (data, ops) -> runWire(data, ops, 1, pipelineWindow * pipelineBatch), baseline);
+        measure("Binary, batched", students, courses, stream,
+            (data, ops) -> runWire(data, ops, pipelineBatch, pipelineWindow), baseline);
+    }
+
+    /**
+     * The seeded operation stream every mode executes
+     */
+    private static List<WireCommand> operations(int count, int students, int courses) {
+        Random random = new Random(BenchmarkData.SEED);
+        List<WireCommand> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String studentId = BenchmarkData.studentId(random.nextInt(students));
+            String courseCode = BenchmarkData.courseCode(random.nextInt(courses));
+            operations.add(random.nextInt(100) < ENROLL_PERCENT
+                ? WireCommand.enroll(studentId, courseCode)
+                : WireCommand.assignGrade(studentId, courseCode, GRADES[random.nextInt(GRADES.length)]));
+        }
+        return operations;
+    }
+
+    private static double measure(String name, int students, int courses, List<WireCommand> operations,
+            Mode mode, double baseline) throws Exception {
+        BenchmarkData data = BenchmarkData.students(students, courses);
+        long start = System.nanoTime();
+        long succeeded = mode.run(data, operations);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double throughput = operations.size() / seconds;
+        System.out.printf("%-22s %10.2f %12.0f %10d %8s%n", name, seconds, throughput, succeeded,
+            baseline > 0 ? String.format("%.1fx", throughput / baseline) : "-");
+        return throughput;
+    }
+
+    private static long runHttp(BenchmarkData data, List<WireCommand> operations) throws Exception {
+        ReportViews reportViews = new ReportViews(data.studentService, data.courseService,
+            data.enrollmentService, data.snapshotLock);
+        BackupService backupService = new BackupService(Files.createTempDirectory("ccrm-wire-load-test"),
+            data.importExportService, ExportFormat.CSV, false);
+        ApiServer server = new ApiServer(0, ApiServer.DEFAULT_THREADS, data.studentService,
+            data.courseService, data.enrollmentService, new ReportExporter(reportViews, data.studentService),
+            backupService);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String baseUrl = "http://localhost:" + server.getPort() + "/api/enrollments";
+            long succeeded = 0;
+            for (WireCommand operation : operations) {
+                HttpRequest request = operation.opcode() == WireProtocol.Opcode.ENROLL
+                    ? HttpRequest.newBuilder(URI.create(baseUrl))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"studentId\":\"" + operation.studentId()
+                            + "\",\"courseCode\":\"" + operation.courseCode() + "\"}"))
+                        .build()
+                    : HttpRequest.newBuilder(URI.create(
+                            baseUrl + "/" + operation.studentId() + "/" + operation.courseCode()))
+                        .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"grade\":\"" + operation.grade().name() + "\"}"))
+                        .build();
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status < 300) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static long runWire(BenchmarkData data, List<WireCommand> operations, int batchSize, int window)
+            throws IOException {
+        WireServer server = new WireServer(0, data.studentService, data.courseService,
+            data.enrollmentService);
+        server.start();
+        try (WireClient client = new WireClient("localhost", server.getPort())) {
+            return client.executePipelined(operations, batchSize, window).stream()
+                .filter(WireResult::isOk)
+                .count();
+        } finally {
+            server.stop();
+        }
+    }
+}
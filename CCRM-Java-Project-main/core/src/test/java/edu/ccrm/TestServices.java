@@ -0,0 +1,95 @@
+package edu.ccrm;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.CourseServiceImpl;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.SnapshotLock;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.service.StudentServiceImpl;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory services wired as the application wires them, with a small
+ * data set and a text form of everything they hold for comparisons
+ */
+public final class TestServices {
+    public final SnapshotLock lock = new SnapshotLock();
+    public final StudentService students = new StudentServiceImpl(lock);
+    public final CourseService courses = new CourseServiceImpl(lock);
+    public final EnrollmentService enrollments = new EnrollmentServiceImpl(lock, courses, 100);
+    public final ImportExportService importExport =
+        new ImportExportService(students, courses, enrollments, lock);
+
+    /**
+     * Adds students, courses across departments and semesters with a
+     * prerequisite chain, and enrollments that are active, graded and
+     * withdrawn
+     */
+    public TestServices seed(int studentCount) throws Exception {
+        String[] departments = {"CS", "MATH", "PHYS"};
+        for (String department : departments) {
+            for (int level = 1; level <= 3; level++) {
+                courses.save(new Course.Builder(department + level + "01")
+                    .title(department + " level " + level)
+                    .credits(level + 1)
+                    .department(department)
+                    .semester(level == 3 ? Semester.SPRING_2026 : Semester.FALL_2025)
+                    .build());
+            }
+            courses.setPrerequisites(department + "301", List.of(department + "201"));
+        }
+        Grade[] grades = Grade.values();
+        for (int i = 0; i < studentCount; i++) {
+            Student student = new Student("S" + i, "Student " + i, "s" + i + "@example.edu", "R" + i);
+            students.save(student);
+            String department = departments[i % departments.length];
+            Course first = courses.findById(department + "101");
+            Course second = courses.findById(department + "201");
+            enrollments.enroll(student, first);
+            enrollments.enroll(student, second);
+            if (i % 3 == 0) {
+                enrollments.assignGrade(student, second, grades[i % grades.length]);
+                enrollments.enroll(student, courses.findById(department + "301"));
+            } else if (i % 3 == 1) {
+                enrollments.withdraw(student, first);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Every student, course and enrollment as sorted lines
+     */
+    public String describe() {
+        String studentLines = students.findAll().stream()
+            .map(s -> String.join("|", s.getId(), s.getRegNo(), s.getFullName(), s.getEmail(),
+                String.valueOf(s.isActive()), String.valueOf(s.getEnrollmentDate())))
+            .sorted()
+            .collect(Collectors.joining("\n"));
+        String courseLines = courses.findAll().stream()
+            .map(c -> String.join("|", c.getCode(), c.getTitle(), String.valueOf(c.getCredits()),
+                c.getDepartment(), c.getSemester().name(), String.valueOf(c.isActive()),
+                String.valueOf(new TreeSet<>(c.getPrerequisites()))))
+            .sorted()
+            .collect(Collectors.joining("\n"));
+        String enrollmentLines = enrollments.findAll().stream()
+            .map(TestServices::describe)
+            .sorted()
+            .collect(Collectors.joining("\n"));
+        return studentLines + "\n--\n" + courseLines + "\n--\n" + enrollmentLines;
+    }
+
+    private static String describe(Enrollment e) {
+        return String.join("|", e.getStudent().getId(), e.getCourse().getCode(),
+            String.valueOf(e.getEnrollmentDate()), e.getStatus().name(), String.valueOf(e.getGrade()));
+    }
+}
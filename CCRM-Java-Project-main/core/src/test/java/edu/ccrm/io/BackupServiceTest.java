@@ -0,0 +1,90 @@
+package edu.ccrm.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ccrm.TestServices;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BackupServiceTest {
+
+    @TempDir
+    Path backupRoot;
+
+    private String restore(Path backup) throws Exception {
+        TestServices restored = new TestServices();
+        new BackupService(backupRoot, restored.importExport).restoreFromBackup(backup);
+        return restored.describe();
+    }
+
+    @Test
+    void incrementalChainRestoresTheLatestState() throws Exception {
+        TestServices primary = new TestServices().seed(60);
+        BackupService backups = new BackupService(backupRoot, primary.importExport);
+
+        Path full = backups.createBackup();
+        String atFull = primary.describe();
+        // Change timestamps have millisecond resolution; keep the changes after the snapshot
+        Thread.sleep(20);
+
+        Student changed = primary.students.findById("S5");
+        changed.setEmail("new.address@example.edu");
+        primary.students.save(changed);
+        primary.students.delete("S7");
+        Course course = primary.courses.findById("MATH101");
+        course.setActive(false);
+        primary.courses.save(course);
+        primary.enrollments.assignGrade(primary.students.findById("S2"),
+            primary.courses.findById("PHYS201"), Grade.B);
+        Path first = backups.createIncrementalBackup();
+        String atFirst = primary.describe();
+        Thread.sleep(20);
+
+        primary.enrollments.withdraw(primary.students.findById("S11"), primary.courses.findById("PHYS101"));
+        primary.students.save(new Student("S100", "New Student", "s100@example.edu", "R100"));
+        Path second = backups.createIncrementalBackup(ExportFormat.GZIP);
+        String atSecond = primary.describe();
+
+        assertEquals(List.of(full, first), backups.resolveChain(first));
+        assertEquals(List.of(full, first, second), backups.resolveChain(second));
+        assertTrue(backups.verifyBackup(second));
+        assertNotEquals(atFull, atSecond);
+
+        assertEquals(atFull, restore(full));
+        assertEquals(atFirst, restore(first));
+        assertEquals(atSecond, restore(second));
+    }
+
+    @Test
+    void incompleteDirectoriesAreNotListed() throws Exception {
+        TestServices primary = new TestServices().seed(10);
+        BackupService backups = new BackupService(backupRoot, primary.importExport);
+        Path full = backups.createBackup();
+
+        // A copy missing a data file, as a backup that failed part way would leave
+        Path partial = Files.createDirectory(backupRoot.resolve("backup_20000101_000000"));
+        try (Stream<Path> files = Files.list(full)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, partial.resolve(file.getFileName()));
+            }
+        }
+        Files.delete(primary.importExport.findDataFile(partial, "enrollments"));
+        backups.getCatalog().rebuild();
+
+        assertEquals(List.of(full), backups.listBackups());
+        assertEquals(full, backups.resolveChain(backups.createIncrementalBackup()).get(0));
+        try (Stream<Path> entries = Files.list(backupRoot)) {
+            assertFalse(entries.anyMatch(path -> path.getFileName().toString().startsWith(".partial_")));
+        }
+    }
+}
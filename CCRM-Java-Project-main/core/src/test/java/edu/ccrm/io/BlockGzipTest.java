@@ -0,0 +1,108 @@
+package edu.ccrm.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BlockGzipTest {
+    private static final int BLOCK_SIZE = 4096;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * CSV-like text, compressible but not trivially so
+     */
+    private static byte[] sample(int size) {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(size + 64);
+        while (text.length() < size) {
+            text.append('S').append(random.nextInt(100_000)).append(",Student ")
+                .append(random.nextInt(1000)).append(",FALL_2025\n");
+        }
+        return text.substring(0, size).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, executor, BLOCK_SIZE, 3)) {
+            // Uneven writes cross block boundaries at every offset
+            for (int offset = 0, step = 1; offset < data.length; offset += step, step = step * 3 % 1001 + 1) {
+                out.write(data, offset, Math.min(step, data.length - offset));
+            }
+        }
+        return compressed.toByteArray();
+    }
+
+    @Test
+    void blockRoundTrip() throws IOException {
+        byte[] data = sample(10_000);
+        byte[] member = BlockGzip.compressBlock(data, data.length);
+
+        assertEquals(member.length, BlockGzip.memberSize(member));
+        assertArrayEquals(data, BlockGzip.decompressBlock(member));
+    }
+
+    @Test
+    void streamRoundTripAcrossManyBlocks() throws IOException {
+        for (int size : new int[] {0, 1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE * 25 + 17}) {
+            byte[] data = sample(size);
+            byte[] compressed = compress(data);
+            try (InputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), executor, 2)) {
+                assertArrayEquals(data, in.readAllBytes(), "size " + size);
+            }
+        }
+    }
+
+    @Test
+    void outputIsPlainGzip() throws IOException {
+        byte[] data = sample(BLOCK_SIZE * 5 + 3);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compress(data)))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void openFallsBackForOrdinaryGzip() throws IOException {
+        byte[] data = sample(20_000);
+        Path file = directory.resolve("plain.csv.gz");
+        try (GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(data);
+        }
+        try (InputStream in = ParallelGzipInputStream.open(file)) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void corruptBlockIsRejected() {
+        byte[] data = sample(10_000);
+        byte[] member = BlockGzip.compressBlock(data, data.length);
+        member[member.length - 8] ^= 1;
+
+        assertThrows(IOException.class, () -> BlockGzip.decompressBlock(member));
+    }
+}
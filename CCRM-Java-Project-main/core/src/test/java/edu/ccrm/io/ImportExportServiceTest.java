@@ -0,0 +1,56 @@
+package edu.ccrm.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ccrm.TestServices;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImportExportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void generatedInstructorsAreAttachedToTheirCourses() throws Exception {
+        SyntheticDataGenerator.Summary summary = new SyntheticDataGenerator.Builder()
+            .students(200)
+            .courses(40)
+            .seed(7)
+            .build()
+            .generate(directory, status -> { });
+        TestServices services = new TestServices();
+        services.importExport.importData(directory);
+
+        assertEquals(summary.courses(), services.courses.count());
+        for (Course course : services.courses.findAll()) {
+            Instructor instructor = course.getInstructor();
+            assertNotNull(instructor, course.getCode());
+            assertTrue(instructor.getAssignedCourses().contains(course), course.getCode());
+        }
+    }
+
+    @Test
+    void exportedInstructorsSurviveAnImport() throws Exception {
+        TestServices source = new TestServices().seed(10);
+        Instructor instructor = new Instructor("I7", "Dr. Ada Byron", "ada@example.edu", "CS", "Professor");
+        source.courses.assignInstructor("CS101", instructor);
+        source.courses.assignInstructor("CS201", instructor);
+        source.importExport.exportData(directory, ExportFormat.GZIP);
+
+        TestServices target = new TestServices();
+        target.importExport.importData(directory);
+
+        Instructor imported = target.courses.findById("CS101").getInstructor();
+        assertEquals("Dr. Ada Byron", imported.getFullName());
+        assertEquals("Professor", imported.getTitle());
+        assertTrue(imported == target.courses.findById("CS201").getInstructor());
+        assertEquals(2, imported.getAssignedCourses().size());
+        assertEquals(source.describe(), target.describe());
+    }
+}
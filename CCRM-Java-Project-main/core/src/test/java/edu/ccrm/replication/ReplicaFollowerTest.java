@@ -0,0 +1,100 @@
+package edu.ccrm.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ccrm.TestServices;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.wire.WireServer;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicaFollowerTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private TestServices primary;
+    private ReplicationLog log;
+    private WireServer server;
+    private TestServices replica;
+    private ReplicaFollower follower;
+
+    @BeforeEach
+    void startPrimary() throws Exception {
+        primary = new TestServices();
+        log = new ReplicationLog(primary.students, primary.courses, primary.enrollments, primary.lock, 10_000);
+        primary.seed(300);
+        server = new WireServer(0, primary.students, primary.courses, primary.enrollments, null, log);
+        server.start();
+        replica = new TestServices();
+    }
+
+    @AfterEach
+    void stopAll() {
+        if (follower != null) {
+            follower.close();
+        }
+        server.stop();
+    }
+
+    private void follow() throws Exception {
+        follower = new ReplicaFollower(new InetSocketAddress("localhost", server.getPort()),
+            replica.students, replica.courses, replica.enrollments, replica.importExport, 1);
+        follower.start();
+    }
+
+    private void awaitCaughtUp() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (follower.getAppliedSequence() < log.getLastSequence()) {
+            assertTrue(System.currentTimeMillis() < deadline, "replica did not catch up");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void checkpointReproducesThePrimary() throws Exception {
+        // Enrollments the checks would now refuse, as a prerequisite was added after
+        // them, and one restored with its own date
+        primary.courses.setPrerequisites("CS201", List.of("CS101"));
+        primary.enrollments.restoreEnrollment(primary.students.findById("S1"), primary.courses.findById("PHYS101"),
+            LocalDateTime.of(2024, 9, 2, 10, 30), Enrollment.EnrollmentStatus.COMPLETED, Grade.A);
+
+        follow();
+
+        assertEquals(primary.describe(), replica.describe());
+        assertEquals(primary.students.findById("S3").getGpa(), replica.students.findById("S3").getGpa());
+    }
+
+    @Test
+    void checkpointLeavesOutOrphanEnrollments() throws Exception {
+        primary.students.delete("S4");
+        primary.courses.delete("PHYS201");
+
+        follow();
+
+        assertEquals(0, replica.enrollments.findAll().stream()
+            .filter(e -> e.getStudent().getId().equals("S4") || e.getCourse().getCode().equals("PHYS201"))
+            .count());
+        assertEquals(primary.students.count(), replica.students.count());
+        assertEquals(primary.courses.count(), replica.courses.count());
+    }
+
+    @Test
+    void logEntriesKeepTheReplicaInStep() throws Exception {
+        follow();
+
+        Student student = primary.students.findById("S2");
+        primary.enrollments.assignGrade(student, primary.courses.findById("PHYS201"), Grade.C);
+        primary.enrollments.withdraw(primary.students.findById("S5"), primary.courses.findById("PHYS101"));
+        primary.students.save(new Student("S900", "Late Student", "s900@example.edu", "R900"));
+        primary.enrollments.enroll(primary.students.findById("S900"), primary.courses.findById("CS101"));
+        awaitCaughtUp();
+
+        assertEquals(primary.describe(), replica.describe());
+    }
+}
@@ -0,0 +1,98 @@
+package edu.ccrm.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GpaRankIndexTest {
+    private static final double DELTA = 1e-9;
+
+    private static Student student(String id, String department, Grade grade) {
+        Student student = new Student(id, "Student " + id, id.toLowerCase() + "@example.edu", "R" + id);
+        Course course = new Course.Builder(department + "-" + id)
+            .title("Course")
+            .credits(3)
+            .department(department)
+            .semester(Semester.FALL_2025)
+            .build();
+        Enrollment enrollment = new Enrollment(student, course);
+        enrollment.setGrade(grade);
+        student.addEnrollment(enrollment);
+        return student;
+    }
+
+    @Test
+    void tiedStudentsShareARank() {
+        GpaRankIndex index = new GpaRankIndex();
+        index.update(student("S1", "CS", Grade.A), true);
+        index.update(student("S2", "CS", Grade.B), true);
+        index.update(student("S3", "MATH", Grade.B), true);
+        index.update(student("S4", "MATH", Grade.C), true);
+
+        assertEquals(4, index.size());
+        assertEquals(1, index.rank("S1"));
+        assertEquals(2, index.rank("S2"));
+        assertEquals(2, index.rank("S3"));
+        assertEquals(4, index.rank("S4"));
+        assertEquals(-1, index.rank("S5"));
+        assertEquals(Grade.B.getPoints(), index.gpaAtRank(3), DELTA);
+    }
+
+    @Test
+    void departmentsRankTheirOwnStudents() {
+        GpaRankIndex index = new GpaRankIndex();
+        index.update(student("S1", "CS", Grade.A), true);
+        index.update(student("S2", "CS", Grade.B), true);
+        index.update(student("S3", "MATH", Grade.C), true);
+
+        assertEquals(Set.of("CS", "MATH"), index.getDepartments());
+        assertEquals(2, index.size("CS"));
+        assertEquals(2, index.rank("S2", "CS"));
+        assertEquals(1, index.rank("S3", "MATH"));
+        assertEquals(-1, index.rank("S3", "CS"));
+    }
+
+    @Test
+    void percentilesUseNearestRank() {
+        GpaRankIndex index = new GpaRankIndex();
+        Grade[] grades = {Grade.A, Grade.B, Grade.C, Grade.D};
+        for (int i = 0; i < grades.length; i++) {
+            index.update(student("S" + i, "CS", grades[i]), true);
+        }
+
+        assertEquals(Grade.D.getPoints(), index.percentile(25), DELTA);
+        assertEquals(Grade.C.getPoints(), index.percentile(50), DELTA);
+        assertEquals(Grade.A.getPoints(), index.percentile(100), DELTA);
+        assertEquals(75.0, index.percentileOf("S0"), DELTA);
+        assertEquals(0.0, index.percentileOf("S3"), DELTA);
+        assertEquals(-1, new GpaRankIndex().percentile(50), DELTA);
+    }
+
+    @Test
+    void updatesMoveAndRemoveStudents() {
+        GpaRankIndex index = new GpaRankIndex();
+        Student first = student("S1", "CS", Grade.C);
+        index.update(first, true);
+        index.update(student("S2", "CS", Grade.B), true);
+        assertEquals(2, index.rank("S1"));
+
+        first.getEnrolledCourses().get(0).setGrade(Grade.A);
+        first.recalculateGpa();
+        index.update(first, true);
+        assertEquals(1, index.rank("S1"));
+        assertEquals(2, index.size());
+
+        index.update(first, false);
+        assertEquals(1, index.size());
+        assertEquals(-1, index.rank("S1"));
+        index.remove("S2");
+        assertEquals(0, index.size());
+        assertEquals(Set.of(), index.getDepartments());
+    }
+}
@@ -0,0 +1,47 @@
+package edu.ccrm.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import edu.ccrm.TestServices;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ReportViewsTest {
+
+    private static ReportViews views(TestServices services) {
+        return new ReportViews(services.students, services.courses, services.enrollments, services.lock);
+    }
+
+    @Test
+    void changesKeepTheViewsCurrent() throws Exception {
+        TestServices services = new TestServices().seed(30);
+        ReportViews views = views(services);
+        views.getReport();
+
+        Student student = services.students.findById("S0");
+        services.enrollments.enroll(student, services.courses.findById("MATH101"));
+        services.enrollments.assignGrade(student, services.courses.findById("MATH101"), Grade.A);
+        services.enrollments.withdraw(services.students.findById("S2"), services.courses.findById("PHYS201"));
+        services.students.delete("S3");
+
+        assertEquals(List.of(), views.verify());
+    }
+
+    @Test
+    void departmentChangeMovesTheCoursesStudents() throws Exception {
+        TestServices services = new TestServices().seed(30);
+        ReportViews views = views(services);
+        assertEquals(-1, views.getRankIndex().rank("S0", "MATH"));
+
+        Course course = services.courses.findById("CS101");
+        course.setDepartment("MATH");
+        services.courses.save(course);
+
+        assertNotEquals(-1, views.getRankIndex().rank("S0", "MATH"));
+        assertEquals(List.of(), views.verify());
+    }
+}
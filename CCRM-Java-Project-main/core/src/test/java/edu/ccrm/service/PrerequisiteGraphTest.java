@@ -0,0 +1,84 @@
+package edu.ccrm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PrerequisiteGraphTest {
+
+    @Test
+    void requirementsIncludeIndirectPrerequisites() {
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        graph.update("CS301", List.of("CS201"));
+        graph.update("CS201", List.of("CS101", "MATH101"));
+
+        assertEquals(3, graph.requirementCount("CS301"));
+        assertEquals(2, graph.requirementCount("CS201"));
+        assertEquals(0, graph.requirementCount("CS101"));
+        assertEquals(List.of("CS201", "CS101", "MATH101"), graph.missing("CS301", new long[0]));
+    }
+
+    @Test
+    void passedSetsAreComparedWithTheClosure() {
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        graph.update("CS301", List.of("CS201"));
+        graph.update("CS201", List.of("CS101"));
+
+        long[] passed = PrerequisiteGraph.with(new long[0], graph.ordinal("CS201"), true);
+        assertFalse(PrerequisiteGraph.containsAll(passed, graph.requirements("CS301")));
+        assertEquals(List.of("CS101"), graph.missing("CS301", passed));
+
+        passed = PrerequisiteGraph.with(passed, graph.ordinal("CS101"), true);
+        assertTrue(PrerequisiteGraph.containsAll(passed, graph.requirements("CS301")));
+        assertEquals(List.of(), graph.missing("CS301", passed));
+    }
+
+    @Test
+    void closuresFollowChanges() {
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        graph.update("CS301", List.of("CS201"));
+        graph.update("CS201", List.of("CS101"));
+        assertEquals(2, graph.requirementCount("CS301"));
+
+        graph.remove("CS201");
+        assertEquals(1, graph.requirementCount("CS301"));
+        graph.update("CS301", List.of());
+        assertEquals(0, graph.requirementCount("CS301"));
+    }
+
+    @Test
+    void edgesClosingACycleAreRejected() {
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        graph.update("CS301", List.of("CS201"));
+        graph.update("CS201", List.of("CS101"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> graph.update("CS101", List.of("CS301")));
+        assertTrue(e.getMessage().contains("CS101"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> graph.update("CS101", List.of("CS101")));
+
+        // The rejected edges leave the graph as it was
+        assertEquals(0, graph.requirementCount("CS101"));
+        assertEquals(2, graph.requirementCount("CS301"));
+    }
+
+    @Test
+    void replaceWithKeepsOrdinals() {
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        graph.update("CS201", List.of("CS101"));
+        int ordinal = graph.ordinal("CS101");
+
+        PrerequisiteGraph loaded = new PrerequisiteGraph();
+        loaded.update("MATH201", List.of("MATH101"));
+        loaded.update("CS201", List.of("MATH101", "CS101"));
+        graph.replaceWith(loaded);
+
+        assertEquals(ordinal, graph.ordinal("CS101"));
+        assertEquals(2, graph.requirementCount("CS201"));
+        assertEquals(1, graph.requirementCount("MATH201"));
+    }
+}
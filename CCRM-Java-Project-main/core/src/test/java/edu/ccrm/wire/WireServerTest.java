@@ -0,0 +1,185 @@
+package edu.ccrm.wire;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ccrm.TestServices;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.wire.WireProtocol.Filter;
+import edu.ccrm.wire.WireProtocol.Opcode;
+import edu.ccrm.wire.WireProtocol.Status;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WireServerTest {
+    private static final int STUDENTS = 2 * WireProtocol.PAGE_ROWS + 10;
+
+    private TestServices services;
+    private WireServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        services = new TestServices().seed(STUDENTS);
+        server = new WireServer(0, services.students, services.courses, services.enrollments);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    private WireClient client() throws IOException {
+        return new WireClient("localhost", server.getPort());
+    }
+
+    private static byte[] pingFrame(int requestId) {
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES * 2 + 1);
+        frame.putInt(Integer.BYTES + 1).putInt(requestId).put(Opcode.PING.getCode());
+        return frame.array();
+    }
+
+    /**
+     * Reads one response frame and returns its request ID after checking
+     * it holds a single OK result
+     */
+    private static int readPingResponse(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        int requestId = in.readInt();
+        assertEquals(1, in.readInt());
+        assertEquals(Status.OK.getCode(), in.readByte());
+        assertEquals(Integer.BYTES * 2 + 1, length);
+        return requestId;
+    }
+
+    @Test
+    void framesSplitOrCoalescedAreAnsweredInOrder() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            // Two frames in one write, then one a byte at a time
+            byte[] first = pingFrame(1);
+            byte[] second = pingFrame(2);
+            byte[] both = new byte[first.length + second.length];
+            System.arraycopy(first, 0, both, 0, first.length);
+            System.arraycopy(second, 0, both, first.length, second.length);
+            out.write(both);
+            out.flush();
+            for (byte b : pingFrame(3)) {
+                out.write(b);
+                out.flush();
+                Thread.sleep(1);
+            }
+
+            assertEquals(1, readPingResponse(in));
+            assertEquals(2, readPingResponse(in));
+            assertEquals(3, readPingResponse(in));
+        }
+    }
+
+    @Test
+    void malformedRequestIsRejectedButTheConnectionSurvives() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES * 2 + 1);
+            frame.putInt(Integer.BYTES + 1).putInt(7).put((byte) 127);
+            out.write(frame.array());
+            out.flush();
+            in.readInt();
+            assertEquals(7, in.readInt());
+            assertEquals(1, in.readInt());
+            assertEquals(Status.BAD_REQUEST.getCode(), in.readByte());
+            in.readNBytes(in.readUnsignedShort());
+
+            out.write(pingFrame(8));
+            out.flush();
+            assertEquals(8, readPingResponse(in));
+        }
+    }
+
+    @Test
+    void oversizedFrameClosesTheConnection() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(ByteBuffer.allocate(Integer.BYTES).putInt(WireProtocol.MAX_FRAME_BYTES + 1).array());
+            out.flush();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertThrows(EOFException.class, in::readInt);
+        }
+    }
+
+    @Test
+    void batchCommandsSucceedOrFailOneByOne() throws Exception {
+        try (WireClient client = client()) {
+            List<WireResult> results = client.executeBatch(List.of(
+                WireCommand.addStudent("N1", "RN1", "New One", "n1@example.edu"),
+                WireCommand.enroll("N1", "CS301"),
+                WireCommand.enroll("N1", "CS101"),
+                WireCommand.enroll("missing", "CS101")));
+
+            assertEquals(Status.OK, results.get(0).status());
+            assertEquals(Status.PREREQUISITE, results.get(1).status());
+            assertEquals(Status.OK, results.get(2).status());
+            assertEquals(Status.NOT_FOUND, results.get(3).status());
+            Student student = services.students.findById("N1");
+            assertEquals(1, services.enrollments.findByStudent(student).size());
+        }
+    }
+
+    @Test
+    void pipelinedResultsMatchTheirCommands() throws Exception {
+        List<WireCommand> commands = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            commands.add(WireCommand.currentCredits("S" + (i % STUDENTS), Semester.FALL_2025));
+        }
+        try (WireClient client = client()) {
+            List<WireResult> results = client.executePipelined(commands, 100, 4);
+            assertEquals(commands.size(), results.size());
+            for (int i = 0; i < commands.size(); i++) {
+                Student student = services.students.findById("S" + (i % STUDENTS));
+                assertEquals(services.enrollments.getCurrentCredits(student, Semester.FALL_2025),
+                    (int) results.get(i).value(), "command " + i);
+            }
+        }
+    }
+
+    @Test
+    void queriesArePagedThroughCursors() throws Exception {
+        try (WireClient client = client()) {
+            WireResult page = client.execute(WireCommand.findStudents(Filter.ALL, ""));
+            Set<String> ids = new HashSet<>();
+            int pages = 0;
+            while (true) {
+                assertTrue(page.isOk(), page.message());
+                assertTrue(page.rows().size() <= WireProtocol.PAGE_ROWS);
+                page.rows().forEach(row -> ids.add(WireRows.split(row)[0]));
+                pages++;
+                if (page.cursor() == 0) {
+                    break;
+                }
+                page = client.execute(WireCommand.fetch(page.cursor()));
+            }
+
+            assertEquals(STUDENTS, ids.size());
+            assertEquals(3, pages);
+            assertEquals(Status.NOT_FOUND, client.execute(WireCommand.fetch(12345)).status());
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package edu.ccrm;
 
+import edu.ccrm.cli.CommandRunner;
 import edu.ccrm.cli.MenuHandler;
 import edu.ccrm.config.AppConfig;
 import edu.ccrm.io.*;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.report.ReportViews;
 import edu.ccrm.service.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * Main application class for the Campus Course & Records Manager (CCRM).
@@ -15,21 +19,45 @@ public class CCRMApp {
         try {
             // Initialize configuration
             AppConfig config = AppConfig.getInstance();
+            MetricsRegistry.getInstance().setEnabled(config.isMetricsEnabled());
+
+            // Run a single command and exit instead of showing the menus
+            if (args.length > 0) {
+                System.exit(new CommandRunner(config, System.out, System.err).run(args));
+            }
             
             // Create data and backup directories if they don't exist
             Files.createDirectories(config.getDataDirectory());
             Files.createDirectories(config.getBackupDirectory());
 
-            // Initialize services
-            StudentService studentService = new StudentServiceImpl();
-            CourseService courseService = new CourseServiceImpl();
-            EnrollmentService enrollmentService = new EnrollmentServiceImpl();
+            // Initialize services sharing one snapshot lock for consistent backups
+            SnapshotLock snapshotLock = new SnapshotLock();
+            StudentService studentService = new StudentServiceImpl(snapshotLock);
+            CourseService courseService = new CourseServiceImpl(snapshotLock);
+            EnrollmentService enrollmentService = new EnrollmentServiceImpl(snapshotLock, courseService,
+                config.getGpaCacheEntries());
             
             ImportExportService importExportService = new ImportExportService(
-                studentService, courseService, enrollmentService);
+                studentService, courseService, enrollmentService, snapshotLock);
+
+            // Report views follow every change so reports never rescan the data
+            ReportViews reportViews = new ReportViews(
+                studentService, courseService, enrollmentService, snapshotLock,
+                config.getReportParallelism());
             
             BackupService backupService = new BackupService(
-                config.getBackupDirectory(), importExportService);
+                config.getBackupDirectory(), importExportService,
+                config.isCompressBackups() ? ExportFormat.GZIP : ExportFormat.CSV,
+                config.isDeduplicateBackups());
+
+            // Start background backups if an interval is configured
+            BackupScheduler backupScheduler = null;
+            if (config.getBackupIntervalMinutes() > 0) {
+                backupScheduler = new BackupScheduler(backupService,
+                    Duration.ofMinutes(config.getBackupIntervalMinutes()),
+                    config.getMaxBackupsToKeep());
+                backupScheduler.start();
+            }
 
             // Initialize and start the menu handler
             MenuHandler menuHandler = new MenuHandler(
@@ -38,6 +66,8 @@ public class CCRMApp {
                 enrollmentService,
                 importExportService,
                 backupService,
+                backupScheduler,
+                reportViews,
                 config
             );
 
@@ -45,6 +75,10 @@ public class CCRMApp {
             System.out.println("Welcome to the Campus Course & Records Manager (CCRM)");
             menuHandler.start();
 
+            if (backupScheduler != null) {
+                backupScheduler.stop();
+            }
+
         } catch (Exception e) {
             System.err.println("Error starting application: " + e.getMessage());
             if (AppConfig.getInstance().isDebugMode()) {
@@ -0,0 +1,25 @@
+package edu.ccrm.api;
+
+/**
+ * Ends a request with the given HTTP status and an error message
+ */
+class ApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    static final int BAD_REQUEST = 400;
+    static final int NOT_FOUND = 404;
+    static final int METHOD_NOT_ALLOWED = 405;
+    static final int CONFLICT = 409;
+    static final int UNPROCESSABLE = 422;
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,172 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import edu.ccrm.exception.ShardUnavailableException;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base for the API's resource handlers. Splits the path below the
+ * resource into segments, turns {@link ApiException}s and unexpected
+ * failures into JSON error responses, and times every request.
+ */
+abstract class ApiHandler implements HttpHandler {
+    static final int OK = 200;
+    static final int CREATED = 201;
+    static final int NO_CONTENT = 204;
+    static final int INTERNAL_ERROR = 500;
+    static final int SERVICE_UNAVAILABLE = 503;
+    static final String JSON_TYPE = "application/json; charset=utf-8";
+    // Request bodies are small objects; anything larger is refused
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final String basePath;
+    private final OperationTimer timer;
+
+    ApiHandler(String basePath) {
+        this.basePath = basePath;
+        this.timer = MetricsRegistry.getInstance().timer(basePath.substring(1).replace('/', '.'));
+    }
+
+    String getBasePath() {
+        return basePath;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        long start = timer.start();
+        try {
+            String path = exchange.getRequestURI().getPath();
+            List<String> segments = path.length() > basePath.length()
+                ? Arrays.asList(path.substring(basePath.length() + 1).split("/")) : List.of();
+            handle(exchange, exchange.getRequestMethod(), segments);
+        } catch (ApiException e) {
+            sendError(exchange, e.getStatus(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, ApiException.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            // The client went away; there is no one to report to
+        } catch (ShardUnavailableException e) {
+            sendError(exchange, SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, INTERNAL_ERROR, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            exchange.close();
+            timer.stop(start);
+        }
+    }
+
+    /**
+     * Handles a request for the resource
+     *
+     * @param segments path segments after the resource's base path, empty for the collection
+     */
+    protected abstract void handle(HttpExchange exchange, String method, List<String> segments)
+            throws IOException;
+
+    static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        drainRequestBody(exchange);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        drainRequestBody(exchange);
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    /**
+     * Reads what is left of the request body. The server closes the
+     * connection instead of keeping it alive if the body is unread when
+     * the response completes, so this must happen before the response.
+     */
+    static void drainRequestBody(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().close();
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            send(exchange, status, Json.error(message));
+        } catch (IOException | IllegalStateException e) {
+            // Headers were already sent or the client went away
+        }
+    }
+
+    /**
+     * Reads the request body as a flat JSON object
+     */
+    static Map<String, String> readObject(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new ApiException(ApiException.BAD_REQUEST, "Request body too large");
+            }
+            return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A required field of a request body
+     */
+    static String field(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            throw new ApiException(ApiException.BAD_REQUEST, "Missing field: " + name);
+        }
+        return value;
+    }
+
+    static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    static int intParameter(Map<String, String> parameters, String name, int defaultValue, int max) {
+        String value = parameters.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new NumberFormatException();
+            }
+            return Math.min(parsed, max);
+        } catch (NumberFormatException e) {
+            throw new ApiException(ApiException.BAD_REQUEST, name + " must be a non-negative integer");
+        }
+    }
+
+    static ApiException methodNotAllowed(String method) {
+        return new ApiException(ApiException.METHOD_NOT_ALLOWED, method + " is not supported here");
+    }
+
+    static ApiException notFound(String what) {
+        return new ApiException(ApiException.NOT_FOUND, what + " not found");
+    }
+}
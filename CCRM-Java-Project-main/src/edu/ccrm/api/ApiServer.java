@@ -0,0 +1,167 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.ccrm.io.BackupService;
+import edu.ccrm.replication.ReplicaFollower;
+import edu.ccrm.report.ReportExporter;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP/JSON server exposing the services to many concurrent
+ * clients, built on the JDK's {@code com.sun.net.httpserver}.
+ *
+ * Requests run on virtual threads when the JVM has them (Java 21 and
+ * later), so a request blocked on a lock or on disk costs no platform
+ * thread. On older JVMs they run on a fixed pool of platform threads with
+ * a short queue; when both are full the accepting thread runs the request
+ * itself, which stops it accepting more until it is done.
+ *
+ * Enrollment checks are atomic per student in the enrollment service, so
+ * concurrent requests see the same rules as the console.
+ *
+ * On a read replica only GET and HEAD requests are served, and the
+ * health check reports how far the replica is behind its primary.
+ */
+public class ApiServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_THREADS = 64;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    /**
+     * Creates a server on the given port; 0 picks a free port
+     *
+     * @param threads platform threads serving requests when virtual threads are not available
+     * @param backupService serves {@code /api/backups}, which is left out when null
+     */
+    public ApiServer(int port, int threads, StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, ReportExporter reportExporter, BackupService backupService)
+            throws IOException {
+        this(port, threads, studentService, courseService, enrollmentService, reportExporter, backupService,
+            null);
+    }
+
+    /**
+     * @param replica follower keeping the services in step with a primary, making the server
+     *                read-only; null for a primary
+     */
+    public ApiServer(int port, int threads, StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, ReportExporter reportExporter, BackupService backupService,
+            ReplicaFollower replica) throws IOException {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadExecutor(Math.max(1, threads));
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        List<ApiHandler> handlers = new ArrayList<>(List.of(
+            new StudentHandler(studentService),
+            new CourseHandler(courseService),
+            new EnrollmentHandler(studentService, courseService, enrollmentService),
+            new ReportHandler(reportExporter),
+            new MetricsHandler()));
+        if (backupService != null) {
+            handlers.add(new BackupHandler(backupService));
+        }
+        for (ApiHandler handler : handlers) {
+            HttpContext context = server.createContext(handler.getBasePath(), handler);
+            if (replica != null) {
+                context.getFilters().add(new ReadOnlyFilter());
+            }
+        }
+        server.createContext("/api/health", exchange -> health(exchange, studentService, courseService,
+            enrollmentService, replica));
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, lets running ones finish briefly, and
+     * shuts the request threads down
+     */
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Port the server listens on, useful when it was created with port 0
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    private static void health(HttpExchange exchange, StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService, ReplicaFollower replica)
+            throws IOException {
+        try (exchange) {
+            Json.ObjectBuilder health = Json.object()
+                .put("status", "UP")
+                .put("students", studentService.count())
+                .put("courses", courseService.count())
+                .put("enrollments", enrollmentService.count());
+            if (replica != null) {
+                InetSocketAddress primary = replica.getPrimary();
+                health.putRaw("replica", Json.object()
+                    .put("primary", primary.getHostString() + ":" + primary.getPort())
+                    .put("connected", replica.isConnected())
+                    .put("appliedSequence", replica.getAppliedSequence())
+                    .put("primarySequence", replica.getPrimarySequence())
+                    .put("lagMillis", replica.getLagMillis())
+                    .toString());
+            }
+            ApiHandler.send(exchange, ApiHandler.OK, health.toString());
+        }
+    }
+
+    /**
+     * Looked up reflectively so the code still builds and runs on Java 17
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 4), runnable -> {
+                Thread thread = new Thread(runnable, "ccrm-api-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,58 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ccrm.io.BackupCatalog;
+import edu.ccrm.io.BackupService;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /api/backups}:
+ * <pre>
+ * GET  /api/backups    lists backups, oldest first
+ * POST /api/backups    creates a backup with the configured settings
+ * </pre>
+ * Only one backup is created at a time; a request while one is running
+ * is answered with 409.
+ */
+class BackupHandler extends ApiHandler {
+    private final BackupService backupService;
+    private final ReentrantLock creating = new ReentrantLock();
+
+    BackupHandler(BackupService backupService) {
+        super("/api/backups");
+        this.backupService = backupService;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, List<String> segments) throws IOException {
+        if (!segments.isEmpty()) {
+            throw notFound("Resource");
+        }
+        switch (method) {
+            case "GET" -> send(exchange, OK, Json.array(backupService.listBackupDetails().stream()
+                .map(JsonViews::backup)
+                .collect(Collectors.toList())));
+            case "POST" -> create(exchange);
+            default -> throw methodNotAllowed(method);
+        }
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        if (!creating.tryLock()) {
+            throw new ApiException(ApiException.CONFLICT, "A backup is already being created");
+        }
+        Path backup;
+        try {
+            backup = backupService.createBackup();
+        } finally {
+            creating.unlock();
+        }
+        BackupCatalog.Entry entry = backupService.getCatalog().getEntry(backup);
+        send(exchange, CREATED, entry != null ? JsonViews.backup(entry)
+            : Json.object().put("name", backup.getFileName().toString()).toString());
+    }
+}
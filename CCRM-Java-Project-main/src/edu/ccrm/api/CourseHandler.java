@@ -0,0 +1,67 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.service.CourseService;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /api/courses}, read only:
+ * <pre>
+ * GET /api/courses[?department=D][&amp;semester=S][&amp;offset=N][&amp;limit=N]
+ * GET /api/courses/{code}
+ * </pre>
+ * Listing with a filter returns active courses only, like the Course menu.
+ */
+class CourseHandler extends ApiHandler {
+    private final CourseService courseService;
+
+    CourseHandler(CourseService courseService) {
+        super("/api/courses");
+        this.courseService = courseService;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, List<String> segments) throws IOException {
+        if (!method.equals("GET")) {
+            throw methodNotAllowed(method);
+        }
+        if (segments.isEmpty()) {
+            list(exchange);
+        } else if (segments.size() == 1) {
+            Course course = courseService.findById(segments.get(0));
+            if (course == null) {
+                throw notFound("Course " + segments.get(0));
+            }
+            send(exchange, OK, JsonViews.course(course));
+        } else {
+            throw notFound("Resource");
+        }
+    }
+
+    private void list(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = queryParameters(exchange);
+        int offset = intParameter(parameters, "offset", 0, Integer.MAX_VALUE);
+        int limit = intParameter(parameters, "limit", StudentHandler.DEFAULT_LIMIT, StudentHandler.MAX_LIMIT);
+        String department = parameters.get("department");
+        Semester semester = parameters.containsKey("semester")
+            ? Semester.valueOf(parameters.get("semester").toUpperCase()) : null;
+        List<Course> courses;
+        if (department != null || semester != null) {
+            courses = courseService.findByPredicate(course -> course.isActive()
+                && (department == null || course.getDepartment().equals(department))
+                && (semester == null || course.getSemester() == semester));
+        } else {
+            courses = courseService.findAll();
+        }
+        send(exchange, OK, Json.array(courses.stream()
+            .skip(offset)
+            .limit(limit)
+            .map(JsonViews::course)
+            .collect(Collectors.toList())));
+    }
+}
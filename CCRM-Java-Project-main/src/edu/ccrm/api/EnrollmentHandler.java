@@ -0,0 +1,133 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /api/enrollments}:
+ * <pre>
+ * POST   /api/enrollments                          {"studentId", "courseCode"}
+ * GET    /api/enrollments/{studentId}
+ * GET    /api/enrollments/{studentId}/{courseCode}
+ * PUT    /api/enrollments/{studentId}/{courseCode}  {"grade"}
+ * DELETE /api/enrollments/{studentId}/{courseCode}  withdraws
+ * </pre>
+ * A duplicate enrollment is answered with 409 and one over the credit
+ * limit with 422, so clients can tell business rejections from errors.
+ */
+class EnrollmentHandler extends ApiHandler {
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+
+    EnrollmentHandler(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) {
+        super("/api/enrollments");
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, List<String> segments) throws IOException {
+        switch (segments.size()) {
+            case 0 -> {
+                if (!method.equals("POST")) {
+                    throw methodNotAllowed(method);
+                }
+                enroll(exchange);
+            }
+            case 1 -> {
+                if (!method.equals("GET")) {
+                    throw methodNotAllowed(method);
+                }
+                send(exchange, OK, Json.array(enrollmentService.findByStudent(student(segments.get(0)))
+                    .stream()
+                    .map(JsonViews::enrollment)
+                    .collect(Collectors.toList())));
+            }
+            case 2 -> {
+                Student student = student(segments.get(0));
+                Course course = course(segments.get(1));
+                switch (method) {
+                    case "GET" -> send(exchange, OK, JsonViews.enrollment(find(student, course)));
+                    case "PUT" -> assignGrade(exchange, student, course);
+                    case "DELETE" -> {
+                        find(student, course);
+                        enrollmentService.withdraw(student, course);
+                        sendEmpty(exchange, NO_CONTENT);
+                    }
+                    default -> throw methodNotAllowed(method);
+                }
+            }
+            default -> throw notFound("Resource");
+        }
+    }
+
+    private void enroll(HttpExchange exchange) throws IOException {
+        Map<String, String> fields = readObject(exchange);
+        Student student = student(field(fields, "studentId"));
+        Course course = course(field(fields, "courseCode"));
+        Enrollment enrollment;
+        try {
+            enrollment = enrollmentService.enroll(student, course);
+        } catch (DuplicateEnrollmentException e) {
+            throw new ApiException(ApiException.CONFLICT, e.getMessage());
+        } catch (MaxCreditLimitExceededException | PrerequisiteNotMetException e) {
+            throw new ApiException(ApiException.UNPROCESSABLE, e.getMessage());
+        }
+        exchange.getResponseHeaders().set("Location",
+            getBasePath() + "/" + student.getId() + "/" + course.getCode());
+        send(exchange, CREATED, JsonViews.enrollment(enrollment));
+    }
+
+    private void assignGrade(HttpExchange exchange, Student student, Course course) throws IOException {
+        String gradeName = field(readObject(exchange), "grade");
+        Grade grade;
+        try {
+            grade = Grade.valueOf(gradeName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(ApiException.BAD_REQUEST, "Unknown grade " + gradeName);
+        }
+        find(student, course);
+        enrollmentService.assignGrade(student, course, grade);
+        send(exchange, OK, JsonViews.enrollment(find(student, course)));
+    }
+
+    private Enrollment find(Student student, Course course) {
+        Enrollment enrollment = enrollmentService.findEnrollment(student, course);
+        if (enrollment == null) {
+            throw notFound("Enrollment of " + student.getId() + " in " + course.getCode());
+        }
+        return enrollment;
+    }
+
+    private Student student(String id) {
+        Student student = studentService.findById(id);
+        if (student == null) {
+            throw notFound("Student " + id);
+        }
+        return student;
+    }
+
+    private Course course(String code) {
+        Course course = courseService.findById(code);
+        if (course == null) {
+            throw notFound("Course " + code);
+        }
+        return course;
+    }
+}
@@ -0,0 +1,226 @@
+package edu.ccrm.api;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the API: building objects and arrays, and reading
+ * request bodies that are flat objects of strings, numbers and booleans.
+ */
+final class Json {
+    private Json() {
+    }
+
+    /**
+     * Builder for one JSON object, written as fields are added
+     */
+    static final class ObjectBuilder {
+        private final StringBuilder json = new StringBuilder("{");
+
+        ObjectBuilder put(String name, Object value) {
+            if (json.length() > 1) {
+                json.append(", ");
+            }
+            appendString(json, name);
+            json.append(": ");
+            appendValue(json, value);
+            return this;
+        }
+
+        /**
+         * Adds a field whose value is already JSON, such as a nested object
+         */
+        ObjectBuilder putRaw(String name, String json) {
+            if (this.json.length() > 1) {
+                this.json.append(", ");
+            }
+            appendString(this.json, name);
+            this.json.append(": ").append(json);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return json + "}";
+        }
+    }
+
+    static ObjectBuilder object() {
+        return new ObjectBuilder();
+    }
+
+    /**
+     * JSON array of values that are already JSON
+     */
+    static String array(Collection<String> elements) {
+        return "[" + String.join(", ", elements) + "]";
+    }
+
+    /**
+     * A string as a JSON value, quoted and escaped
+     */
+    static String string(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2);
+        appendString(json, value);
+        return json.toString();
+    }
+
+    static String error(String message) {
+        return object().put("error", message).toString();
+    }
+
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Parses a flat JSON object into field values as text. Numbers and
+     * booleans keep their literal text and null becomes a null value.
+     *
+     * @throws IllegalArgumentException if the body is not a flat JSON object
+     */
+    static Map<String, String> parseObject(String body) {
+        Parser parser = new Parser(body);
+        Map<String, String> fields = new LinkedHashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String name = parser.string();
+                parser.expect(':');
+                fields.put(name, parser.value());
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.end();
+        return fields;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        boolean consume(char c) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void end() {
+            skipWhitespace();
+            if (position != text.length()) {
+                throw error("Unexpected content");
+            }
+        }
+
+        String value() {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == '"') {
+                return string();
+            }
+            int start = position;
+            while (position < text.length() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false")
+                    || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                return literal;
+            }
+            throw error("Expected a string, number, boolean or null");
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (position + 4 > text.length()) {
+                            throw error("Truncated escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid escape");
+                        }
+                        position += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at position " + position + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package edu.ccrm.api;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.BackupCatalog;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * JSON representations of the domain objects returned by the API
+ */
+final class JsonViews {
+    private JsonViews() {
+    }
+
+    static String student(Student student) {
+        return studentFields(student).toString();
+    }
+
+    /**
+     * A student together with its current enrollments
+     */
+    static String studentDetail(Student student) {
+        List<String> enrollments = new ArrayList<>();
+        for (Enrollment enrollment : student.getEnrolledCourses()) {
+            enrollments.add(enrollment(enrollment));
+        }
+        return studentFields(student).putRaw("enrollments", Json.array(enrollments)).toString();
+    }
+
+    private static Json.ObjectBuilder studentFields(Student student) {
+        return Json.object()
+            .put("id", student.getId())
+            .put("regNo", student.getRegNo())
+            .put("fullName", student.getFullName())
+            .put("email", student.getEmail())
+            .put("active", student.isActive())
+            .put("gpa", Math.round(student.getGpa() * 100) / 100.0);
+    }
+
+    static String course(Course course) {
+        return Json.object()
+            .put("code", course.getCode())
+            .put("title", course.getTitle())
+            .put("credits", course.getCredits())
+            .put("department", course.getDepartment())
+            .put("semester", course.getSemester().name())
+            .put("instructorId", course.getInstructor() != null ? course.getInstructor().getId() : null)
+            .put("active", course.isActive())
+            .putRaw("prerequisites", Json.array(course.getPrerequisites().stream()
+                .map(Json::string)
+                .collect(Collectors.toList())))
+            .toString();
+    }
+
+    static String enrollment(Enrollment enrollment) {
+        return Json.object()
+            .put("studentId", enrollment.getStudent().getId())
+            .put("courseCode", enrollment.getCourse().getCode())
+            .put("semester", enrollment.getCourse().getSemester().name())
+            .put("credits", enrollment.getCourse().getCredits())
+            .put("status", enrollment.getStatus().name())
+            .put("grade", enrollment.getGrade() != null ? enrollment.getGrade().name() : null)
+            .put("enrolledAt", enrollment.getEnrollmentDate().toString())
+            .toString();
+    }
+
+    static String backup(BackupCatalog.Entry entry) {
+        return Json.object()
+            .put("name", entry.name())
+            .put("type", entry.type().name())
+            .put("snapshotTime", entry.snapshotTime().toString())
+            .put("baseBackup", entry.baseBackup())
+            .put("size", entry.size())
+            .put("records", entry.records())
+            .put("compressed", entry.compressed())
+            .put("deduplicated", entry.deduplicated())
+            .put("verification", entry.status().name())
+            .toString();
+    }
+}
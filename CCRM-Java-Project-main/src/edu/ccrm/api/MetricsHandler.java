@@ -0,0 +1,54 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ccrm.metrics.MetricsRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /api/metrics}, the figures shown under Diagnostics, with times
+ * in microseconds:
+ * <pre>
+ * GET /api/metrics
+ * </pre>
+ */
+class MetricsHandler extends ApiHandler {
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    MetricsHandler() {
+        super("/api/metrics");
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, List<String> segments) throws IOException {
+        if (!method.equals("GET")) {
+            throw methodNotAllowed(method);
+        }
+        if (!segments.isEmpty()) {
+            throw notFound("Metric");
+        }
+        List<String> timers = new ArrayList<>();
+        for (MetricsRegistry.OperationStats stats : metrics.getOperationStats()) {
+            timers.add(Json.object()
+                .put("name", stats.name())
+                .put("count", stats.count())
+                .put("perSecond", Math.round(stats.perSecond()))
+                .put("p50Micros", stats.p50Nanos() / 1000)
+                .put("p90Micros", stats.p90Nanos() / 1000)
+                .put("p99Micros", stats.p99Nanos() / 1000)
+                .put("maxMicros", stats.maxNanos() / 1000)
+                .toString());
+        }
+        Json.ObjectBuilder counters = Json.object();
+        for (Map.Entry<String, Long> counter : metrics.getCounters().entrySet()) {
+            counters.put(counter.getKey(), counter.getValue());
+        }
+        send(exchange, OK, Json.object()
+            .put("seconds", Math.round(metrics.getElapsedSeconds()))
+            .putRaw("timers", Json.array(timers))
+            .putRaw("counters", counters.toString())
+            .toString());
+    }
+}
@@ -0,0 +1,30 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+
+/**
+ * Turns away requests that would change data on a read replica, whose
+ * data follows its primary; changes must be sent to the primary
+ */
+class ReadOnlyFilter extends Filter {
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (method.equals("GET") || method.equals("HEAD")) {
+            chain.doFilter(exchange);
+            return;
+        }
+        try (exchange) {
+            exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+            ApiHandler.send(exchange, ApiException.METHOD_NOT_ALLOWED, Json.error(
+                "This server is a read-only replica; send " + method + " requests to the primary"));
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Rejects changes on a read replica";
+    }
+}
@@ -0,0 +1,51 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ccrm.report.ReportExporter;
+import edu.ccrm.report.ReportFormat;
+import edu.ccrm.report.ReportType;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /api/reports}, streamed as the rows are produced:
+ * <pre>
+ * GET /api/reports/{gpa|courses|departments|students}[?format=json|csv]
+ * </pre>
+ */
+class ReportHandler extends ApiHandler {
+    private final ReportExporter reportExporter;
+
+    ReportHandler(ReportExporter reportExporter) {
+        super("/api/reports");
+        this.reportExporter = reportExporter;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, List<String> segments) throws IOException {
+        if (!method.equals("GET")) {
+            throw methodNotAllowed(method);
+        }
+        if (segments.size() != 1) {
+            throw notFound("Report");
+        }
+        ReportType type = ReportType.fromName(segments.get(0));
+        Map<String, String> parameters = queryParameters(exchange);
+        ReportFormat format = ReportFormat.fromName(parameters.getOrDefault("format", "json"));
+
+        exchange.getResponseHeaders().set("Content-Type",
+            format == ReportFormat.JSON ? JSON_TYPE : "text/csv; charset=utf-8");
+        drainRequestBody(exchange);
+        // Length 0 sends the body chunked, so the report is never held in memory
+        exchange.sendResponseHeaders(OK, 0);
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            reportExporter.export(type, out, format);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package edu.ccrm.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.StudentService;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@code /api/students}:
+ * <pre>
+ * GET    /api/students[?department=D][&amp;offset=N][&amp;limit=N]
+ * GET    /api/students/{id}
+ * POST   /api/students          {"id", "regNo", "fullName", "email"}
+ * DELETE /api/students/{id}
+ * </pre>
+ */
+class StudentHandler extends ApiHandler {
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private final StudentService studentService;
+
+    StudentHandler(StudentService studentService) {
+        super("/api/students");
+        this.studentService = studentService;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange, String method, List<String> segments) throws IOException {
+        if (segments.isEmpty()) {
+            switch (method) {
+                case "GET" -> list(exchange);
+                case "POST" -> create(exchange);
+                default -> throw methodNotAllowed(method);
+            }
+            return;
+        }
+        if (segments.size() != 1) {
+            throw notFound("Resource");
+        }
+        switch (method) {
+            case "GET" -> send(exchange, OK, JsonViews.studentDetail(find(segments.get(0))));
+            case "DELETE" -> {
+                studentService.delete(find(segments.get(0)).getId());
+                sendEmpty(exchange, NO_CONTENT);
+            }
+            default -> throw methodNotAllowed(method);
+        }
+    }
+
+    private void list(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = queryParameters(exchange);
+        int offset = intParameter(parameters, "offset", 0, Integer.MAX_VALUE);
+        int limit = intParameter(parameters, "limit", DEFAULT_LIMIT, MAX_LIMIT);
+        String department = parameters.get("department");
+        Stream<Student> students = department != null
+            ? studentService.findByDepartment(department).stream()
+            : studentService.findAll().stream();
+        send(exchange, OK, Json.array(students
+            .skip(offset)
+            .limit(limit)
+            .map(JsonViews::student)
+            .collect(Collectors.toList())));
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        Map<String, String> fields = readObject(exchange);
+        String id = field(fields, "id");
+        if (studentService.exists(id)) {
+            throw new ApiException(ApiException.CONFLICT, "Student " + id + " already exists");
+        }
+        Student student = new Student(id, field(fields, "fullName"), field(fields, "email"),
+            field(fields, "regNo"));
+        studentService.save(student);
+        exchange.getResponseHeaders().set("Location", getBasePath() + "/" + id);
+        send(exchange, CREATED, JsonViews.student(student));
+    }
+
+    private Student find(String id) {
+        Student student = studentService.findById(id);
+        if (student == null) {
+            throw notFound("Student " + id);
+        }
+        return student;
+    }
+}
@@ -0,0 +1,102 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.io.BackupService;
+import edu.ccrm.io.BackupVerificationReport;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportProgress;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+/**
+ * Backs up the data directory, as the scheduled backup would:
+ * <pre>
+ * backup [--verify] [--keep N] [--data dir]
+ * </pre>
+ * The backup goes to the configured backup directory in the configured
+ * format. Afterwards old backups are pruned to {@code --keep}, by default
+ * {@code max.backups.to.keep}, and with {@code --verify} the new backup
+ * is read back and checked.
+ */
+public class BackupCommand implements Command {
+    public static final String NAME = "backup";
+
+    public static final String USAGE = "backup [--verify] [--keep N] [--data dir]";
+
+    private final ImportExportService importExportService;
+    private final BackupService backupService;
+    private final Path defaultDataDirectory;
+    private final int defaultKeep;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public BackupCommand(ImportExportService importExportService, BackupService backupService,
+            Path defaultDataDirectory, int defaultKeep, PrintStream out, PrintStream err) {
+        this.importExportService = importExportService;
+        this.backupService = backupService;
+        this.defaultDataDirectory = defaultDataDirectory;
+        this.defaultKeep = defaultKeep;
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return USAGE;
+    }
+
+    @Override
+    public int run(String[] args) {
+        boolean verify = false;
+        int keep = defaultKeep;
+        Path dataDirectory = defaultDataDirectory;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--verify" -> verify = true;
+                    case "--keep" -> keep = Integer.parseInt(Command.value(args, ++i));
+                    case "--data" -> dataDirectory = Path.of(Command.value(args, ++i));
+                    default -> throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+            if (keep < 1) {
+                throw new IllegalArgumentException("--keep must be at least 1");
+            }
+        } catch (IllegalArgumentException e) {
+            // Also covers a malformed --keep
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            ImportProgress loaded = DataDirectory.load(importExportService, dataDirectory, out);
+            if (!DataDirectory.checkLoaded(loaded, dataDirectory, err)) {
+                return EXIT_FAILED;
+            }
+            Path backup = backupService.createBackup();
+            out.printf("Backed up %d row(s) to %s%n", loaded.getRows(), backup);
+            backupService.cleanupOldBackups(keep);
+
+            if (verify) {
+                BackupVerificationReport report = backupService.verifyBackupDetailed(backup);
+                if (!report.isValid()) {
+                    report.getProblems().forEach(problem -> err.println("  " + problem));
+                    err.println("Backup failed verification: " + backup);
+                    return EXIT_FAILED;
+                }
+                out.printf("Verified %d file(s), %d bytes%n",
+                    report.getFilesChecked(), report.getBytesChecked());
+            }
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("Error creating backup: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+}
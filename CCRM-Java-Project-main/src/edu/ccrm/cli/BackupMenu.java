@@ -1,6 +1,12 @@
 package edu.ccrm.cli;
 
+import edu.ccrm.io.BackupCatalog;
+import edu.ccrm.io.BackupMetadata;
+import edu.ccrm.io.BackupScheduler;
 import edu.ccrm.io.BackupService;
+import edu.ccrm.io.BackupVerificationReport;
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.util.DateTimeUtil;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
@@ -28,11 +34,16 @@ public class BackupMenu implements Menu {
     @Override
     public void display() {
         System.out.println("1. Create New Backup");
-        System.out.println("2. List Backups");
-        System.out.println("3. Restore from Backup");
-        System.out.println("4. Calculate Backup Size");
-        System.out.println("5. Clean Old Backups");
-        System.out.println("6. Back to Main Menu");
+        System.out.println("2. Create Compressed Backup");
+        System.out.println("3. Create Incremental Backup");
+        System.out.println("4. Create Deduplicated Backup");
+        System.out.println("5. List Backups");
+        System.out.println("6. Restore from Backup");
+        System.out.println("7. Calculate Backup Size");
+        System.out.println("8. Clean Old Backups");
+        System.out.println("9. Verify Backups");
+        System.out.println("10. Scheduled Backup Status");
+        System.out.println("11. Back to Main Menu");
         System.out.print("\nEnter your choice: ");
     }
 
@@ -42,11 +53,16 @@ public class BackupMenu implements Menu {
 
         switch (choice) {
             case "1" -> createBackup();
-            case "2" -> listBackups();
-            case "3" -> restoreBackup();
-            case "4" -> calculateBackupSize();
-            case "5" -> cleanOldBackups();
-            case "6" -> handler.goBack();
+            case "2" -> createCompressedBackup();
+            case "3" -> createIncrementalBackup();
+            case "4" -> createDeduplicatedBackup();
+            case "5" -> listBackups();
+            case "6" -> restoreBackup();
+            case "7" -> calculateBackupSize();
+            case "8" -> cleanOldBackups();
+            case "9" -> verifyBackups();
+            case "10" -> showScheduleStatus();
+            case "11" -> handler.goBack();
             default -> System.out.println("Invalid choice. Please try again.");
         }
     }
@@ -61,20 +77,82 @@ public class BackupMenu implements Menu {
         }
     }
 
+    private void createCompressedBackup() {
+        System.out.println("\n=== Create Compressed Backup ===");
+        try {
+            Path backupPath = backupService.createBackup(ExportFormat.GZIP);
+            System.out.println("Compressed backup created successfully at: " + backupPath);
+        } catch (IOException e) {
+            System.out.println("Error creating backup: " + e.getMessage());
+        }
+    }
+
+    private void createIncrementalBackup() {
+        System.out.println("\n=== Create Incremental Backup ===");
+        try {
+            Path backupPath = backupService.createIncrementalBackup();
+            BackupMetadata metadata = backupService.getMetadata(backupPath);
+            if (metadata.isIncremental()) {
+                System.out.println("Incremental backup created successfully at: " + backupPath);
+                System.out.println("Based on: " + metadata.getBaseBackup());
+            } else {
+                System.out.println("No earlier backup found, created full backup at: " + backupPath);
+            }
+        } catch (IOException e) {
+            System.out.println("Error creating backup: " + e.getMessage());
+        }
+    }
+
+    private void createDeduplicatedBackup() {
+        System.out.println("\n=== Create Deduplicated Backup ===");
+        try {
+            long before = backupService.getRepository().getStoredSize();
+            Path manifest = backupService.createDeduplicatedBackup();
+            long added = backupService.getRepository().getStoredSize() - before;
+            System.out.println("Deduplicated backup created successfully: " + manifest.getFileName());
+            System.out.printf("Logical size: %d bytes, new data stored: %d bytes%n",
+                backupService.calculateBackupSize(manifest), added);
+        } catch (IOException e) {
+            System.out.println("Error creating backup: " + e.getMessage());
+        }
+    }
+
     private void listBackups() {
         System.out.println("\n=== Available Backups ===");
         try {
-            List<Path> backups = backupService.listBackups();
+            List<BackupCatalog.Entry> backups = backupService.listBackupDetails();
             if (backups.isEmpty()) {
                 System.out.println("No backups found.");
             } else {
-                backups.forEach(System.out::println);
+                for (BackupCatalog.Entry backup : backups) {
+                    String kind;
+                    if (backup.deduplicated()) {
+                        kind = "DEDUPLICATED";
+                    } else if (backup.isIncremental()) {
+                        kind = "INCREMENTAL, base: " + backup.baseBackup();
+                    } else {
+                        kind = "FULL";
+                    }
+                    System.out.printf("%s [%s]%n", backup.path(), kind);
+                    System.out.printf("    taken %s, %d bytes, %s records, %s%n",
+                        DateTimeUtil.formatDateTime(backup.snapshotTime()), backup.size(),
+                        backup.records() < 0 ? "unknown" : String.valueOf(backup.records()),
+                        describeVerification(backup));
+                }
             }
         } catch (IOException e) {
             System.out.println("Error listing backups: " + e.getMessage());
         }
     }
 
+    private String describeVerification(BackupCatalog.Entry backup) {
+        return switch (backup.status()) {
+            case UNVERIFIED -> "not verified";
+            case VALID -> "verified OK on " + DateTimeUtil.formatDateTime(backup.verifiedAt());
+            case DAMAGED -> "DAMAGED as of " + DateTimeUtil.formatDateTime(backup.verifiedAt());
+        };
+    }
+
     private void restoreBackup() {
         System.out.println("\n=== Restore from Backup ===");
         try {
@@ -93,7 +171,9 @@ public class BackupMenu implements Menu {
             try {
                 int choice = Integer.parseInt(scanner.nextLine()) - 1;
                 if (choice >= 0 && choice < backups.size()) {
-                    backupService.restoreFromBackup(backups.get(choice));
+                    backupService.restoreFromBackup(backups.get(choice), 
+                        status -> System.out.print("\rRestoring: " + status + "    "));
+                    System.out.println();
                     System.out.println("Backup restored successfully!");
                 } else {
                     System.out.println("Invalid backup number.");
@@ -102,6 +182,7 @@ public class BackupMenu implements Menu {
                 System.out.println("Please enter a valid number.");
             }
         } catch (IOException e) {
+            System.out.println();
             System.out.println("Error restoring backup: " + e.getMessage());
         }
     }
@@ -109,21 +190,77 @@ public class BackupMenu implements Menu {
     private void calculateBackupSize() {
         System.out.println("\n=== Calculate Backup Size ===");
         try {
-            List<Path> backups = backupService.listBackups();
+            List<BackupCatalog.Entry> backups = backupService.listBackupDetails();
             if (backups.isEmpty()) {
                 System.out.println("No backups found.");
                 return;
             }
 
-            for (Path backup : backups) {
-                long size = backupService.calculateBackupSize(backup);
-                System.out.printf("%s: %d bytes%n", backup.getFileName(), size);
+            for (BackupCatalog.Entry backup : backups) {
+                if (backup.compressed()) {
+                    System.out.printf("%s: %d bytes (%d bytes uncompressed)%n", 
+                        backup.name(), backup.size(), backup.uncompressedSize());
+                } else {
+                    System.out.printf("%s: %d bytes%n", backup.name(), backup.size());
+                }
+            }
+            long stored = backupService.getRepository().getStoredSize();
+            if (stored > 0) {
+                System.out.printf("Deduplicated repository (shared by all manifests): %d bytes%n", stored);
             }
         } catch (IOException e) {
             System.out.println("Error calculating backup size: " + e.getMessage());
         }
     }
 
+    private void verifyBackups() {
+        System.out.println("\n=== Verify Backups ===");
+        try {
+            List<BackupVerificationReport> reports = backupService.verifyAllBackups();
+            if (reports.isEmpty()) {
+                System.out.println("No backups found.");
+                return;
+            }
+            int damaged = 0;
+            for (BackupVerificationReport report : reports) {
+                System.out.println(report);
+                for (String problem : report.getProblems()) {
+                    System.out.println("  - " + problem);
+                }
+                if (!report.isValid()) {
+                    damaged++;
+                }
+            }
+            System.out.printf("%d of %d backups verified successfully%n", 
+                reports.size() - damaged, reports.size());
+        } catch (IOException e) {
+            System.out.println("Error verifying backups: " + e.getMessage());
+        }
+    }
+
+    private void showScheduleStatus() {
+        System.out.println("\n=== Scheduled Backup Status ===");
+        BackupScheduler scheduler = handler.getBackupScheduler();
+        if (scheduler == null || !scheduler.isRunning()) {
+            System.out.println("Scheduled backups are disabled (set backup.interval.minutes to enable).");
+            return;
+        }
+        System.out.printf("Interval: every %d minutes%n", scheduler.getInterval().toMinutes());
+        System.out.printf("Completed runs: %d, failed runs: %d%n", 
+            scheduler.getCompletedRuns(), scheduler.getFailedRuns());
+        if (scheduler.getLastRunAt() != null) {
+            System.out.printf("Last run: %s (took %d ms)%n", 
+                DateTimeUtil.formatDateTime(scheduler.getLastRunAt()),
+                scheduler.getLastRunDuration() != null ? scheduler.getLastRunDuration().toMillis() : 0);
+        }
+        if (scheduler.getLastBackup() != null) {
+            System.out.println("Last backup: " + scheduler.getLastBackup());
+        }
+        if (scheduler.getLastError() != null) {
+            System.out.println("Last error: " + scheduler.getLastError().getMessage());
+        }
+    }
+
     private void cleanOldBackups() {
         System.out.println("\n=== Clean Old Backups ===");
         System.out.print("Enter number of recent backups to keep: ");
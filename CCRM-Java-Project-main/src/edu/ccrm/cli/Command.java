@@ -0,0 +1,42 @@
+package edu.ccrm.cli;
+
+/**
+ * A task run from the command line instead of the interactive menus,
+ * for scripts and scheduled jobs. Commands write progress and results
+ * to standard output, errors to standard error, and report the outcome
+ * through the process exit code.
+ */
+public interface Command {
+    int EXIT_OK = 0;
+    int EXIT_FAILED = 1;
+    int EXIT_USAGE = 2;
+
+    /**
+     * Name the command is invoked by
+     */
+    String getName();
+
+    /**
+     * One-line synopsis of the command's arguments
+     */
+    String getUsage();
+
+    /**
+     * Runs the command with the arguments following its name
+     *
+     * @return process exit code
+     */
+    int run(String[] args);
+
+    /**
+     * Value of the option at {@code index - 1}
+     *
+     * @throws IllegalArgumentException if the option is the last argument
+     */
+    static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(args[index - 1] + " needs a value");
+        }
+        return args[index];
+    }
+}
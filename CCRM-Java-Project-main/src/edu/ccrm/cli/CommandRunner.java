@@ -0,0 +1,122 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.io.BackupService;
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.report.ReportExporter;
+import edu.ccrm.report.ReportViews;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.CourseServiceImpl;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.SnapshotLock;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.service.StudentServiceImpl;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs one command named by the first argument instead of the menus:
+ * <pre>
+ * java edu.ccrm.CCRMApp &lt;command&gt; [arguments]
+ * </pre>
+ * Each command gets fresh services, loads what it needs from the data
+ * directory and exits, so nothing is rendered and nothing waits on input.
+ */
+public class CommandRunner {
+    public static final String HELP = "help";
+    private static final List<String> NAMES = List.of(ImportCommand.NAME, ExportCommand.NAME,
+        BackupCommand.NAME, ReportCommand.NAME, EnrollBatchCommand.NAME, GenerateCommand.NAME,
+        ServeCommand.NAME, ShardSplitCommand.NAME);
+    private static final List<String> USAGES = List.of(ImportCommand.USAGE, ExportCommand.USAGE,
+        BackupCommand.USAGE, ReportCommand.USAGE, EnrollBatchCommand.USAGE, GenerateCommand.USAGE,
+        ServeCommand.USAGE, ShardSplitCommand.USAGE);
+
+    private final AppConfig config;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public CommandRunner(AppConfig config, PrintStream out, PrintStream err) {
+        this.config = config;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Runs the command named by the first argument
+     *
+     * @return process exit code
+     */
+    public int run(String[] args) {
+        if (args.length == 0 || args[0].equals(HELP)) {
+            printUsage(out);
+            return args.length == 0 ? Command.EXIT_USAGE : Command.EXIT_OK;
+        }
+        Command command = create(args[0]);
+        if (command == null) {
+            err.println("Unknown command: " + args[0]);
+            printUsage(err);
+            return Command.EXIT_USAGE;
+        }
+        return command.run(Arrays.copyOfRange(args, 1, args.length));
+    }
+
+    private Command create(String name) {
+        // Generating data needs no services
+        if (name.equals(GenerateCommand.NAME)) {
+            return new GenerateCommand(out, err);
+        }
+        if (!NAMES.contains(name)) {
+            return null;
+        }
+
+        SnapshotLock snapshotLock = new SnapshotLock();
+        StudentService studentService = new StudentServiceImpl(snapshotLock);
+        CourseService courseService = new CourseServiceImpl(snapshotLock);
+        EnrollmentService enrollmentService = new EnrollmentServiceImpl(snapshotLock, courseService,
+            config.getGpaCacheEntries());
+        ImportExportService importExportService = new ImportExportService(
+            studentService, courseService, enrollmentService, snapshotLock);
+
+        return switch (name) {
+            case ImportCommand.NAME ->
+                new ImportCommand(importExportService, config.getDataDirectory(), out, err);
+            case ExportCommand.NAME ->
+                new ExportCommand(importExportService, config.getDataDirectory(), out, err);
+            case BackupCommand.NAME -> new BackupCommand(importExportService,
+                newBackupService(importExportService), config.getDataDirectory(),
+                config.getMaxBackupsToKeep(), out, err);
+            case ReportCommand.NAME -> new ReportCommand(importExportService,
+                new ReportExporter(new ReportViews(studentService, courseService, enrollmentService,
+                    snapshotLock, config.getReportParallelism()), studentService),
+                config.getDataDirectory(), out, err);
+            case EnrollBatchCommand.NAME -> new EnrollBatchCommand(importExportService, studentService,
+                courseService, enrollmentService, config.getDataDirectory(), out, err);
+            case ServeCommand.NAME -> new ServeCommand(studentService, courseService, enrollmentService,
+                importExportService, new ReportViews(studentService, courseService, enrollmentService,
+                    snapshotLock, config.getReportParallelism()),
+                newBackupService(importExportService), config.getDataDirectory(), config.getApiPort(),
+                config.getApiThreads(), config.getWirePort(), config.getShardNodes(),
+                config.getShardDepartments(), config.getReplicationPrimary(),
+                config.getReplicationLogEntries(), config.getReplicationPollMillis(), out, err);
+            case ShardSplitCommand.NAME -> new ShardSplitCommand(importExportService,
+                config.getDataDirectory(), config.getShardDepartments(), out, err);
+            default -> null;
+        };
+    }
+
+    private BackupService newBackupService(ImportExportService importExportService) {
+        return new BackupService(config.getBackupDirectory(), importExportService,
+            config.isCompressBackups() ? ExportFormat.GZIP : ExportFormat.CSV,
+            config.isDeduplicateBackups());
+    }
+
+    private void printUsage(PrintStream stream) {
+        stream.println("Usage: CCRMApp <command> [arguments], or no arguments for the menus");
+        stream.println("Commands:");
+        USAGES.forEach(usage -> stream.println("  " + usage));
+        stream.println("Exit codes: 0 success, 1 failed, 2 invalid arguments");
+    }
+}
@@ -4,8 +4,10 @@ import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Instructor;
 import edu.ccrm.domain.Semester;
 import edu.ccrm.service.CourseService;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Collectors;
 
 /**
  * Menu for course management operations.
@@ -70,16 +72,23 @@ public class CourseMenu implements Menu {
         }
         System.out.print("Enter Semester: ");
         Semester semester = Semester.valueOf(scanner.nextLine().toUpperCase());
+        System.out.print("Enter Prerequisite codes, comma-separated (or press Enter for none): ");
+        List<String> prerequisites = parseCodes(scanner.nextLine());
 
         Course course = new Course.Builder(code)
             .title(title)
             .credits(credits)
             .department(department)
             .semester(semester)
+            .prerequisites(prerequisites)
             .build();
 
-        courseService.save(course);
-        System.out.println("Course added successfully!");
+        try {
+            courseService.save(course);
+            System.out.println("Course added successfully!");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
     }
 
     private void listCourses() {
@@ -126,6 +135,17 @@ public class CourseMenu implements Menu {
                 course.setDepartment(department);
             }
 
+            System.out.print("Enter new Prerequisite codes, comma-separated (Enter to skip, - for none): ");
+            String prerequisites = scanner.nextLine().trim();
+            if (!prerequisites.isEmpty()) {
+                try {
+                    courseService.setPrerequisites(code,
+                        prerequisites.equals("-") ? List.of() : parseCodes(prerequisites));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Prerequisites unchanged: " + e.getMessage());
+                }
+            }
+
             courseService.save(course);
             System.out.println("Course updated successfully!");
         } else {
@@ -133,6 +153,13 @@ public class CourseMenu implements Menu {
         }
     }
 
+    private static List<String> parseCodes(String input) {
+        return Arrays.stream(input.split(","))
+            .map(String::trim)
+            .filter(code -> !code.isEmpty())
+            .collect(Collectors.toList());
+    }
+
     private void deactivateCourse() {
         System.out.print("\nEnter Course Code to deactivate: ");
         String code = scanner.nextLine();
@@ -0,0 +1,85 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportProgress;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Loads and saves the data directory that commands work on. Saving
+ * exports into a scratch directory first and then moves each file into
+ * place, so an interrupted save never leaves a half-written data file.
+ */
+final class DataDirectory {
+    private static final String SCRATCH_DIR = ".saving";
+    private static final List<String> DATA_FILES = List.of(
+        ImportExportService.STUDENTS_FILE,
+        ImportExportService.COURSES_FILE,
+        ImportExportService.ENROLLMENTS_FILE);
+
+    private DataDirectory() {
+    }
+
+    /**
+     * Loads a directory into the service, printing progress as it goes
+     *
+     * @return the progress, holding any rows that could not be loaded
+     */
+    static ImportProgress load(ImportExportService importExportService, Path directory, PrintStream out)
+            throws IOException {
+        ImportProgress progress = new ImportProgress(-1, status -> out.printf("Loading %s: %s%n",
+            directory.getFileName(), status));
+        importExportService.importData(directory, progress);
+        progress.finish();
+        return progress;
+    }
+
+    /**
+     * Prints up to ten load errors and returns false if any row failed
+     */
+    static boolean checkLoaded(ImportProgress progress, Path directory, PrintStream err) {
+        if (progress.getFailedRows() == 0) {
+            return true;
+        }
+        progress.getErrors().stream().limit(10).forEach(error -> err.println("  " + error));
+        err.printf("%d row(s) in %s could not be loaded%n", progress.getFailedRows(), directory);
+        return false;
+    }
+
+    /**
+     * Replaces the data files in the directory with the service's data
+     */
+    static void save(ImportExportService importExportService, Path directory, ExportFormat format)
+            throws IOException {
+        Files.createDirectories(directory);
+        Path scratch = directory.resolve(SCRATCH_DIR);
+        Files.createDirectories(scratch);
+        try {
+            importExportService.exportData(scratch, format);
+            for (String baseName : DATA_FILES) {
+                Files.move(scratch.resolve(format.fileName(baseName)),
+                    directory.resolve(format.fileName(baseName)),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                // A copy in the other format would be read instead of, or as well as, the new file
+                for (ExportFormat other : ExportFormat.values()) {
+                    if (other != format) {
+                        Files.deleteIfExists(directory.resolve(other.fileName(baseName)));
+                    }
+                }
+            }
+        } finally {
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(scratch)) {
+                for (Path leftover : leftovers) {
+                    Files.deleteIfExists(leftover);
+                }
+            }
+            Files.deleteIfExists(scratch);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package edu.ccrm.cli;
 
+import edu.ccrm.io.ExportFormat;
 import edu.ccrm.io.ImportExportService;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -61,9 +62,12 @@ public class DataMenu implements Menu {
         System.out.println("\n=== Export Data ===");
         System.out.print("Enter export directory path: ");
         String path = scanner.nextLine();
+        System.out.print("Compress output (y/N): ");
+        ExportFormat format = scanner.nextLine().trim().equalsIgnoreCase("y") ? 
+            ExportFormat.GZIP : ExportFormat.CSV;
         
         try {
-            importExportService.exportData(Path.of(path));
+            importExportService.exportData(Path.of(path), format);
             System.out.println("Data exported successfully!");
         } catch (IOException e) {
             System.out.println("Error exporting data: " + e.getMessage());
@@ -0,0 +1,114 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.report.ReportFormat;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * Menu showing latency and throughput of service operations.
+ * Figures cover the time since start-up or the last reset.
+ */
+public class DiagnosticsMenu implements Menu {
+    private static final String DEFAULT_DUMP_NAME = "ccrm-metrics";
+
+    private final MenuHandler handler;
+    private final MetricsRegistry metrics;
+    private final Scanner scanner;
+
+    public DiagnosticsMenu(MenuHandler handler) {
+        this.handler = handler;
+        this.metrics = MetricsRegistry.getInstance();
+        this.scanner = handler.getScanner();
+    }
+
+    @Override
+    public String getTitle() {
+        return "Diagnostics";
+    }
+
+    @Override
+    public void display() {
+        System.out.println("1. Operation Latency & Throughput");
+        System.out.println("2. Event Counters");
+        System.out.println("3. Measure Timing Overhead");
+        System.out.println("4. Write Metrics to File");
+        System.out.println("5. Reset Metrics");
+        System.out.println("6. " + (metrics.isEnabled() ? "Disable" : "Enable") + " Metrics");
+        System.out.println("7. Back to Main Menu");
+        System.out.print("\nEnter your choice: ");
+    }
+
+    @Override
+    public void handleInput() {
+        String choice = scanner.nextLine();
+
+        switch (choice) {
+            case "1" -> showOperations();
+            case "2" -> showCounters();
+            case "3" -> measureOverhead();
+            case "4" -> writeMetrics();
+            case "5" -> resetMetrics();
+            case "6" -> metrics.setEnabled(!metrics.isEnabled());
+            case "7" -> handler.goBack();
+            default -> System.out.println("Invalid choice. Please try again.");
+        }
+    }
+
+    private void showOperations() {
+        System.out.println("\n=== Operation Latency & Throughput ===");
+        List<MetricsRegistry.OperationStats> operations = metrics.getOperationStats();
+        if (operations.isEmpty()) {
+            System.out.println("No operations recorded" + (metrics.isEnabled() ? "." : "; metrics are disabled."));
+            return;
+        }
+        System.out.printf("Over the last %.1f s, times in microseconds%n%n", metrics.getElapsedSeconds());
+        System.out.printf("%-30s %10s %10s %10s %10s %12s%n", "Operation", "Count", "Per sec", "p50", "p99", "Max");
+        for (MetricsRegistry.OperationStats stats : operations) {
+            System.out.printf("%-30s %10d %10.1f %10.1f %10.1f %12.1f%n", stats.name(), stats.count(),
+                stats.perSecond(), stats.p50Nanos() / 1000.0, stats.p99Nanos() / 1000.0,
+                stats.maxNanos() / 1000.0);
+        }
+    }
+
+    private void showCounters() {
+        System.out.println("\n=== Event Counters ===");
+        Map<String, Long> counters = metrics.getCounters();
+        if (counters.isEmpty()) {
+            System.out.println("No events recorded.");
+            return;
+        }
+        counters.forEach((name, value) -> System.out.printf("%-40s %10d%n", name, value));
+    }
+
+    private void measureOverhead() {
+        System.out.println("\n=== Timing Overhead ===");
+        System.out.printf("Each timed operation costs about %.0f ns for two clock reads and one histogram update.%n",
+            MetricsRegistry.measureOverheadNanos());
+    }
+
+    private void writeMetrics() {
+        System.out.println("\n=== Write Metrics ===");
+        System.out.print("Format (CSV/json): ");
+        String formatName = scanner.nextLine().trim();
+        ReportFormat format = formatName.equalsIgnoreCase("json") ? ReportFormat.JSON : ReportFormat.CSV;
+        System.out.print("Enter output file path (blank for current directory): ");
+        String path = scanner.nextLine().trim();
+        Path file = path.isEmpty() ? Path.of(DEFAULT_DUMP_NAME + format.getExtension()) : Path.of(path);
+
+        try {
+            metrics.writeTo(file, format);
+            System.out.println("Metrics written to " + file.toAbsolutePath().normalize());
+        } catch (IOException e) {
+            System.out.println("Error writing metrics: " + e.getMessage());
+        }
+    }
+
+    private void resetMetrics() {
+        metrics.reset();
+        System.out.println("Metrics reset.");
+    }
+}
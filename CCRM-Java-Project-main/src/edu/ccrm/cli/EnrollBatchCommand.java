@@ -0,0 +1,163 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportProgress;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Enrolls students in courses from a CSV file, with the same duplicate,
+ * prerequisite and credit limit checks as the Enrollment menu:
+ * <pre>
+ * enroll-batch &lt;file&gt; [--format csv|gzip] [--data dir]
+ * </pre>
+ * Each line is {@code studentId,courseCode} with an optional third
+ * {@code grade} column; a header line starting with {@code studentId} is
+ * skipped. Lines that fail are reported with their line number and the
+ * rest are still applied. The exit code is 1 if any line failed.
+ */
+public class EnrollBatchCommand implements Command {
+    public static final String NAME = "enroll-batch";
+
+    public static final String USAGE = "enroll-batch <file> [--format csv|gzip] [--data dir]";
+    private static final String HEADER_PREFIX = "studentId";
+
+    private final ImportExportService importExportService;
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final Path defaultDataDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public EnrollBatchCommand(ImportExportService importExportService, StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService, Path defaultDataDirectory,
+            PrintStream out, PrintStream err) {
+        this.importExportService = importExportService;
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.defaultDataDirectory = defaultDataDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return USAGE;
+    }
+
+    @Override
+    public int run(String[] args) {
+        Path file = null;
+        ExportFormat format = ExportFormat.CSV;
+        Path dataDirectory = defaultDataDirectory;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format" -> format = ExportFormat.valueOf(Command.value(args, ++i).toUpperCase());
+                    case "--data" -> dataDirectory = Path.of(Command.value(args, ++i));
+                    default -> {
+                        if (file != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        file = Path.of(args[i]);
+                    }
+                }
+            }
+            if (file == null) {
+                throw new IllegalArgumentException("No enrollment file given");
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            ImportProgress loaded = DataDirectory.load(importExportService, dataDirectory, out);
+            if (!DataDirectory.checkLoaded(loaded, dataDirectory, err)) {
+                return EXIT_FAILED;
+            }
+
+            ImportProgress progress = new ImportProgress(-1, status -> out.printf("Enrolling: %s%n", status));
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                long lineNumber = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank() || (lineNumber == 1 && line.startsWith(HEADER_PREFIX))) {
+                        continue;
+                    }
+                    try {
+                        enroll(line);
+                        progress.rowLoaded();
+                    } catch (DuplicateEnrollmentException | MaxCreditLimitExceededException
+                            | PrerequisiteNotMetException | IllegalArgumentException e) {
+                        err.printf("Line %d: %s%n", lineNumber, e.getMessage());
+                        progress.rowFailed(e.getMessage());
+                    }
+                }
+            }
+            progress.finish();
+
+            if (progress.getRows() > progress.getFailedRows()) {
+                DataDirectory.save(importExportService, dataDirectory, format);
+            }
+            out.printf("Enrolled %d, failed %d%n", progress.getRows() - progress.getFailedRows(),
+                progress.getFailedRows());
+            return progress.getFailedRows() == 0 ? EXIT_OK : EXIT_FAILED;
+        } catch (IOException e) {
+            err.println("Error enrolling students: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private void enroll(String line) throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        String[] fields = line.split(",", -1);
+        if (fields.length < 2 || fields.length > 3) {
+            throw new IllegalArgumentException("Expected studentId,courseCode[,grade]");
+        }
+        Student student = studentService.findById(fields[0].trim());
+        if (student == null) {
+            throw new IllegalArgumentException("Unknown student " + fields[0].trim());
+        }
+        Course course = courseService.findById(fields[1].trim());
+        if (course == null) {
+            throw new IllegalArgumentException("Unknown course " + fields[1].trim());
+        }
+        // Check the grade before enrolling so a bad line changes nothing
+        Grade grade = null;
+        if (fields.length == 3 && !fields[2].isBlank()) {
+            try {
+                grade = Grade.valueOf(fields[2].trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown grade " + fields[2].trim());
+            }
+        }
+
+        enrollmentService.enroll(student, course);
+        if (grade != null) {
+            enrollmentService.assignGrade(student, course, grade);
+        }
+    }
+}
@@ -79,6 +79,8 @@ public class EnrollmentMenu implements Menu {
             System.out.println("Error: Student is already enrolled in this course.");
         } catch (MaxCreditLimitExceededException e) {
             System.out.println("Error: Enrolling would exceed maximum credit limit.");
+        } catch (PrerequisiteNotMetException e) {
+            System.out.println("Error: " + e.getMessage() + ".");
         }
     }
 
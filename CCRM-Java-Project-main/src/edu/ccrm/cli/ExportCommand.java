@@ -0,0 +1,84 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportProgress;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+/**
+ * Copies the data directory to another directory, optionally compressed:
+ * <pre>
+ * export &lt;output-dir&gt; [--format csv|gzip] [--data dir]
+ * </pre>
+ */
+public class ExportCommand implements Command {
+    public static final String NAME = "export";
+
+    public static final String USAGE = "export <output-dir> [--format csv|gzip] [--data dir]";
+
+    private final ImportExportService importExportService;
+    private final Path defaultDataDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ExportCommand(ImportExportService importExportService, Path defaultDataDirectory,
+            PrintStream out, PrintStream err) {
+        this.importExportService = importExportService;
+        this.defaultDataDirectory = defaultDataDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return USAGE;
+    }
+
+    @Override
+    public int run(String[] args) {
+        Path output = null;
+        ExportFormat format = ExportFormat.CSV;
+        Path dataDirectory = defaultDataDirectory;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format" -> format = ExportFormat.valueOf(Command.value(args, ++i).toUpperCase());
+                    case "--data" -> dataDirectory = Path.of(Command.value(args, ++i));
+                    default -> {
+                        if (output != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        output = Path.of(args[i]);
+                    }
+                }
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("No output directory given");
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            ImportProgress loaded = DataDirectory.load(importExportService, dataDirectory, out);
+            if (!DataDirectory.checkLoaded(loaded, dataDirectory, err)) {
+                return EXIT_FAILED;
+            }
+            DataDirectory.save(importExportService, output, format);
+            out.printf("Exported %d row(s) to %s%n", loaded.getRows(), output.toAbsolutePath().normalize());
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("Error exporting data: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+}
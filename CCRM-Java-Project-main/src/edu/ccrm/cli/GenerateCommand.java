@@ -0,0 +1,89 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.SyntheticDataGenerator;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+/**
+ * Generates a synthetic data set without the interactive menus:
+ * <pre>
+ * generate &lt;output-dir&gt; [--students N] [--courses N] [--instructors N] [--seed N]
+ *          [--format csv|gzip] [--threads N]
+ * </pre>
+ * The output can be loaded with Data Import/Export or restored like a backup.
+ */
+public class GenerateCommand implements Command {
+    public static final String NAME = "generate";
+
+    public static final String USAGE = "generate <output-dir> [--students N] [--courses N] "
+        + "[--instructors N] [--seed N] [--format csv|gzip] [--threads N]";
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public GenerateCommand(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return USAGE;
+    }
+
+    @Override
+    public int run(String[] args) {
+        SyntheticDataGenerator.Builder builder = new SyntheticDataGenerator.Builder();
+        Path output = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--students" -> builder.students(Integer.parseInt(Command.value(args, ++i)));
+                    case "--courses" -> builder.courses(Integer.parseInt(Command.value(args, ++i)));
+                    case "--instructors" -> builder.instructors(Integer.parseInt(Command.value(args, ++i)));
+                    case "--seed" -> builder.seed(Long.parseLong(Command.value(args, ++i)));
+                    case "--format" ->
+                        builder.format(ExportFormat.valueOf(Command.value(args, ++i).toUpperCase()));
+                    case "--threads" -> builder.threads(Integer.parseInt(Command.value(args, ++i)));
+                    default -> {
+                        if (output != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        output = Path.of(args[i]);
+                    }
+                }
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("No output directory given");
+            }
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed numbers and unknown formats
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            SyntheticDataGenerator.Summary summary = builder.build().generate(output, status ->
+                out.printf("Generating: %s%n", status));
+            out.printf("Wrote %d students, %d instructors, %d courses and %d enrollments to %s in %d ms%n",
+                summary.students(), summary.instructors(), summary.courses(), summary.enrollments(),
+                output.toAbsolutePath().normalize(), summary.elapsed().toMillis());
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("Error generating data: " + e.getMessage());
+            return EXIT_FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("Data generation interrupted");
+            return EXIT_FAILED;
+        }
+    }
+}
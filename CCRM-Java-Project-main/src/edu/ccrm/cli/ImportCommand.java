@@ -0,0 +1,106 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportProgress;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Merges a directory of data files into the data directory:
+ * <pre>
+ * import &lt;source-dir&gt; [--format csv|gzip] [--data dir]
+ * </pre>
+ * Records in the source update existing records with the same ID. The
+ * data directory is only rewritten if every row loaded and the result
+ * is consistent; otherwise it is left as it was.
+ */
+public class ImportCommand implements Command {
+    public static final String NAME = "import";
+
+    public static final String USAGE = "import <source-dir> [--format csv|gzip] [--data dir]";
+
+    private final ImportExportService importExportService;
+    private final Path defaultDataDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ImportCommand(ImportExportService importExportService, Path defaultDataDirectory,
+            PrintStream out, PrintStream err) {
+        this.importExportService = importExportService;
+        this.defaultDataDirectory = defaultDataDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return USAGE;
+    }
+
+    @Override
+    public int run(String[] args) {
+        Path source = null;
+        ExportFormat format = ExportFormat.CSV;
+        Path dataDirectory = defaultDataDirectory;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format" -> format = ExportFormat.valueOf(Command.value(args, ++i).toUpperCase());
+                    case "--data" -> dataDirectory = Path.of(Command.value(args, ++i));
+                    default -> {
+                        if (source != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        source = Path.of(args[i]);
+                    }
+                }
+            }
+            if (source == null) {
+                throw new IllegalArgumentException("No source directory given");
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+        if (!Files.isDirectory(source)) {
+            err.println("Source is not a directory: " + source);
+            return EXIT_FAILED;
+        }
+
+        try {
+            ImportProgress existing = DataDirectory.load(importExportService, dataDirectory, out);
+            if (!DataDirectory.checkLoaded(existing, dataDirectory, err)) {
+                return EXIT_FAILED;
+            }
+            ImportProgress imported = DataDirectory.load(importExportService, source, out);
+            if (!DataDirectory.checkLoaded(imported, source, err)) {
+                err.println("Nothing imported; " + dataDirectory + " is unchanged");
+                return EXIT_FAILED;
+            }
+            List<String> problems = importExportService.validate();
+            if (!problems.isEmpty()) {
+                problems.stream().limit(10).forEach(problem -> err.println("  " + problem));
+                err.printf("Imported data is inconsistent (%d problem(s)); %s is unchanged%n",
+                    problems.size(), dataDirectory);
+                return EXIT_FAILED;
+            }
+            DataDirectory.save(importExportService, dataDirectory, format);
+            out.printf("Imported %d row(s) from %s into %s%n", imported.getRows(),
+                source.toAbsolutePath().normalize(), dataDirectory.toAbsolutePath().normalize());
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("Error importing data: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+}
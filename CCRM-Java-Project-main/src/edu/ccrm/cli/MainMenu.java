@@ -24,8 +24,9 @@ public class MainMenu implements Menu {
         System.out.println("4. Import/Export Data");
         System.out.println("5. Backup Operations");
         System.out.println("6. Generate Reports");
-        System.out.println("7. About CCRM");
-        System.out.println("8. Exit");
+        System.out.println("7. Diagnostics");
+        System.out.println("8. About CCRM");
+        System.out.println("9. Exit");
         System.out.print("\nEnter your choice: ");
     }
 
@@ -40,8 +41,9 @@ public class MainMenu implements Menu {
             case "4" -> handler.navigateTo(new DataMenu(handler));
             case "5" -> handler.navigateTo(new BackupMenu(handler));
             case "6" -> handler.navigateTo(new ReportMenu(handler));
-            case "7" -> displayAbout();
-            case "8" -> handler.exit();
+            case "7" -> handler.navigateTo(new DiagnosticsMenu(handler));
+            case "8" -> displayAbout();
+            case "9" -> handler.exit();
             default -> System.out.println("Invalid choice. Please try again.");
         }
     }
@@ -3,6 +3,7 @@ package edu.ccrm.cli;
 import edu.ccrm.service.*;
 import edu.ccrm.io.*;
 import edu.ccrm.config.AppConfig;
+import edu.ccrm.report.ReportViews;
 import java.util.Scanner;
 import java.util.Stack;
 
@@ -21,6 +22,8 @@ public class MenuHandler {
     private final EnrollmentService enrollmentService;
     private final ImportExportService importExportService;
     private final BackupService backupService;
+    private final BackupScheduler backupScheduler;
+    private final ReportViews reportViews;
     private final AppConfig config;
 
     public MenuHandler(
@@ -30,6 +33,36 @@ public class MenuHandler {
             ImportExportService importExportService,
             BackupService backupService,
             AppConfig config) {
+        this(studentService, courseService, enrollmentService, importExportService,
+            backupService, null, config);
+    }
+
+    public MenuHandler(
+            StudentService studentService,
+            CourseService courseService,
+            EnrollmentService enrollmentService,
+            ImportExportService importExportService,
+            BackupService backupService,
+            BackupScheduler backupScheduler,
+            AppConfig config) {
+        this(studentService, courseService, enrollmentService, importExportService,
+            backupService, backupScheduler, 
+            new ReportViews(studentService, courseService, enrollmentService, 
+                importExportService.getSnapshotLock()),
+            config);
+    }
+
+    public MenuHandler(
+            StudentService studentService,
+            CourseService courseService,
+            EnrollmentService enrollmentService,
+            ImportExportService importExportService,
+            BackupService backupService,
+            BackupScheduler backupScheduler,
+            ReportViews reportViews,
+            AppConfig config) {
+        this.backupScheduler = backupScheduler;
+        this.reportViews = reportViews;
         this.studentService = studentService;
         this.courseService = courseService;
         this.enrollmentService = enrollmentService;
@@ -92,6 +125,15 @@ public class MenuHandler {
         return backupService;
     }
 
+    // Null when scheduled backups are disabled
+    public BackupScheduler getBackupScheduler() {
+        return backupScheduler;
+    }
+
+    public ReportViews getReportViews() {
+        return reportViews;
+    }
+
     public AppConfig getConfig() {
         return config;
     }
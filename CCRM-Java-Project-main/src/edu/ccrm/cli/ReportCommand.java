@@ -0,0 +1,96 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.report.ReportExporter;
+import edu.ccrm.report.ReportFormat;
+import edu.ccrm.report.ReportType;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+/**
+ * Exports a report without the interactive menus, for scripts and
+ * scheduled jobs:
+ * <pre>
+ * report &lt;gpa|courses|departments|students&gt; [output-file] [--format csv|json] [--data dir]
+ * </pre>
+ * Data is imported from the data directory first. Without an output file
+ * the report is written to the current directory under its default name.
+ */
+public class ReportCommand implements Command {
+    public static final String NAME = "report";
+
+    public static final String USAGE =
+        "report <gpa|courses|departments|students> [output-file] [--format csv|json] [--data dir]";
+
+    private final ImportExportService importExportService;
+    private final ReportExporter reportExporter;
+    private final Path defaultDataDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ReportCommand(ImportExportService importExportService, ReportExporter reportExporter,
+            Path defaultDataDirectory, PrintStream out, PrintStream err) {
+        this.importExportService = importExportService;
+        this.reportExporter = reportExporter;
+        this.defaultDataDirectory = defaultDataDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return USAGE;
+    }
+
+    @Override
+    public int run(String[] args) {
+        ReportType type = null;
+        Path output = null;
+        ReportFormat format = ReportFormat.CSV;
+        Path dataDirectory = defaultDataDirectory;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format" -> format = ReportFormat.fromName(Command.value(args, ++i));
+                    case "--data" -> dataDirectory = Path.of(Command.value(args, ++i));
+                    default -> {
+                        if (type == null) {
+                            type = ReportType.fromName(args[i]);
+                        } else if (output == null) {
+                            output = Path.of(args[i]);
+                        } else {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                    }
+                }
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("No report given");
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (output == null) {
+            output = ReportExporter.defaultFile(Path.of("."), type, format);
+        }
+        try {
+            importExportService.importData(dataDirectory);
+            long rows = reportExporter.export(type, output, format);
+            out.printf("Exported %d row(s) to %s%n", rows, output.toAbsolutePath().normalize());
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("Error exporting report: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package edu.ccrm.cli;
 
 import edu.ccrm.domain.*;
-import edu.ccrm.service.*;
+import edu.ccrm.report.CourseStats;
+import edu.ccrm.report.EnrollmentReport;
+import edu.ccrm.report.GpaRankIndex;
+import edu.ccrm.report.ReportExporter;
+import edu.ccrm.report.ReportFormat;
+import edu.ccrm.report.ReportType;
+import edu.ccrm.report.ReportViews;
+import edu.ccrm.report.TranscriptGenerator;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Menu for generating various reports.
@@ -11,16 +19,14 @@ import java.util.stream.Collectors;
  */
 public class ReportMenu implements Menu {
     private final MenuHandler handler;
-    private final StudentService studentService;
-    private final CourseService courseService;
-    private final EnrollmentService enrollmentService;
+    private final ReportViews reportViews;
+    private final ReportExporter reportExporter;
     private final Scanner scanner;
 
     public ReportMenu(MenuHandler handler) {
         this.handler = handler;
-        this.studentService = handler.getStudentService();
-        this.courseService = handler.getCourseService();
-        this.enrollmentService = handler.getEnrollmentService();
+        this.reportViews = handler.getReportViews();
+        this.reportExporter = new ReportExporter(reportViews, handler.getStudentService());
         this.scanner = handler.getScanner();
     }
 
@@ -34,7 +40,11 @@ public class ReportMenu implements Menu {
         System.out.println("1. GPA Distribution");
         System.out.println("2. Course Enrollment Statistics");
         System.out.println("3. Department Performance Report");
-        System.out.println("4. Back to Main Menu");
+        System.out.println("4. Class Rank & GPA Percentiles");
+        System.out.println("5. Generate Transcripts");
+        System.out.println("6. Export Report to File");
+        System.out.println("7. Verify Report Views");
+        System.out.println("8. Back to Main Menu");
         System.out.print("\nEnter your choice: ");
     }
 
@@ -46,7 +56,11 @@ public class ReportMenu implements Menu {
             case "1" -> showGpaDistribution();
             case "2" -> showCourseEnrollmentStats();
             case "3" -> showDepartmentPerformance();
-            case "4" -> handler.goBack();
+            case "4" -> showClassRank();
+            case "5" -> generateTranscripts();
+            case "6" -> exportReport();
+            case "7" -> verifyReportViews();
+            case "8" -> handler.goBack();
             default -> System.out.println("Invalid choice. Please try again.");
         }
     }
@@ -54,49 +68,23 @@ public class ReportMenu implements Menu {
     private void showGpaDistribution() {
         System.out.println("\n=== GPA Distribution ===");
         
-        // Group students by GPA ranges using Stream API
-        Map<String, Long> distribution = studentService.findAll().stream()
-            .filter(Student::isActive)
-            .collect(Collectors.groupingBy(
-                student -> {
-                    double gpa = student.getGpa();
-                    if (gpa >= 3.5) return "3.5 - 4.0";
-                    if (gpa >= 3.0) return "3.0 - 3.49";
-                    if (gpa >= 2.5) return "2.5 - 2.99";
-                    if (gpa >= 2.0) return "2.0 - 2.49";
-                    return "Below 2.0";
-                },
-                Collectors.counting()
-            ));
-
-        // Print distribution
-        distribution.forEach((range, count) ->
+        // Maintained incrementally as grades and enrollments change
+        reportViews.getGpaDistribution().forEach((range, count) ->
             System.out.printf("%s: %d students%n", range, count));
     }
 
     private void showCourseEnrollmentStats() {
         System.out.println("\n=== Course Enrollment Statistics ===");
         
-        courseService.findAll().stream()
-            .filter(Course::isActive)
+        EnrollmentReport report = reportViews.getReport();
+        report.getCourses().values().stream()
+            .filter(CourseStats::active)
             .forEach(course -> {
-                List<Enrollment> enrollments = enrollmentService.findByCourse(course);
-                long activeEnrollments = enrollments.stream()
-                    .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.ENROLLED)
-                    .count();
-                
-                System.out.printf("%s (%s):%n", course.getCode(), course.getTitle());
-                System.out.printf("  Total Enrollments: %d%n", enrollments.size());
-                System.out.printf("  Active Enrollments: %d%n", activeEnrollments);
-                
-                // Calculate grade distribution
-                Map<Grade, Long> gradeDistribution = enrollments.stream()
-                    .filter(e -> e.getGrade() != null)
-                    .collect(Collectors.groupingBy(
-                        Enrollment::getGrade,
-                        Collectors.counting()
-                    ));
+                System.out.printf("%s (%s):%n", course.code(), course.title());
+                System.out.printf("  Total Enrollments: %d%n", course.totalEnrollments());
+                System.out.printf("  Active Enrollments: %d%n", course.activeEnrollments());
                 
+                Map<Grade, Long> gradeDistribution = course.grades().asMap();
                 if (!gradeDistribution.isEmpty()) {
                     System.out.println("  Grade Distribution:");
                     gradeDistribution.forEach((grade, count) ->
@@ -109,37 +97,125 @@ public class ReportMenu implements Menu {
     private void showDepartmentPerformance() {
         System.out.println("\n=== Department Performance Report ===");
         
-        // Group courses by department
-        Map<String, List<Course>> coursesByDept = courseService.findAll().stream()
-            .filter(Course::isActive)
-            .collect(Collectors.groupingBy(Course::getDepartment));
-        
-        coursesByDept.forEach((dept, courses) -> {
-            System.out.printf("%n=== %s Department ===%n", dept);
-            
-            // Calculate department statistics
-            int totalStudents = 0;
-            double totalGpa = 0.0;
-            int gradedEnrollments = 0;
-            
-            for (Course course : courses) {
-                List<Enrollment> enrollments = enrollmentService.findByCourse(course);
-                for (Enrollment enrollment : enrollments) {
-                    if (enrollment.getGrade() != null) {
-                        totalGpa += enrollment.getGrade().getPoints();
-                        gradedEnrollments++;
-                    }
-                    if (enrollment.getStatus() == Enrollment.EnrollmentStatus.ENROLLED) {
-                        totalStudents++;
-                    }
-                }
-            }
-            
-            System.out.printf("Courses Offered: %d%n", courses.size());
-            System.out.printf("Total Active Students: %d%n", totalStudents);
-            if (gradedEnrollments > 0) {
-                System.out.printf("Average GPA: %.2f%n", totalGpa / gradedEnrollments);
+        EnrollmentReport report = reportViews.getReport();
+        report.getDepartments().values().forEach(dept -> {
+            System.out.printf("%n=== %s Department ===%n", dept.department());
+            System.out.printf("Courses Offered: %d%n", dept.coursesOffered());
+            System.out.printf("Total Active Students: %d%n", dept.activeEnrollments());
+            if (!dept.grades().isEmpty()) {
+                System.out.printf("Average GPA: %.2f%n", dept.averageGradePoints());
             }
         });
     }
+
+    private void showClassRank() {
+        System.out.println("\n=== Class Rank & GPA Percentiles ===");
+        GpaRankIndex ranks = reportViews.getRankIndex();
+        if (ranks.size() == 0) {
+            System.out.println("No active students.");
+            return;
+        }
+        System.out.printf("Students ranked: %d%n", ranks.size());
+        for (double percent : new double[] {25, 50, 75, 90}) {
+            System.out.printf("  %.0fth percentile GPA: %.2f%n", percent, ranks.percentile(percent));
+        }
+
+        System.out.print("\nEnter student ID for rank (blank to skip): ");
+        String studentId = scanner.nextLine().trim();
+        if (studentId.isEmpty()) {
+            return;
+        }
+        long rank = ranks.rank(studentId);
+        if (rank < 0) {
+            System.out.println("Student not found or not active.");
+            return;
+        }
+        System.out.printf("Overall: rank %d of %d, above %.1f%% of students%n",
+            rank, ranks.size(), ranks.percentileOf(studentId));
+        for (String department : ranks.getDepartments()) {
+            long departmentRank = ranks.rank(studentId, department);
+            if (departmentRank > 0) {
+                System.out.printf("%s: rank %d of %d, above %.1f%% of students%n", department,
+                    departmentRank, ranks.size(department), ranks.percentileOf(studentId, department));
+            }
+        }
+    }
+
+    private void generateTranscripts() {
+        System.out.println("\n=== Generate Transcripts ===");
+        System.out.print("Semester (blank for all semesters): ");
+        String semesterName = scanner.nextLine().trim();
+        Semester semester = null;
+        if (!semesterName.isEmpty()) {
+            try {
+                semester = Semester.valueOf(semesterName.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown semester. Options: " + Arrays.toString(Semester.values()));
+                return;
+            }
+        }
+        System.out.print("Enter output directory: ");
+        Path directory = Path.of(scanner.nextLine().trim());
+
+        TranscriptGenerator generator = new TranscriptGenerator(
+            handler.getStudentService(), handler.getEnrollmentService());
+        try {
+            TranscriptGenerator.Result result = generator.generate(directory, semester, status ->
+                System.out.printf("\rTranscripts: %d/%d, %.0f/s%s   ", status.rows(), status.totalRows(),
+                    status.rowsPerSecond(), status.eta() != null ? ", ETA " + status.eta().toSeconds() + "s" : ""));
+            System.out.println();
+            System.out.printf("Wrote %d transcript(s) to %s%n", result.written(),
+                directory.toAbsolutePath().normalize());
+            if (result.failed() > 0) {
+                System.out.printf("%d transcript(s) failed:%n", result.failed());
+                result.errors().stream().limit(10).forEach(error -> System.out.println("  - " + error));
+            }
+        } catch (IOException e) {
+            System.out.println("Error generating transcripts: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Transcript generation interrupted.");
+        }
+    }
+
+    private void exportReport() {
+        System.out.println("\n=== Export Report ===");
+        ReportType[] types = ReportType.values();
+        for (int i = 0; i < types.length; i++) {
+            System.out.printf("%d. %s%n", i + 1, types[i].getCommandName());
+        }
+        System.out.print("Select report: ");
+        ReportType type;
+        try {
+            type = types[Integer.parseInt(scanner.nextLine().trim()) - 1];
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Invalid report selection.");
+            return;
+        }
+        System.out.print("Format (CSV/json): ");
+        String formatName = scanner.nextLine().trim();
+        ReportFormat format = formatName.equalsIgnoreCase("json") ? ReportFormat.JSON : ReportFormat.CSV;
+        System.out.print("Enter output file path (blank for current directory): ");
+        String path = scanner.nextLine().trim();
+        Path file = path.isEmpty()
+            ? ReportExporter.defaultFile(Path.of("."), type, format) : Path.of(path);
+
+        try {
+            long rows = reportExporter.export(type, file, format);
+            System.out.printf("Exported %d row(s) to %s%n", rows, file.toAbsolutePath().normalize());
+        } catch (IOException e) {
+            System.out.println("Error exporting report: " + e.getMessage());
+        }
+    }
+
+    private void verifyReportViews() {
+        System.out.println("\n=== Verify Report Views ===");
+        List<String> differences = reportViews.verify();
+        if (differences.isEmpty()) {
+            System.out.println("Report views match a full recomputation.");
+        } else {
+            differences.forEach(difference -> System.out.println("  - " + difference));
+            System.out.printf("%d difference(s) found; views have been rebuilt.%n", differences.size());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,335 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.api.ApiServer;
+import edu.ccrm.exception.ShardUnavailableException;
+import edu.ccrm.io.BackupService;
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportProgress;
+import edu.ccrm.replication.ReplicaFollower;
+import edu.ccrm.replication.ReplicationLog;
+import edu.ccrm.report.ReportExporter;
+import edu.ccrm.report.ReportViews;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.shard.ShardMap;
+import edu.ccrm.shard.ShardRouter;
+import edu.ccrm.shard.ShardedCourseService;
+import edu.ccrm.shard.ShardedEnrollmentService;
+import edu.ccrm.shard.ShardedReports;
+import edu.ccrm.shard.ShardedStudentService;
+import edu.ccrm.wire.WireServer;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Serves the HTTP/JSON API over the data directory until the process is
+ * stopped, and the binary protocol too when it is given a port:
+ * <pre>
+ * serve [--port N] [--threads N] [--wire-port N] [--save] [--format csv|gzip] [--data dir]
+ * serve --shards host:port,... [--shard-map DEPT=i,...] [--port N] [--threads N]
+ * serve --replica-of host:port [--port N] [--threads N]
+ * </pre>
+ * With {@code --save} the data is written back to the data directory when
+ * the server shuts down, e.g. on Ctrl+C or SIGTERM. A server with the
+ * binary protocol keeps a replication log that read replicas can follow.
+ *
+ * With {@code --shards} the server holds no data and routes the API to
+ * shard servers, each an ordinary {@code serve --wire-port} process over
+ * its part of the data as written by {@code shard-split}.
+ *
+ * With {@code --replica-of} the server is a read replica: it loads its
+ * data from the primary's binary protocol port, follows the primary's
+ * changes, and serves read-only requests.
+ */
+public class ServeCommand implements Command {
+    public static final String NAME = "serve";
+    public static final String USAGE =
+        "serve [--port N] [--threads N] [--wire-port N] [--save] [--format csv|gzip] [--data dir]\n"
+        + "  serve --shards host:port,... [--shard-map DEPT=i,...] [--port N] [--threads N]\n"
+        + "  serve --replica-of host:port [--port N] [--threads N]";
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final ImportExportService importExportService;
+    private final ReportViews reportViews;
+    private final BackupService backupService;
+    private final Path defaultDataDirectory;
+    private final int defaultPort;
+    private final int defaultThreads;
+    private final int defaultWirePort;
+    private final String defaultShardNodes;
+    private final String defaultShardMap;
+    private final String defaultPrimary;
+    private final int replicationLogEntries;
+    private final int replicationPollMillis;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ServeCommand(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, ImportExportService importExportService,
+            ReportViews reportViews, BackupService backupService, Path defaultDataDirectory,
+            int defaultPort, int defaultThreads, int defaultWirePort, String defaultShardNodes,
+            String defaultShardMap, String defaultPrimary, int replicationLogEntries,
+            int replicationPollMillis, PrintStream out, PrintStream err) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.importExportService = importExportService;
+        this.reportViews = reportViews;
+        this.backupService = backupService;
+        this.defaultDataDirectory = defaultDataDirectory;
+        this.defaultPort = defaultPort;
+        this.defaultThreads = defaultThreads;
+        this.defaultWirePort = defaultWirePort;
+        this.defaultShardNodes = defaultShardNodes;
+        this.defaultShardMap = defaultShardMap;
+        this.defaultPrimary = defaultPrimary;
+        this.replicationLogEntries = replicationLogEntries;
+        this.replicationPollMillis = replicationPollMillis;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Turns off Nagle's algorithm in the JDK's HTTP server unless the
+     * command line set it. Responses are written as headers then body, and
+     * the second small write would wait for the client's delayed ACK,
+     * adding ~40 ms to every request. The server reads the property once,
+     * so this has to run before the first server starts.
+     */
+    public static void enableNoDelay() {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return USAGE;
+    }
+
+    @Override
+    public int run(String[] args) {
+        enableNoDelay();
+        int port = defaultPort;
+        int threads = defaultThreads;
+        int wirePort = defaultWirePort;
+        boolean save = false;
+        ExportFormat format = ExportFormat.CSV;
+        Path dataDirectory = defaultDataDirectory;
+        String shardNodes = defaultShardNodes;
+        String shardMap = defaultShardMap;
+        String primary = defaultPrimary;
+        boolean localOptions = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(Command.value(args, ++i));
+                    case "--threads" -> threads = Integer.parseInt(Command.value(args, ++i));
+                    case "--wire-port" -> {
+                        wirePort = Integer.parseInt(Command.value(args, ++i));
+                        localOptions = true;
+                    }
+                    case "--save" -> save = localOptions = true;
+                    case "--format" -> format = ExportFormat.valueOf(Command.value(args, ++i).toUpperCase());
+                    case "--data" -> {
+                        dataDirectory = Path.of(Command.value(args, ++i));
+                        localOptions = true;
+                    }
+                    case "--shards" -> shardNodes = Command.value(args, ++i);
+                    case "--shard-map" -> shardMap = Command.value(args, ++i);
+                    case "--replica-of" -> primary = Command.value(args, ++i);
+                    default -> throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+            if (!shardNodes.isBlank() && !primary.isBlank()) {
+                throw new IllegalArgumentException("A router cannot also be a replica");
+            }
+            if (!shardNodes.isBlank() && localOptions) {
+                throw new IllegalArgumentException(
+                    "--save, --wire-port and --data apply to shard servers, not to the router");
+            }
+            if (!primary.isBlank() && localOptions) {
+                throw new IllegalArgumentException(
+                    "--save, --wire-port and --data apply to the primary, not to a replica");
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+        if (!shardNodes.isBlank()) {
+            return route(shardNodes, shardMap, port, threads);
+        }
+        if (!primary.isBlank()) {
+            return follow(primary, port, threads);
+        }
+
+        ApiServer server;
+        WireServer wireServer = null;
+        try {
+            ImportProgress loaded = DataDirectory.load(importExportService, dataDirectory, out);
+            if (!DataDirectory.checkLoaded(loaded, dataDirectory, err)) {
+                return EXIT_FAILED;
+            }
+            server = new ApiServer(port, threads, studentService, courseService, enrollmentService,
+                new ReportExporter(reportViews, studentService), backupService);
+            if (wirePort > 0) {
+                // Started after the load, so replicas begin from a checkpoint rather than the import
+                ReplicationLog replicationLog = replicationLogEntries > 0
+                    ? new ReplicationLog(studentService, courseService, enrollmentService,
+                        importExportService.getSnapshotLock(), replicationLogEntries)
+                    : null;
+                wireServer = new WireServer(wirePort, studentService, courseService, enrollmentService,
+                    reportViews, replicationLog);
+            }
+        } catch (IOException e) {
+            err.println("Error starting server: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        boolean saveOnStop = save;
+        ExportFormat saveFormat = format;
+        Path saveDirectory = dataDirectory;
+        WireServer startedWireServer = wireServer;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            out.println("Stopping server");
+            server.stop();
+            if (startedWireServer != null) {
+                startedWireServer.stop();
+            }
+            if (saveOnStop) {
+                try {
+                    DataDirectory.save(importExportService, saveDirectory, saveFormat);
+                    out.println("Data saved to " + saveDirectory.toAbsolutePath().normalize());
+                } catch (IOException e) {
+                    err.println("Error saving data: " + e.getMessage());
+                }
+            }
+            stopped.countDown();
+        }, "ccrm-api-shutdown"));
+
+        server.start();
+        out.printf("Serving the CCRM API on http://localhost:%d/api/ using %s%n", server.getPort(),
+            server.isUsingVirtualThreads() ? "virtual threads" : threads + " threads");
+        if (wireServer != null) {
+            wireServer.start();
+            out.printf("Serving the binary protocol on port %d%n", wireServer.getPort());
+        }
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Serves the API from the shard servers until the process is stopped
+     */
+    private int route(String shardNodes, String shardMap, int port, int threads) {
+        ShardRouter router;
+        ApiServer server;
+        try {
+            List<InetSocketAddress> nodes = ShardRouter.parseNodes(shardNodes);
+            router = new ShardRouter(nodes, ShardMap.parse(nodes.size(), shardMap));
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+        try {
+            router.ping();
+            StudentService shardedStudents = new ShardedStudentService(router);
+            server = new ApiServer(port, threads, shardedStudents, new ShardedCourseService(router),
+                new ShardedEnrollmentService(router),
+                new ReportExporter(new ShardedReports(router, shardedStudents), shardedStudents), null);
+        } catch (ShardUnavailableException | IOException e) {
+            router.close();
+            err.println("Error starting router: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            out.println("Stopping router");
+            server.stop();
+            router.close();
+            stopped.countDown();
+        }, "ccrm-api-shutdown"));
+
+        server.start();
+        out.printf("Routing the CCRM API on http://localhost:%d/api/ to %d shards: %s%n", server.getPort(),
+            router.getShardCount(), shardNodes);
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Serves the API read-only from a copy of the primary's data, kept
+     * current from its replication log, until the process is stopped
+     */
+    private int follow(String primary, int port, int threads) {
+        ReplicaFollower follower;
+        try {
+            List<InetSocketAddress> nodes = ShardRouter.parseNodes(primary);
+            if (nodes.size() != 1) {
+                throw new IllegalArgumentException("A replica follows one primary, not " + primary);
+            }
+            follower = new ReplicaFollower(nodes.get(0), studentService, courseService, enrollmentService,
+                importExportService, replicationPollMillis);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+        ApiServer server;
+        try {
+            follower.start();
+            out.printf("Loaded %d students, %d courses and %d enrollments from the primary at %s%n",
+                studentService.count(), courseService.count(), enrollmentService.count(), primary);
+            server = new ApiServer(port, threads, studentService, courseService, enrollmentService,
+                new ReportExporter(reportViews, studentService), null, follower);
+        } catch (IOException e) {
+            follower.close();
+            err.println("Error starting replica: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            out.println("Stopping replica");
+            server.stop();
+            follower.close();
+            stopped.countDown();
+        }, "ccrm-api-shutdown"));
+
+        server.start();
+        out.printf("Serving the CCRM API read-only on http://localhost:%d/api/, following %s%n",
+            server.getPort(), primary);
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return EXIT_OK;
+    }
+}
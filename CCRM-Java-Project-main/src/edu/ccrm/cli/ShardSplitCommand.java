@@ -0,0 +1,118 @@
+package edu.ccrm.cli;
+
+import edu.ccrm.io.ExportFormat;
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportProgress;
+import edu.ccrm.service.DataSnapshot;
+import edu.ccrm.shard.ShardMap;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+/**
+ * Splits the data directory into one data directory per shard:
+ * <pre>
+ * shard-split &lt;output-dir&gt; --shards N [--shard-map DEPT=i,...] [--format csv|gzip] [--data dir]
+ * </pre>
+ * Shard {@code i} gets {@code <output-dir>/shard-i} holding every student,
+ * the courses of the departments the map assigns to it, and their
+ * enrollments. Start each shard with {@code serve --wire-port N --data
+ * <output-dir>/shard-i} and route to them with the same map.
+ */
+public class ShardSplitCommand implements Command {
+    public static final String NAME = "shard-split";
+
+    public static final String USAGE =
+        "shard-split <output-dir> --shards N [--shard-map DEPT=i,...] [--format csv|gzip] [--data dir]";
+
+    private final ImportExportService importExportService;
+    private final Path defaultDataDirectory;
+    private final String defaultShardMap;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ShardSplitCommand(ImportExportService importExportService, Path defaultDataDirectory,
+            String defaultShardMap, PrintStream out, PrintStream err) {
+        this.importExportService = importExportService;
+        this.defaultDataDirectory = defaultDataDirectory;
+        this.defaultShardMap = defaultShardMap;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Data directory of one shard under the output directory
+     */
+    public static Path shardDirectory(Path output, int shard) {
+        return output.resolve("shard-" + shard);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return USAGE;
+    }
+
+    @Override
+    public int run(String[] args) {
+        Path output = null;
+        int shards = 0;
+        String mapText = defaultShardMap;
+        ExportFormat format = ExportFormat.CSV;
+        Path dataDirectory = defaultDataDirectory;
+        ShardMap shardMap;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--shards" -> shards = Integer.parseInt(Command.value(args, ++i));
+                    case "--shard-map" -> mapText = Command.value(args, ++i);
+                    case "--format" -> format = ExportFormat.valueOf(Command.value(args, ++i).toUpperCase());
+                    case "--data" -> dataDirectory = Path.of(Command.value(args, ++i));
+                    default -> {
+                        if (output != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        output = Path.of(args[i]);
+                    }
+                }
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("No output directory given");
+            }
+            if (shards < 1) {
+                throw new IllegalArgumentException("--shards must be at least 1");
+            }
+            shardMap = ShardMap.parse(shards, mapText);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: " + USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            ImportProgress loaded = DataDirectory.load(importExportService, dataDirectory, out);
+            if (!DataDirectory.checkLoaded(loaded, dataDirectory, err)) {
+                return EXIT_FAILED;
+            }
+            DataSnapshot snapshot = importExportService.captureSnapshot();
+            for (int shard = 0; shard < shards; shard++) {
+                int target = shard;
+                Path directory = shardDirectory(output, shard);
+                DataSnapshot part =
+                    snapshot.withCourses(course -> shardMap.shardFor(course.department()) == target);
+                importExportService.exportSnapshot(part, directory, format);
+                out.printf("Shard %d: %d students, %d courses, %d enrollments in %s%n", shard,
+                    part.getStudents().size(), part.getCourses().size(), part.getEnrollments().size(),
+                    directory.toAbsolutePath().normalize());
+            }
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("Error splitting data: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+}
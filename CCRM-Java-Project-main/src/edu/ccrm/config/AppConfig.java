@@ -21,6 +21,20 @@ public class AppConfig {
     private int maxCreditsPerSemester = 18;
     private int maxBackupsToKeep = 5;
     private boolean debugMode = false;
+    private boolean compressBackups = false;
+    private boolean deduplicateBackups = false;
+    private int backupIntervalMinutes = 0;
+    private int reportParallelism = Runtime.getRuntime().availableProcessors();
+    private boolean metricsEnabled = true;
+    private int apiPort = 8080;
+    private int apiThreads = 64;
+    private int wirePort = 0;
+    private String shardNodes = "";
+    private String shardDepartments = "";
+    private String replicationPrimary = "";
+    private int replicationLogEntries = 100_000;
+    private int replicationPollMillis = 10;
+    private int gpaCacheEntries = 10_000;
 
     private AppConfig() {
         properties = new Properties();
@@ -61,6 +75,42 @@ public class AppConfig {
         debugMode = Boolean.parseBoolean(
             properties.getProperty("debug.mode", 
                 String.valueOf(debugMode)));
+        compressBackups = Boolean.parseBoolean(
+            properties.getProperty("backup.compress", 
+                String.valueOf(compressBackups)));
+        deduplicateBackups = Boolean.parseBoolean(
+            properties.getProperty("backup.deduplicate", 
+                String.valueOf(deduplicateBackups)));
+        backupIntervalMinutes = Integer.parseInt(
+            properties.getProperty("backup.interval.minutes", 
+                String.valueOf(backupIntervalMinutes)));
+        reportParallelism = Integer.parseInt(
+            properties.getProperty("report.parallelism", 
+                String.valueOf(reportParallelism)));
+        metricsEnabled = Boolean.parseBoolean(
+            properties.getProperty("metrics.enabled", 
+                String.valueOf(metricsEnabled)));
+        apiPort = Integer.parseInt(
+            properties.getProperty("api.port", 
+                String.valueOf(apiPort)));
+        apiThreads = Integer.parseInt(
+            properties.getProperty("api.threads", 
+                String.valueOf(apiThreads)));
+        wirePort = Integer.parseInt(
+            properties.getProperty("wire.port", 
+                String.valueOf(wirePort)));
+        shardNodes = properties.getProperty("shard.nodes", shardNodes);
+        shardDepartments = properties.getProperty("shard.departments", shardDepartments);
+        replicationPrimary = properties.getProperty("replication.primary", replicationPrimary);
+        replicationLogEntries = Integer.parseInt(
+            properties.getProperty("replication.log.entries", 
+                String.valueOf(replicationLogEntries)));
+        replicationPollMillis = Integer.parseInt(
+            properties.getProperty("replication.poll.millis", 
+                String.valueOf(replicationPollMillis)));
+        gpaCacheEntries = Integer.parseInt(
+            properties.getProperty("gpa.cache.entries", 
+                String.valueOf(gpaCacheEntries)));
     }
 
     public Path getDataDirectory() {
@@ -83,6 +133,72 @@ public class AppConfig {
         return debugMode;
     }
 
+    public boolean isCompressBackups() {
+        return compressBackups;
+    }
+
+    public boolean isDeduplicateBackups() {
+        return deduplicateBackups;
+    }
+
+    // Zero disables scheduled background backups
+    public int getBackupIntervalMinutes() {
+        return backupIntervalMinutes;
+    }
+
+    // One computes reports on a single thread
+    public int getReportParallelism() {
+        return reportParallelism;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int getApiPort() {
+        return apiPort;
+    }
+
+    // Only used on JVMs without virtual threads
+    public int getApiThreads() {
+        return apiThreads;
+    }
+
+    // 0 leaves the binary protocol server off
+    public int getWirePort() {
+        return wirePort;
+    }
+
+    // Shard servers as host:port,host:port; empty serves the local data instead of routing
+    public String getShardNodes() {
+        return shardNodes;
+    }
+
+    // Departments pinned to shards as DEPT=index,DEPT=index; others are placed by hash
+    public String getShardDepartments() {
+        return shardDepartments;
+    }
+
+    // Primary's binary protocol address as host:port; empty serves as a primary instead of a replica
+    public String getReplicationPrimary() {
+        return replicationPrimary;
+    }
+
+    // Changes a primary keeps for replicas to catch up on; 0 keeps no log
+    public int getReplicationLogEntries() {
+        return replicationLogEntries;
+    }
+
+    // How long a caught-up replica waits before asking its primary for changes again
+    public int getReplicationPollMillis() {
+        return replicationPollMillis;
+    }
+
+    // Semester GPAs the enrollment service keeps between calls; 0 computes each one afresh
+    public int getGpaCacheEntries() {
+        return gpaCacheEntries;
+    }
+
     public void setDataDirectory(String dataDirectory) {
         this.dataDirectory = dataDirectory;
     }
@@ -103,6 +219,50 @@ public class AppConfig {
         this.debugMode = debugMode;
     }
 
+    public void setCompressBackups(boolean compressBackups) {
+        this.compressBackups = compressBackups;
+    }
+
+    public void setDeduplicateBackups(boolean deduplicateBackups) {
+        this.deduplicateBackups = deduplicateBackups;
+    }
+
+    public void setBackupIntervalMinutes(int backupIntervalMinutes) {
+        this.backupIntervalMinutes = backupIntervalMinutes;
+    }
+
+    public void setReportParallelism(int reportParallelism) {
+        this.reportParallelism = reportParallelism;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    public void setApiPort(int apiPort) {
+        this.apiPort = apiPort;
+    }
+
+    public void setApiThreads(int apiThreads) {
+        this.apiThreads = apiThreads;
+    }
+
+    public void setWirePort(int wirePort) {
+        this.wirePort = wirePort;
+    }
+
+    public void setShardNodes(String shardNodes) {
+        this.shardNodes = shardNodes;
+    }
+
+    public void setShardDepartments(String shardDepartments) {
+        this.shardDepartments = shardDepartments;
+    }
+
+    public void setReplicationPrimary(String replicationPrimary) {
+        this.replicationPrimary = replicationPrimary;
+    }
+
     // Debug logging utility method
     public void debug(String message) {
         if (debugMode) {
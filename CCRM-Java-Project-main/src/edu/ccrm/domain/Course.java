@@ -1,5 +1,11 @@
 package edu.ccrm.domain;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * Course class representing a course in the CCRM system.
  * Demonstrates Builder pattern and immutable course code.
@@ -12,6 +18,8 @@ public class Course {
     private String department;
     private Semester semester;
     private boolean active;
+    private Set<String> prerequisites;
+    private LocalDateTime updatedAt;
 
     private Course(Builder builder) {
         this.code = builder.code;
@@ -21,6 +29,8 @@ public class Course {
         this.department = builder.department;
         this.semester = builder.semester;
         this.active = true;
+        this.prerequisites = copyOf(builder.prerequisites);
+        this.updatedAt = LocalDateTime.now();
     }
 
     // Getters
@@ -34,6 +44,7 @@ public class Course {
 
     public void setTitle(String title) {
         this.title = title;
+        this.updatedAt = LocalDateTime.now();
     }
 
     public int getCredits() {
@@ -42,6 +53,7 @@ public class Course {
 
     public void setCredits(int credits) {
         this.credits = credits;
+        this.updatedAt = LocalDateTime.now();
     }
 
     public Instructor getInstructor() {
@@ -50,6 +62,7 @@ public class Course {
 
     public void setInstructor(Instructor instructor) {
         this.instructor = instructor;
+        this.updatedAt = LocalDateTime.now();
     }
 
     public String getDepartment() {
@@ -58,6 +71,7 @@ public class Course {
 
     public void setDepartment(String department) {
         this.department = department;
+        this.updatedAt = LocalDateTime.now();
     }
 
     public Semester getSemester() {
@@ -66,6 +80,7 @@ public class Course {
 
     public void setSemester(Semester semester) {
         this.semester = semester;
+        this.updatedAt = LocalDateTime.now();
     }
 
     public boolean isActive() {
@@ -74,13 +89,40 @@ public class Course {
 
     public void setActive(boolean active) {
         this.active = active;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Codes of the courses a student must have passed before enrolling
+     */
+    public Set<String> getPrerequisites() {
+        return prerequisites;
+    }
+
+    /**
+     * Replaces the prerequisites. Change those of a saved course through
+     * {@code CourseService.setPrerequisites}, which rejects cycles first.
+     */
+    public void setPrerequisites(Collection<String> prerequisites) {
+        this.prerequisites = copyOf(prerequisites);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    private static Set<String> copyOf(Collection<String> codes) {
+        return codes == null || codes.isEmpty() ? Set.of()
+            : Collections.unmodifiableSet(new LinkedHashSet<>(codes));
     }
 
     @Override
     public String toString() {
-        return String.format("Course[code=%s, title=%s, credits=%d, instructor=%s, department=%s, semester=%s]",
-            code, title, credits, instructor != null ? instructor.getFullName() : "TBA",
-            department, semester);
+        return String.format(
+            "Course[code=%s, title=%s, credits=%d, instructor=%s, department=%s, semester=%s%s]",
+            code, title, credits, instructor != null ? instructor.getFullName() : "TBA", department,
+            semester, prerequisites.isEmpty() ? "" : ", prerequisites=" + prerequisites);
     }
 
     // Builder class
@@ -94,6 +136,7 @@ public class Course {
         private Instructor instructor;
         private String department;
         private Semester semester;
+        private Collection<String> prerequisites;
 
         public Builder(String code) {
             this.code = code;
@@ -124,6 +167,11 @@ public class Course {
             return this;
         }
 
+        public Builder prerequisites(Collection<String> prerequisites) {
+            this.prerequisites = prerequisites;
+            return this;
+        }
+
         public Course build() {
             return new Course(this);
         }
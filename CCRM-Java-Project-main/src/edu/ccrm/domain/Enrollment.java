@@ -13,6 +13,7 @@ public class Enrollment {
     private final LocalDateTime enrollmentDate;
     private LocalDateTime withdrawalDate;
     private EnrollmentStatus status;
+    private LocalDateTime updatedAt;
 
     public enum EnrollmentStatus {
         ENROLLED,
@@ -25,6 +26,22 @@ public class Enrollment {
         this.course = course;
         this.enrollmentDate = LocalDateTime.now();
         this.status = EnrollmentStatus.ENROLLED;
+        this.updatedAt = enrollmentDate;
+    }
+
+    /**
+     * Recreates an enrollment with its recorded state, e.g. one read
+     * from another process
+     */
+    public Enrollment(Student student, Course course, LocalDateTime enrollmentDate, EnrollmentStatus status,
+            Grade grade, LocalDateTime withdrawalDate, LocalDateTime updatedAt) {
+        this.student = student;
+        this.course = course;
+        this.enrollmentDate = enrollmentDate;
+        this.status = status;
+        this.grade = grade;
+        this.withdrawalDate = withdrawalDate;
+        this.updatedAt = updatedAt;
     }
 
     public Student getStudent() {
@@ -44,6 +61,7 @@ public class Enrollment {
         if (grade != null) {
             this.status = EnrollmentStatus.COMPLETED;
         }
+        this.updatedAt = LocalDateTime.now();
     }
 
     public LocalDateTime getEnrollmentDate() {
@@ -61,6 +79,11 @@ public class Enrollment {
     public void withdraw() {
         this.status = EnrollmentStatus.WITHDRAWN;
         this.withdrawalDate = LocalDateTime.now();
+        this.updatedAt = withdrawalDate;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
     }
 
     @Override
@@ -28,6 +28,13 @@ public enum Grade {
         return description;
     }
 
+    /**
+     * Whether the grade passes the course, meeting it as a prerequisite
+     */
+    public boolean isPassing() {
+        return this != F;
+    }
+
     @Override
     public String toString() {
         return String.format("%s (%s, %.1f points)", name(), description, points);
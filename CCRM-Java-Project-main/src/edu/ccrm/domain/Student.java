@@ -2,7 +2,6 @@ package edu.ccrm.domain;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -12,13 +11,21 @@ import java.util.List;
 public class Student extends Person {
     private String regNo;
     private LocalDate enrollmentDate;
-    private List<Enrollment> enrolledCourses;
-    private double gpa;
+    // Guarded by this student, which enrollment changes also lock
+    private final List<Enrollment> enrolledCourses;
+    private volatile double gpa;
 
     public Student(String id, String fullName, String email, String regNo) {
+        this(id, fullName, email, regNo, LocalDate.now());
+    }
+
+    /**
+     * Recreates a student admitted on an earlier date, e.g. one read from a file
+     */
+    public Student(String id, String fullName, String email, String regNo, LocalDate enrollmentDate) {
         super(id, fullName, email);
         this.regNo = regNo;
-        this.enrollmentDate = LocalDate.now();
+        this.enrollmentDate = enrollmentDate;
         this.enrolledCourses = new ArrayList<>();
         this.gpa = 0.0;
     }
@@ -36,17 +43,17 @@ public class Student extends Person {
         return enrollmentDate;
     }
 
-    // Returns an unmodifiable view of the enrollments
-    public List<Enrollment> getEnrolledCourses() {
-        return Collections.unmodifiableList(enrolledCourses);
+    // Returns a copy of the enrollments, safe to read while they change
+    public synchronized List<Enrollment> getEnrolledCourses() {
+        return List.copyOf(enrolledCourses);
     }
 
-    public void addEnrollment(Enrollment enrollment) {
+    public synchronized void addEnrollment(Enrollment enrollment) {
         enrolledCourses.add(enrollment);
         updateGPA();
     }
 
-    public void removeEnrollment(Enrollment enrollment) {
+    public synchronized void removeEnrollment(Enrollment enrollment) {
         enrolledCourses.remove(enrollment);
         updateGPA();
     }
@@ -55,6 +62,13 @@ public class Student extends Person {
         return gpa;
     }
 
+    /**
+     * Recomputes the GPA after a grade changed on one of the enrollments
+     */
+    public synchronized void recalculateGpa() {
+        updateGPA();
+    }
+
     private void updateGPA() {
         if (enrolledCourses.isEmpty()) {
             gpa = 0.0;
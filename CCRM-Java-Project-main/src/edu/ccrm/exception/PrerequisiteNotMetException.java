@@ -0,0 +1,9 @@
+package edu.ccrm.exception;
+
+public class PrerequisiteNotMetException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PrerequisiteNotMetException(String message) {
+        super(message);
+    }
+}
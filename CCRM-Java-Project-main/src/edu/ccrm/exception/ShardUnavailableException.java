@@ -0,0 +1,17 @@
+package edu.ccrm.exception;
+
+/**
+ * Thrown when a shard of a partitioned deployment cannot be reached or
+ * fails a request, so the router cannot give a complete answer
+ */
+public class ShardUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ShardUnavailableException(String message) {
+        super(message);
+    }
+
+    public ShardUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
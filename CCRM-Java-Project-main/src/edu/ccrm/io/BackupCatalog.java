@@ -0,0 +1,265 @@
+package edu.ccrm.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent index of known backups with their timestamp, size, record
+ * count and verification status. Listing and sizing read the index instead
+ * of walking every backup; the backup directories are only re-scanned when
+ * their modification times show that something was added or removed
+ * outside this catalog.
+ */
+public class BackupCatalog {
+    public static final String FILE_NAME = "catalog.idx";
+    private static final String STAMP_PREFIX = "stamp=";
+    private static final String SEPARATOR = "\t";
+    private static final String NONE = "-";
+
+    public enum VerificationStatus {
+        UNVERIFIED,
+        VALID,
+        DAMAGED
+    }
+
+    /**
+     * Catalog entry for one backup directory or manifest
+     */
+    public record Entry(Path path, BackupMetadata.BackupType type, LocalDateTime snapshotTime,
+            String baseBackup, long size, long uncompressedSize, long records, boolean compressed,
+            boolean deduplicated, VerificationStatus status, LocalDateTime verifiedAt) {
+
+        public String name() {
+            return path.getFileName().toString();
+        }
+
+        public boolean isIncremental() {
+            return type == BackupMetadata.BackupType.INCREMENTAL;
+        }
+
+        Entry withVerification(VerificationStatus status, LocalDateTime verifiedAt) {
+            return new Entry(path, type, snapshotTime, baseBackup, size, uncompressedSize,
+                records, compressed, deduplicated, status, verifiedAt);
+        }
+    }
+
+    /**
+     * Builds the entry for a backup found on disk that is not yet catalogued
+     */
+    @FunctionalInterface
+    public interface EntryLoader {
+        Entry load(Path backup) throws IOException;
+    }
+
+    /**
+     * Lists the backups currently on disk
+     */
+    @FunctionalInterface
+    public interface BackupScanner {
+        List<Path> scan() throws IOException;
+    }
+
+    private final Path indexFile;
+    private final List<Path> watchedDirs;
+    private final BackupScanner scanner;
+    private final EntryLoader loader;
+    private final Map<String, Entry> entries = new TreeMap<>();
+    private List<Long> stamps = List.of();
+    private boolean loaded;
+
+    /**
+     * @param watchedDirs directories whose modification time changes when a
+     *                    backup is added to or removed from them
+     */
+    public BackupCatalog(Path indexFile, List<Path> watchedDirs, BackupScanner scanner,
+            EntryLoader loader) {
+        this.indexFile = indexFile;
+        this.watchedDirs = List.copyOf(watchedDirs);
+        this.scanner = scanner;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns all catalogued backups ordered by name, re-scanning first if
+     * the backup directories changed since the catalog was last synced
+     */
+    public synchronized List<Entry> getEntries() throws IOException {
+        refresh();
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Returns the entry for a backup, or null if it is not a known backup
+     */
+    public synchronized Entry getEntry(Path backup) throws IOException {
+        refresh();
+        return entries.get(backup.getFileName().toString());
+    }
+
+    /**
+     * Records a backup that was just written, replacing any entry a
+     * concurrent re-scan built while the backup was still being written
+     */
+    public synchronized void add(Path backup) throws IOException {
+        ensureLoaded();
+        entries.put(backup.getFileName().toString(), loader.load(backup));
+        save();
+    }
+
+    public synchronized void remove(Path backup) throws IOException {
+        ensureLoaded();
+        if (entries.remove(backup.getFileName().toString()) != null) {
+            save();
+        }
+    }
+
+    public synchronized void recordVerification(Path backup, boolean valid) throws IOException {
+        ensureLoaded();
+        String name = backup.getFileName().toString();
+        Entry entry = entries.get(name);
+        if (entry != null) {
+            entries.put(name, entry.withVerification(
+                valid ? VerificationStatus.VALID : VerificationStatus.DAMAGED, LocalDateTime.now()));
+            save();
+        }
+    }
+
+    /**
+     * Discards the index and rebuilds it from the backups on disk
+     */
+    public synchronized void rebuild() throws IOException {
+        ensureLoaded();
+        entries.clear();
+        stamps = List.of();
+        refresh();
+    }
+
+    private void refresh() throws IOException {
+        ensureLoaded();
+        // Read the stamps before listing so a change made during the scan triggers another one
+        List<Long> current = readStamps();
+        if (current.equals(stamps)) {
+            return;
+        }
+
+        Map<String, Path> onDisk = new TreeMap<>();
+        for (Path backup : scanner.scan()) {
+            onDisk.put(backup.getFileName().toString(), backup);
+        }
+        entries.keySet().retainAll(onDisk.keySet());
+        for (Map.Entry<String, Path> backup : onDisk.entrySet()) {
+            if (!entries.containsKey(backup.getKey())) {
+                entries.put(backup.getKey(), loader.load(backup.getValue()));
+            }
+        }
+        stamps = current;
+        save();
+    }
+
+    private List<Long> readStamps() throws IOException {
+        List<Long> result = new ArrayList<>();
+        for (Path dir : watchedDirs) {
+            try {
+                result.add(Files.getLastModifiedTime(dir).to(TimeUnit.NANOSECONDS));
+            } catch (NoSuchFileException e) {
+                result.add(0L);
+            }
+        }
+        return result;
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            if (first == null || !first.startsWith(STAMP_PREFIX)) {
+                return;
+            }
+            List<Long> savedStamps = new ArrayList<>();
+            for (String stamp : first.substring(STAMP_PREFIX.length()).split(",")) {
+                if (!stamp.isEmpty()) {
+                    savedStamps.add(Long.parseLong(stamp));
+                }
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    Entry entry = parseEntry(line);
+                    entries.put(entry.name(), entry);
+                }
+            }
+            stamps = savedStamps;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            // A damaged index is only a cache; forget it and re-scan
+            entries.clear();
+            stamps = List.of();
+        }
+    }
+
+    private void save() throws IOException {
+        Files.createDirectories(indexFile.getParent());
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            List<String> stampValues = new ArrayList<>();
+            stamps.forEach(stamp -> stampValues.add(String.valueOf(stamp)));
+            writer.write(STAMP_PREFIX + String.join(",", stampValues));
+            writer.newLine();
+            for (Entry entry : entries.values()) {
+                writer.write(formatEntry(entry));
+                writer.newLine();
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String formatEntry(Entry entry) {
+        return String.join(SEPARATOR,
+            entry.path().toString(),
+            entry.type().name(),
+            entry.snapshotTime().toString(),
+            entry.baseBackup() == null ? NONE : entry.baseBackup(),
+            String.valueOf(entry.size()),
+            String.valueOf(entry.uncompressedSize()),
+            String.valueOf(entry.records()),
+            String.valueOf(entry.compressed()),
+            String.valueOf(entry.deduplicated()),
+            entry.status().name(),
+            entry.verifiedAt() == null ? NONE : entry.verifiedAt().toString());
+    }
+
+    private static Entry parseEntry(String line) {
+        String[] parts = line.split(SEPARATOR);
+        return new Entry(
+            Path.of(parts[0]),
+            BackupMetadata.BackupType.valueOf(parts[1]),
+            LocalDateTime.parse(parts[2]),
+            NONE.equals(parts[3]) ? null : parts[3],
+            Long.parseLong(parts[4]),
+            Long.parseLong(parts[5]),
+            Long.parseLong(parts[6]),
+            Boolean.parseBoolean(parts[7]),
+            Boolean.parseBoolean(parts[8]),
+            VerificationStatus.valueOf(parts[9]),
+            NONE.equals(parts[10]) ? null : LocalDateTime.parse(parts[10]));
+    }
+}
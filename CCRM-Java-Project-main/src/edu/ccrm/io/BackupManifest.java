@@ -0,0 +1,156 @@
+package edu.ccrm.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manifest describing a backup stored in the deduplicating repository.
+ * Each exported file is recorded as the ordered list of chunks it is made of.
+ */
+public class BackupManifest {
+    public static final String EXTENSION = ".manifest";
+    private static final String SNAPSHOT_PREFIX = "snapshot.time=";
+    private static final String FILE_PREFIX = "file=";
+    private static final String RECORDS_PREFIX = "records=";
+
+    private final LocalDateTime snapshotTime;
+    private final Map<String, List<ChunkRef>> files = new LinkedHashMap<>();
+    private final Map<String, Long> recordCounts = new LinkedHashMap<>();
+
+    /**
+     * Reference to a stored chunk by content hash and length
+     */
+    public static class ChunkRef {
+        private final String hash;
+        private final int length;
+
+        public ChunkRef(String hash, int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+
+    public BackupManifest(LocalDateTime snapshotTime) {
+        this.snapshotTime = snapshotTime;
+    }
+
+    public LocalDateTime getSnapshotTime() {
+        return snapshotTime;
+    }
+
+    public void addFile(String fileName, List<ChunkRef> chunks) {
+        files.put(fileName, new ArrayList<>(chunks));
+    }
+
+    public Map<String, List<ChunkRef>> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    public void setRecordCount(String fileName, long records) {
+        recordCounts.put(fileName, records);
+    }
+
+    /**
+     * Number of records across all files, or -1 for manifests written
+     * before record counts were kept
+     */
+    public long getTotalRecords() {
+        if (recordCounts.isEmpty()) {
+            return -1;
+        }
+        return recordCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Total size of the backed up data, counting shared chunks once per use
+     */
+    public long getLogicalSize() {
+        return files.values().stream()
+            .flatMap(List::stream)
+            .mapToLong(ChunkRef::getLength)
+            .sum();
+    }
+
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(SNAPSHOT_PREFIX + snapshotTime);
+            writer.newLine();
+            for (Map.Entry<String, List<ChunkRef>> entry : files.entrySet()) {
+                writer.write(FILE_PREFIX + entry.getKey());
+                writer.newLine();
+                Long records = recordCounts.get(entry.getKey());
+                if (records != null) {
+                    writer.write(RECORDS_PREFIX + records);
+                    writer.newLine();
+                }
+                for (ChunkRef chunk : entry.getValue()) {
+                    writer.write(chunk.getHash() + " " + chunk.getLength());
+                    writer.newLine();
+                }
+            }
+        }
+        // Publish atomically so a crash never leaves a half-written manifest
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, 
+            StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static BackupManifest load(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            if (first == null || !first.startsWith(SNAPSHOT_PREFIX)) {
+                throw new IOException("Invalid manifest header in " + file);
+            }
+            BackupManifest manifest = new BackupManifest(
+                LocalDateTime.parse(first.substring(SNAPSHOT_PREFIX.length())));
+
+            String currentFile = null;
+            List<ChunkRef> chunks = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(FILE_PREFIX)) {
+                    if (currentFile != null) {
+                        manifest.addFile(currentFile, chunks);
+                    }
+                    currentFile = line.substring(FILE_PREFIX.length());
+                    chunks = new ArrayList<>();
+                } else if (line.startsWith(RECORDS_PREFIX) && currentFile != null) {
+                    manifest.setRecordCount(currentFile, 
+                        Long.parseLong(line.substring(RECORDS_PREFIX.length())));
+                } else if (!line.isEmpty()) {
+                    String[] parts = line.split(" ");
+                    if (currentFile == null || parts.length != 2) {
+                        throw new IOException("Invalid manifest entry in " + file + ": " + line);
+                    }
+                    chunks.add(new ChunkRef(parts[0], Integer.parseInt(parts[1])));
+                }
+            }
+            if (currentFile != null) {
+                manifest.addFile(currentFile, chunks);
+            }
+            return manifest;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IOException("Invalid manifest " + file, e);
+        }
+    }
+}
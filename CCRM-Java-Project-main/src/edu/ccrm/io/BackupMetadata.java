@@ -0,0 +1,161 @@
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Metadata describing a single backup directory.
+ * Incremental backups record the backup they are based on, forming a chain
+ * that always ends in a full backup.
+ */
+public class BackupMetadata {
+    public static final String FILE_NAME = "backup.properties";
+    private static final DateTimeFormatter LEGACY_NAME_FORMAT =
+        DateTimeFormatter.ofPattern("'backup_'yyyyMMdd_HHmmss");
+
+    public enum BackupType {
+        FULL,
+        INCREMENTAL
+    }
+
+    private static final String FILE_KEY_PREFIX = "file.";
+    private static final String SIZE_SUFFIX = ".size";
+    private static final String RECORDS_SUFFIX = ".records";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+
+    private final BackupType type;
+    private final LocalDateTime snapshotTime;
+    private final String baseBackup;
+    private final Map<String, FileChecksum> files;
+
+    /**
+     * Expected size, record count and SHA-256 checksum of one backup file
+     */
+    public record FileChecksum(String fileName, long size, long records, String sha256) {
+    }
+
+    public BackupMetadata(BackupType type, LocalDateTime snapshotTime, String baseBackup) {
+        this(type, snapshotTime, baseBackup, Map.of());
+    }
+
+    public BackupMetadata(BackupType type, LocalDateTime snapshotTime, String baseBackup,
+            Map<String, FileChecksum> files) {
+        this.type = type;
+        this.snapshotTime = snapshotTime;
+        this.baseBackup = baseBackup;
+        this.files = Collections.unmodifiableMap(new TreeMap<>(files));
+    }
+
+    public BackupType getType() {
+        return type;
+    }
+
+    /**
+     * Time the backup started reading data; later changes belong to the next delta
+     */
+    public LocalDateTime getSnapshotTime() {
+        return snapshotTime;
+    }
+
+    /**
+     * Directory name of the backup this one is based on, or null for full backups
+     */
+    public String getBaseBackup() {
+        return baseBackup;
+    }
+
+    public boolean isIncremental() {
+        return type == BackupType.INCREMENTAL;
+    }
+
+    /**
+     * Checksums of the files in the backup; empty for backups written
+     * before checksums were recorded
+     */
+    public Map<String, FileChecksum> getFiles() {
+        return files;
+    }
+
+    public boolean hasChecksums() {
+        return !files.isEmpty();
+    }
+
+    public long getTotalRecords() {
+        return files.values().stream().mapToLong(FileChecksum::records).sum();
+    }
+
+    public void save(Path backupDir) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("type", type.name());
+        properties.setProperty("snapshot.time", snapshotTime.toString());
+        if (baseBackup != null) {
+            properties.setProperty("base.backup", baseBackup);
+        }
+        for (FileChecksum file : files.values()) {
+            String prefix = FILE_KEY_PREFIX + file.fileName();
+            properties.setProperty(prefix + SIZE_SUFFIX, String.valueOf(file.size()));
+            properties.setProperty(prefix + RECORDS_SUFFIX, String.valueOf(file.records()));
+            properties.setProperty(prefix + CHECKSUM_SUFFIX, file.sha256());
+        }
+        try (OutputStream out = Files.newOutputStream(backupDir.resolve(FILE_NAME))) {
+            properties.store(out, "CCRM backup metadata");
+        }
+    }
+
+    /**
+     * Loads metadata for a backup. Backups written before metadata existed
+     * are treated as full backups taken at the time in their directory name.
+     */
+    public static BackupMetadata load(Path backupDir) throws IOException {
+        Path file = backupDir.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return new BackupMetadata(BackupType.FULL, legacySnapshotTime(backupDir), null);
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        try {
+            Map<String, FileChecksum> files = new TreeMap<>();
+            for (String key : properties.stringPropertyNames()) {
+                if (key.startsWith(FILE_KEY_PREFIX) && key.endsWith(CHECKSUM_SUFFIX)) {
+                    String fileName = key.substring(FILE_KEY_PREFIX.length(),
+                        key.length() - CHECKSUM_SUFFIX.length());
+                    String prefix = FILE_KEY_PREFIX + fileName;
+                    files.put(fileName, new FileChecksum(fileName,
+                        Long.parseLong(properties.getProperty(prefix + SIZE_SUFFIX)),
+                        Long.parseLong(properties.getProperty(prefix + RECORDS_SUFFIX, "-1")),
+                        properties.getProperty(key)));
+                }
+            }
+            return new BackupMetadata(
+                BackupType.valueOf(properties.getProperty("type", BackupType.FULL.name())),
+                LocalDateTime.parse(properties.getProperty("snapshot.time")),
+                properties.getProperty("base.backup"),
+                files);
+        } catch (IllegalArgumentException | NullPointerException | DateTimeParseException e) {
+            throw new IOException("Invalid backup metadata in " + file, e);
+        }
+    }
+
+    private static LocalDateTime legacySnapshotTime(Path backupDir) throws IOException {
+        try {
+            return LocalDateTime.parse(backupDir.getFileName().toString(), LEGACY_NAME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.ofInstant(
+                Files.getLastModifiedTime(backupDir).toInstant(), ZoneId.systemDefault());
+        }
+    }
+}
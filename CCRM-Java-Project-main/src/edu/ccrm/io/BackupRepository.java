@@ -0,0 +1,361 @@
+package edu.ccrm.io;
+
+import edu.ccrm.service.DataSnapshot;
+import edu.ccrm.util.RecursiveFileUtil;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed, deduplicating backup store.
+ * Export streams are split into content-defined chunks and every chunk is
+ * stored once under its SHA-256 hash; a backup is only a manifest listing
+ * the chunks of each file. Unchanged data between backups costs no space.
+ * Writes and garbage collection are serialized so a backup in progress
+ * never loses chunks that are not yet referenced by its manifest.
+ */
+public class BackupRepository {
+    private static final String CHUNKS_DIR = "chunks";
+    private static final String MANIFESTS_DIR = "manifests";
+    private static final String BACKUP_PREFIX = "backup_";
+    private static final DateTimeFormatter BACKUP_TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    // Chunk boundaries: 2 KiB minimum, ~8 KiB average, 64 KiB maximum
+    static final int MIN_CHUNK_SIZE = 2 * 1024;
+    static final int MAX_CHUNK_SIZE = 64 * 1024;
+    private static final long BOUNDARY_MASK = (1L << 13) - 1;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // Fixed seed so chunk boundaries are stable across runs
+        SplittableRandom random = new SplittableRandom(0x4343524DL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final Path root;
+    private final Path chunksDir;
+    private final Path manifestsDir;
+    private final ImportExportService importExportService;
+
+    public BackupRepository(Path root, ImportExportService importExportService) {
+        this.root = root;
+        this.chunksDir = root.resolve(CHUNKS_DIR);
+        this.manifestsDir = root.resolve(MANIFESTS_DIR);
+        this.importExportService = importExportService;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public Path getManifestsDir() {
+        return manifestsDir;
+    }
+
+    /**
+     * Resolves a manifest file name to its location in the repository
+     */
+    public Path resolveManifest(String name) {
+        return manifestsDir.resolve(name);
+    }
+
+    /**
+     * Returns true if the path names a manifest in this repository
+     */
+    public boolean isManifest(Path path) {
+        return path.getFileName().toString().endsWith(BackupManifest.EXTENSION)
+            && path.toAbsolutePath().getParent().equals(manifestsDir.toAbsolutePath());
+    }
+
+    /**
+     * Exports the current data into the repository and writes its manifest
+     */
+    public synchronized Path createBackup() throws IOException {
+        Files.createDirectories(chunksDir);
+        Files.createDirectories(manifestsDir);
+
+        DataSnapshot snapshot = importExportService.captureSnapshot();
+        BackupManifest manifest = new BackupManifest(snapshot.getCapturedAt());
+        importExportService.exportSnapshot(snapshot,
+            fileName -> new ChunkingOutputStream(fileName, manifest), ExportFormat.CSV)
+            .forEach(manifest::setRecordCount);
+
+        String name = BACKUP_PREFIX + snapshot.getCapturedAt().format(BACKUP_TIMESTAMP_FORMAT);
+        Path manifestFile = manifestsDir.resolve(name + BackupManifest.EXTENSION);
+        for (int i = 1; Files.exists(manifestFile); i++) {
+            manifestFile = manifestsDir.resolve(name + "_" + i + BackupManifest.EXTENSION);
+        }
+        manifest.save(manifestFile);
+        return manifestFile;
+    }
+
+    /**
+     * Lists manifests ordered by timestamp
+     */
+    public List<Path> listBackups() throws IOException {
+        if (!Files.isDirectory(manifestsDir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> paths = Files.list(manifestsDir)) {
+            return paths
+                .filter(path -> path.getFileName().toString().endsWith(BackupManifest.EXTENSION))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    public BackupManifest loadManifest(Path manifestFile) throws IOException {
+        return BackupManifest.load(manifestFile);
+    }
+
+    /**
+     * Reassembles the files of a backup into the target directory
+     */
+    public void materialize(Path manifestFile, Path targetDir) throws IOException {
+        BackupManifest manifest = loadManifest(manifestFile);
+        Files.createDirectories(targetDir);
+        for (Map.Entry<String, List<BackupManifest.ChunkRef>> entry : manifest.getFiles().entrySet()) {
+            try (OutputStream out = Files.newOutputStream(targetDir.resolve(entry.getKey()))) {
+                for (BackupManifest.ChunkRef chunk : entry.getValue()) {
+                    out.write(Files.readAllBytes(chunkPath(chunk.getHash())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores a backup by reassembling it into a scratch directory and
+     * importing it into the given service, normally a staging instance
+     */
+    public void restore(Path manifestFile, ImportExportService target, ImportProgress progress) 
+            throws IOException {
+        Files.createDirectories(root);
+        Path scratch = Files.createTempDirectory(root, "restore_");
+        try {
+            materialize(manifestFile, scratch);
+            target.importData(scratch, progress);
+        } finally {
+            RecursiveFileUtil.parallelDeleteDirectory(scratch);
+        }
+    }
+
+    /**
+     * Checks that every chunk referenced by the manifest exists and still
+     * matches its hash
+     */
+    public boolean verify(Path manifestFile) {
+        BackupVerificationReport report = new BackupVerificationReport(manifestFile);
+        verify(manifestFile, report, "");
+        return report.isValid();
+    }
+
+    /**
+     * Verifies all chunks of a manifest in parallel, reporting each damaged
+     * chunk against the files that use it
+     */
+    void verify(Path manifestFile, BackupVerificationReport report, String prefix) {
+        BackupManifest manifest;
+        try {
+            manifest = loadManifest(manifestFile);
+        } catch (IOException e) {
+            report.addProblem(prefix + "manifest unreadable (" + e.getMessage() + ")");
+            return;
+        }
+        Map<String, String> chunkProblems = manifest.getFiles().values().stream()
+            .flatMap(List::stream)
+            .map(BackupManifest.ChunkRef::getHash)
+            .distinct()
+            .parallel()
+            .map(hash -> new AbstractMap.SimpleEntry<>(hash, checkChunk(hash)))
+            .filter(entry -> entry.getValue() != null)
+            .collect(Collectors.toConcurrentMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        for (Map.Entry<String, List<BackupManifest.ChunkRef>> file : manifest.getFiles().entrySet()) {
+            long offset = 0;
+            long size = 0;
+            for (BackupManifest.ChunkRef chunk : file.getValue()) {
+                String problem = chunkProblems.get(chunk.getHash());
+                if (problem != null) {
+                    report.addProblem(String.format("%s%s: chunk %s at offset %d %s",
+                        prefix, file.getKey(), chunk.getHash(), offset, problem));
+                }
+                offset += chunk.getLength();
+                size += chunk.getLength();
+            }
+            report.recordFile(size);
+        }
+    }
+
+    /**
+     * Deletes a manifest and collects chunks that are no longer referenced
+     */
+    public synchronized void deleteBackup(Path manifestFile) throws IOException {
+        Files.deleteIfExists(manifestFile);
+        collectGarbage();
+    }
+
+    /**
+     * Removes old manifests keeping only the specified number of recent ones,
+     * then collects unreferenced chunks
+     */
+    public synchronized void cleanupOldBackups(int keepCount) throws IOException {
+        List<Path> backups = listBackups();
+        if (backups.size() > keepCount) {
+            for (int i = 0; i < backups.size() - keepCount; i++) {
+                Files.deleteIfExists(backups.get(i));
+            }
+            collectGarbage();
+        }
+    }
+
+    /**
+     * Counts references to every chunk across all manifests and deletes the
+     * chunks whose count is zero. Returns the number of chunks removed.
+     */
+    public synchronized int collectGarbage() throws IOException {
+        Map<String, Integer> referenceCounts = new HashMap<>();
+        for (Path manifestFile : listBackups()) {
+            loadManifest(manifestFile).getFiles().values().stream()
+                .flatMap(List::stream)
+                .forEach(chunk -> referenceCounts.merge(chunk.getHash(), 1, Integer::sum));
+        }
+
+        if (!Files.isDirectory(chunksDir)) {
+            return 0;
+        }
+        int removed = 0;
+        try (Stream<Path> chunks = Files.walk(chunksDir)) {
+            for (Path chunk : chunks.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                if (referenceCounts.getOrDefault(chunk.getFileName().toString(), 0) == 0) {
+                    Files.delete(chunk);
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Bytes actually stored on disk for all chunks
+     */
+    public long getStoredSize() throws IOException {
+        return Files.isDirectory(chunksDir) ? importExportService.getBackupSize(chunksDir) : 0L;
+    }
+
+    /**
+     * Returns a description of what is wrong with a chunk, or null if it is intact
+     */
+    private String checkChunk(String hash) {
+        Path chunk = chunkPath(hash);
+        if (!Files.exists(chunk)) {
+            return "is missing";
+        }
+        try {
+            return hash.equals(sha256(Files.readAllBytes(chunk), -1)) ? null : "fails its checksum";
+        } catch (IOException e) {
+            return "is unreadable (" + e.getMessage() + ")";
+        }
+    }
+
+    private Path chunkPath(String hash) {
+        // Two-level fan-out keeps directories small
+        return chunksDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private BackupManifest.ChunkRef storeChunk(byte[] data, int length) throws IOException {
+        String hash = sha256(data, length);
+        Path target = chunkPath(hash);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, length == data.length ? data : Arrays.copyOf(data, length));
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another writer stored the same content first
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+        return new BackupManifest.ChunkRef(hash, length);
+    }
+
+    private static String sha256(byte[] data, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data, 0, length < 0 ? data.length : length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Output stream that cuts its input at content-defined boundaries using a
+     * gear rolling hash, so an insertion only changes the chunks around it.
+     */
+    private class ChunkingOutputStream extends OutputStream {
+        private final String fileName;
+        private final BackupManifest manifest;
+        private final List<BackupManifest.ChunkRef> chunks = new ArrayList<>();
+        private final byte[] buffer = new byte[MAX_CHUNK_SIZE];
+        private int count;
+        private long hash;
+        private boolean closed;
+
+        ChunkingOutputStream(String fileName, BackupManifest manifest) {
+            this.fileName = fileName;
+            this.manifest = manifest;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            buffer[count++] = (byte) b;
+            hash = (hash << 1) + GEAR[b & 0xff];
+            if (count >= MIN_CHUNK_SIZE && ((hash & BOUNDARY_MASK) == 0 || count == MAX_CHUNK_SIZE)) {
+                cut();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                buffer[count++] = b[i];
+                hash = (hash << 1) + GEAR[b[i] & 0xff];
+                if (count >= MIN_CHUNK_SIZE && ((hash & BOUNDARY_MASK) == 0 || count == MAX_CHUNK_SIZE)) {
+                    cut();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (count > 0) {
+                cut();
+            }
+            manifest.addFile(fileName, chunks);
+        }
+
+        private void cut() throws IOException {
+            chunks.add(storeChunk(buffer, count));
+            count = 0;
+            hash = 0;
+        }
+    }
+}
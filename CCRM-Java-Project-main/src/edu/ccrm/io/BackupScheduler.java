@@ -0,0 +1,130 @@
+package edu.ccrm.io;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs backups periodically on a background thread.
+ * Each run captures a consistent snapshot (holding off mutations only while
+ * values are copied), serializes it off the caller's thread and then prunes
+ * old backups down to the configured retention.
+ */
+public class BackupScheduler {
+    private final BackupService backupService;
+    private final Duration interval;
+    private final int maxBackupsToKeep;
+    private ScheduledExecutorService executor;
+
+    private volatile Path lastBackup;
+    private volatile LocalDateTime lastRunAt;
+    private volatile Duration lastRunDuration;
+    private volatile Exception lastError;
+    private volatile long completedRuns;
+    private volatile long failedRuns;
+
+    public BackupScheduler(BackupService backupService, Duration interval, int maxBackupsToKeep) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Backup interval must be positive");
+        }
+        this.backupService = backupService;
+        this.interval = interval;
+        this.maxBackupsToKeep = maxBackupsToKeep;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-backup-scheduler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        executor.scheduleWithFixedDelay(this::runBackup, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops scheduling new backups and waits briefly for a running one to finish
+     */
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Runs a backup immediately on the scheduler thread
+     */
+    public synchronized void triggerNow() {
+        if (executor != null) {
+            executor.execute(this::runBackup);
+        }
+    }
+
+    private void runBackup() {
+        long start = System.nanoTime();
+        lastRunAt = LocalDateTime.now();
+        try {
+            lastBackup = backupService.createBackup();
+            if (maxBackupsToKeep > 0) {
+                backupService.cleanupOldBackups(maxBackupsToKeep);
+            }
+            lastError = null;
+            completedRuns++;
+        } catch (Exception e) {
+            // Keep the schedule alive; the error is reported through getLastError
+            lastError = e;
+            failedRuns++;
+        } finally {
+            lastRunDuration = Duration.ofNanos(System.nanoTime() - start);
+        }
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public Path getLastBackup() {
+        return lastBackup;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public Duration getLastRunDuration() {
+        return lastRunDuration;
+    }
+
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    public long getCompletedRuns() {
+        return completedRuns;
+    }
+
+    public long getFailedRuns() {
+        return failedRuns;
+    }
+}
@@ -1,12 +1,25 @@
 package edu.ccrm.io;
 
+import edu.ccrm.metrics.BackupEvent;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import edu.ccrm.service.DataSnapshot;
 import edu.ccrm.util.RecursiveFileUtil;
 import java.io.IOException;
 import java.nio.file.*;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -15,106 +28,680 @@ import java.util.stream.Stream;
  * Demonstrates file operations, walking directory trees, and file attributes.
  */
 public class BackupService {
+    private static final OperationTimer CREATE_TIMER = MetricsRegistry.getInstance().timer("backup.create");
+    private static final OperationTimer CREATE_INCREMENTAL_TIMER =
+        MetricsRegistry.getInstance().timer("backup.createIncremental");
+    private static final OperationTimer CREATE_DEDUPLICATED_TIMER =
+        MetricsRegistry.getInstance().timer("backup.createDeduplicated");
+    private static final OperationTimer RESTORE_TIMER = MetricsRegistry.getInstance().timer("backup.restore");
+    private static final OperationTimer VERIFY_TIMER = MetricsRegistry.getInstance().timer("backup.verify");
     private final Path backupRoot;
     private final ImportExportService importExportService;
+    private final ExportFormat defaultFormat;
+    private final BackupRepository repository;
+    private final BackupVerifier verifier = new BackupVerifier();
+    private final BackupCatalog catalog;
+    private final boolean deduplicate;
+    private static final String REPOSITORY_DIR = "repository";
+    private static final String CATALOG_DIR = "catalog";
     private static final String BACKUP_PREFIX = "backup_";
+    // Backups are written under this prefix and renamed once complete; scans skip them
+    private static final String PARTIAL_PREFIX = ".partial_";
     private static final DateTimeFormatter BACKUP_TIMESTAMP_FORMAT = 
         DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final List<String> DATA_FILES = List.of(
+        ImportExportService.STUDENTS_FILE,
+        ImportExportService.COURSES_FILE,
+        ImportExportService.ENROLLMENTS_FILE);
 
     public BackupService(Path backupRoot, ImportExportService importExportService) {
+        this(backupRoot, importExportService, ExportFormat.CSV);
+    }
+
+    public BackupService(Path backupRoot, ImportExportService importExportService,
+            ExportFormat defaultFormat) {
+        this(backupRoot, importExportService, defaultFormat, false);
+    }
+
+    /**
+     * @param deduplicate when true, default backups go to the content-addressed
+     *                    repository instead of a directory per timestamp
+     */
+    public BackupService(Path backupRoot, ImportExportService importExportService,
+            ExportFormat defaultFormat, boolean deduplicate) {
         this.backupRoot = backupRoot;
         this.importExportService = importExportService;
+        this.defaultFormat = defaultFormat;
+        this.deduplicate = deduplicate;
+        this.repository = new BackupRepository(backupRoot.resolve(REPOSITORY_DIR), importExportService);
+        this.catalog = new BackupCatalog(
+            backupRoot.resolve(CATALOG_DIR).resolve(BackupCatalog.FILE_NAME),
+            List.of(backupRoot, repository.getManifestsDir()),
+            this::scanBackups, this::loadCatalogEntry);
     }
 
     /**
      * Creates a new backup with current timestamp
      */
     public Path createBackup() throws IOException {
-        String timestamp = LocalDateTime.now().format(BACKUP_TIMESTAMP_FORMAT);
-        Path backupDir = backupRoot.resolve(BACKUP_PREFIX + timestamp);
-        
-        // Create backup directory
-        Files.createDirectories(backupDir);
-        
-        // Perform backup using ImportExportService
-        importExportService.backup(backupDir);
+        return deduplicate ? createDeduplicatedBackup() : createBackup(defaultFormat);
+    }
+
+    /**
+     * Creates a backup in the deduplicating repository, returning its manifest
+     */
+    public Path createDeduplicatedBackup() throws IOException {
+        long start = CREATE_DEDUPLICATED_TIMER.start();
+        BackupEvent event = new BackupEvent();
+        event.begin();
+        Path manifest = null;
+        try {
+            manifest = repository.createBackup();
+            catalog.add(manifest);
+            return manifest;
+        } finally {
+            CREATE_DEDUPLICATED_TIMER.stop(start);
+            event.complete(BackupEvent.CREATE_DEDUPLICATED, manifest, manifest != null);
+        }
+    }
+
+    public BackupRepository getRepository() {
+        return repository;
+    }
+
+    public BackupCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Creates a new backup with current timestamp in the given format
+     */
+    public Path createBackup(ExportFormat format) throws IOException {
+        long start = CREATE_TIMER.start();
+        BackupEvent event = new BackupEvent();
+        event.begin();
+        Path backupDir = null;
+        try {
+            backupDir = writeFullBackup(format);
+            return backupDir;
+        } finally {
+            CREATE_TIMER.stop(start);
+            event.complete(BackupEvent.CREATE, backupDir, backupDir != null);
+        }
+    }
+
+    private Path writeFullBackup(ExportFormat format) throws IOException {
+        // Copy the data under the snapshot lock, then write it without holding up other threads
+        DataSnapshot snapshot = importExportService.captureSnapshot();
+        Path backupDir = writeBackupDirectory(snapshot, format, BackupMetadata.BackupType.FULL, null);
+        catalog.add(backupDir);
         
         return backupDir;
     }
 
     /**
-     * Lists all backup directories ordered by timestamp
+     * Creates an incremental backup holding only the records changed or
+     * deleted since the most recent backup. Falls back to a full backup
+     * when there is nothing to base it on.
+     */
+    public Path createIncrementalBackup() throws IOException {
+        return createIncrementalBackup(defaultFormat);
+    }
+
+    public Path createIncrementalBackup(ExportFormat format) throws IOException {
+        long start = CREATE_INCREMENTAL_TIMER.start();
+        BackupEvent event = new BackupEvent();
+        event.begin();
+        Path backupDir = null;
+        try {
+            backupDir = writeIncrementalBackup(format);
+            return backupDir;
+        } finally {
+            CREATE_INCREMENTAL_TIMER.stop(start);
+            event.complete(BackupEvent.CREATE_INCREMENTAL, backupDir, backupDir != null);
+        }
+    }
+
+    private Path writeIncrementalBackup(ExportFormat format) throws IOException {
+        List<Path> backups = listBackups();
+        if (backups.isEmpty()) {
+            return createBackup(format);
+        }
+
+        Path base = backups.get(backups.size() - 1);
+        BackupMetadata baseMetadata = getMetadata(base);
+        DataSnapshot snapshot = importExportService.captureChanges(baseMetadata.getSnapshotTime());
+        Path backupDir = writeBackupDirectory(snapshot, format, BackupMetadata.BackupType.INCREMENTAL,
+            base.getFileName().toString());
+        catalog.add(backupDir);
+
+        return backupDir;
+    }
+
+    /**
+     * Returns the metadata recorded for a backup
+     */
+    public BackupMetadata getMetadata(Path backupDir) throws IOException {
+        if (repository.isManifest(backupDir)) {
+            return new BackupMetadata(BackupMetadata.BackupType.FULL,
+                repository.loadManifest(backupDir).getSnapshotTime(), null);
+        }
+        return BackupMetadata.load(backupDir);
+    }
+
+    /**
+     * Resolves the chain of backups needed to restore the given backup,
+     * starting with its full base backup and ending with the backup itself
+     */
+    public List<Path> resolveChain(Path backupDir) throws IOException {
+        Deque<Path> chain = new ArrayDeque<>();
+        Set<Path> seen = new HashSet<>();
+        Path current = backupDir;
+        while (true) {
+            if (!Files.exists(current) || !seen.add(current)) {
+                throw new IOException("Broken backup chain at " + current.getFileName());
+            }
+            chain.addFirst(current);
+            BackupMetadata metadata = getMetadata(current);
+            if (!metadata.isIncremental()) {
+                return new ArrayList<>(chain);
+            }
+            current = findBackup(metadata.getBaseBackup());
+        }
+    }
+
+    /**
+     * Locates a backup by name, whether it is a directory or a manifest
+     */
+    private Path findBackup(String name) {
+        if (name.endsWith(BackupManifest.EXTENSION)) {
+            return repository.resolveManifest(name);
+        }
+        return backupRoot.resolve(name);
+    }
+
+    /**
+     * Writes the snapshot files, hashing each one as it is written so the
+     * checksums cost no extra read
+     */
+    private Map<String, BackupMetadata.FileChecksum> writeSnapshot(DataSnapshot snapshot, 
+            Path backupDir, ExportFormat format) throws IOException {
+        Map<String, ChecksumOutputStream> streams = new LinkedHashMap<>();
+        Map<String, Long> recordCounts = importExportService.exportSnapshot(snapshot, fileName -> {
+            ChecksumOutputStream out = new ChecksumOutputStream(
+                Files.newOutputStream(backupDir.resolve(fileName)));
+            streams.put(fileName, out);
+            return out;
+        }, format);
+
+        Map<String, BackupMetadata.FileChecksum> files = new LinkedHashMap<>();
+        streams.forEach((fileName, out) -> files.put(fileName, new BackupMetadata.FileChecksum(
+            fileName, out.getSize(), recordCounts.getOrDefault(fileName, -1L), out.getChecksum())));
+        return files;
+    }
+
+    /**
+     * Exports the snapshot and its metadata into a partial directory, so it
+     * can be restored as-is, and renames it to a backup name only once both
+     * are written. A backup that fails is deleted, and never listed or
+     * used as the base of the next incremental backup.
+     */
+    private Path writeBackupDirectory(DataSnapshot snapshot, ExportFormat format,
+            BackupMetadata.BackupType type, String baseBackup) throws IOException {
+        Files.createDirectories(backupRoot);
+        Path partial = Files.createDirectory(backupRoot.resolve(PARTIAL_PREFIX + UUID.randomUUID()));
+        try {
+            Map<String, BackupMetadata.FileChecksum> files = writeSnapshot(snapshot, partial, format);
+            new BackupMetadata(type, snapshot.getCapturedAt(), baseBackup, files).save(partial);
+            return publish(partial, snapshot.getCapturedAt());
+        } catch (IOException | RuntimeException e) {
+            try {
+                deleteBackup(partial);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private Path publish(Path partial, LocalDateTime snapshotTime) throws IOException {
+        String timestamp = snapshotTime.format(BACKUP_TIMESTAMP_FORMAT);
+        // Backups taken within the same second get a numeric suffix; the rename
+        // fails on an existing name, so concurrent backups never share a directory
+        for (int i = 0; ; i++) {
+            String suffix = i == 0 ? "" : "_" + i;
+            try {
+                return Files.move(partial, backupRoot.resolve(BACKUP_PREFIX + timestamp + suffix));
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Try the next suffix
+            }
+        }
+    }
+
+    /**
+     * Lists all backup directories and repository manifests ordered by timestamp
      */
     public List<Path> listBackups() throws IOException {
-        try (Stream<Path> paths = Files.list(backupRoot)) {
-            return paths
-                .filter(path -> Files.isDirectory(path) && 
-                    path.getFileName().toString().startsWith(BACKUP_PREFIX))
-                .sorted()
-                .collect(Collectors.toList());
+        return catalog.getEntries().stream()
+            .map(BackupCatalog.Entry::path)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Lists the catalogued details of every backup ordered by timestamp
+     */
+    public List<BackupCatalog.Entry> listBackupDetails() throws IOException {
+        return catalog.getEntries();
+    }
+
+    /**
+     * Finds the backup directories and manifests on disk; only used when the
+     * catalog detects that the backup directories changed
+     */
+    private List<Path> scanBackups() throws IOException {
+        List<Path> backups = new ArrayList<>();
+        if (Files.isDirectory(backupRoot)) {
+            try (Stream<Path> paths = Files.list(backupRoot)) {
+                paths.filter(path -> Files.isDirectory(path) && 
+                        path.getFileName().toString().startsWith(BACKUP_PREFIX))
+                    .filter(this::isComplete)
+                    .forEach(backups::add);
+            }
+        }
+        backups.addAll(repository.listBackups());
+        return backups;
+    }
+
+    /**
+     * Whether a backup directory holds every file its metadata lists, at the
+     * recorded size, or for a backup older than checksums, every data file.
+     * Anything else is left over from a backup that failed part way.
+     */
+    private boolean isComplete(Path backupDir) {
+        try {
+            BackupMetadata metadata = BackupMetadata.load(backupDir);
+            if (metadata.hasChecksums()) {
+                for (BackupMetadata.FileChecksum file : metadata.getFiles().values()) {
+                    Path path = backupDir.resolve(file.fileName());
+                    if (!Files.isRegularFile(path) || Files.size(path) != file.size()) {
+                        System.err.println("Skipping incomplete backup " + backupDir.getFileName()
+                            + ": " + file.fileName() + " is missing or truncated");
+                        return false;
+                    }
+                }
+                return true;
+            }
+            for (String baseName : DATA_FILES) {
+                if (importExportService.findDataFile(backupDir, baseName) == null) {
+                    System.err.println("Skipping incomplete backup " + backupDir.getFileName()
+                        + ": no " + baseName + " file");
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Skipping unreadable backup " + backupDir.getFileName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private BackupCatalog.Entry loadCatalogEntry(Path backup) throws IOException {
+        BackupMetadata metadata = getMetadata(backup);
+        long records;
+        if (repository.isManifest(backup)) {
+            records = repository.loadManifest(backup).getTotalRecords();
+        } else if (metadata.hasChecksums()) {
+            records = metadata.getTotalRecords();
+        } else {
+            records = countRecords(backup);
         }
+        long size = measureBackupSize(backup);
+        boolean compressed = detectCompression(backup);
+        return new BackupCatalog.Entry(backup, metadata.getType(), metadata.getSnapshotTime(),
+            metadata.getBaseBackup(), size, compressed ? measureUncompressedSize(backup) : size,
+            records, compressed, repository.isManifest(backup),
+            BackupCatalog.VerificationStatus.UNVERIFIED, null);
+    }
+
+    private long countRecords(Path backupDir) throws IOException {
+        long total = 0;
+        for (String baseName : DATA_FILES) {
+            Path file = importExportService.findDataFile(backupDir, baseName);
+            if (file != null) {
+                // Every data file starts with a header line
+                total += Math.max(0, importExportService.countLines(file) - 1);
+            }
+        }
+        return total;
     }
 
     /**
-     * Restores data from a specific backup
+     * Restores data from a specific backup. Incremental backups are restored
+     * by applying their full base backup followed by each delta in order.
      */
     public void restoreFromBackup(Path backupDir) throws IOException {
-        if (!Files.exists(backupDir) || !Files.isDirectory(backupDir)) {
+        restoreFromBackup(backupDir, status -> { });
+    }
+
+    /**
+     * Restores a backup without disturbing the live data until the restore
+     * is known to be good. The backup chain is loaded in parallel into fresh
+     * staging services, validated, and only then swapped in all at once; if
+     * anything fails the live data is left untouched.
+     *
+     * @param listener receives rows loaded, rows per second and ETA while the restore runs
+     */
+    public void restoreFromBackup(Path backupDir, Consumer<ImportProgress.Status> listener) 
+            throws IOException {
+        long start = RESTORE_TIMER.start();
+        BackupEvent event = new BackupEvent();
+        event.begin();
+        boolean restored = false;
+        try {
+            restoreStaged(backupDir, listener);
+            restored = true;
+        } finally {
+            RESTORE_TIMER.stop(start);
+            event.complete(BackupEvent.RESTORE, backupDir, restored);
+        }
+    }
+
+    private void restoreStaged(Path backupDir, Consumer<ImportProgress.Status> listener) 
+            throws IOException {
+        if (!repository.isManifest(backupDir) && !Files.isDirectory(backupDir)) {
             throw new IllegalArgumentException("Invalid backup directory");
         }
-        importExportService.importData(backupDir);
+        List<Path> chain = resolveChain(backupDir);
+        ImportProgress progress = new ImportProgress(expectedRows(chain), listener);
+
+        ImportExportService staging = importExportService.newStagingInstance();
+        for (Path backup : chain) {
+            if (repository.isManifest(backup)) {
+                repository.restore(backup, staging, progress);
+            } else {
+                staging.importData(backup, progress);
+            }
+        }
+        progress.finish();
+
+        List<String> problems = new ArrayList<>(staging.validate());
+        progress.getErrors().stream().limit(10).forEach(problems::add);
+        if (progress.getFailedRows() > 0) {
+            problems.add(progress.getFailedRows() + " row(s) could not be loaded");
+        }
+        if (progress.getTotalRows() >= 0 && progress.getRows() != progress.getTotalRows()) {
+            problems.add(String.format("Loaded %d rows but the backup records %d",
+                progress.getRows(), progress.getTotalRows()));
+        }
+        if (!problems.isEmpty()) {
+            throw new IOException("Restore of " + backupDir.getFileName() 
+                + " failed validation, live data unchanged: " + String.join("; ", problems));
+        }
+        importExportService.replaceContents(staging);
     }
 
     /**
-     * Removes old backups keeping only the specified number of recent ones
+     * Total rows across a backup chain, or -1 if any backup predates record counts
+     */
+    private long expectedRows(List<Path> chain) throws IOException {
+        long total = 0;
+        for (Path backup : chain) {
+            BackupCatalog.Entry entry = catalog.getEntry(backup);
+            if (entry == null || entry.records() < 0) {
+                return -1;
+            }
+            total += entry.records();
+        }
+        return total;
+    }
+
+    /**
+     * Removes old backups keeping only the specified number of recent ones.
+     * Older backups that a retained incremental backup depends on are kept.
      */
     public void cleanupOldBackups(int keepCount) throws IOException {
         List<Path> backups = listBackups();
         if (backups.size() > keepCount) {
+            Set<Path> retained = new HashSet<>();
+            for (Path backup : backups.subList(backups.size() - keepCount, backups.size())) {
+                try {
+                    retained.addAll(resolveChain(backup));
+                } catch (IOException e) {
+                    retained.add(backup);
+                }
+            }
+            boolean manifestsRemoved = false;
             for (int i = 0; i < backups.size() - keepCount; i++) {
-                deleteBackup(backups.get(i));
+                Path backup = backups.get(i);
+                if (retained.contains(backup)) {
+                    continue;
+                }
+                if (repository.isManifest(backup)) {
+                    Files.deleteIfExists(backup);
+                    manifestsRemoved = true;
+                } else {
+                    deleteBackup(backup);
+                }
+                catalog.remove(backup);
+            }
+            // Chunks are shared, so they are only freed once no manifest references them
+            if (manifestsRemoved) {
+                repository.collectGarbage();
             }
         }
     }
 
     /**
-     * Recursively calculates the size of a backup directory
+     * Returns the size of a backup, read from the catalog when it is known
      */
     public long calculateBackupSize(Path backupDir) throws IOException {
+        BackupCatalog.Entry entry = catalog.getEntry(backupDir);
+        return entry != null && entry.path().equals(backupDir) 
+            ? entry.size() : measureBackupSize(backupDir);
+    }
+
+    /**
+     * Returns the size of the backup data once decompressed
+     */
+    public long calculateUncompressedSize(Path backupDir) throws IOException {
+        BackupCatalog.Entry entry = catalog.getEntry(backupDir);
+        return entry != null && entry.path().equals(backupDir) 
+            ? entry.uncompressedSize() : measureUncompressedSize(backupDir);
+    }
+
+    /**
+     * Returns true if any of the backup's data files are compressed
+     */
+    public boolean isCompressed(Path backupDir) throws IOException {
+        BackupCatalog.Entry entry = catalog.getEntry(backupDir);
+        return entry != null && entry.path().equals(backupDir) 
+            ? entry.compressed() : detectCompression(backupDir);
+    }
+
+    /**
+     * Recursively calculates the size of a backup directory
+     */
+    private long measureBackupSize(Path backupDir) throws IOException {
+        if (repository.isManifest(backupDir)) {
+            return repository.loadManifest(backupDir).getLogicalSize();
+        }
         return importExportService.getBackupSize(backupDir);
     }
 
+    private long measureUncompressedSize(Path backupDir) throws IOException {
+        if (repository.isManifest(backupDir)) {
+            return measureBackupSize(backupDir);
+        }
+        long total = 0;
+        for (String baseName : DATA_FILES) {
+            Path file = importExportService.findDataFile(backupDir, baseName);
+            if (file != null) {
+                total += importExportService.getUncompressedSize(file);
+            }
+        }
+        return total;
+    }
+
+    private boolean detectCompression(Path backupDir) {
+        if (repository.isManifest(backupDir)) {
+            return false;
+        }
+        return DATA_FILES.stream()
+            .map(baseName -> importExportService.findDataFile(backupDir, baseName))
+            .anyMatch(file -> file != null && 
+                file.getFileName().toString().endsWith(ExportFormat.GZIP.getExtension()));
+    }
+
     /**
-     * Recursively deletes a backup directory
+     * Recursively deletes a backup directory, removing subtrees in parallel
      */
     private void deleteBackup(Path backupDir) throws IOException {
-        Files.walkFileTree(backupDir, new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) 
-                    throws IOException {
-                Files.delete(file);
-                return FileVisitResult.CONTINUE;
-            }
+        RecursiveFileUtil.parallelDeleteDirectory(backupDir);
+    }
 
-            @Override
-            public FileVisitResult postVisitDirectory(Path dir, IOException exc) 
-                    throws IOException {
-                Files.delete(dir);
-                return FileVisitResult.CONTINUE;
-            }
-        });
+    /**
+     * Copies a backup to another location, e.g. for off-site storage.
+     * Finished backups are never modified, so their files are hard linked
+     * when the target is on the same filesystem. Deduplicated backups are
+     * reassembled into plain files.
+     */
+    public void copyBackup(Path backupDir, Path target) throws IOException {
+        if (repository.isManifest(backupDir)) {
+            repository.materialize(backupDir, target);
+            return;
+        }
+        if (!Files.isDirectory(backupDir)) {
+            throw new IllegalArgumentException("Invalid backup directory");
+        }
+        RecursiveFileUtil.parallelCopyDirectory(backupDir, target, RecursiveFileUtil.CopyMode.LINK);
     }
 
     /**
      * Verifies the integrity of a backup directory
      */
     public boolean verifyBackup(Path backupDir) throws IOException {
-        if (!Files.exists(backupDir) || !Files.isDirectory(backupDir)) {
-            return false;
+        return verifyBackupDetailed(backupDir).isValid();
+    }
+
+    /**
+     * Verifies a backup and every backup it depends on, reporting exactly
+     * which files are missing, truncated or corrupt
+     */
+    public BackupVerificationReport verifyBackupDetailed(Path backupDir) {
+        long start = VERIFY_TIMER.start();
+        BackupEvent event = new BackupEvent();
+        event.begin();
+        BackupVerificationReport report = null;
+        try {
+            report = verifyChain(backupDir);
+            return report;
+        } finally {
+            VERIFY_TIMER.stop(start);
+            event.complete(BackupEvent.VERIFY, backupDir, report != null && report.isValid());
+        }
+    }
+
+    private BackupVerificationReport verifyChain(Path backupDir) {
+        BackupVerificationReport report = new BackupVerificationReport(backupDir);
+        if (!Files.exists(backupDir)) {
+            report.addProblem("backup does not exist");
+            return report;
         }
 
-        // Check for required files
-        return Stream.of("students.csv", "courses.csv", "enrollments.csv")
-            .allMatch(filename -> Files.exists(backupDir.resolve(filename)));
+        // Incremental backups are only usable if their whole chain is present
+        List<Path> chain;
+        try {
+            chain = resolveChain(backupDir);
+        } catch (IOException e) {
+            report.addProblem(e.getMessage());
+            return report;
+        }
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (Path backup : chain) {
+            pending.addAll(submitVerification(backup, report));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new)).join();
+        recordVerification(backupDir, report);
+        return report;
+    }
+
+    /**
+     * Verifies every retained backup, checking all of their files in parallel
+     */
+    public List<BackupVerificationReport> verifyAllBackups() throws IOException {
+        List<BackupVerificationReport> reports = new ArrayList<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (Path backup : listBackups()) {
+            BackupVerificationReport report = new BackupVerificationReport(backup);
+            reports.add(report);
+            try {
+                resolveChain(backup);
+            } catch (IOException e) {
+                report.addProblem(e.getMessage());
+            }
+            pending.addAll(submitVerification(backup, report));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new)).join();
+        for (BackupVerificationReport report : reports) {
+            recordVerification(report.getBackup(), report);
+        }
+        return reports;
+    }
+
+    private void recordVerification(Path backup, BackupVerificationReport report) {
+        try {
+            catalog.recordVerification(backup, report.isValid());
+        } catch (IOException e) {
+            // The catalog is only a cache; the report itself is still accurate
+        }
+    }
+
+    private List<CompletableFuture<Void>> submitVerification(Path backup, 
+            BackupVerificationReport report) {
+        String prefix = backup.getFileName() + "/";
+        if (repository.isManifest(backup)) {
+            return List.of(CompletableFuture.runAsync(() -> 
+                repository.verify(backup, report, prefix)));
+        }
+
+        BackupMetadata metadata;
+        try {
+            metadata = BackupMetadata.load(backup);
+        } catch (IOException e) {
+            report.addProblem(prefix + BackupMetadata.FILE_NAME + ": " + e.getMessage());
+            return List.of();
+        }
+        if (!metadata.hasChecksums()) {
+            // Written before checksums were recorded
+            return List.of(CompletableFuture.runAsync(() -> verifyDataFiles(backup, report, prefix)));
+        }
+
+        BackupVerificationReport backupReport = new BackupVerificationReport(backup);
+        List<CompletableFuture<Void>> files = verifier.submit(backup, metadata, backupReport);
+        return List.of(CompletableFuture.allOf(files.toArray(CompletableFuture<?>[]::new))
+            .thenRun(() -> {
+                backupReport.getProblems().forEach(problem -> report.addProblem(prefix + problem));
+                report.recordFiles(backupReport.getFilesChecked(), backupReport.getBytesChecked());
+            }));
+    }
+
+    private void verifyDataFiles(Path backupDir, BackupVerificationReport report, String prefix) {
+        // Check for required files in either format
+        for (String baseName : DATA_FILES) {
+            Path file = importExportService.findDataFile(backupDir, baseName);
+            if (file == null) {
+                report.addProblem(prefix + baseName + ": missing");
+                continue;
+            }
+            // Compressed files are fully inflated so bad blocks fail their CRC
+            try {
+                if (file.getFileName().toString().endsWith(ExportFormat.GZIP.getExtension())) {
+                    importExportService.countLines(file);
+                }
+                report.recordFile(Files.size(file));
+            } catch (IOException e) {
+                report.addProblem(prefix + file.getFileName() + ": " + e.getMessage());
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package edu.ccrm.io;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of verifying a backup, listing exactly which files are damaged.
+ */
+public class BackupVerificationReport {
+    private final Path backup;
+    private final List<String> problems = new ArrayList<>();
+    private int filesChecked;
+    private long bytesChecked;
+
+    public BackupVerificationReport(Path backup) {
+        this.backup = backup;
+    }
+
+    public Path getBackup() {
+        return backup;
+    }
+
+    public synchronized boolean isValid() {
+        return problems.isEmpty();
+    }
+
+    public synchronized List<String> getProblems() {
+        return Collections.unmodifiableList(new ArrayList<>(problems));
+    }
+
+    public synchronized int getFilesChecked() {
+        return filesChecked;
+    }
+
+    public synchronized long getBytesChecked() {
+        return bytesChecked;
+    }
+
+    synchronized void addProblem(String problem) {
+        problems.add(problem);
+    }
+
+    synchronized void recordFile(long bytes) {
+        recordFiles(1, bytes);
+    }
+
+    synchronized void recordFiles(int files, long bytes) {
+        filesChecked += files;
+        bytesChecked += bytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s (%d files, %d bytes checked)",
+            backup.getFileName(), isValid() ? "OK" : problems.size() + " problem(s)",
+            filesChecked, bytesChecked);
+    }
+}
@@ -0,0 +1,104 @@
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Verifies backup files against the checksums recorded in their metadata.
+ * Files are hashed concurrently on a bounded pool, each one through
+ * memory-mapped windows so large files are never copied onto the heap.
+ */
+public class BackupVerifier {
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+    private final ExecutorService executor;
+
+    public BackupVerifier() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BackupVerifier(int parallelism) {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-backup-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Verifies every file of one backup and waits for the result
+     */
+    public BackupVerificationReport verify(Path backupDir, BackupMetadata metadata) {
+        BackupVerificationReport report = new BackupVerificationReport(backupDir);
+        CompletableFuture.allOf(submit(backupDir, metadata, report)
+            .toArray(CompletableFuture<?>[]::new)).join();
+        return report;
+    }
+
+    /**
+     * Queues checks for every file of a backup, recording results in the
+     * report. Callers verifying many backups submit them all before waiting
+     * so the whole set is checked in parallel.
+     */
+    public List<CompletableFuture<Void>> submit(Path backupDir, BackupMetadata metadata,
+            BackupVerificationReport report) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (BackupMetadata.FileChecksum expected : metadata.getFiles().values()) {
+            futures.add(CompletableFuture.runAsync(
+                () -> verifyFile(backupDir.resolve(expected.fileName()), expected, report), executor));
+        }
+        return futures;
+    }
+
+    private void verifyFile(Path file, BackupMetadata.FileChecksum expected,
+            BackupVerificationReport report) {
+        String name = expected.fileName();
+        try {
+            if (!Files.exists(file)) {
+                report.addProblem(name + ": missing");
+                return;
+            }
+            long size = Files.size(file);
+            if (size != expected.size()) {
+                report.addProblem(String.format("%s: size is %d bytes, expected %d (truncated or extended)",
+                    name, size, expected.size()));
+                report.recordFile(0);
+                return;
+            }
+            String actual = sha256(file);
+            if (!actual.equals(expected.sha256())) {
+                report.addProblem(String.format("%s: checksum mismatch (expected %s, found %s)",
+                    name, expected.sha256(), actual));
+            }
+            report.recordFile(size);
+        } catch (IOException e) {
+            report.addProblem(name + ": unreadable (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Computes the SHA-256 checksum of a file using memory-mapped reads
+     */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = ChecksumOutputStream.newDigest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_WINDOW) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    position, Math.min(MAP_WINDOW, size - position));
+                digest.update(window);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,156 @@
+package edu.ccrm.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Block layout shared by the parallel gzip streams.
+ * Every block is a complete gzip member whose FEXTRA field carries the
+ * total member length, so readers can locate blocks without inflating them.
+ */
+final class BlockGzip {
+    static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    static final int HEADER_SIZE = 20;
+    static final int TRAILER_SIZE = 8;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int CM_DEFLATE = 8;
+    private static final int FLG_FEXTRA = 4;
+    private static final int OS_UNKNOWN = 255;
+    private static final byte SUBFIELD_ID_1 = 'C';
+    private static final byte SUBFIELD_ID_2 = 'B';
+
+    private BlockGzip() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Compresses one block into a self-contained gzip member
+     */
+    static byte[] compressBlock(byte[] data, int length) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                deflated.write(buffer, 0, n);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, length);
+
+            byte[] payload = deflated.toByteArray();
+            byte[] member = new byte[HEADER_SIZE + payload.length + TRAILER_SIZE];
+            member[0] = (byte) GZIP_MAGIC_1;
+            member[1] = (byte) GZIP_MAGIC_2;
+            member[2] = CM_DEFLATE;
+            member[3] = FLG_FEXTRA;
+            // mtime (bytes 4-7) and xfl (byte 8) stay zero
+            member[9] = (byte) OS_UNKNOWN;
+            writeShortLE(member, 10, 8);
+            member[12] = SUBFIELD_ID_1;
+            member[13] = SUBFIELD_ID_2;
+            writeShortLE(member, 14, 4);
+            writeIntLE(member, 16, member.length);
+            System.arraycopy(payload, 0, member, HEADER_SIZE, payload.length);
+            writeIntLE(member, HEADER_SIZE + payload.length, (int) crc.getValue());
+            writeIntLE(member, HEADER_SIZE + payload.length + 4, length);
+            return member;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Returns the total member size if the header belongs to a CCRM block,
+     * or -1 for a plain gzip member that has to be read sequentially.
+     */
+    static int memberSize(byte[] header) {
+        if (header.length < HEADER_SIZE
+                || (header[0] & 0xff) != GZIP_MAGIC_1
+                || (header[1] & 0xff) != GZIP_MAGIC_2
+                || header[2] != CM_DEFLATE
+                || (header[3] & FLG_FEXTRA) == 0
+                || readShortLE(header, 10) != 8
+                || header[12] != SUBFIELD_ID_1
+                || header[13] != SUBFIELD_ID_2
+                || readShortLE(header, 14) != 4) {
+            return -1;
+        }
+        return readIntLE(header, 16);
+    }
+
+    /**
+     * Inflates a complete member and checks its CRC and length trailer
+     */
+    static byte[] decompressBlock(byte[] member) throws IOException {
+        int payloadLength = member.length - HEADER_SIZE - TRAILER_SIZE;
+        if (payloadLength < 0) {
+            throw new IOException("Truncated compressed block");
+        }
+        int expectedCrc = readIntLE(member, member.length - 8);
+        int expectedSize = readIntLE(member, member.length - 4);
+        if (expectedSize < 0) {
+            throw new IOException("Corrupt compressed block length");
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(member, HEADER_SIZE, payloadLength);
+            byte[] data = new byte[expectedSize];
+            int offset = 0;
+            while (offset < expectedSize && !inflater.finished()) {
+                int n = inflater.inflate(data, offset, expectedSize - offset);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != expectedSize) {
+                throw new IOException("Compressed block is shorter than recorded length");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, expectedSize);
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException("Compressed block failed CRC check");
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed block: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeShortLE(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >>> 8);
+    }
+
+    private static void writeIntLE(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >>> 8);
+        buffer[offset + 2] = (byte) (value >>> 16);
+        buffer[offset + 3] = (byte) (value >>> 24);
+    }
+
+    private static int readShortLE(byte[] buffer, int offset) {
+        return (buffer[offset] & 0xff) | (buffer[offset + 1] & 0xff) << 8;
+    }
+
+    private static int readIntLE(byte[] buffer, int offset) {
+        return (buffer[offset] & 0xff)
+            | (buffer[offset + 1] & 0xff) << 8
+            | (buffer[offset + 2] & 0xff) << 16
+            | (buffer[offset + 3] & 0xff) << 24;
+    }
+}
@@ -0,0 +1,66 @@
+package edu.ccrm.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Output stream that hashes and counts the bytes passing through it, so a
+ * file's checksum is known as soon as it has been written.
+ */
+public class ChecksumOutputStream extends FilterOutputStream {
+    static final String ALGORITHM = "SHA-256";
+
+    private final MessageDigest digest;
+    private long size;
+    private String checksum;
+
+    public ChecksumOutputStream(OutputStream out) {
+        super(out);
+        this.digest = newDigest();
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        digest.update((byte) b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        digest.update(b, off, len);
+        size += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (checksum == null) {
+            checksum = HexFormat.of().formatHex(digest.digest());
+        }
+        super.close();
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Hex encoded checksum, available once the stream has been closed
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,28 @@
+package edu.ccrm.io;
+
+/**
+ * Enum describing the on-disk formats used for exports and backups.
+ * GZIP files are block compressed and remain readable by any gzip tool.
+ */
+public enum ExportFormat {
+    CSV(".csv"),
+    GZIP(".csv.gz");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String fileName(String baseName) {
+        return baseName + extension;
+    }
+
+    public boolean isCompressed() {
+        return this == GZIP;
+    }
+}
@@ -1,14 +1,33 @@
 package edu.ccrm.io;
 
 import edu.ccrm.domain.*;
+import edu.ccrm.metrics.DataTransferEvent;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
 import edu.ccrm.service.*;
+import edu.ccrm.util.RecursiveFileUtil;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -16,150 +35,805 @@ import java.util.stream.Stream;
  * Demonstrates modern Java I/O operations and Stream API usage.
  */
 public class ImportExportService implements DataPersistenceService {
+    private static final OperationTimer CAPTURE_TIMER = MetricsRegistry.getInstance().timer("data.captureSnapshot");
+    private static final OperationTimer EXPORT_TIMER = MetricsRegistry.getInstance().timer("data.export");
+    private static final OperationTimer IMPORT_TIMER = MetricsRegistry.getInstance().timer("data.import");
     private final StudentService studentService;
     private final CourseService courseService;
     private final EnrollmentService enrollmentService;
+    private final SnapshotLock snapshotLock;
+    private final Restorable<StudentService> restorableStudents;
+    private final Restorable<CourseService> restorableCourses;
+    private final Restorable<EnrollmentService> restorableEnrollments;
     private static final String CSV_DELIMITER = ",";
+    private static final String PREREQUISITE_DELIMITER = ";";
+    public static final String STUDENTS_FILE = "students";
+    public static final String COURSES_FILE = "courses";
+    public static final String INSTRUCTORS_FILE = "instructors";
+    public static final String ENROLLMENTS_FILE = "enrollments";
+    public static final String DELETIONS_FILE = "deletions";
+    private static final String DELETED_STUDENT = "STUDENT";
+    private static final String DELETED_COURSE = "COURSE";
+    private static final String DELETED_ENROLLMENT = "ENROLLMENT";
+    static final String STUDENT_HEADER = "id,regNo,fullName,email,enrollmentDate,active";
+    static final String COURSE_HEADER =
+        "code,title,credits,department,semester,instructorId,active,prerequisites";
+    static final String ENROLLMENT_HEADER = "studentId,courseCode,enrollmentDate,status,grade";
+    static final String INSTRUCTOR_HEADER = "id,fullName,email,department,title";
+    private static final String DELETION_HEADER = "type,id";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final int ENROLLMENT_CHUNK_ROWS = 1024;
+    private static final int QUEUED_CHUNKS_PER_LANE = 4;
+
+    /**
+     * Supplies the output stream for each exported file
+     */
+    @FunctionalInterface
+    public interface ExportTarget {
+        OutputStream open(String fileName) throws IOException;
+    }
 
     public ImportExportService(
             StudentService studentService,
             CourseService courseService,
             EnrollmentService enrollmentService) {
+        this(studentService, courseService, enrollmentService, new SnapshotLock());
+    }
+
+    /**
+     * @param snapshotLock lock shared with the services, so exports capture
+     *                     a consistent snapshot
+     * @throws IllegalArgumentException if a service cannot be restored, as
+     *                                  the services of a shard router cannot
+     */
+    public ImportExportService(
+            StudentService studentService,
+            CourseService courseService,
+            EnrollmentService enrollmentService,
+            SnapshotLock snapshotLock) {
         this.studentService = studentService;
         this.courseService = courseService;
         this.enrollmentService = enrollmentService;
+        this.snapshotLock = snapshotLock;
+        this.restorableStudents = restorable(studentService);
+        this.restorableCourses = restorable(courseService);
+        this.restorableEnrollments = restorable(enrollmentService);
+    }
+
+    /**
+     * The service as a {@link Restorable} of its own interface type, which
+     * is how every restorable service implements it
+     */
+    @SuppressWarnings("unchecked")
+    private static <S> Restorable<S> restorable(S service) {
+        if (!(service instanceof Restorable<?> restorable)) {
+            throw new IllegalArgumentException(
+                service.getClass().getSimpleName() + " cannot be restored, so it cannot be imported into");
+        }
+        return (Restorable<S>) restorable;
+    }
+
+    /**
+     * Captures a consistent snapshot of all data. Mutations are held off
+     * only while the records are listed, not while they are copied or written.
+     */
+    public DataSnapshot captureSnapshot() {
+        long start = CAPTURE_TIMER.start();
+        try {
+            return DataSnapshot.capture(studentService, courseService, enrollmentService, snapshotLock);
+        } finally {
+            CAPTURE_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Captures the records changed or deleted since the given time
+     */
+    public DataSnapshot captureChanges(LocalDateTime since) {
+        return DataSnapshot.captureChanges(
+            studentService, courseService, enrollmentService, snapshotLock, since);
     }
 
     @Override
     public void exportData(Path directory) throws IOException {
+        exportData(directory, ExportFormat.CSV);
+    }
+
+    /**
+     * Exports all data in the given format, streaming rows straight to disk
+     */
+    public void exportData(Path directory, ExportFormat format) throws IOException {
+        exportSnapshot(captureSnapshot(), directory, format);
+    }
+
+    /**
+     * Exports all data to streams supplied by the target, one per file.
+     * Lets callers such as the backup repository consume exports without
+     * an intermediate copy on disk.
+     */
+    public void exportData(ExportTarget target, ExportFormat format) throws IOException {
+        exportSnapshot(captureSnapshot(), target, format);
+    }
+
+    /**
+     * Exports only the records changed or deleted since the given time.
+     * Loading the result with {@link #importData(Path, ImportProgress)} on
+     * top of the earlier state, as a restore does, reproduces the current
+     * state.
+     */
+    public void exportChanges(Path directory, ExportFormat format, LocalDateTime since) 
+            throws IOException {
+        exportSnapshot(captureChanges(since), directory, format);
+    }
+
+    /**
+     * Writes a previously captured snapshot to a directory
+     */
+    public Map<String, Long> exportSnapshot(DataSnapshot snapshot, Path directory, ExportFormat format) 
+            throws IOException {
         // Ensure directory exists
         Files.createDirectories(directory);
+        Map<String, Long> recordCounts = exportSnapshot(snapshot, fileName -> Files.newOutputStream(
+            directory.resolve(fileName), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE), format);
+        // A copy in the other format, or deletions left by an earlier incremental
+        // export, would be read instead of, or as well as, the new files
+        for (String baseName : List.of(STUDENTS_FILE, INSTRUCTORS_FILE, COURSES_FILE, ENROLLMENTS_FILE,
+                DELETIONS_FILE)) {
+            for (ExportFormat other : ExportFormat.values()) {
+                String fileName = other.fileName(baseName);
+                if (!recordCounts.containsKey(fileName)) {
+                    Files.deleteIfExists(directory.resolve(fileName));
+                }
+            }
+        }
+        return recordCounts;
+    }
+
+    /**
+     * Writes a previously captured snapshot to streams supplied by the target.
+     * Returns the number of records written to each file.
+     */
+    public Map<String, Long> exportSnapshot(DataSnapshot snapshot, ExportTarget target, ExportFormat format) 
+            throws IOException {
+        long start = EXPORT_TIMER.start();
+        try {
+            return writeSnapshot(snapshot, target, format);
+        } finally {
+            EXPORT_TIMER.stop(start);
+        }
+    }
+
+    private Map<String, Long> writeSnapshot(DataSnapshot snapshot, ExportTarget target, ExportFormat format) 
+            throws IOException {
+        Map<String, Long> recordCounts = new LinkedHashMap<>();
 
         // Export students
-        Path studentsFile = directory.resolve("students.csv");
-        List<String> studentLines = studentService.findAll().stream()
-            .map(this::studentToCsv)
-            .collect(Collectors.toList());
-        Files.write(studentsFile, studentLines, StandardOpenOption.CREATE, 
-            StandardOpenOption.TRUNCATE_EXISTING);
+        String studentsFile = format.fileName(STUDENTS_FILE);
+        recordCounts.put(studentsFile, writeCsv(target, studentsFile, format, STUDENT_HEADER,
+            snapshot.getStudents().stream().map(this::studentToCsv)));
+
+        // Export the courses' instructors, which courses refer to by ID
+        String instructorsFile = format.fileName(INSTRUCTORS_FILE);
+        recordCounts.put(instructorsFile, writeCsv(target, instructorsFile, format, INSTRUCTOR_HEADER,
+            snapshot.getInstructors().stream().map(this::instructorToCsv)));
 
         // Export courses
-        Path coursesFile = directory.resolve("courses.csv");
-        List<String> courseLines = courseService.findAll().stream()
-            .map(this::courseToCsv)
-            .collect(Collectors.toList());
-        Files.write(coursesFile, courseLines, StandardOpenOption.CREATE, 
-            StandardOpenOption.TRUNCATE_EXISTING);
+        String coursesFile = format.fileName(COURSES_FILE);
+        recordCounts.put(coursesFile, writeCsv(target, coursesFile, format, COURSE_HEADER,
+            snapshot.getCourses().stream().map(this::courseToCsv)));
 
         // Export enrollments
-        Path enrollmentsFile = directory.resolve("enrollments.csv");
-        List<String> enrollmentLines = enrollmentService.findAll().stream()
-            .map(this::enrollmentToCsv)
-            .collect(Collectors.toList());
-        Files.write(enrollmentsFile, enrollmentLines, StandardOpenOption.CREATE, 
-            StandardOpenOption.TRUNCATE_EXISTING);
+        String enrollmentsFile = format.fileName(ENROLLMENTS_FILE);
+        recordCounts.put(enrollmentsFile, writeCsv(target, enrollmentsFile, format, ENROLLMENT_HEADER,
+            snapshot.getEnrollments().stream().map(this::enrollmentToCsv)));
+
+        // Record deletions so incremental exports can be replayed on restore; a full
+        // export has some when enrollments refer to deleted students or courses
+        if (snapshot.isIncremental() || !snapshot.getDeletedStudentIds().isEmpty()
+                || !snapshot.getDeletedCourseCodes().isEmpty()) {
+            Stream<String> deletions = Stream.of(
+                snapshot.getDeletedStudentIds().stream()
+                    .map(id -> String.join(CSV_DELIMITER, DELETED_STUDENT, id)),
+                snapshot.getDeletedCourseCodes().stream()
+                    .map(code -> String.join(CSV_DELIMITER, DELETED_COURSE, code)),
+                snapshot.getDeletedEnrollmentIds().stream()
+                    .map(id -> String.join(CSV_DELIMITER, DELETED_ENROLLMENT, id)))
+                .flatMap(rows -> rows);
+            String deletionsFile = format.fileName(DELETIONS_FILE);
+            recordCounts.put(deletionsFile, writeCsv(target, deletionsFile, format, DELETION_HEADER,
+                deletions));
+        }
+        return recordCounts;
     }
 
+    /**
+     * Imports data, updating existing records in place and replaying any
+     * recorded deletions. Records are merged so that enrollments keep
+     * pointing at the same student and course objects.
+     */
     @Override
     public void importData(Path directory) throws IOException {
-        // Import students
-        Path studentsFile = directory.resolve("students.csv");
-        if (Files.exists(studentsFile)) {
-            try (Stream<String> lines = Files.lines(studentsFile)) {
-                lines.skip(1) // Skip header
-                    .map(this::csvToStudent)
-                    .forEach(studentService::save);
+        long start = IMPORT_TIMER.start();
+        try {
+            mergeDirectory(directory);
+        } finally {
+            IMPORT_TIMER.stop(start);
+        }
+    }
+
+    private void mergeDirectory(Path directory) throws IOException {
+        try {
+            // Import students
+            importRows(directory, STUDENTS_FILE, lines -> lines
+                .map(this::csvToStudent)
+                .forEach(this::mergeStudent));
+
+            // Import courses with their instructors; their prerequisites apply once
+            // every course is in, as they may name courses further down the file
+            Map<String, Instructor> instructors = readInstructors(directory);
+            Map<String, List<String>> prerequisites = new HashMap<>();
+            importRows(directory, COURSES_FILE, lines -> lines
+                .forEach(line -> importCourse(line, instructors, prerequisites)));
+
+            // Import enrollments
+            importRows(directory, ENROLLMENTS_FILE, lines -> lines
+                .forEach(line -> {
+                    try {
+                        processEnrollmentLine(line);
+                    } catch (Exception e) {
+                        // Log error and continue with next line
+                        System.err.println("Error processing enrollment: " + e.getMessage());
+                    }
+                }));
+
+            prerequisites.forEach((code, codes) -> {
+                try {
+                    courseService.setPrerequisites(code, codes);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Error processing course: " + e.getMessage());
+                }
+            });
+
+            // Replay deletions recorded by incremental exports; dropping an enrollment
+            // would go unseen by listeners, so only a restore replays those
+            importRows(directory, DELETIONS_FILE, lines -> lines
+                .forEach(line -> {
+                    if (line.startsWith(DELETED_ENROLLMENT + CSV_DELIMITER)) {
+                        System.err.println("Skipping enrollment deletion, restore the backup instead: " + line);
+                    } else {
+                        processDeletionLine(line);
+                    }
+                }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Imports a directory into this service's data as fast as possible,
+     * for loading a staging instance. Students and courses load concurrently
+     * with their rows parsed in parallel; enrollments load in parallel per
+     * student as they are read, since credit checks only look at the
+     * student's own enrollments. Rows that fail are recorded in the progress rather than
+     * skipped silently.
+     */
+    public void importData(Path directory, ImportProgress progress) throws IOException {
+        long start = IMPORT_TIMER.start();
+        try {
+            loadDirectory(directory, progress);
+        } finally {
+            IMPORT_TIMER.stop(start);
+        }
+    }
+
+    private void loadDirectory(Path directory, ImportProgress progress) throws IOException {
+        CompletableFuture<Void> students = CompletableFuture.runAsync(() -> 
+            importRows(directory, STUDENTS_FILE, lines -> lines.parallel()
+                .forEach(line -> importRow(line, progress, () -> mergeStudent(csvToStudent(line))))));
+        // Prerequisites apply after the enrollments, as when merging
+        Map<String, Instructor> instructors = readInstructors(directory);
+        Map<String, List<String>> prerequisites = new ConcurrentHashMap<>();
+        CompletableFuture<Void> courses = CompletableFuture.runAsync(() -> 
+            importRows(directory, COURSES_FILE, lines -> lines.parallel()
+                .forEach(line -> importRow(line, progress,
+                    () -> importCourse(line, instructors, prerequisites)))));
+        awaitImport(CompletableFuture.allOf(students, courses));
+
+        try {
+            importRows(directory, ENROLLMENTS_FILE, lines -> loadEnrollments(lines, progress));
+
+            prerequisites.forEach((code, codes) -> {
+                try {
+                    courseService.setPrerequisites(code, codes);
+                } catch (IllegalArgumentException e) {
+                    progress.rowFailed(e.getMessage() + " in course " + code);
+                }
+            });
+
+            // Deletions apply last, in file order
+            importRows(directory, DELETIONS_FILE, lines -> lines
+                .forEach(line -> importRow(line, progress, () -> processDeletionLine(line))));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Loads enrollment rows on several threads while the file is still
+     * being read. Rows go to one lane per thread by student, and each lane
+     * loads its chunks in file order, so a student's rows apply in the
+     * order written. Reading waits while too many chunks are queued, so
+     * memory does not grow with the file.
+     */
+    private void loadEnrollments(Stream<String> lines, ImportProgress progress) {
+        int laneCount = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        Semaphore queuedChunks = new Semaphore(laneCount * QUEUED_CHUNKS_PER_LANE);
+        List<CompletableFuture<Void>> lanes = new ArrayList<>();
+        List<List<String>> chunks = new ArrayList<>();
+        for (int lane = 0; lane < laneCount; lane++) {
+            lanes.add(CompletableFuture.completedFuture(null));
+            chunks.add(new ArrayList<>(ENROLLMENT_CHUNK_ROWS));
+        }
+        lines.forEachOrdered(line -> {
+            int lane = Math.floorMod(firstField(line).hashCode(), laneCount);
+            List<String> chunk = chunks.get(lane);
+            chunk.add(line);
+            if (chunk.size() == ENROLLMENT_CHUNK_ROWS) {
+                queueEnrollments(lanes, lane, chunk, queuedChunks, progress);
+                chunks.set(lane, new ArrayList<>(ENROLLMENT_CHUNK_ROWS));
             }
+        });
+        for (int lane = 0; lane < laneCount; lane++) {
+            queueEnrollments(lanes, lane, chunks.get(lane), queuedChunks, progress);
+        }
+        CompletableFuture.allOf(lanes.toArray(CompletableFuture<?>[]::new)).join();
+    }
+
+    private void queueEnrollments(List<CompletableFuture<Void>> lanes, int lane, List<String> chunk,
+            Semaphore queuedChunks, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        queuedChunks.acquireUninterruptibly();
+        lanes.set(lane, lanes.get(lane)
+            .thenRunAsync(() -> chunk
+                .forEach(line -> importRow(line, progress, () -> processEnrollmentLine(line))))
+            // A failed chunk skips the rest of its lane, which must still free their places
+            .whenComplete((result, failure) -> queuedChunks.release()));
+    }
+
+    private static String firstField(String line) {
+        int end = line.indexOf(CSV_DELIMITER);
+        return end < 0 ? line : line.substring(0, end);
+    }
+
+    @FunctionalInterface
+    private interface RowImporter {
+        void importRow() throws Exception;
+    }
+
+    /**
+     * Hands the data rows of one file to the importer, recording a
+     * Flight Recorder event with the rows read and the file size
+     */
+    private void importRows(Path directory, String baseName, Consumer<Stream<String>> importer) {
+        Path file = findDataFile(directory, baseName);
+        if (file == null) {
+            return;
+        }
+        DataTransferEvent event = new DataTransferEvent();
+        event.begin();
+        LongAdder rows = new LongAdder();
+        try (Stream<String> lines = readLines(file)) {
+            Stream<String> dataRows = lines.skip(1); // Skip header
+            // Rows are only counted when a recording will keep the event
+            importer.accept(event.isEnabled() ? dataRows.peek(line -> rows.increment()) : dataRows);
+            event.complete(DataTransferEvent.IMPORT, file.getFileName().toString(), rows.sum(),
+                event.isEnabled() ? Files.size(file) : 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        // Import courses
-        Path coursesFile = directory.resolve("courses.csv");
-        if (Files.exists(coursesFile)) {
-            try (Stream<String> lines = Files.lines(coursesFile)) {
-                lines.skip(1) // Skip header
-                    .map(this::csvToCourse)
-                    .forEach(courseService::save);
+    private static void importRow(String line, ImportProgress progress, RowImporter importer) {
+        try {
+            importer.importRow();
+            progress.rowLoaded();
+        } catch (UncheckedIOException e) {
+            throw e;
+        } catch (Exception e) {
+            progress.rowFailed(e.getClass().getSimpleName() + ": " + e.getMessage() + " in row: " + line);
+        }
+    }
+
+    private static void awaitImport(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
             }
+            throw e;
         }
+    }
+
+    public SnapshotLock getSnapshotLock() {
+        return snapshotLock;
+    }
+
+    public StudentService getStudentService() {
+        return studentService;
+    }
 
-        // Import enrollments
-        Path enrollmentsFile = directory.resolve("enrollments.csv");
-        if (Files.exists(enrollmentsFile)) {
-            try (Stream<String> lines = Files.lines(enrollmentsFile)) {
-                lines.skip(1) // Skip header
-                    .forEach(line -> {
-                        try {
-                            processEnrollmentLine(line);
-                        } catch (Exception e) {
-                            // Log error and continue with next line
-                            System.err.println("Error processing enrollment: " + e.getMessage());
-                        }
-                    });
+    public CourseService getCourseService() {
+        return courseService;
+    }
+
+    public EnrollmentService getEnrollmentService() {
+        return enrollmentService;
+    }
+
+    /**
+     * Creates an import/export service over new, empty services of the same
+     * kind with their own lock, for staging a restore off to the side
+     */
+    public ImportExportService newStagingInstance() {
+        SnapshotLock stagingLock = new SnapshotLock();
+        return new ImportExportService(
+            restorableStudents.newStagingInstance(stagingLock),
+            restorableCourses.newStagingInstance(stagingLock),
+            restorableEnrollments.newStagingInstance(stagingLock),
+            stagingLock);
+    }
+
+    /**
+     * Checks that the loaded data is internally consistent, returning a
+     * description of each problem found
+     */
+    public List<String> validate() {
+        List<String> problems = new ArrayList<>();
+        // Deleting a student or course keeps its enrollments, as in the live services
+        Set<String> deletedStudents = new HashSet<>(studentService.findDeletedSince(LocalDateTime.MIN));
+        Set<String> deletedCourses = new HashSet<>(courseService.findDeletedSince(LocalDateTime.MIN));
+        for (Enrollment enrollment : enrollmentService.findAll()) {
+            Student student = enrollment.getStudent();
+            Course course = enrollment.getCourse();
+            String key = student.getId() + "/" + course.getCode();
+            if (studentService.findById(student.getId()) != student 
+                    && !deletedStudents.contains(student.getId())) {
+                problems.add("Enrollment " + key + " refers to an unknown student");
+            }
+            if (courseService.findById(course.getCode()) != course
+                    && !deletedCourses.contains(course.getCode())) {
+                problems.add("Enrollment " + key + " refers to an unknown course");
+            }
+            if (enrollment.getStatus() == Enrollment.EnrollmentStatus.ENROLLED
+                    && !student.getEnrolledCourses().contains(enrollment)) {
+                problems.add("Enrollment " + key + " is missing from the student's course list");
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Swaps in everything loaded into a staging instance. Mutations and
+     * snapshots are held off for the duration of the swap, which only
+     * exchanges references, so no one observes a half-restored state.
+     */
+    public void replaceContents(ImportExportService staged) {
+        snapshotLock.runExclusive(() -> {
+            restorableStudents.replaceContents(staged.studentService);
+            restorableCourses.replaceContents(staged.courseService);
+            restorableEnrollments.replaceContents(staged.enrollmentService);
+        });
+    }
+
+    /**
+     * Locates a data file in any supported format, preferring plain CSV
+     */
+    public Path findDataFile(Path directory, String baseName) {
+        for (ExportFormat format : ExportFormat.values()) {
+            Path file = directory.resolve(format.fileName(baseName));
+            if (Files.exists(file)) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads every line of a data file, fully decompressing and checking
+     * compressed files. Used to detect truncated or corrupt files.
+     */
+    public long countLines(Path file) throws IOException {
+        try (Stream<String> lines = readLines(file)) {
+            return lines.count();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the size of the data once decompressed
+     */
+    public long getUncompressedSize(Path file) throws IOException {
+        if (!file.getFileName().toString().endsWith(ExportFormat.GZIP.getExtension())) {
+            return Files.size(file);
+        }
+        try (InputStream in = ParallelGzipInputStream.open(file)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * Writes a header and the rows, returning the number of rows written
+     */
+    private long writeCsv(ExportTarget target, String fileName, ExportFormat format, String header,
+            Stream<String> rows) throws IOException {
+        DataTransferEvent event = new DataTransferEvent();
+        event.begin();
+        OutputStream file = target.open(fileName);
+        // Bytes are only counted when a recording will keep the event
+        ByteCountingOutputStream counted = event.isEnabled() ? new ByteCountingOutputStream(file) : null;
+        BufferedWriter writer;
+        try {
+            OutputStream out = counted != null ? counted : file;
+            if (format.isCompressed()) {
+                out = new ParallelGzipOutputStream(out);
+            }
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            // Nothing owns the file yet, so it is closed here
+            try {
+                file.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        long count = 0;
+        try (writer) {
+            writer.write(header);
+            writer.newLine();
+            for (Iterator<String> it = rows.iterator(); it.hasNext(); ) {
+                writer.write(it.next());
+                writer.newLine();
+                count++;
             }
         }
+        event.complete(DataTransferEvent.EXPORT, fileName, count, counted != null ? counted.count : 0);
+        return count;
+    }
+
+    /**
+     * Counts the bytes written to an exported file
+     */
+    private static final class ByteCountingOutputStream extends FilterOutputStream {
+        long count;
+
+        ByteCountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
     }
 
-    private String studentToCsv(Student student) {
+    private Stream<String> readLines(Path file) throws IOException {
+        if (!file.getFileName().toString().endsWith(ExportFormat.GZIP.getExtension())) {
+            return Files.lines(file);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+            ParallelGzipInputStream.open(file), StandardCharsets.UTF_8));
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private String studentToCsv(DataSnapshot.StudentRecord student) {
         return String.join(CSV_DELIMITER,
-            student.getId(),
-            student.getRegNo(),
-            student.getFullName(),
-            student.getEmail(),
-            student.getEnrollmentDate().format(DATE_FORMATTER),
-            String.valueOf(student.isActive()));
+            student.id(),
+            student.regNo(),
+            student.fullName(),
+            student.email(),
+            student.enrollmentDate().format(DATE_FORMATTER),
+            String.valueOf(student.active()));
     }
 
-    private String courseToCsv(Course course) {
+    private String courseToCsv(DataSnapshot.CourseRecord course) {
         return String.join(CSV_DELIMITER,
-            course.getCode(),
-            course.getTitle(),
-            String.valueOf(course.getCredits()),
-            course.getDepartment(),
-            course.getSemester().name(),
-            course.getInstructor() != null ? course.getInstructor().getId() : "",
-            String.valueOf(course.isActive()));
+            course.code(),
+            course.title(),
+            String.valueOf(course.credits()),
+            course.department(),
+            course.semester().name(),
+            course.instructorId() != null ? course.instructorId() : "",
+            String.valueOf(course.active()),
+            String.join(PREREQUISITE_DELIMITER, course.prerequisites()));
     }
 
-    private String enrollmentToCsv(Enrollment enrollment) {
+    private String enrollmentToCsv(DataSnapshot.EnrollmentRecord enrollment) {
         return String.join(CSV_DELIMITER,
-            enrollment.getStudent().getId(),
-            enrollment.getCourse().getCode(),
-            enrollment.getEnrollmentDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-            enrollment.getStatus().name(),
-            enrollment.getGrade() != null ? enrollment.getGrade().name() : "");
+            enrollment.studentId(),
+            enrollment.courseCode(),
+            enrollment.enrollmentDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+            enrollment.status().name(),
+            enrollment.grade() != null ? enrollment.grade().name() : "");
     }
 
     private Student csvToStudent(String line) {
         String[] parts = line.split(CSV_DELIMITER);
-        return new Student(
+        Student student = new Student(
             parts[0], // id
             parts[2], // fullName
             parts[3], // email
-            parts[1]  // regNo
+            parts[1], // regNo
+            parts.length > 4 && !parts[4].isEmpty()
+                ? LocalDate.parse(parts[4], DATE_FORMATTER) : LocalDate.now()
         );
+        if (parts.length > 5) {
+            student.setActive(Boolean.parseBoolean(parts[5]));
+        }
+        return student;
+    }
+
+    private String instructorToCsv(DataSnapshot.InstructorRecord instructor) {
+        return String.join(CSV_DELIMITER,
+            instructor.id(),
+            instructor.fullName(),
+            instructor.email(),
+            instructor.department(),
+            instructor.title());
+    }
+
+    /**
+     * The instructors a directory defines, by ID; none when it has no instructors file
+     */
+    private Map<String, Instructor> readInstructors(Path directory) throws IOException {
+        Map<String, Instructor> instructors = new HashMap<>();
+        try {
+            importRows(directory, INSTRUCTORS_FILE, lines -> lines
+                .map(this::csvToInstructor)
+                .forEach(instructor -> instructors.put(instructor.getId(), instructor)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return instructors;
     }
 
-    private Course csvToCourse(String line) {
+    private Instructor csvToInstructor(String line) {
+        String[] parts = line.split(CSV_DELIMITER, -1);
+        return new Instructor(parts[0], parts[1], parts[2], parts[3], parts[4]);
+    }
+
+    /**
+     * @param instructors instructors by ID, of which the course's is attached
+     */
+    private Course csvToCourse(String line, Map<String, Instructor> instructors) {
         String[] parts = line.split(CSV_DELIMITER);
-        return new Course.Builder(parts[0]) // code
+        Course course = new Course.Builder(parts[0]) // code
             .title(parts[1])
             .credits(Integer.parseInt(parts[2]))
             .department(parts[3])
             .semester(Semester.valueOf(parts[4]))
+            .instructor(parts.length > 5 && !parts[5].isEmpty() ? instructors.get(parts[5]) : null)
             .build();
+        if (parts.length > 6) {
+            course.setActive(Boolean.parseBoolean(parts[6]));
+        }
+        return course;
+    }
+
+    private void mergeStudent(Student imported) {
+        Student existing = studentService.findById(imported.getId());
+        if (existing == null) {
+            studentService.save(imported);
+            return;
+        }
+        existing.setFullName(imported.getFullName());
+        existing.setEmail(imported.getEmail());
+        existing.setActive(imported.isActive());
+        // Saving again lets listeners see the change in activation
+        studentService.save(existing);
+    }
+
+    private void mergeCourse(Course imported) {
+        Course existing = courseService.findById(imported.getCode());
+        if (existing == null) {
+            courseService.save(imported);
+            addToInstructor(imported);
+            return;
+        }
+        existing.setTitle(imported.getTitle());
+        existing.setCredits(imported.getCredits());
+        existing.setDepartment(imported.getDepartment());
+        existing.setSemester(imported.getSemester());
+        existing.setActive(imported.isActive());
+        if (imported.getInstructor() != null) {
+            existing.setInstructor(imported.getInstructor());
+        }
+        // Saving again lets listeners see the new credits and semester
+        courseService.save(existing);
+        addToInstructor(existing);
+    }
+
+    private static void addToInstructor(Course course) {
+        Instructor instructor = course.getInstructor();
+        if (instructor != null) {
+            // Courses of one instructor may be loaded in parallel
+            synchronized (instructor) {
+                instructor.assignCourse(course);
+            }
+        }
+    }
+
+    /**
+     * Merges a course row, setting its prerequisites aside to be applied
+     * once the enrollments are loaded. Rows written before the column
+     * existed leave the course's prerequisites as they are.
+     */
+    private void importCourse(String line, Map<String, Instructor> instructors,
+            Map<String, List<String>> prerequisites) {
+        Course course = csvToCourse(line, instructors);
+        String[] parts = line.split(CSV_DELIMITER, -1);
+        if (parts.length > 7) {
+            prerequisites.put(course.getCode(),
+                parts[7].isEmpty() ? List.of() : List.of(parts[7].split(PREREQUISITE_DELIMITER)));
+        }
+        mergeCourse(course);
     }
 
-    private void processEnrollmentLine(String line) throws Exception {
+    private void processEnrollmentLine(String line) {
         String[] parts = line.split(CSV_DELIMITER);
         Student student = studentService.findById(parts[0]);
         Course course = courseService.findById(parts[1]);
-        
-        if (student != null && course != null) {
-            Enrollment enrollment = enrollmentService.enroll(student, course);
-            if (parts.length > 4 && !parts[4].isEmpty()) {
-                enrollment.setGrade(Grade.valueOf(parts[4]));
+        // Failing the row keeps a restore from counting an enrollment it dropped
+        if (student == null) {
+            throw new IllegalArgumentException("Unknown student " + parts[0]);
+        }
+        if (course == null) {
+            throw new IllegalArgumentException("Unknown course " + parts[1]);
+        }
+
+        // The file records enrollments already made, so they load as recorded, without
+        // the prerequisite and credit limit checks a new enrollment goes through
+        LocalDateTime enrollmentDate = parts.length > 2 ? LocalDateTime.parse(parts[2]) : LocalDateTime.now();
+        Enrollment.EnrollmentStatus status = parts.length > 3
+            ? Enrollment.EnrollmentStatus.valueOf(parts[3]) : Enrollment.EnrollmentStatus.ENROLLED;
+        Grade grade = parts.length > 4 && !parts[4].isEmpty() ? Grade.valueOf(parts[4]) : null;
+        enrollmentService.restoreEnrollment(student, course, enrollmentDate, status, grade);
+    }
+
+    private void processDeletionLine(String line) {
+        String[] parts = line.split(CSV_DELIMITER);
+        if (parts.length < 2) {
+            return;
+        }
+        switch (parts[0]) {
+            case DELETED_STUDENT -> studentService.delete(parts[1]);
+            case DELETED_COURSE -> courseService.delete(parts[1]);
+            case DELETED_ENROLLMENT -> {
+                if (!(enrollmentService instanceof EnrollmentServiceImpl staged)) {
+                    throw new IllegalStateException("Enrollment deletions can only be restored into an "
+                        + "EnrollmentServiceImpl");
+                }
+                staged.delete(parts[1]);
             }
+            default -> System.err.println("Unknown deletion record: " + line);
         }
     }
 
@@ -176,17 +850,7 @@ public class ImportExportService implements DataPersistenceService {
 
     @Override
     public long getBackupSize(Path backupDirectory) throws IOException {
-        // Use walk to recursively calculate size
-        try (Stream<Path> walk = Files.walk(backupDirectory)) {
-            return walk.filter(Files::isRegularFile)
-                      .mapToLong(path -> {
-                          try {
-                              return Files.size(path);
-                          } catch (IOException e) {
-                              return 0L;
-                          }
-                      })
-                      .sum();
-        }
+        // Size subtrees in parallel; large backup trees are dominated by stat calls
+        return RecursiveFileUtil.parallelCalculateTotalSize(backupDirectory);
     }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package edu.ccrm.io;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Tracks rows loaded by an import running on several threads and reports
+ * throughput and estimated time remaining to a listener at a fixed interval.
+ * Other batch jobs, such as transcript generation, report through it too,
+ * counting each item they produce as a row.
+ */
+public class ImportProgress {
+    private static final long DEFAULT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    // Only check the clock every this many rows
+    private static final long CHECK_MASK = 1023;
+
+    /**
+     * Point-in-time view of the import
+     */
+    public record Status(long rows, long totalRows, long failedRows, double rowsPerSecond,
+            Duration elapsed, Duration eta) {
+
+        /**
+         * Fraction complete between 0 and 1, or -1 when the total is unknown
+         */
+        public double fraction() {
+            return totalRows > 0 ? Math.min(1.0, (double) rows / totalRows) : -1;
+        }
+
+        @Override
+        public String toString() {
+            String total = totalRows >= 0 ? String.format("/%d (%.0f%%)", totalRows, fraction() * 100) : "";
+            String remaining = eta != null ? String.format(", ETA %ds", eta.toSeconds()) : "";
+            return String.format("%d%s rows, %.0f rows/s%s", rows, total, rowsPerSecond, remaining);
+        }
+    }
+
+    private final long totalRows;
+    private final Consumer<Status> listener;
+    private final long intervalNanos;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final AtomicLong nextReport;
+    private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param totalRows expected number of rows, or -1 if unknown
+     */
+    public ImportProgress(long totalRows, Consumer<Status> listener) {
+        this(totalRows, listener, DEFAULT_INTERVAL_NANOS);
+    }
+
+    public ImportProgress(long totalRows, Consumer<Status> listener, long intervalNanos) {
+        this.totalRows = totalRows;
+        this.listener = listener;
+        this.intervalNanos = intervalNanos;
+        this.nextReport = new AtomicLong(startNanos + intervalNanos);
+    }
+
+    /**
+     * Progress that is tracked but never reported
+     */
+    public static ImportProgress silent() {
+        return new ImportProgress(-1, status -> { });
+    }
+
+    public void rowLoaded() {
+        if ((rows.incrementAndGet() & CHECK_MASK) == 0) {
+            reportIfDue();
+        }
+    }
+
+    /**
+     * Counts a batch of rows at once, for jobs that produce rows in chunks
+     */
+    public void rowsLoaded(long count) {
+        long total = rows.addAndGet(count);
+        // Check the clock whenever the batch crosses a multiple of the check interval
+        if (((total - count) | CHECK_MASK) != (total | CHECK_MASK)) {
+            reportIfDue();
+        }
+    }
+
+    private void reportIfDue() {
+        long now = System.nanoTime();
+        long due = nextReport.get();
+        // Only the thread that wins the update reports, so the listener is never flooded
+        if (now >= due && nextReport.compareAndSet(due, now + intervalNanos)) {
+            listener.accept(getStatus());
+        }
+    }
+
+    public void rowFailed(String error) {
+        rows.incrementAndGet();
+        failedRows.incrementAndGet();
+        errors.add(error);
+    }
+
+    /**
+     * Reports the final status
+     */
+    public void finish() {
+        listener.accept(getStatus());
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getFailedRows() {
+        return failedRows.get();
+    }
+
+    public List<String> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    public Status getStatus() {
+        long loaded = rows.get();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        double seconds = elapsed.toNanos() / 1e9;
+        double rate = seconds > 0 ? loaded / seconds : 0;
+        Duration eta = null;
+        if (totalRows >= 0 && rate > 0) {
+            eta = Duration.ofMillis((long) (Math.max(0, totalRows - loaded) / rate * 1000));
+        }
+        return new Status(loaded, totalRows, failedRows.get(), rate, elapsed, eta);
+    }
+}
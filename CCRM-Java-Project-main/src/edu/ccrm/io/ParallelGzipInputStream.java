@@ -0,0 +1,167 @@
+package edu.ccrm.io;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Input stream that inflates block compressed gzip data in parallel.
+ * Block boundaries come from the block headers, so several blocks are
+ * decompressed ahead of the reader while data is returned in order.
+ */
+public class ParallelGzipInputStream extends InputStream {
+    private final InputStream in;
+    private final Executor executor;
+    private final int readAhead;
+    private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private byte[] current = new byte[0];
+    private int position;
+    private boolean endOfInput;
+
+    public ParallelGzipInputStream(InputStream in) {
+        this(in, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public ParallelGzipInputStream(InputStream in, Executor executor, int readAhead) {
+        if (readAhead <= 0) {
+            throw new IllegalArgumentException("Read-ahead must be positive");
+        }
+        this.in = in;
+        this.executor = executor;
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * Opens a gzip file, decompressing in parallel when it uses the block
+     * layout and falling back to sequential decompression otherwise.
+     */
+    public static InputStream open(Path file) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(
+            new BufferedInputStream(Files.newInputStream(file)), BlockGzip.HEADER_SIZE);
+        try {
+            byte[] header = new byte[BlockGzip.HEADER_SIZE];
+            int n = in.readNBytes(header, 0, header.length);
+            in.unread(header, 0, n);
+            if (n == BlockGzip.HEADER_SIZE && BlockGzip.memberSize(header) > 0) {
+                return new ParallelGzipInputStream(in);
+            }
+            return new GZIPInputStream(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+        in.close();
+    }
+
+    private boolean ensureData() throws IOException {
+        while (position == current.length) {
+            fillPending();
+            if (pending.isEmpty()) {
+                return false;
+            }
+            current = await(pending.removeFirst());
+            position = 0;
+        }
+        return true;
+    }
+
+    private void fillPending() throws IOException {
+        while (!endOfInput && pending.size() < readAhead) {
+            byte[] member = readMember();
+            if (member == null) {
+                endOfInput = true;
+            } else {
+                pending.addLast(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return BlockGzip.decompressBlock(member);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, executor));
+            }
+        }
+    }
+
+    private byte[] readMember() throws IOException {
+        byte[] header = new byte[BlockGzip.HEADER_SIZE];
+        int n = in.readNBytes(header, 0, header.length);
+        if (n == 0) {
+            return null;
+        }
+        if (n < header.length) {
+            throw new EOFException("Truncated block header");
+        }
+        int size = BlockGzip.memberSize(header);
+        if (size < BlockGzip.HEADER_SIZE + BlockGzip.TRAILER_SIZE) {
+            throw new IOException("Not a block compressed gzip member");
+        }
+        byte[] member = new byte[size];
+        System.arraycopy(header, 0, member, 0, header.length);
+        int rest = size - header.length;
+        if (in.readNBytes(member, header.length, rest) != rest) {
+            throw new EOFException("Truncated compressed block");
+        }
+        return member;
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Block decompression failed", cause);
+        }
+    }
+}
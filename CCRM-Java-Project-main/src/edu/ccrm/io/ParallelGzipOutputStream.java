@@ -0,0 +1,130 @@
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Output stream that writes gzip-compatible data as independent blocks.
+ * Blocks are compressed concurrently and written in order, with a bounded
+ * number of blocks in flight so memory use stays flat for large exports.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+    private final OutputStream out;
+    private final Executor executor;
+    private final int blockSize;
+    private final int maxInFlight;
+    private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private byte[] buffer;
+    private int count;
+    private long blocksWritten;
+    private boolean closed;
+
+    public ParallelGzipOutputStream(OutputStream out) {
+        this(out, ForkJoinPool.commonPool(), BlockGzip.DEFAULT_BLOCK_SIZE,
+            Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public ParallelGzipOutputStream(OutputStream out, Executor executor, int blockSize, int maxInFlight) {
+        if (blockSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("Block size and in-flight limit must be positive");
+        }
+        this.out = out;
+        this.executor = executor;
+        this.blockSize = blockSize;
+        this.maxInFlight = maxInFlight;
+        this.buffer = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        buffer[count++] = (byte) b;
+        if (count == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses the buffered partial block and writes every completed block
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (count > 0) {
+            submitBlock();
+        }
+        while (!pending.isEmpty()) {
+            writeOldest();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (blocksWritten == 0 && count == 0 && pending.isEmpty()) {
+                // An empty file is not valid gzip, so emit one empty block
+                submitBlock();
+            }
+            flush();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        byte[] block = buffer;
+        int length = count;
+        pending.addLast(CompletableFuture.supplyAsync(
+            () -> BlockGzip.compressBlock(block, length), executor));
+        buffer = new byte[blockSize];
+        count = 0;
+        while (pending.size() >= maxInFlight) {
+            writeOldest();
+        }
+    }
+
+    private void writeOldest() throws IOException {
+        try {
+            out.write(pending.removeFirst().get());
+            blocksWritten++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Block compression failed", e.getCause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Generates large, realistic data sets in the import file layout, for load
+ * and scale testing. The output depends only on the options and the seed,
+ * never on the number of threads: students are generated in fixed-size
+ * chunks, each from its own random stream, on a pool of threads, and the
+ * chunks are written in order.
+ *
+ * The data is deliberately uneven. Department sizes follow a Zipf
+ * distribution, students mostly take courses in their home department,
+ * grades depend on student ability and department difficulty, and credit
+ * loads range from part-time to the semester maximum. Instructors are
+ * written to {@code instructors.csv} and referenced by the courses. Some
+ * courses require the one numbered before them in their department, which
+ * forms prerequisite chains; enrollments do not follow them, as import
+ * loads recorded enrollments without checking prerequisites.
+ */
+public class SyntheticDataGenerator {
+    private static final int CHUNK_SIZE = 4096;
+    private static final double HOME_DEPARTMENT_SHARE = 0.7;
+    private static final double PREREQUISITE_SHARE = 0.3;
+    private static final int MAX_PICK_ATTEMPTS = 24;
+    private static final LocalDate FIRST_ADMISSION = Semester.values()[0].getStartDate().minusYears(4);
+    private static final int ADMISSION_DAYS =
+        (int) ChronoUnit.DAYS.between(FIRST_ADMISSION, Semester.values()[0].getStartDate());
+
+    private static final String[][] DEPARTMENTS = {
+        {"Computer Science", "CS"}, {"Business", "BUS"}, {"Psychology", "PSY"},
+        {"Biology", "BIO"}, {"Engineering", "EGR"}, {"Economics", "ECO"},
+        {"Nursing", "NUR"}, {"English", "ENG"}, {"Mathematics", "MAT"},
+        {"History", "HIS"}, {"Chemistry", "CHM"}, {"Political Science", "POL"},
+        {"Physics", "PHY"}, {"Sociology", "SOC"}, {"Art", "ART"},
+        {"Music", "MUS"}, {"Philosophy", "PHI"}, {"Geology", "GEO"},
+        {"Linguistics", "LIN"}, {"Classics", "CLA"}
+    };
+    private static final String[] TOPICS = {
+        "Foundations", "Methods", "Theory", "Laboratory", "Seminar", "Practicum",
+        "Research", "Analysis", "Design", "Applications", "Advanced Topics", "Survey"
+    };
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Wei", "Aisha", "Carlos", "Priya", "John", "Fatima", "Liam", "Olivia",
+        "Noah", "Emma", "Arjun", "Sofia", "Mohammed", "Yuki", "Daniel", "Chloe", "Kwame", "Elena",
+        "Lucas", "Maya", "Ivan", "Amara", "Mateo", "Hana", "Ethan", "Zara", "Omar", "Grace"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Chen", "Patel", "Garcia", "Kim", "Nguyen", "Brown", "Khan", "Silva",
+        "Mueller", "Rossi", "Okafor", "Tanaka", "Lopez", "Wilson", "Ivanova", "Haddad", "Cohen", "Singh",
+        "Martin", "Anderson", "Novak", "Mensah", "Dubois", "Larsen", "Costa", "Ahmed", "Moore", "Reyes"
+    };
+    private static final String[] INSTRUCTOR_TITLES = {
+        "Professor", "Associate Professor", "Assistant Professor", "Lecturer"
+    };
+    // Part-time, regular and heavy per-semester credit loads
+    private static final int[][] CREDIT_LOADS = {{6, 9}, {12, 15}, {16, 18}};
+    private static final double[] CREDIT_LOAD_WEIGHTS = {0.15, 0.65, 0.20};
+    private static final int[] COURSE_CREDITS = {1, 2, 3, 4};
+    private static final double[] COURSE_CREDIT_WEIGHTS = {0.05, 0.10, 0.60, 0.25};
+
+    /**
+     * Counts of what was written
+     */
+    public record Summary(long students, long instructors, long courses, long enrollments,
+            Duration elapsed) {
+
+        public long totalRows() {
+            return students + instructors + courses + enrollments;
+        }
+    }
+
+    private final int students;
+    private final int courses;
+    private final int instructors;
+    private final long seed;
+    private final ExportFormat format;
+    private final int threads;
+    private final int maxCreditsPerSemester;
+
+    // Course catalog, generated before any student
+    private int departmentCount;
+    private double[] departmentWeights;
+    private double[] departmentDifficulty;
+    private String[] courseCodes;
+    private int[] courseCredits;
+    private int[] courseDepartments;
+    private int[] coursePrerequisites;
+    private int[][][] coursesByDepartmentAndSemester;
+
+    private SyntheticDataGenerator(Builder builder) {
+        this.students = builder.students;
+        this.courses = builder.courses;
+        this.instructors = builder.instructors > 0 ? builder.instructors : Math.max(1, builder.courses / 4);
+        this.seed = builder.seed;
+        this.format = builder.format;
+        this.threads = builder.threads;
+        this.maxCreditsPerSemester = builder.maxCreditsPerSemester;
+    }
+
+    /**
+     * Writes students, instructors, courses and enrollments to the
+     * directory, replacing existing data files
+     *
+     * @param listener receives progress, counted in students
+     */
+    public Summary generate(Path directory, Consumer<ImportProgress.Status> listener)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        buildCatalog();
+
+        long instructorRows = writeInstructors(directory);
+        long courseRows = writeCourses(directory);
+
+        ImportProgress progress = new ImportProgress(students, listener);
+        long enrollmentRows = 0;
+        int chunkCount = (students + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-data-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (OutputStream studentsOut = open(directory, ImportExportService.STUDENTS_FILE);
+             OutputStream enrollmentsOut = open(directory, ImportExportService.ENROLLMENTS_FILE)) {
+            writeLine(studentsOut, ImportExportService.STUDENT_HEADER);
+            writeLine(enrollmentsOut, ImportExportService.ENROLLMENT_HEADER);
+
+            // Keep a bounded window of chunks in flight and write them in order
+            Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            int nextChunk = 0;
+            while (nextChunk < chunkCount || !inFlight.isEmpty()) {
+                while (nextChunk < chunkCount && inFlight.size() < threads * 2) {
+                    int chunkIndex = nextChunk++;
+                    inFlight.add(pool.submit(() -> generateChunk(chunkIndex)));
+                }
+                Chunk chunk = inFlight.poll().get();
+                studentsOut.write(chunk.students());
+                enrollmentsOut.write(chunk.enrollments());
+                enrollmentRows += chunk.enrollmentRows();
+                progress.rowsLoaded(chunk.studentRows());
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Data generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        progress.finish();
+        return new Summary(students, instructorRows, courseRows, enrollmentRows,
+            Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private OutputStream open(Path directory, String baseName) throws IOException {
+        OutputStream out = new BufferedOutputStream(
+            Files.newOutputStream(directory.resolve(format.fileName(baseName))), 1 << 16);
+        return format.isCompressed() ? new ParallelGzipOutputStream(out) : out;
+    }
+
+    private static void writeLine(OutputStream out, String line) throws IOException {
+        out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Random stream for one unit of work, independent of which thread runs it
+     */
+    private SplittableRandom random(long stream) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream);
+    }
+
+    private void buildCatalog() {
+        departmentCount = Math.min(DEPARTMENTS.length, Math.max(1, courses));
+        departmentWeights = new double[departmentCount];
+        departmentDifficulty = new double[departmentCount];
+        SplittableRandom random = random(-1);
+        for (int d = 0; d < departmentCount; d++) {
+            // Zipf weights: the first department is the largest
+            departmentWeights[d] = 1.0 / (d + 1);
+            departmentDifficulty[d] = random.nextDouble(-0.5, 0.5);
+        }
+        departmentWeights = cumulative(departmentWeights);
+
+        Semester[] semesters = Semester.values();
+        courseCodes = new String[courses];
+        courseCredits = new int[courses];
+        courseDepartments = new int[courses];
+        coursePrerequisites = new int[courses];
+        int[] perDepartment = new int[departmentCount];
+        int[] lastInDepartment = new int[departmentCount];
+        Arrays.fill(lastInDepartment, -1);
+        // Own stream, so adding chains left the rest of the catalog unchanged
+        SplittableRandom chains = random(-4);
+        double[] creditWeights = cumulative(COURSE_CREDIT_WEIGHTS);
+        List<List<List<Integer>>> pools = new ArrayList<>();
+        for (int d = 0; d < departmentCount; d++) {
+            List<List<Integer>> bySemester = new ArrayList<>();
+            for (int s = 0; s < semesters.length; s++) {
+                bySemester.add(new ArrayList<>());
+            }
+            pools.add(bySemester);
+        }
+        for (int c = 0; c < courses; c++) {
+            // Every department gets at least one course before the skew applies
+            int department = c < departmentCount ? c : pick(departmentWeights, random);
+            int number = 100 + perDepartment[department]++;
+            courseDepartments[c] = department;
+            courseCodes[c] = DEPARTMENTS[department][1] + number;
+            courseCredits[c] = COURSE_CREDITS[pick(creditWeights, random)];
+            pools.get(department).get(random.nextInt(semesters.length)).add(c);
+            // Requiring only an earlier course keeps the chains acyclic
+            coursePrerequisites[c] = lastInDepartment[department] >= 0
+                    && chains.nextDouble() < PREREQUISITE_SHARE ? lastInDepartment[department] : -1;
+            lastInDepartment[department] = c;
+        }
+
+        coursesByDepartmentAndSemester = new int[departmentCount][semesters.length][];
+        for (int d = 0; d < departmentCount; d++) {
+            for (int s = 0; s < semesters.length; s++) {
+                coursesByDepartmentAndSemester[d][s] =
+                    pools.get(d).get(s).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+
+    private long writeInstructors(Path directory) throws IOException {
+        SplittableRandom random = random(-2);
+        try (OutputStream out = open(directory, ImportExportService.INSTRUCTORS_FILE)) {
+            writeLine(out, ImportExportService.INSTRUCTOR_HEADER);
+            StringBuilder line = new StringBuilder(128);
+            for (int i = 0; i < instructors; i++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                int department = instructorDepartment(i);
+                line.setLength(0);
+                line.append(instructorId(i)).append(',')
+                    .append("Dr. ").append(first).append(' ').append(last).append(',')
+                    .append(first.toLowerCase()).append('.').append(last.toLowerCase()).append('.')
+                    .append(i).append("@faculty.example.edu,")
+                    .append(DEPARTMENTS[department][0]).append(',')
+                    .append(INSTRUCTOR_TITLES[random.nextInt(INSTRUCTOR_TITLES.length)]).append('\n');
+                out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return instructors;
+    }
+
+    private static String instructorId(int index) {
+        return "I" + index;
+    }
+
+    // Instructors are spread round-robin, so every department with courses has staff
+    private int instructorDepartment(int index) {
+        return index % departmentCount;
+    }
+
+    private long writeCourses(Path directory) throws IOException {
+        SplittableRandom random = random(-3);
+        int instructorsPerDepartment = Math.max(1, instructors / departmentCount);
+        try (OutputStream out = open(directory, ImportExportService.COURSES_FILE)) {
+            writeLine(out, ImportExportService.COURSE_HEADER);
+            StringBuilder line = new StringBuilder(128);
+            Semester[] semesters = Semester.values();
+            for (int d = 0; d < departmentCount; d++) {
+                for (int s = 0; s < semesters.length; s++) {
+                    for (int c : coursesByDepartmentAndSemester[d][s]) {
+                        int instructor = Math.min(instructors - 1,
+                            d + departmentCount * random.nextInt(instructorsPerDepartment));
+                        line.setLength(0);
+                        line.append(courseCodes[c]).append(',')
+                            .append(DEPARTMENTS[d][0]).append(' ')
+                            .append(TOPICS[random.nextInt(TOPICS.length)]).append(' ')
+                            .append(roman(1 + random.nextInt(4))).append(',')
+                            .append(courseCredits[c]).append(',')
+                            .append(DEPARTMENTS[d][0]).append(',')
+                            .append(semesters[s].name()).append(',')
+                            .append(instructorId(instructor)).append(',')
+                            // A few courses are retired
+                            .append(random.nextInt(50) != 0).append(',')
+                            .append(coursePrerequisites[c] >= 0 ? courseCodes[coursePrerequisites[c]] : "")
+                            .append('\n');
+                        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+        return courses;
+    }
+
+    private static String roman(int level) {
+        return switch (level) {
+            case 1 -> "I";
+            case 2 -> "II";
+            case 3 -> "III";
+            default -> "IV";
+        };
+    }
+
+    private record Chunk(byte[] students, byte[] enrollments, long studentRows, long enrollmentRows) {
+    }
+
+    private Chunk generateChunk(int chunkIndex) {
+        SplittableRandom random = random(chunkIndex);
+        int from = chunkIndex * CHUNK_SIZE;
+        int to = Math.min(students, from + CHUNK_SIZE);
+        StringBuilder studentRows = new StringBuilder((to - from) * 96);
+        StringBuilder enrollmentRows = new StringBuilder((to - from) * 256);
+        double[] loadWeights = cumulative(CREDIT_LOAD_WEIGHTS);
+        Semester[] semesters = Semester.values();
+        Grade[] grades = Grade.values();
+        int[] picked = new int[MAX_PICK_ATTEMPTS];
+        long enrollments = 0;
+
+        for (int index = from; index < to; index++) {
+            String id = "S" + index;
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            // Admitted on any day of the four years before the first semester
+            LocalDate admitted = FIRST_ADMISSION.plusDays(random.nextInt(ADMISSION_DAYS));
+            studentRows.append(id).append(',')
+                .append("REG").append(admitted.getYear()).append(index).append(',')
+                .append(first).append(' ').append(last).append(',')
+                .append(first.toLowerCase()).append('.').append(last.toLowerCase()).append('.')
+                .append(index).append("@example.edu,")
+                .append(admitted).append(',')
+                .append(random.nextInt(40) != 0).append('\n');
+
+            int home = pick(departmentWeights, random);
+            double ability = random.nextGaussian();
+            int[] load = CREDIT_LOADS[pick(loadWeights, random)];
+            for (int s = 0; s < semesters.length; s++) {
+                // Fewer students take summer courses
+                if (random.nextDouble() > (s == semesters.length - 1 ? 0.3 : 0.9)) {
+                    continue;
+                }
+                int target = Math.min(maxCreditsPerSemester, load[0] + random.nextInt(load[1] - load[0] + 1));
+                int credits = 0;
+                int count = 0;
+                for (int attempt = 0; attempt < MAX_PICK_ATTEMPTS && credits < target; attempt++) {
+                    int department = random.nextDouble() < HOME_DEPARTMENT_SHARE
+                        ? home : pick(departmentWeights, random);
+                    int[] offered = coursesByDepartmentAndSemester[department][s];
+                    if (offered.length == 0) {
+                        continue;
+                    }
+                    int course = offered[random.nextInt(offered.length)];
+                    if (credits + courseCredits[course] > maxCreditsPerSemester
+                            || contains(picked, count, course)) {
+                        continue;
+                    }
+                    picked[count++] = course;
+                    credits += courseCredits[course];
+                    appendEnrollment(enrollmentRows, id, course, semesters[s], ability, grades, random);
+                    enrollments++;
+                }
+            }
+        }
+        return new Chunk(studentRows.toString().getBytes(StandardCharsets.UTF_8),
+            enrollmentRows.toString().getBytes(StandardCharsets.UTF_8), to - from, enrollments);
+    }
+
+    private void appendEnrollment(StringBuilder rows, String studentId, int course, Semester semester,
+            double ability, Grade[] grades, SplittableRandom random) {
+        rows.append(studentId).append(',')
+            .append(courseCodes[course]).append(',')
+            .append(semester.getStartDate()).append("T09:00:00,");
+        double outcome = random.nextDouble();
+        if (outcome < 0.75) {
+            // Stronger students and easier departments earn better grades; index 0 is the best grade
+            double score = 1.8 - ability * 1.1 + departmentDifficulty[courseDepartments[course]]
+                + random.nextGaussian() * 0.9;
+            int grade = (int) Math.max(0, Math.min(grades.length - 1, Math.round(score)));
+            rows.append(Enrollment.EnrollmentStatus.COMPLETED.name()).append(',')
+                .append(grades[grade].name());
+        } else if (outcome < 0.9) {
+            rows.append(Enrollment.EnrollmentStatus.ENROLLED.name()).append(',');
+        } else {
+            rows.append(Enrollment.EnrollmentStatus.WITHDRAWN.name()).append(',');
+        }
+        rows.append('\n');
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] result = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            result[i] = sum;
+        }
+        for (int i = 0; i < result.length; i++) {
+            result[i] /= sum;
+        }
+        return result;
+    }
+
+    private static int pick(double[] cumulativeWeights, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        return Math.min(cumulativeWeights.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    /**
+     * Builder for generator options. Defaults produce a small campus of
+     * 10,000 students and 500 courses.
+     */
+    public static class Builder {
+        private int students = 10_000;
+        private int courses = 500;
+        private int instructors;
+        private long seed = 1;
+        private ExportFormat format = ExportFormat.CSV;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int maxCreditsPerSemester = 18;
+
+        public Builder students(int students) {
+            this.students = requirePositive(students, "students");
+            return this;
+        }
+
+        public Builder courses(int courses) {
+            this.courses = requirePositive(courses, "courses");
+            return this;
+        }
+
+        /**
+         * Number of instructors; by default one per four courses
+         */
+        public Builder instructors(int instructors) {
+            this.instructors = requirePositive(instructors, "instructors");
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder format(ExportFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = requirePositive(threads, "threads");
+            return this;
+        }
+
+        public Builder maxCreditsPerSemester(int maxCreditsPerSemester) {
+            this.maxCreditsPerSemester = requirePositive(maxCreditsPerSemester, "maxCreditsPerSemester");
+            return this;
+        }
+
+        public SyntheticDataGenerator build() {
+            return new SyntheticDataGenerator(this);
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package edu.ccrm.metrics;
+
+import java.nio.file.Path;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for creating, restoring or verifying a backup
+ */
+@Name("edu.ccrm.Backup")
+@Label("Backup")
+@Category({"CCRM", "Backup"})
+@Description("A backup created, restored or verified")
+@StackTrace(false)
+public class BackupEvent extends Event {
+    public static final String CREATE = "CREATE";
+    public static final String CREATE_INCREMENTAL = "CREATE_INCREMENTAL";
+    public static final String CREATE_DEDUPLICATED = "CREATE_DEDUPLICATED";
+    public static final String RESTORE = "RESTORE";
+    public static final String VERIFY = "VERIFY";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Backup")
+    @Description("Backup directory or manifest name; empty if creation failed")
+    String backup;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Ends the event and commits it if the recording wants it
+     *
+     * @param backup the backup operated on, or null if none was created
+     */
+    public void complete(String operation, Path backup, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.backup = backup != null ? backup.getFileName().toString() : "";
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package edu.ccrm.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one file read by an import or written by an
+ * export. Bytes are as stored, so compressed files report their
+ * compressed size.
+ */
+@Name("edu.ccrm.DataTransfer")
+@Label("Data Import/Export")
+@Category({"CCRM", "Data"})
+@Description("One data file imported or exported")
+@StackTrace(false)
+public class DataTransferEvent extends Event {
+    public static final String IMPORT = "IMPORT";
+    public static final String EXPORT = "EXPORT";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("File")
+    String file;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Ends the event and commits it if the recording wants it
+     */
+    public void complete(String operation, String file, long rows, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
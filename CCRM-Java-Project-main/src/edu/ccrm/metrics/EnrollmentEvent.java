@@ -0,0 +1,52 @@
+package edu.ccrm.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one enrollment attempt, successful or not.
+ * Costs next to nothing unless a recording has the event enabled.
+ */
+@Name("edu.ccrm.Enrollment")
+@Label("Enrollment")
+@Category({"CCRM", "Enrollment"})
+@Description("A student enrolling in a course")
+@StackTrace(false)
+public class EnrollmentEvent extends Event {
+    public static final String ENROLLED = "ENROLLED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String CREDIT_LIMIT = "CREDIT_LIMIT";
+    public static final String PREREQUISITE = "PREREQUISITE";
+    public static final String FAILED = "FAILED";
+
+    @Label("Student")
+    String studentId;
+
+    @Label("Course")
+    String courseCode;
+
+    @Label("Semester")
+    String semester;
+
+    @Label("Outcome")
+    @Description("ENROLLED, DUPLICATE, CREDIT_LIMIT, PREREQUISITE or FAILED")
+    String outcome;
+
+    /**
+     * Ends the event and commits it if the recording wants it
+     */
+    public void complete(String studentId, String courseCode, String semester, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.studentId = studentId;
+            this.courseCode = courseCode;
+            this.semester = semester;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package edu.ccrm.metrics;
+
+/**
+ * Times one named operation into a latency histogram:
+ * <pre>
+ * long start = TIMER.start();
+ * try {
+ *     ...
+ * } finally {
+ *     TIMER.stop(start);
+ * }
+ * </pre>
+ * When metrics are disabled, {@code start} skips reading the clock and
+ * {@code stop} records nothing.
+ */
+public class OperationTimer {
+    private final String name;
+    private final MetricsRegistry registry;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    OperationTimer(String name, MetricsRegistry registry) {
+        this.name = name;
+        this.registry = registry;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long start() {
+        return registry.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    public void stop(long start) {
+        if (start != 0) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    public void record(long nanos) {
+        if (registry.isEnabled()) {
+            histogram.record(nanos);
+        }
+    }
+
+    LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
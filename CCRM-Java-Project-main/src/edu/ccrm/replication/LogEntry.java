@@ -0,0 +1,54 @@
+package edu.ccrm.replication;
+
+import edu.ccrm.wire.WireCommand;
+import edu.ccrm.wire.WireProtocol.Opcode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One change in a {@link ReplicationLog}: its sequence number, when the
+ * primary made it, and the binary protocol command that repeats it.
+ *
+ * On the wire an entry is a row of sequence, time in epoch milliseconds,
+ * opcode name and the command's arguments, joined by the ASCII record
+ * separator; arguments may be whole {@code WireRows} rows, whose fields
+ * are joined by the unit separator.
+ */
+public record LogEntry(long sequence, long timeMillis, WireCommand command) {
+    public static final char SEPARATOR = '\u001E';
+
+    public String encode() {
+        StringBuilder row = new StringBuilder(64);
+        row.append(sequence).append(SEPARATOR).append(timeMillis).append(SEPARATOR)
+            .append(command.opcode().name());
+        for (String argument : command.arguments()) {
+            if (argument.indexOf(SEPARATOR) >= 0) {
+                throw new IllegalArgumentException("Argument contains the entry separator: " + argument);
+            }
+            row.append(SEPARATOR).append(argument);
+        }
+        return row.toString();
+    }
+
+    /**
+     * Reads an entry written by {@link #encode}
+     *
+     * @throws IllegalArgumentException if the row is not a valid entry
+     */
+    public static LogEntry decode(String row) {
+        List<String> fields = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < row.length(); i++) {
+            if (row.charAt(i) == SEPARATOR) {
+                fields.add(row.substring(start, i));
+                start = i + 1;
+            }
+        }
+        fields.add(row.substring(start));
+        if (fields.size() < 3) {
+            throw new IllegalArgumentException("Not a log entry: " + row);
+        }
+        return new LogEntry(Long.parseLong(fields.get(0)), Long.parseLong(fields.get(1)),
+            new WireCommand(Opcode.valueOf(fields.get(2)), fields.subList(3, fields.size())));
+    }
+}
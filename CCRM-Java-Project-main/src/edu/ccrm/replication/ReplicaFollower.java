@@ -0,0 +1,285 @@
+package edu.ccrm.replication;
+
+import edu.ccrm.io.ImportExportService;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.wire.WireClient;
+import edu.ccrm.wire.WireCommand;
+import edu.ccrm.wire.WireExecutor;
+import edu.ccrm.wire.WireProtocol.Status;
+import edu.ccrm.wire.WireResult;
+import edu.ccrm.wire.WireRows;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a read replica's services in step with a primary's
+ * {@link ReplicationLog}. The follower loads a checkpoint from the
+ * primary, then asks over and over for the entries after the last one it
+ * applied and applies them through a {@link WireExecutor}. Once it has
+ * caught up it waits one poll interval before asking again, so a change
+ * reaches the replica within about that long.
+ *
+ * If the primary goes away the follower reconnects and carries on from
+ * where it stopped; if the primary can no longer continue its log from
+ * there, e.g. after it restarted, restored a backup, or overwrote the
+ * entries, the follower loads a new checkpoint. A checkpoint is applied
+ * to staging services and swapped in whole, so readers never see it
+ * half loaded.
+ *
+ * The time from a change on the primary to its applying here is recorded
+ * for every entry in the {@code replication.lag} timer. It is measured
+ * with the two hosts' clocks, which agree on loopback or under NTP.
+ */
+public class ReplicaFollower implements Closeable {
+    public static final long DEFAULT_POLL_MILLIS = 10;
+    private static final long RETRY_MILLIS = 1000;
+    private static final OperationTimer LAG_TIMER = MetricsRegistry.getInstance().timer("replication.lag");
+    private static final OperationTimer CHECKPOINT_TIMER =
+        MetricsRegistry.getInstance().timer("replication.checkpoint");
+    private static final LongAdder APPLIED = MetricsRegistry.getInstance().counter("replication.applied");
+    private static final LongAdder REJECTED = MetricsRegistry.getInstance().counter("replication.rejected");
+
+    private final InetSocketAddress primary;
+    private final ImportExportService importExportService;
+    private final WireExecutor executor;
+    private final long pollMillis;
+    private final Thread thread;
+    // Used by the following thread only, once started
+    private WireClient client;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile String logId = "";
+    private volatile long appliedSequence;
+    private volatile long primarySequence;
+    // Primary's time of the last applied change, and local time the primary last answered
+    private volatile long appliedTimeMillis;
+    private volatile long contactTimeMillis;
+
+    /**
+     * @param importExportService service over the same services, used to swap in checkpoints
+     * @param pollMillis how long to wait before asking again once caught up
+     */
+    public ReplicaFollower(InetSocketAddress primary, StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService,
+            ImportExportService importExportService, long pollMillis) {
+        this.primary = primary;
+        this.importExportService = importExportService;
+        this.executor = new WireExecutor(studentService, courseService, enrollmentService);
+        this.pollMillis = Math.max(1, pollMillis);
+        this.thread = new Thread(this::run, "ccrm-replica");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Connects to the primary and loads a checkpoint, then follows the log
+     * in the background
+     *
+     * @throws IOException if the primary cannot be reached or sends no checkpoint
+     */
+    public void start() throws IOException {
+        client = connect();
+        try {
+            loadCheckpoint();
+        } catch (IOException | RuntimeException e) {
+            disconnect();
+            throw e;
+        }
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops following; the data stays as it was last applied
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public InetSocketAddress getPrimary() {
+        return primary;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Sequence number of the last log entry applied
+     */
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Last sequence number the primary reported
+     */
+    public long getPrimarySequence() {
+        return primarySequence;
+    }
+
+    /**
+     * How stale the replica may be: while catching up, the age of the last
+     * change applied; once caught up, the time since the primary last answered
+     */
+    public long getLagMillis() {
+        long since = appliedSequence < primarySequence ? appliedTimeMillis : contactTimeMillis;
+        return Math.max(0, System.currentTimeMillis() - since);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (client == null) {
+                    client = connect();
+                }
+                if (!pull()) {
+                    Thread.sleep(pollMillis);
+                }
+            } catch (IOException | RuntimeException e) {
+                if (running) {
+                    if (connected) {
+                        System.err.println("Lost the primary at " + describe() + ": " + e.getMessage());
+                    }
+                    disconnect();
+                    pause(RETRY_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        disconnect();
+    }
+
+    /**
+     * Applies the next entries of the log, returning whether more are waiting
+     */
+    private boolean pull() throws IOException {
+        WireResult result = client.execute(WireCommand.replicate(logId, appliedSequence));
+        if (result.status() == Status.NOT_FOUND) {
+            loadCheckpoint();
+            return true;
+        }
+        String[] header = WireRows.split(check(result).rows().get(0));
+        contactTimeMillis = System.currentTimeMillis();
+        forEachRow(result, row -> apply(LogEntry.decode(row)));
+        primarySequence = Long.parseLong(header[1]);
+        return appliedSequence < primarySequence;
+    }
+
+    private void apply(LogEntry entry) {
+        if (!executor.execute(entry.command()).isOk()) {
+            REJECTED.increment();
+        }
+        APPLIED.increment();
+        appliedTimeMillis = entry.timeMillis();
+        appliedSequence = entry.sequence();
+        LAG_TIMER.record(Math.max(0, System.currentTimeMillis() - entry.timeMillis()) * 1_000_000L);
+    }
+
+    /**
+     * Applies a checkpoint page by page to staging services and swaps them
+     * in, then continues the log from the checkpoint's position. A command
+     * the staging services reject would leave the replica's data different
+     * from the primary's, so it fails the load and the data stays as it was.
+     *
+     * @throws IOException if the checkpoint cannot be read or any of its commands is rejected
+     */
+    private void loadCheckpoint() throws IOException {
+        long start = CHECKPOINT_TIMER.start();
+        ImportExportService staged = importExportService.newStagingInstance();
+        WireExecutor staging = new WireExecutor(staged.getStudentService(), staged.getCourseService(),
+            staged.getEnrollmentService());
+
+        WireResult result = check(client.execute(WireCommand.checkpoint()));
+        String[] header = WireRows.split(result.rows().get(0));
+        List<String> rejections = new ArrayList<>();
+        forEachRow(result, row -> {
+            WireCommand command = LogEntry.decode(row).command();
+            WireResult applied = staging.execute(command);
+            if (!applied.isOk()) {
+                REJECTED.increment();
+                rejections.add(command.opcode() + " " + command.arguments() + ": " + applied.status()
+                    + " " + applied.message());
+            }
+        });
+        if (!rejections.isEmpty()) {
+            throw new IOException("Checkpoint not loaded, " + rejections.size() + " command(s) rejected; first "
+                + rejections.get(0));
+        }
+        importExportService.replaceContents(staged);
+
+        logId = header[0];
+        appliedSequence = Long.parseLong(header[1]);
+        primarySequence = appliedSequence;
+        contactTimeMillis = System.currentTimeMillis();
+        CHECKPOINT_TIMER.stop(start);
+    }
+
+    /**
+     * Passes every row after the header to the action, fetching the pages
+     * that follow the first
+     */
+    private void forEachRow(WireResult result, Consumer<String> action) throws IOException {
+        WireResult page = result;
+        for (int first = 1; ; first = 0) {
+            page.rows().subList(first, page.rows().size()).forEach(action);
+            if (page.cursor() == 0) {
+                return;
+            }
+            page = check(client.execute(WireCommand.fetch(page.cursor())));
+        }
+    }
+
+    private WireClient connect() throws IOException {
+        WireClient connection = new WireClient(primary.getHostString(), primary.getPort());
+        connected = true;
+        return connection;
+    }
+
+    private void disconnect() {
+        connected = false;
+        if (client != null) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+            client = null;
+        }
+    }
+
+    private WireResult check(WireResult result) throws IOException {
+        if (!result.isOk()) {
+            throw new IOException("Primary answered " + result.status() + ": " + result.message());
+        }
+        return result;
+    }
+
+    private String describe() {
+        return primary.getHostString() + ":" + primary.getPort();
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+}
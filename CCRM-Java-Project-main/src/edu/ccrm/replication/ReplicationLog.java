@@ -0,0 +1,246 @@
+package edu.ccrm.replication;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.DataChangeListener;
+import edu.ccrm.service.DataSnapshot.EnrollmentRecord;
+import edu.ccrm.service.DataSnapshot.StudentRecord;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.SnapshotLock;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.wire.WireCommand;
+import edu.ccrm.wire.WireRows;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sequenced log of the changes made through a primary's services, which
+ * read replicas follow. The log listens to the services and records each
+ * change as the binary protocol command that repeats it: saves and
+ * deletions of students and courses, enrollments, withdrawals and grades.
+ * Entries are numbered from 1 and kept in a ring of fixed size, so a
+ * replica that falls further behind than the ring holds starts again
+ * from a {@link #checkpoint}.
+ *
+ * Changes to one student are logged in the order they were made, since
+ * the enrollment service applies them under the student's lock. Each log
+ * has a random identity, renewed when a restore replaces the services'
+ * contents, so a replica following an earlier log, or an earlier run of
+ * the primary, knows its position means nothing here.
+ */
+public class ReplicationLog implements DataChangeListener {
+    public static final int DEFAULT_CAPACITY = 100_000;
+    private static final LongAdder APPENDED =
+        MetricsRegistry.getInstance().counter("replication.log.appended");
+
+    /**
+     * All data as commands that recreate it on empty services, and the
+     * log position it matches. Applying the commands and then the log
+     * entries after the sequence gives the primary's data.
+     */
+    public record Checkpoint(String logId, long sequence, long timeMillis, List<StudentRecord> students,
+            List<String> courseRows, List<EnrollmentRecord> enrollments) {
+        /**
+         * A header row of log identity and sequence, then one
+         * {@link LogEntry} row per command: students, courses, and each
+         * enrollment as recorded, with its date, status and grade. The
+         * enrollments are installed without the checks enrolling makes,
+         * which they passed on the primary, perhaps before a prerequisite
+         * was added.
+         */
+        public Iterator<String> rows() {
+            Stream<WireCommand> studentCommands = students.stream().map(student ->
+                WireCommand.saveStudent(WireRows.join(student.id(), student.regNo(), student.fullName(),
+                    student.email(), String.valueOf(student.active()),
+                    String.valueOf(student.enrollmentDate()), "0", "0", "0")));
+            Stream<WireCommand> courseCommands = courseRows.stream().map(WireCommand::saveCourse);
+            Stream<WireCommand> enrollmentCommands = enrollments.stream().map(enrollment ->
+                WireCommand.restoreEnrollment(enrollment.studentId(), enrollment.courseCode(),
+                    enrollment.enrollmentDate(), enrollment.status(), enrollment.grade()));
+            Stream<String> header = Stream.of(WireRows.join(logId, String.valueOf(sequence)));
+            return Stream.concat(header,
+                Stream.concat(studentCommands, Stream.concat(courseCommands, enrollmentCommands))
+                    .map(command -> new LogEntry(sequence, timeMillis, command).encode()))
+                .iterator();
+        }
+    }
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final SnapshotLock snapshotLock;
+    private final LogEntry[] entries;
+    // Guarded by this
+    private long lastSequence;
+    private String logId = newLogId();
+
+    /**
+     * Creates the log and registers it with the services
+     *
+     * @param snapshotLock lock shared with the services, so a checkpoint sees no half-logged change
+     * @param capacity number of most recent entries kept for replicas
+     */
+    public ReplicationLog(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, SnapshotLock snapshotLock, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A replication log must hold at least one entry");
+        }
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.snapshotLock = snapshotLock;
+        this.entries = new LogEntry[capacity];
+        studentService.addChangeListener(this);
+        courseService.addChangeListener(this);
+        enrollmentService.addChangeListener(this);
+    }
+
+    public synchronized String getLogId() {
+        return logId;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Up to {@code max} entries following the given sequence number, or
+     * null when the log cannot continue from there: the identity is not
+     * this log's, or the entries after it have been overwritten.
+     */
+    public synchronized List<LogEntry> readAfter(String logId, long sequence, int max) {
+        if (!this.logId.equals(logId) || sequence > lastSequence
+                || sequence < lastSequence - entries.length) {
+            return null;
+        }
+        int count = (int) Math.min(max, lastSequence - sequence);
+        List<LogEntry> read = new ArrayList<>(count);
+        for (long next = sequence + 1; next <= sequence + count; next++) {
+            read.add(entries[(int) (next % entries.length)]);
+        }
+        return read;
+    }
+
+    /**
+     * Captures all data together with the log position it matches. Each
+     * student's enrollments are listed in the order the student holds
+     * them, so the replica adds up the same grades in the same order and
+     * gets exactly the same GPA; withdrawn enrollments follow. Courses are
+     * encoded now, since a snapshot record keeps only the instructor's ID.
+     */
+    public Checkpoint checkpoint() {
+        // Changes are logged inside their mutation, so holding mutations off
+        // means every logged change is in the data and no later one is
+        return snapshotLock.capture(() -> {
+            List<Course> courses = courseService.findAll();
+            Set<String> courseCodes = courses.stream().map(Course::getCode).collect(Collectors.toSet());
+            List<StudentRecord> students = new ArrayList<>();
+            List<EnrollmentRecord> enrollments = new ArrayList<>();
+            Set<Enrollment> listed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Student student : studentService.findAll()) {
+                students.add(StudentRecord.of(student));
+                for (Enrollment enrollment : student.getEnrolledCourses()) {
+                    listed.add(enrollment);
+                    if (courseCodes.contains(enrollment.getCourse().getCode())) {
+                        enrollments.add(EnrollmentRecord.of(enrollment));
+                    }
+                }
+            }
+            // Enrollments kept for deleted students or courses have nothing to attach to on a replica
+            for (Enrollment enrollment : enrollmentService.findAll()) {
+                if (!listed.contains(enrollment) && courseCodes.contains(enrollment.getCourse().getCode())
+                        && studentService.findById(enrollment.getStudent().getId()) == enrollment.getStudent()) {
+                    enrollments.add(EnrollmentRecord.of(enrollment));
+                }
+            }
+            List<String> courseRows = courses.stream()
+                .map(WireRows::course)
+                .collect(Collectors.toList());
+            synchronized (this) {
+                return new Checkpoint(logId, lastSequence, System.currentTimeMillis(), students, courseRows,
+                    enrollments);
+            }
+        });
+    }
+
+    private void append(WireCommand command) {
+        long timeMillis = System.currentTimeMillis();
+        synchronized (this) {
+            lastSequence++;
+            entries[(int) (lastSequence % entries.length)] = new LogEntry(lastSequence, timeMillis, command);
+        }
+        APPENDED.increment();
+    }
+
+    @Override
+    public void studentSaved(Student student) {
+        append(WireCommand.saveStudent(WireRows.student(student)));
+    }
+
+    @Override
+    public void studentDeleted(Student student) {
+        append(WireCommand.deleteStudent(student.getId()));
+    }
+
+    @Override
+    public void courseSaved(Course course) {
+        append(WireCommand.saveCourse(WireRows.course(course)));
+    }
+
+    @Override
+    public void courseDeleted(Course course) {
+        append(WireCommand.deleteCourse(course.getCode()));
+    }
+
+    /**
+     * Logged as recorded, so replicas keep the date and do not repeat the
+     * checks, which the enrollment may not pass there, e.g. when restored
+     * from a backup made before a prerequisite was added
+     */
+    @Override
+    public void enrolled(Enrollment enrollment) {
+        append(WireCommand.restoreEnrollment(enrollment.getStudent().getId(), enrollment.getCourse().getCode(),
+            enrollment.getEnrollmentDate(), enrollment.getStatus(), enrollment.getGrade()));
+    }
+
+    @Override
+    public void withdrawn(Enrollment enrollment) {
+        append(WireCommand.withdraw(enrollment.getStudent().getId(), enrollment.getCourse().getCode()));
+    }
+
+    @Override
+    public void gradeAssigned(Enrollment enrollment, Grade previousGrade,
+            Enrollment.EnrollmentStatus previousStatus) {
+        if (enrollment.getGrade() != null) {
+            append(WireCommand.assignGrade(enrollment.getStudent().getId(), enrollment.getCourse().getCode(),
+                enrollment.getGrade()));
+        }
+    }
+
+    /**
+     * A restore replaced everything, so replicas must start from a new checkpoint
+     */
+    @Override
+    public synchronized void contentsReplaced() {
+        logId = newLogId();
+        lastSequence = 0;
+        Arrays.fill(entries, null);
+    }
+
+    private static String newLogId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,8 @@
+package edu.ccrm.report;
+
+/**
+ * Enrollment statistics for one course
+ */
+public record CourseStats(String code, String title, String department, boolean active,
+        long totalEnrollments, long activeEnrollments, GradeDistribution grades) {
+}
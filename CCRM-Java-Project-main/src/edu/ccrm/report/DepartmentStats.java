@@ -0,0 +1,15 @@
+package edu.ccrm.report;
+
+/**
+ * Enrollment statistics for the active courses of one department
+ */
+public record DepartmentStats(String department, int coursesOffered, long totalEnrollments,
+        long activeEnrollments, GradeDistribution grades) {
+
+    /**
+     * Average grade points over graded enrollments, or 0 when nothing is graded
+     */
+    public double averageGradePoints() {
+        return grades.getAveragePoints();
+    }
+}
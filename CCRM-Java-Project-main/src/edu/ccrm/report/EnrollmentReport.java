@@ -0,0 +1,42 @@
+package edu.ccrm.report;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Per-course and per-department enrollment statistics computed together.
+ * Both maps are ordered by course code and department name.
+ */
+public final class EnrollmentReport {
+    private final Map<String, CourseStats> courses;
+    private final Map<String, DepartmentStats> departments;
+    private final LocalDateTime generatedAt;
+
+    public EnrollmentReport(Map<String, CourseStats> courses, Map<String, DepartmentStats> departments,
+            LocalDateTime generatedAt) {
+        this.courses = Collections.unmodifiableMap(courses);
+        this.departments = Collections.unmodifiableMap(departments);
+        this.generatedAt = generatedAt;
+    }
+
+    public Map<String, CourseStats> getCourses() {
+        return courses;
+    }
+
+    public CourseStats getCourse(String code) {
+        return courses.get(code);
+    }
+
+    public Map<String, DepartmentStats> getDepartments() {
+        return departments;
+    }
+
+    public DepartmentStats getDepartment(String department) {
+        return departments.get(department);
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+}
@@ -0,0 +1,217 @@
+package edu.ccrm.report;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Class rank and percentile index over student GPAs, overall and per
+ * department. GPAs are counted in buckets of {@link #RESOLUTION}, so rank,
+ * k-th GPA and percentile queries take O(log buckets) time instead of
+ * sorting every student. A student belongs to the departments of the
+ * courses it is enrolled in, as in {@code StudentService.findByDepartment}.
+ *
+ * Ranks follow competition ranking: students with the same GPA share a
+ * rank and the next rank is skipped. Queries about an unknown student or
+ * department return -1.
+ */
+public class GpaRankIndex {
+    public static final double RESOLUTION = 0.001;
+    public static final double MAX_GPA = 4.0;
+    private static final int BUCKETS = (int) Math.round(MAX_GPA / RESOLUTION) + 1;
+
+    private final RankHistogram overall = new RankHistogram(BUCKETS);
+    private final Map<String, RankHistogram> departments = new HashMap<>();
+    private final Map<String, Placement> students = new HashMap<>();
+
+    /**
+     * Where a student is currently counted
+     */
+    private record Placement(int bucket, Set<String> departments) {
+    }
+
+    static int bucket(double gpa) {
+        return (int) Math.round(Math.max(0.0, Math.min(MAX_GPA, gpa)) / RESOLUTION);
+    }
+
+    private static double gpa(int bucket) {
+        return bucket * RESOLUTION;
+    }
+
+    /**
+     * Re-counts a student at its current GPA and departments, or removes it
+     * from the index when it should not be counted
+     */
+    synchronized void update(Student student, boolean counted) {
+        Placement previous = students.get(student.getId());
+        Placement current = counted ? placementOf(student) : null;
+        if (current != null && current.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            move(previous, -1);
+        }
+        if (current != null) {
+            move(current, 1);
+            students.put(student.getId(), current);
+        } else {
+            students.remove(student.getId());
+        }
+    }
+
+    synchronized void remove(String studentId) {
+        Placement previous = students.remove(studentId);
+        if (previous != null) {
+            move(previous, -1);
+        }
+    }
+
+    private static Placement placementOf(Student student) {
+        Set<String> studentDepartments = new HashSet<>();
+        for (Enrollment enrollment : student.getEnrolledCourses()) {
+            studentDepartments.add(enrollment.getCourse().getDepartment());
+        }
+        return new Placement(bucket(student.getGpa()), studentDepartments);
+    }
+
+    private void move(Placement placement, int delta) {
+        overall.add(placement.bucket(), delta);
+        for (String department : placement.departments()) {
+            RankHistogram histogram = departments.computeIfAbsent(department,
+                name -> new RankHistogram(BUCKETS));
+            histogram.add(placement.bucket(), delta);
+            if (histogram.getTotal() == 0) {
+                departments.remove(department);
+            }
+        }
+    }
+
+    /**
+     * Departments with at least one counted student, in name order
+     */
+    public synchronized Set<String> getDepartments() {
+        return new TreeSet<>(departments.keySet());
+    }
+
+    public synchronized long size() {
+        return overall.getTotal();
+    }
+
+    public synchronized long size(String department) {
+        RankHistogram histogram = departments.get(department);
+        return histogram == null ? 0 : histogram.getTotal();
+    }
+
+    /**
+     * Class rank of a student among all students, 1 being the highest GPA
+     */
+    public synchronized long rank(String studentId) {
+        Placement placement = students.get(studentId);
+        return placement == null ? -1 : rank(overall, placement.bucket());
+    }
+
+    /**
+     * Class rank of a student within a department it belongs to
+     */
+    public synchronized long rank(String studentId, String department) {
+        Placement placement = students.get(studentId);
+        if (placement == null || !placement.departments().contains(department)) {
+            return -1;
+        }
+        return rank(departments.get(department), placement.bucket());
+    }
+
+    /**
+     * GPA of the student at the given rank, 1 being the highest
+     *
+     * @throws IllegalArgumentException if no student has that rank
+     */
+    public synchronized double gpaAtRank(long rank) {
+        return gpaAtRank(overall, rank);
+    }
+
+    public synchronized double gpaAtRank(long rank, String department) {
+        RankHistogram histogram = departments.get(department);
+        return histogram == null ? -1 : gpaAtRank(histogram, rank);
+    }
+
+    /**
+     * GPA at or below which the given percentage of students fall, using
+     * the nearest-rank method, or -1 when there are no students
+     */
+    public synchronized double percentile(double percent) {
+        return percentile(overall, percent);
+    }
+
+    public synchronized double percentile(double percent, String department) {
+        RankHistogram histogram = departments.get(department);
+        return histogram == null ? -1 : percentile(histogram, percent);
+    }
+
+    /**
+     * Percentage of students with a lower GPA than the given student
+     */
+    public synchronized double percentileOf(String studentId) {
+        Placement placement = students.get(studentId);
+        return placement == null ? -1 : percentileOf(overall, placement.bucket());
+    }
+
+    public synchronized double percentileOf(String studentId, String department) {
+        Placement placement = students.get(studentId);
+        if (placement == null || !placement.departments().contains(department)) {
+            return -1;
+        }
+        return percentileOf(departments.get(department), placement.bucket());
+    }
+
+    private static long rank(RankHistogram histogram, int bucket) {
+        return histogram.getTotal() - histogram.countBelow(bucket + 1) + 1;
+    }
+
+    private static double gpaAtRank(RankHistogram histogram, long rank) {
+        return gpa(histogram.select(histogram.getTotal() - rank + 1));
+    }
+
+    private static double percentile(RankHistogram histogram, double percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percent);
+        }
+        long total = histogram.getTotal();
+        if (total == 0) {
+            return -1;
+        }
+        long position = Math.max(1, (long) Math.ceil(percent / 100 * total));
+        return gpa(histogram.select(position));
+    }
+
+    private static double percentileOf(RankHistogram histogram, int bucket) {
+        return 100.0 * histogram.countBelow(bucket) / histogram.getTotal();
+    }
+
+    /**
+     * Names of the cohorts, "overall" or a department, whose counts differ
+     * from the expected index
+     */
+    synchronized List<String> differences(GpaRankIndex expected) {
+        List<String> differing = new ArrayList<>();
+        if (!overall.sameCounts(expected.overall)) {
+            differing.add("overall");
+        }
+        Set<String> names = new TreeSet<>(departments.keySet());
+        names.addAll(expected.departments.keySet());
+        for (String name : names) {
+            RankHistogram mine = departments.get(name);
+            RankHistogram theirs = expected.departments.get(name);
+            if (mine == null || theirs == null || !mine.sameCounts(theirs)) {
+                differing.add(name);
+            }
+        }
+        return differing;
+    }
+}
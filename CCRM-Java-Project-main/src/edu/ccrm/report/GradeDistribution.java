@@ -0,0 +1,104 @@
+package edu.ccrm.report;
+
+import edu.ccrm.domain.Grade;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Count of enrollments per grade, backed by an array indexed by grade ordinal
+ * so accumulating millions of grades allocates nothing.
+ */
+public final class GradeDistribution {
+    private static final Grade[] GRADES = Grade.values();
+
+    private final long[] counts = new long[GRADES.length];
+
+    public void add(Grade grade) {
+        counts[grade.ordinal()]++;
+    }
+
+    public void add(Grade grade, long count) {
+        counts[grade.ordinal()] += count;
+    }
+
+    public void merge(GradeDistribution other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    public long getCount(Grade grade) {
+        return counts[grade.ordinal()];
+    }
+
+    /**
+     * Number of graded enrollments
+     */
+    public long getTotal() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Sum of grade points over all graded enrollments
+     */
+    public double getTotalPoints() {
+        double points = 0;
+        for (int i = 0; i < counts.length; i++) {
+            points += counts[i] * GRADES[i].getPoints();
+        }
+        return points;
+    }
+
+    /**
+     * Average grade points, or 0 when nothing is graded
+     */
+    public double getAveragePoints() {
+        long total = getTotal();
+        return total > 0 ? getTotalPoints() / total : 0.0;
+    }
+
+    public boolean isEmpty() {
+        return getTotal() == 0;
+    }
+
+    /**
+     * Grades that occur at least once, in grade order
+     */
+    public Map<Grade, Long> asMap() {
+        Map<Grade, Long> map = new EnumMap<>(Grade.class);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                map.put(GRADES[i], counts[i]);
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GradeDistribution 
+            && Arrays.equals(counts, ((GradeDistribution) other).counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    public GradeDistribution copy() {
+        GradeDistribution copy = new GradeDistribution();
+        copy.merge(this);
+        return copy;
+    }
+}
@@ -0,0 +1,69 @@
+package edu.ccrm.report;
+
+import java.util.Arrays;
+
+/**
+ * Counts of values in a fixed range of buckets, held in a Fenwick tree so
+ * that adding a value, counting the values below a bucket and finding the
+ * k-th smallest value all take O(log buckets) time.
+ */
+final class RankHistogram {
+    private final long[] tree;
+    private final int highestPowerOfTwo;
+    private long total;
+
+    RankHistogram(int buckets) {
+        tree = new long[buckets + 1];
+        highestPowerOfTwo = Integer.highestOneBit(buckets);
+    }
+
+    void add(int bucket, long delta) {
+        for (int i = bucket + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    /**
+     * Number of values in buckets strictly below the given one
+     */
+    long countBelow(int bucket) {
+        long count = 0;
+        for (int i = bucket; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    long countAt(int bucket) {
+        return countBelow(bucket + 1) - countBelow(bucket);
+    }
+
+    /**
+     * Bucket holding the k-th smallest value, counting from 1
+     */
+    int select(long k) {
+        if (k < 1 || k > total) {
+            throw new IllegalArgumentException("Position " + k + " outside 1.." + total);
+        }
+        // Descend the tree, skipping every subtree that lies wholly below the k-th value
+        int position = 0;
+        long remaining = k;
+        for (int step = highestPowerOfTwo; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    boolean sameCounts(RankHistogram other) {
+        return Arrays.equals(tree, other.tree);
+    }
+}
@@ -0,0 +1,255 @@
+package edu.ccrm.report;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes course and department enrollment statistics in a single pass
+ * over all enrollments, instead of scanning every enrollment once per
+ * course. Each enrollment is added to its course's counters; department
+ * figures are then rolled up from the course figures.
+ *
+ * With a parallelism above one the pass is split across a fork-join pool,
+ * shared by every engine with the same parallelism. Each task counts its
+ * range into its own accumulator, so workers never contend on shared
+ * counters, and the accumulators are merged as the tasks complete.
+ */
+public class ReportEngine {
+    private static final CourseCounter EMPTY = new CourseCounter();
+    private static final int GRADE_COUNT = Grade.values().length;
+    private static final OperationTimer GENERATE_TIMER = MetricsRegistry.getInstance().timer("report.generate");
+    // Enrollments counted by one task before it stops splitting
+    private static final int LEAF_SIZE = 16 * 1024;
+    // Pools by parallelism; their threads end when idle, so the pools are never shut down
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    public ReportEngine(CourseService courseService, EnrollmentService enrollmentService) {
+        this(courseService, enrollmentService, 1);
+    }
+
+    /**
+     * @param parallelism number of threads counting enrollments; 1 counts on the caller's thread
+     */
+    public ReportEngine(CourseService courseService, EnrollmentService enrollmentService,
+            int parallelism) {
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = this.parallelism > 1 ? POOLS.computeIfAbsent(this.parallelism, ForkJoinPool::new) : null;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Builds the report for all courses. Department statistics only include
+     * active courses, matching what the department report shows.
+     */
+    public EnrollmentReport generate() {
+        long start = GENERATE_TIMER.start();
+        try {
+            List<Course> courses = courseService.findAll();
+            return assemble(courses, countByCourse(courses));
+        } finally {
+            GENERATE_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Counts enrollments per course code for the given courses. Enrollments
+     * of other courses, such as deleted ones, are left out.
+     */
+    Map<String, CourseCounter> countByCourse(List<Course> courses) {
+        Map<String, Integer> index = new HashMap<>(courses.size() * 2);
+        for (int i = 0; i < courses.size(); i++) {
+            index.put(courses.get(i).getCode(), i);
+        }
+        List<Enrollment> enrollments = enrollmentService.findAll();
+
+        CounterArrays totals;
+        if (pool == null || enrollments.size() <= LEAF_SIZE) {
+            totals = new CounterArrays(courses.size());
+            totals.addAll(enrollments, 0, enrollments.size(), index);
+        } else {
+            totals = pool.invoke(new CountTask(enrollments, 0, enrollments.size(), index, courses.size()));
+        }
+
+        Map<String, CourseCounter> counters = new HashMap<>(courses.size() * 2);
+        for (int i = 0; i < courses.size(); i++) {
+            counters.put(courses.get(i).getCode(), totals.toCourseCounter(i));
+        }
+        return counters;
+    }
+
+    /**
+     * Turns per-course counters into course statistics and rolls them up by
+     * department. Courses without a counter have no enrollments.
+     */
+    static EnrollmentReport assemble(List<Course> courses, Map<String, CourseCounter> counters) {
+        List<CourseStats> courseStats = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            CourseCounter counter = counters.getOrDefault(course.getCode(), EMPTY);
+            courseStats.add(new CourseStats(course.getCode(), course.getTitle(),
+                course.getDepartment(), course.isActive(), counter.total, counter.active,
+                counter.grades.copy()));
+        }
+        return assemble(courseStats);
+    }
+
+    /**
+     * Builds a report from course statistics, such as those gathered from
+     * several shards, rolling the active courses up by department
+     */
+    public static EnrollmentReport assemble(Collection<CourseStats> courses) {
+        Map<String, CourseStats> courseStats = new TreeMap<>();
+        Map<String, DepartmentCounter> departmentCounters = new TreeMap<>();
+        for (CourseStats course : courses) {
+            courseStats.put(course.code(), course);
+            if (course.active() && course.department() != null) {
+                departmentCounters.computeIfAbsent(course.department(), dept -> new DepartmentCounter())
+                    .add(course);
+            }
+        }
+
+        Map<String, DepartmentStats> departmentStats = new TreeMap<>();
+        departmentCounters.forEach((department, counter) -> departmentStats.put(department,
+            new DepartmentStats(department, counter.courses, counter.total, counter.active, counter.grades)));
+        return new EnrollmentReport(courseStats, departmentStats, LocalDateTime.now());
+    }
+
+    /**
+     * Running totals for one course
+     */
+    static final class CourseCounter {
+        long total;
+        long active;
+        final GradeDistribution grades = new GradeDistribution();
+    }
+
+    private static final class DepartmentCounter {
+        int courses;
+        long total;
+        long active;
+        final GradeDistribution grades = new GradeDistribution();
+
+        void add(CourseStats course) {
+            courses++;
+            total += course.totalEnrollments();
+            active += course.activeEnrollments();
+            grades.merge(course.grades());
+        }
+    }
+
+    /**
+     * Counters for every course held in flat arrays indexed by course
+     * position, so counting an enrollment touches no shared state
+     */
+    private static final class CounterArrays {
+        final long[] total;
+        final long[] active;
+        final long[] grades;
+
+        CounterArrays(int courseCount) {
+            total = new long[courseCount];
+            active = new long[courseCount];
+            grades = new long[courseCount * GRADE_COUNT];
+        }
+
+        void addAll(List<Enrollment> enrollments, int from, int to, Map<String, Integer> index) {
+            for (int i = from; i < to; i++) {
+                Enrollment enrollment = enrollments.get(i);
+                Integer course = index.get(enrollment.getCourse().getCode());
+                if (course == null) {
+                    continue;
+                }
+                total[course]++;
+                if (enrollment.getStatus() == Enrollment.EnrollmentStatus.ENROLLED) {
+                    active[course]++;
+                }
+                if (enrollment.getGrade() != null) {
+                    grades[course * GRADE_COUNT + enrollment.getGrade().ordinal()]++;
+                }
+            }
+        }
+
+        void merge(CounterArrays other) {
+            for (int i = 0; i < total.length; i++) {
+                total[i] += other.total[i];
+                active[i] += other.active[i];
+            }
+            for (int i = 0; i < grades.length; i++) {
+                grades[i] += other.grades[i];
+            }
+        }
+
+        CourseCounter toCourseCounter(int course) {
+            CourseCounter counter = new CourseCounter();
+            counter.total = total[course];
+            counter.active = active[course];
+            Grade[] values = Grade.values();
+            for (int g = 0; g < GRADE_COUNT; g++) {
+                counter.grades.add(values[g], grades[course * GRADE_COUNT + g]);
+            }
+            return counter;
+        }
+    }
+
+    /**
+     * Splits a range of enrollments in half until it is small enough, then
+     * counts it into an accumulator of its own; halves are merged on the way up
+     */
+    @SuppressWarnings("serial")
+    private static final class CountTask extends RecursiveTask<CounterArrays> {
+        private final List<Enrollment> enrollments;
+        private final int from;
+        private final int to;
+        private final Map<String, Integer> index;
+        private final int courseCount;
+
+        CountTask(List<Enrollment> enrollments, int from, int to, Map<String, Integer> index,
+                int courseCount) {
+            this.enrollments = enrollments;
+            this.from = from;
+            this.to = to;
+            this.index = index;
+            this.courseCount = courseCount;
+        }
+
+        @Override
+        protected CounterArrays compute() {
+            if (to - from <= LEAF_SIZE) {
+                CounterArrays counts = new CounterArrays(courseCount);
+                counts.addAll(enrollments, from, to, index);
+                return counts;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(enrollments, from, middle, index, courseCount);
+            CountTask right = new CountTask(enrollments, middle, to, index, courseCount);
+            invokeAll(left, right);
+            CounterArrays counts = left.join();
+            counts.merge(right.join());
+            return counts;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package edu.ccrm.report;
+
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.StudentService;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports reports to CSV or JSON files or streams. Rows are written one
+ * at a time as they are read from the report source or the services, so
+ * the output is never assembled in memory.
+ */
+public class ReportExporter {
+    private static final Grade[] GRADES = Grade.values();
+
+    private final ReportSource reportSource;
+    private final StudentService studentService;
+
+    public ReportExporter(ReportSource reportSource, StudentService studentService) {
+        this.reportSource = reportSource;
+        this.studentService = studentService;
+    }
+
+    /**
+     * Writes a report to a file, replacing it if it exists
+     *
+     * @return number of rows written
+     */
+    public long export(ReportType type, Path file, ReportFormat format) throws IOException {
+        return export(type, columns -> ReportWriter.open(file, format, columns));
+    }
+
+    /**
+     * Writes a report to a stream, closing it when done
+     *
+     * @return number of rows written
+     */
+    public long export(ReportType type, Writer out, ReportFormat format) throws IOException {
+        return export(type, columns -> ReportWriter.create(out, format, columns));
+    }
+
+    /**
+     * Opens the report writer once the report's columns are known
+     */
+    @FunctionalInterface
+    private interface WriterOpener {
+        ReportWriter open(List<String> columns) throws IOException;
+    }
+
+    private long export(ReportType type, WriterOpener opener) throws IOException {
+        return switch (type) {
+            case GPA_DISTRIBUTION -> exportGpaDistribution(opener);
+            case COURSES -> exportCourses(opener);
+            case DEPARTMENTS -> exportDepartments(opener);
+            case STUDENTS -> exportStudents(opener);
+        };
+    }
+
+    /**
+     * Default file name for a report in a directory, e.g. {@code courses.csv}
+     */
+    public static Path defaultFile(Path directory, ReportType type, ReportFormat format) {
+        return directory.resolve(type.getCommandName() + format.getExtension());
+    }
+
+    private long exportGpaDistribution(WriterOpener opener) throws IOException {
+        try (ReportWriter writer = opener.open(List.of("range", "students"))) {
+            for (Map.Entry<String, Long> range : reportSource.getGpaDistribution().entrySet()) {
+                writer.writeRow(range.getKey(), range.getValue());
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    private long exportCourses(WriterOpener opener) throws IOException {
+        List<String> columns = new ArrayList<>(List.of(
+            "code", "title", "department", "active", "totalEnrollments", "activeEnrollments"));
+        for (Grade grade : GRADES) {
+            columns.add("grade" + grade.name());
+        }
+        columns.add("averageGradePoints");
+
+        try (ReportWriter writer = opener.open(columns)) {
+            Object[] row = new Object[columns.size()];
+            for (CourseStats course : reportSource.getReport().getCourses().values()) {
+                row[0] = course.code();
+                row[1] = course.title();
+                row[2] = course.department();
+                row[3] = course.active();
+                row[4] = course.totalEnrollments();
+                row[5] = course.activeEnrollments();
+                for (int i = 0; i < GRADES.length; i++) {
+                    row[6 + i] = course.grades().getCount(GRADES[i]);
+                }
+                row[6 + GRADES.length] = round(course.grades().getAveragePoints());
+                writer.writeRow(row);
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    private long exportDepartments(WriterOpener opener) throws IOException {
+        List<String> columns = List.of("department", "coursesOffered", "totalEnrollments",
+            "activeEnrollments", "averageGradePoints");
+        try (ReportWriter writer = opener.open(columns)) {
+            for (DepartmentStats department : reportSource.getReport().getDepartments().values()) {
+                writer.writeRow(department.department(), department.coursesOffered(),
+                    department.totalEnrollments(), department.activeEnrollments(),
+                    round(department.averageGradePoints()));
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    private long exportStudents(WriterOpener opener) throws IOException {
+        List<String> columns = List.of("id", "regNo", "fullName", "active", "enrolledCourses", "gpa");
+        try (ReportWriter writer = opener.open(columns)) {
+            for (Student student : studentService.findAll()) {
+                writer.writeRow(student.getId(), student.getRegNo(), student.getFullName(),
+                    student.isActive(), reportSource.countActiveEnrollments(student),
+                    round(student.getGpa()));
+            }
+            return writer.getRowCount();
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,33 @@
+package edu.ccrm.report;
+
+/**
+ * File formats reports can be exported to
+ */
+public enum ReportFormat {
+    CSV(".csv"),
+    JSON(".json");
+
+    private final String extension;
+
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Looks up a format by name, ignoring case
+     *
+     * @throws IllegalArgumentException if no format has that name
+     */
+    public static ReportFormat fromName(String name) {
+        for (ReportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report format: " + name);
+    }
+}
@@ -0,0 +1,28 @@
+package edu.ccrm.report;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import java.util.Map;
+
+/**
+ * Figures the report exporter reads: the GPA distribution and the course
+ * and department statistics. {@link ReportViews} maintains them in
+ * process; a router over several processes gathers them from each.
+ */
+public interface ReportSource {
+    /**
+     * Number of active students in each of {@link ReportViews#GPA_RANGES}, best range first
+     */
+    Map<String, Long> getGpaDistribution();
+
+    EnrollmentReport getReport();
+
+    /**
+     * Number of courses the student is currently enrolled in
+     */
+    default long countActiveEnrollments(Student student) {
+        return student.getEnrolledCourses().stream()
+            .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.ENROLLED)
+            .count();
+    }
+}
@@ -0,0 +1,38 @@
+package edu.ccrm.report;
+
+/**
+ * Reports that can be exported to a file
+ */
+public enum ReportType {
+    GPA_DISTRIBUTION("gpa"),
+    COURSES("courses"),
+    DEPARTMENTS("departments"),
+    STUDENTS("students");
+
+    private final String commandName;
+
+    ReportType(String commandName) {
+        this.commandName = commandName;
+    }
+
+    /**
+     * Short name used on the command line and in default file names
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Looks up a report by its command name or enum name, ignoring case
+     *
+     * @throws IllegalArgumentException if no report has that name
+     */
+    public static ReportType fromName(String name) {
+        for (ReportType type : values()) {
+            if (type.commandName.equalsIgnoreCase(name) || type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report: " + name);
+    }
+}
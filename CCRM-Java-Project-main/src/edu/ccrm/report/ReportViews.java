@@ -0,0 +1,330 @@
+package edu.ccrm.report;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.DataChangeListener;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.SnapshotLock;
+import edu.ccrm.service.StudentService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Materialized report views kept current by the services' change
+ * notifications. Every enrollment, withdrawal, grade or student change
+ * adjusts a handful of counters, so reading the GPA distribution or the
+ * course report never rescans enrollments; department figures are rolled
+ * up from the course counters when read. A {@link GpaRankIndex} answers
+ * class rank and percentile queries; a course change re-places the
+ * course's students in it, as their departments may have changed. The
+ * views are built from scratch on first use, after a restore, and on
+ * demand for verification.
+ */
+public class ReportViews implements ReportSource, DataChangeListener {
+    public static final List<String> GPA_RANGES =
+        List.of("3.5 - 4.0", "3.0 - 3.49", "2.5 - 2.99", "2.0 - 2.49", "Below 2.0");
+    private static final Grade[] GRADES = Grade.values();
+    private static final OperationTimer REBUILD_TIMER = MetricsRegistry.getInstance().timer("report.rebuildViews");
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final SnapshotLock snapshotLock;
+    private final ReportEngine engine;
+
+    // Replaced together by a rebuild, which runs while no mutation is in progress
+    private volatile AtomicLongArray gpaBuckets = new AtomicLongArray(GPA_RANGES.size());
+    private volatile Map<String, Integer> studentBuckets = new ConcurrentHashMap<>();
+    private volatile Map<String, LiveCourseCounter> courseCounters = new ConcurrentHashMap<>();
+    private volatile GpaRankIndex rankIndex = new GpaRankIndex();
+    private volatile boolean stale = true;
+
+    /**
+     * Creates the views and registers them with the services
+     *
+     * @param snapshotLock lock shared with the services, so a rebuild sees no half-applied change
+     */
+    public ReportViews(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, SnapshotLock snapshotLock) {
+        this(studentService, courseService, enrollmentService, snapshotLock, 1);
+    }
+
+    /**
+     * @param parallelism threads used to count enrollments when the views are rebuilt
+     */
+    public ReportViews(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, SnapshotLock snapshotLock, int parallelism) {
+        this.engine = new ReportEngine(courseService, enrollmentService, parallelism);
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.snapshotLock = snapshotLock;
+        studentService.addChangeListener(this);
+        courseService.addChangeListener(this);
+        enrollmentService.addChangeListener(this);
+    }
+
+    /**
+     * Index into {@link #GPA_RANGES} for a GPA
+     */
+    public static int gpaBucket(double gpa) {
+        if (gpa >= 3.5) return 0;
+        if (gpa >= 3.0) return 1;
+        if (gpa >= 2.5) return 2;
+        if (gpa >= 2.0) return 3;
+        return 4;
+    }
+
+    /**
+     * Number of active students in each GPA range, best range first
+     */
+    @Override
+    public Map<String, Long> getGpaDistribution() {
+        ensureBuilt();
+        AtomicLongArray buckets = gpaBuckets;
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < GPA_RANGES.size(); i++) {
+            distribution.put(GPA_RANGES.get(i), buckets.get(i));
+        }
+        return distribution;
+    }
+
+    /**
+     * Course and department statistics, read from the maintained counters
+     */
+    @Override
+    public EnrollmentReport getReport() {
+        ensureBuilt();
+        Map<String, ReportEngine.CourseCounter> counters = new HashMap<>();
+        courseCounters.forEach((code, counter) -> counters.put(code, counter.toCourseCounter()));
+        return ReportEngine.assemble(courseService.findAll(), counters);
+    }
+
+    /**
+     * Class rank and GPA percentile index over active students
+     */
+    public GpaRankIndex getRankIndex() {
+        ensureBuilt();
+        return rankIndex;
+    }
+
+    /**
+     * Discards the views and recomputes them from the services
+     */
+    public void rebuild() {
+        snapshotLock.runExclusive(this::rebuildExclusive);
+    }
+
+    /**
+     * Recomputes the views from scratch and compares them with the
+     * maintained ones, returning a description of every difference. The
+     * views are rebuilt afterwards if anything differed.
+     */
+    public List<String> verify() {
+        List<String> differences = new ArrayList<>();
+        snapshotLock.runExclusive(() -> {
+            if (stale) {
+                rebuildExclusive();
+                return;
+            }
+            Map<String, Long> maintainedGpa = getGpaDistribution();
+            EnrollmentReport maintained = getReport();
+            GpaRankIndex maintainedRanks = rankIndex;
+            rebuildExclusive();
+            Map<String, Long> expectedGpa = getGpaDistribution();
+            EnrollmentReport expected = getReport();
+
+            for (String range : GPA_RANGES) {
+                if (!maintainedGpa.get(range).equals(expectedGpa.get(range))) {
+                    differences.add(String.format("GPA %s: view has %d students, expected %d",
+                        range, maintainedGpa.get(range), expectedGpa.get(range)));
+                }
+            }
+            expected.getCourses().forEach((code, stats) -> {
+                if (!stats.equals(maintained.getCourse(code))) {
+                    differences.add("Course " + code + ": view has " + maintained.getCourse(code)
+                        + ", expected " + stats);
+                }
+            });
+            maintainedRanks.differences(rankIndex).forEach(cohort ->
+                differences.add("Rank index for " + cohort + " does not match the students' GPAs"));
+        });
+        return differences;
+    }
+
+    private void ensureBuilt() {
+        if (stale) {
+            rebuild();
+        }
+    }
+
+    private void rebuildExclusive() {
+        long start = REBUILD_TIMER.start();
+        AtomicLongArray buckets = new AtomicLongArray(GPA_RANGES.size());
+        Map<String, Integer> students = new ConcurrentHashMap<>();
+        GpaRankIndex ranks = new GpaRankIndex();
+        for (Student student : studentService.findAll()) {
+            if (student.isActive()) {
+                int bucket = gpaBucket(student.getGpa());
+                students.put(student.getId(), bucket);
+                buckets.incrementAndGet(bucket);
+                ranks.update(student, true);
+            }
+        }
+
+        Map<String, LiveCourseCounter> courses = new ConcurrentHashMap<>();
+        engine.countByCourse(courseService.findAll())
+            .forEach((code, counter) -> courses.put(code, new LiveCourseCounter(counter)));
+
+        gpaBuckets = buckets;
+        studentBuckets = students;
+        courseCounters = courses;
+        rankIndex = ranks;
+        stale = false;
+        REBUILD_TIMER.stop(start);
+    }
+
+    @Override
+    public void studentSaved(Student student) {
+        updateStudent(student);
+    }
+
+    @Override
+    public void studentDeleted(Student student) {
+        Integer bucket = studentBuckets.remove(student.getId());
+        if (bucket != null) {
+            gpaBuckets.decrementAndGet(bucket);
+        }
+        rankIndex.remove(student.getId());
+    }
+
+    @Override
+    public void courseSaved(Course course) {
+        updateStudentsOf(course);
+    }
+
+    @Override
+    public void courseDeleted(Course course) {
+        updateStudentsOf(course);
+    }
+
+    @Override
+    public void enrolled(Enrollment enrollment) {
+        LiveCourseCounter counter = counter(enrollment);
+        counter.total.incrementAndGet();
+        counter.active.incrementAndGet();
+        updateStudent(enrollment.getStudent());
+    }
+
+    @Override
+    public void withdrawn(Enrollment enrollment) {
+        counter(enrollment).active.decrementAndGet();
+        updateStudent(enrollment.getStudent());
+    }
+
+    @Override
+    public void gradeAssigned(Enrollment enrollment, Grade previousGrade,
+            Enrollment.EnrollmentStatus previousStatus) {
+        LiveCourseCounter counter = counter(enrollment);
+        if (previousGrade != null) {
+            counter.grades.decrementAndGet(previousGrade.ordinal());
+        }
+        if (enrollment.getGrade() != null) {
+            counter.grades.incrementAndGet(enrollment.getGrade().ordinal());
+        }
+        if (previousStatus == Enrollment.EnrollmentStatus.ENROLLED
+                && enrollment.getStatus() != Enrollment.EnrollmentStatus.ENROLLED) {
+            counter.active.decrementAndGet();
+        }
+        updateStudent(enrollment.getStudent());
+    }
+
+    @Override
+    public void contentsReplaced() {
+        stale = true;
+    }
+
+    private LiveCourseCounter counter(Enrollment enrollment) {
+        return courseCounters.computeIfAbsent(enrollment.getCourse().getCode(),
+            code -> new LiveCourseCounter());
+    }
+
+    /**
+     * Updates every student enrolled in a course, whose departments in the
+     * rank index follow the course's department; a stale view is rebuilt
+     * on its next use anyway
+     */
+    private void updateStudentsOf(Course course) {
+        if (stale) {
+            return;
+        }
+        for (Enrollment enrollment : enrollmentService.findByCourse(course)) {
+            updateStudent(enrollment.getStudent());
+        }
+    }
+
+    /**
+     * Moves a student to the GPA range matching its current GPA, or out of
+     * the distribution if it is inactive or no longer stored
+     */
+    private void updateStudent(Student student) {
+        boolean counted = student.isActive() && studentService.findById(student.getId()) == student;
+        Integer bucket = counted ? gpaBucket(student.getGpa()) : null;
+        AtomicLongArray buckets = gpaBuckets;
+        // compute runs atomically per student, so concurrent changes never double count
+        studentBuckets.compute(student.getId(), (id, previous) -> {
+            if (!Objects.equals(previous, bucket)) {
+                if (previous != null) {
+                    buckets.decrementAndGet(previous);
+                }
+                if (bucket != null) {
+                    buckets.incrementAndGet(bucket);
+                }
+            }
+            return bucket;
+        });
+        rankIndex.update(student, counted);
+    }
+
+    /**
+     * Thread-safe counters for one course
+     */
+    private static final class LiveCourseCounter {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong active = new AtomicLong();
+        final AtomicLongArray grades = new AtomicLongArray(GRADES.length);
+
+        LiveCourseCounter() {
+        }
+
+        LiveCourseCounter(ReportEngine.CourseCounter counted) {
+            total.set(counted.total);
+            active.set(counted.active);
+            for (int i = 0; i < GRADES.length; i++) {
+                grades.set(i, counted.grades.getCount(GRADES[i]));
+            }
+        }
+
+        ReportEngine.CourseCounter toCourseCounter() {
+            ReportEngine.CourseCounter counter = new ReportEngine.CourseCounter();
+            counter.total = total.get();
+            counter.active = active.get();
+            for (int i = 0; i < GRADES.length; i++) {
+                counter.grades.add(GRADES[i], grades.get(i));
+            }
+            return counter;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package edu.ccrm.report;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes report rows to a file as they are produced. Only the current row
+ * is held in memory, so a report of any size is written in constant space.
+ * Every row must have one value per column; numbers and booleans are
+ * written as such in JSON, everything else as text.
+ */
+public abstract class ReportWriter implements Closeable {
+    protected final Writer out;
+    protected final List<String> columns;
+    private long rowCount;
+
+    protected ReportWriter(Writer out, List<String> columns) {
+        this.out = out;
+        this.columns = List.copyOf(columns);
+    }
+
+    /**
+     * Opens a writer for a new report file, replacing any existing file
+     */
+    public static ReportWriter open(Path file, ReportFormat format, List<String> columns)
+            throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        try {
+            return create(writer, format, columns);
+        } catch (IOException | RuntimeException e) {
+            // The report writer was never returned, so nothing else will close the file
+            try {
+                writer.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a writer for the given output, writing the header immediately
+     */
+    public static ReportWriter create(Writer out, ReportFormat format, List<String> columns)
+            throws IOException {
+        ReportWriter writer = switch (format) {
+            case CSV -> new CsvReportWriter(out, columns);
+            case JSON -> new JsonReportWriter(out, columns);
+        };
+        writer.writeHeader();
+        return writer;
+    }
+
+    public void writeRow(Object... values) throws IOException {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException(String.format(
+                "Row has %d values but the report has %d columns", values.length, columns.size()));
+        }
+        writeValues(values);
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeFooter();
+        } finally {
+            out.close();
+        }
+    }
+
+    protected abstract void writeHeader() throws IOException;
+
+    protected abstract void writeValues(Object[] values) throws IOException;
+
+    protected abstract void writeFooter() throws IOException;
+
+    /**
+     * Comma separated values with a header line; values containing commas,
+     * quotes or line breaks are quoted
+     */
+    private static final class CsvReportWriter extends ReportWriter {
+        CsvReportWriter(Writer out, List<String> columns) {
+            super(out, columns);
+        }
+
+        @Override
+        protected void writeHeader() throws IOException {
+            writeLine(columns.toArray());
+        }
+
+        @Override
+        protected void writeValues(Object[] values) throws IOException {
+            writeLine(values);
+        }
+
+        @Override
+        protected void writeFooter() {
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(String.valueOf(values[i]));
+                }
+            }
+            out.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    /**
+     * A JSON array with one object per row, one row per line
+     */
+    private static final class JsonReportWriter extends ReportWriter {
+        JsonReportWriter(Writer out, List<String> columns) {
+            super(out, columns);
+        }
+
+        @Override
+        protected void writeHeader() throws IOException {
+            out.write('[');
+        }
+
+        @Override
+        protected void writeValues(Object[] values) throws IOException {
+            out.write(getRowCount() == 0 ? "\n  {" : ",\n  {");
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                writeString(columns.get(i));
+                out.write(": ");
+                writeValue(values[i]);
+            }
+            out.write('}');
+        }
+
+        @Override
+        protected void writeFooter() throws IOException {
+            out.write(getRowCount() == 0 ? "]\n" : "\n]\n");
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Double number && !Double.isFinite(number)) {
+                out.write("null");
+            } else if (value instanceof Number || value instanceof Boolean) {
+                out.write(value.toString());
+            } else {
+                writeString(value.toString());
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> out.write("\\\"");
+                    case '\\' -> out.write("\\\\");
+                    case '\n' -> out.write("\\n");
+                    case '\r' -> out.write("\\r");
+                    case '\t' -> out.write("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                    }
+                }
+            }
+            out.write('"');
+        }
+    }
+}
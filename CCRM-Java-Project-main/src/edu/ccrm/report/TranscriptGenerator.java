@@ -0,0 +1,258 @@
+package edu.ccrm.report;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.ImportProgress;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Formatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Writes one transcript file per student in a single batch job. Enrollments
+ * are grouped by student once up front, students are handed to a bounded
+ * pool of writer threads in batches, and each thread formats into its own
+ * reusable text and byte buffers. A semaphore caps how many transcript
+ * files are open at once, whatever the number of threads.
+ *
+ * Transcripts are spread over 256 sub-directories named by a hash of the
+ * student ID, so no single directory holds millions of files:
+ * {@code <output>/<hh>/<student id>.txt}.
+ */
+public class TranscriptGenerator {
+    public static final int DEFAULT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+    private static final int SHARD_COUNT = 256;
+    private static final String[] SHARD_NAMES = new String[SHARD_COUNT];
+    private static final int BATCH_SIZE = 256;
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Comparator<Enrollment> TRANSCRIPT_ORDER = Comparator
+        .comparing((Enrollment e) -> e.getCourse().getSemester())
+        .thenComparing(e -> e.getCourse().getCode());
+
+    static {
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            SHARD_NAMES[shard] = String.format("%02x", shard);
+        }
+    }
+
+    /**
+     * Outcome of a batch run
+     */
+    public record Result(long written, long failed, List<String> errors, Path outputDirectory) {
+    }
+
+    private final StudentService studentService;
+    private final EnrollmentService enrollmentService;
+    private final int threads;
+    private final int maxOpenFiles;
+
+    public TranscriptGenerator(StudentService studentService, EnrollmentService enrollmentService) {
+        this(studentService, enrollmentService, DEFAULT_THREADS, DEFAULT_MAX_OPEN_FILES);
+    }
+
+    public TranscriptGenerator(StudentService studentService, EnrollmentService enrollmentService,
+            int threads, int maxOpenFiles) {
+        this.studentService = studentService;
+        this.enrollmentService = enrollmentService;
+        this.threads = Math.max(1, threads);
+        this.maxOpenFiles = Math.max(1, maxOpenFiles);
+    }
+
+    /**
+     * Location of a student's transcript under the output directory
+     */
+    public static Path transcriptFile(Path outputDirectory, String studentId) {
+        return outputDirectory.resolve(shard(studentId)).resolve(studentId + ".txt");
+    }
+
+    /**
+     * Writes a transcript for every student with enrollments in the given
+     * semester, or in any semester when it is null
+     *
+     * @param listener receives throughput and ETA while the job runs
+     */
+    public Result generate(Path outputDirectory, Semester semester,
+            Consumer<ImportProgress.Status> listener)
+            throws IOException, InterruptedException {
+        Map<String, List<Enrollment>> index = indexBySemester(semester);
+        List<Student> students = new ArrayList<>(index.size());
+        for (Student student : studentService.findAll()) {
+            if (index.containsKey(student.getId())) {
+                students.add(student);
+            }
+        }
+
+        for (String shard : SHARD_NAMES) {
+            Files.createDirectories(outputDirectory.resolve(shard));
+        }
+
+        ImportProgress progress = new ImportProgress(students.size(), listener);
+        Semaphore openFiles = new Semaphore(maxOpenFiles);
+        ThreadLocal<TranscriptWriter> writers = ThreadLocal.withInitial(TranscriptWriter::new);
+        String generatedAt = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        String semesterName = semester == null ? "All semesters" : semester.name();
+
+        // A short queue and caller-runs keep the submitting thread from racing ahead
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 2), runnable -> {
+                Thread thread = new Thread(runnable, "ccrm-transcripts-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            for (int from = 0; from < students.size(); from += BATCH_SIZE) {
+                List<Student> batch = students.subList(from, Math.min(students.size(), from + BATCH_SIZE));
+                executor.execute(() -> {
+                    TranscriptWriter writer = writers.get();
+                    for (Student student : batch) {
+                        Path file = transcriptFile(outputDirectory, student.getId());
+                        try {
+                            writer.format(student, index.get(student.getId()), semesterName, generatedAt);
+                            writer.write(file, openFiles);
+                            progress.rowLoaded();
+                        } catch (IOException e) {
+                            progress.rowFailed(student.getId() + ": " + e.getMessage());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            progress.rowFailed(student.getId() + ": interrupted");
+                            return;
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException("Transcript writers did not finish");
+        }
+        progress.finish();
+        return new Result(progress.getRows() - progress.getFailedRows(), progress.getFailedRows(),
+            progress.getErrors(), outputDirectory);
+    }
+
+    private Map<String, List<Enrollment>> indexBySemester(Semester semester) {
+        Map<String, List<Enrollment>> index = new HashMap<>();
+        for (Enrollment enrollment : enrollmentService.findAll()) {
+            if (semester == null || enrollment.getCourse().getSemester() == semester) {
+                index.computeIfAbsent(enrollment.getStudent().getId(), id -> new ArrayList<>())
+                    .add(enrollment);
+            }
+        }
+        return index;
+    }
+
+    private static String shard(String studentId) {
+        return SHARD_NAMES[Math.floorMod(studentId.hashCode(), SHARD_COUNT)];
+    }
+
+    /**
+     * Per-thread formatter that reuses its text and byte buffers for every
+     * transcript, so steady-state generation allocates almost nothing
+     */
+    private static final class TranscriptWriter {
+        private final StringBuilder text = new StringBuilder(INITIAL_BUFFER_SIZE);
+        private final Formatter formatter = new Formatter(text, Locale.ROOT);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private ByteBuffer bytes = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+        void format(Student student, List<Enrollment> enrollments, String semesterName,
+                String generatedAt) {
+            enrollments.sort(TRANSCRIPT_ORDER);
+            text.setLength(0);
+            text.append("ACADEMIC TRANSCRIPT\n")
+                .append("Student:   ").append(student.getFullName()).append('\n')
+                .append("ID:        ").append(student.getId()).append('\n')
+                .append("Reg No:    ").append(student.getRegNo()).append('\n')
+                .append("Semester:  ").append(semesterName).append('\n')
+                .append("Generated: ").append(generatedAt).append("\n\n");
+            formatter.format("%-12s %-14s %-30s %7s  %-10s %5s%n",
+                "Course", "Semester", "Title", "Credits", "Status", "Grade");
+
+            int creditsAttempted = 0;
+            int creditsGraded = 0;
+            double points = 0.0;
+            for (Enrollment enrollment : enrollments) {
+                int credits = enrollment.getCourse().getCredits();
+                formatter.format("%-12s %-14s %-30.30s %7d  %-10s %5s%n",
+                    enrollment.getCourse().getCode(), enrollment.getCourse().getSemester().name(),
+                    enrollment.getCourse().getTitle(), credits, enrollment.getStatus(),
+                    enrollment.getGrade() != null ? enrollment.getGrade().name() : "-");
+                if (enrollment.getStatus() != Enrollment.EnrollmentStatus.WITHDRAWN) {
+                    creditsAttempted += credits;
+                }
+                if (enrollment.getGrade() != null) {
+                    creditsGraded += credits;
+                    points += enrollment.getGrade().getPoints() * credits;
+                }
+            }
+            formatter.format("%nCredits attempted: %d  Credits graded: %d  GPA: %.2f%n",
+                creditsAttempted, creditsGraded, creditsGraded > 0 ? points / creditsGraded : 0.0);
+        }
+
+        void write(Path file, Semaphore openFiles) throws IOException, InterruptedException {
+            encode();
+            openFiles.acquire();
+            try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            } finally {
+                openFiles.release();
+            }
+        }
+
+        private void encode() throws CharacterCodingException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                bytes.clear();
+                encoder.reset();
+                CoderResult result = encoder.encode(chars, bytes, true);
+                if (!result.isOverflow()) {
+                    result = encoder.flush(bytes);
+                }
+                if (result.isOverflow()) {
+                    // Grow once and keep the larger buffer for later transcripts
+                    bytes = ByteBuffer.allocate(bytes.capacity() * 2);
+                    chars.rewind();
+                    continue;
+                }
+                if (result.isError()) {
+                    result.throwException();
+                }
+                bytes.flip();
+                return;
+            }
+        }
+    }
+}
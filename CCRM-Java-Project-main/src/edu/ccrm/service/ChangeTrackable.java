@@ -0,0 +1,13 @@
+package edu.ccrm.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Generic interface for change tracking used by incremental backups.
+ * Demonstrates generics with both entity and identifier type parameters.
+ */
+public interface ChangeTrackable<T, ID> {
+    List<T> findModifiedSince(LocalDateTime since);
+    List<ID> findDeletedSince(LocalDateTime since);
+}
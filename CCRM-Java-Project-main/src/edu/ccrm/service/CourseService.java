@@ -3,16 +3,35 @@ package edu.ccrm.service;
 import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Instructor;
 import edu.ccrm.domain.Semester;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Interface defining course management operations.
  * Demonstrates interface inheritance and specialized operations.
  */
-public interface CourseService extends Persistable<Course, String>, Searchable<Course> {
+public interface CourseService extends Persistable<Course, String>, Searchable<Course>,
+        ChangeTrackable<Course, String> {
     List<Course> findByInstructor(Instructor instructor);
     List<Course> findByDepartment(String department);
     List<Course> findBySemester(Semester semester);
     void assignInstructor(String courseCode, Instructor instructor);
     void deactivateCourse(String code);
+
+    /**
+     * Replaces a course's direct prerequisites, given as course codes
+     *
+     * @throws IllegalArgumentException if a prerequisite already requires the course
+     */
+    void setPrerequisites(String courseCode, Collection<String> prerequisites);
+
+    /**
+     * Prerequisites of the courses saved through this service
+     */
+    PrerequisiteGraph getPrerequisiteGraph();
+
+    /**
+     * Registers a listener notified of every change made through this service
+     */
+    void addChangeListener(DataChangeListener listener);
 }
\ No newline at end of file
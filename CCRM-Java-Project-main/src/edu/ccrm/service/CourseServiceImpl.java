@@ -3,10 +3,15 @@ package edu.ccrm.service;
 import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Instructor;
 import edu.ccrm.domain.Semester;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -14,23 +19,68 @@ import java.util.stream.Collectors;
  * Implementation of CourseService interface.
  * Demonstrates Stream API and thread-safe collections.
  */
-public class CourseServiceImpl implements CourseService {
-    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+public class CourseServiceImpl implements CourseService, Restorable<CourseService> {
+    private static final OperationTimer SAVE_TIMER = MetricsRegistry.getInstance().timer("course.save");
+    private static final OperationTimer DELETE_TIMER = MetricsRegistry.getInstance().timer("course.delete");
+    private static final OperationTimer SEARCH_TIMER = MetricsRegistry.getInstance().timer("course.search");
+
+    private volatile Map<String, Course> courses = new ConcurrentHashMap<>();
+    private final Map<String, LocalDateTime> deletions = new ConcurrentHashMap<>();
+    private final SnapshotLock snapshotLock;
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final PrerequisiteGraph prerequisiteGraph = new PrerequisiteGraph();
+
+    public CourseServiceImpl() {
+        this(new SnapshotLock());
+    }
+
+    /**
+     * Creates a service whose mutations are coordinated with snapshots
+     * through the given lock, shared with the other services
+     */
+    public CourseServiceImpl(SnapshotLock snapshotLock) {
+        this.snapshotLock = snapshotLock;
+    }
 
     @Override
     public Course findById(String code) {
         return courses.get(code);
     }
 
+    /**
+     * Saves the course, rejecting it if its prerequisites would form a cycle
+     */
     @Override
     public Course save(Course course) {
-        courses.put(course.getCode(), course);
-        return course;
+        long start = SAVE_TIMER.start();
+        snapshotLock.beginMutation();
+        try {
+            prerequisiteGraph.update(course.getCode(), course.getPrerequisites());
+            courses.put(course.getCode(), course);
+            deletions.remove(course.getCode());
+            listeners.forEach(listener -> listener.courseSaved(course));
+            return course;
+        } finally {
+            snapshotLock.endMutation();
+            SAVE_TIMER.stop(start);
+        }
     }
 
     @Override
     public void delete(String code) {
-        courses.remove(code);
+        long start = DELETE_TIMER.start();
+        snapshotLock.beginMutation();
+        try {
+            Course removed = courses.remove(code);
+            if (removed != null) {
+                prerequisiteGraph.remove(code);
+                deletions.put(code, LocalDateTime.now());
+                listeners.forEach(listener -> listener.courseDeleted(removed));
+            }
+        } finally {
+            snapshotLock.endMutation();
+            DELETE_TIMER.stop(start);
+        }
     }
 
     @Override
@@ -45,8 +95,26 @@ public class CourseServiceImpl implements CourseService {
 
     @Override
     public List<Course> findByPredicate(Predicate<Course> predicate) {
-        return courses.values().stream()
-            .filter(predicate)
+        long start = SEARCH_TIMER.start();
+        try {
+            return courses.values().stream()
+                .filter(predicate)
+                .collect(Collectors.toList());
+        } finally {
+            SEARCH_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public List<Course> findModifiedSince(LocalDateTime since) {
+        return findByPredicate(course -> !course.getUpdatedAt().isBefore(since));
+    }
+
+    @Override
+    public List<String> findDeletedSince(LocalDateTime since) {
+        return deletions.entrySet().stream()
+            .filter(entry -> !entry.getValue().isBefore(since))
+            .map(Map.Entry::getKey)
             .collect(Collectors.toList());
     }
 
@@ -79,11 +147,16 @@ public class CourseServiceImpl implements CourseService {
 
     @Override
     public void assignInstructor(String courseCode, Instructor instructor) {
-        Course course = findById(courseCode);
-        if (course != null) {
-            course.setInstructor(instructor);
-            instructor.assignCourse(course);
-            save(course);
+        snapshotLock.beginMutation();
+        try {
+            Course course = findById(courseCode);
+            if (course != null) {
+                course.setInstructor(instructor);
+                instructor.assignCourse(course);
+                save(course);
+            }
+        } finally {
+            snapshotLock.endMutation();
         }
     }
 
@@ -95,4 +168,55 @@ public class CourseServiceImpl implements CourseService {
             save(course);
         }
     }
+
+    @Override
+    public void setPrerequisites(String courseCode, Collection<String> prerequisites) {
+        snapshotLock.beginMutation();
+        try {
+            Course course = findById(courseCode);
+            if (course != null) {
+                // Checked before the course changes, so a rejected cycle leaves it as it was
+                prerequisiteGraph.update(courseCode, prerequisites);
+                course.setPrerequisites(prerequisites);
+                save(course);
+            }
+        } finally {
+            snapshotLock.endMutation();
+        }
+    }
+
+    @Override
+    public PrerequisiteGraph getPrerequisiteGraph() {
+        return prerequisiteGraph;
+    }
+
+    @Override
+    public void addChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public CourseService newStagingInstance(SnapshotLock snapshotLock) {
+        return new CourseServiceImpl(snapshotLock);
+    }
+
+    @Override
+    public void replaceContents(CourseService staged) {
+        if (!(staged instanceof CourseServiceImpl stagedImpl)) {
+            throw new IllegalArgumentException("Staged service must be a CourseServiceImpl");
+        }
+        Map<String, Course> replacement = stagedImpl.courses;
+        LocalDateTime now = LocalDateTime.now();
+        // Anything that disappears in the swap needs a tombstone for the next incremental backup
+        for (String id : courses.keySet()) {
+            if (!replacement.containsKey(id)) {
+                deletions.put(id, now);
+            }
+        }
+        stagedImpl.deletions.forEach(deletions::putIfAbsent);
+        deletions.keySet().removeAll(replacement.keySet());
+        courses = replacement;
+        prerequisiteGraph.replaceWith(stagedImpl.prerequisiteGraph);
+        listeners.forEach(DataChangeListener::contentsReplaced);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+
+/**
+ * Callback for keeping derived data in step with the services.
+ * Methods run inside the mutation, after it has been applied, so
+ * implementations must be quick and thread-safe; mutations on different
+ * entities can notify concurrently.
+ */
+public interface DataChangeListener {
+    default void studentSaved(Student student) {
+    }
+
+    default void studentDeleted(Student student) {
+    }
+
+    default void courseSaved(Course course) {
+    }
+
+    default void courseDeleted(Course course) {
+    }
+
+    default void enrolled(Enrollment enrollment) {
+    }
+
+    /**
+     * An active enrollment was withdrawn
+     */
+    default void withdrawn(Enrollment enrollment) {
+    }
+
+    default void gradeAssigned(Enrollment enrollment, Grade previousGrade,
+            Enrollment.EnrollmentStatus previousStatus) {
+    }
+
+    /**
+     * All contents were swapped out at once, e.g. by a restore;
+     * anything derived from them must be rebuilt
+     */
+    default void contentsReplaced() {
+    }
+}
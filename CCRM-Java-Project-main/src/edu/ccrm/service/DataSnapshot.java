@@ -0,0 +1,277 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable point-in-time copy of the data held by the services.
+ * Only plain values are copied, so the snapshot can be serialized on
+ * another thread while the services keep changing.
+ */
+public class DataSnapshot {
+    private static final OperationTimer PAUSE_TIMER = MetricsRegistry.getInstance().timer("data.snapshotPause");
+
+    private final LocalDateTime capturedAt;
+    private final LocalDateTime since;
+    private final List<StudentRecord> students;
+    private final List<CourseRecord> courses;
+    private final List<InstructorRecord> instructors;
+    private final List<EnrollmentRecord> enrollments;
+    private final List<String> deletedStudentIds;
+    private final List<String> deletedCourseCodes;
+    private final List<String> deletedEnrollmentIds;
+
+    public record StudentRecord(String id, String regNo, String fullName, String email,
+            LocalDate enrollmentDate, boolean active) {
+        public static StudentRecord of(Student student) {
+            return new StudentRecord(student.getId(), student.getRegNo(), student.getFullName(),
+                student.getEmail(), student.getEnrollmentDate(), student.isActive());
+        }
+    }
+
+    public record CourseRecord(String code, String title, int credits, String department,
+            Semester semester, String instructorId, boolean active, List<String> prerequisites) {
+        public static CourseRecord of(Course course) {
+            return new CourseRecord(course.getCode(), course.getTitle(), course.getCredits(),
+                course.getDepartment(), course.getSemester(),
+                course.getInstructor() != null ? course.getInstructor().getId() : null,
+                course.isActive(), List.copyOf(course.getPrerequisites()));
+        }
+    }
+
+    public record InstructorRecord(String id, String fullName, String email, String department,
+            String title) {
+        public static InstructorRecord of(Instructor instructor) {
+            return new InstructorRecord(instructor.getId(), instructor.getFullName(), instructor.getEmail(),
+                instructor.getDepartment(), instructor.getTitle());
+        }
+    }
+
+    public record EnrollmentRecord(String studentId, String courseCode, LocalDateTime enrollmentDate,
+            Enrollment.EnrollmentStatus status, Grade grade) {
+        public static EnrollmentRecord of(Enrollment enrollment) {
+            return new EnrollmentRecord(enrollment.getStudent().getId(), enrollment.getCourse().getCode(),
+                enrollment.getEnrollmentDate(), enrollment.getStatus(), enrollment.getGrade());
+        }
+    }
+
+    private DataSnapshot(LocalDateTime capturedAt, LocalDateTime since,
+            List<StudentRecord> students, List<CourseRecord> courses, List<InstructorRecord> instructors,
+            List<EnrollmentRecord> enrollments, List<String> deletedStudentIds,
+            List<String> deletedCourseCodes, List<String> deletedEnrollmentIds) {
+        this.capturedAt = capturedAt;
+        this.since = since;
+        this.students = students;
+        this.courses = courses;
+        this.instructors = instructors;
+        this.enrollments = enrollments;
+        this.deletedStudentIds = deletedStudentIds;
+        this.deletedCourseCodes = deletedCourseCodes;
+        this.deletedEnrollmentIds = deletedEnrollmentIds;
+    }
+
+    /**
+     * Captures a full snapshot of all services
+     */
+    public static DataSnapshot capture(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, SnapshotLock lock) {
+        return captureChanges(studentService, courseService, enrollmentService, lock, null);
+    }
+
+    /**
+     * Captures only the records changed or deleted since the given time,
+     * or everything when since is null.
+     *
+     * Mutations are held off only while the affected entities are listed,
+     * which fixes what the snapshot holds. Their values are copied after
+     * the lock is released, each enrollment under its student's lock as
+     * enroll, withdraw and assignGrade take it, so no copy is half-applied.
+     * A record changed in the meantime may show the newer value; it is
+     * modified after the capture time, so the next incremental snapshot
+     * includes it again.
+     *
+     * Deleting a student or course keeps its enrollments. A full snapshot
+     * therefore also holds each deleted student and course such an
+     * enrollment refers to, recorded as deleted, so loading it recreates
+     * the enrollment and then deletes them again. Such an enrollment
+     * cannot change, so incremental snapshots never hold one.
+     *
+     * Instructors have no service of their own; the snapshot holds those
+     * of the courses it holds.
+     */
+    public static DataSnapshot captureChanges(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, SnapshotLock lock, LocalDateTime since) {
+        Members members = lock.capture(() -> {
+            long start = PAUSE_TIMER.start();
+            try {
+                return new Members(
+                    LocalDateTime.now(),
+                    since == null ? studentService.findAll() : studentService.findModifiedSince(since),
+                    since == null ? courseService.findAll() : courseService.findModifiedSince(since),
+                    since == null ? enrollmentService.findAll() : enrollmentService.findModifiedSince(since),
+                    since == null ? List.of() : List.copyOf(studentService.findDeletedSince(since)),
+                    since == null ? List.of() : List.copyOf(courseService.findDeletedSince(since)),
+                    since == null ? List.of() : List.copyOf(enrollmentService.findDeletedSince(since)));
+            } finally {
+                PAUSE_TIMER.stop(start);
+            }
+        });
+        Map<String, Student> deletedStudents = since == null
+            ? orphans(members.enrollments(), members.students(), Student::getId, Enrollment::getStudent)
+            : Map.of();
+        Map<String, Course> deletedCourses = since == null
+            ? orphans(members.enrollments(), members.courses(), Course::getCode, Enrollment::getCourse)
+            : Map.of();
+        List<Course> courses = concat(members.courses(), deletedCourses.values());
+        return new DataSnapshot(
+            members.capturedAt(),
+            since,
+            copy(concat(members.students(), deletedStudents.values()), StudentRecord::of),
+            copy(courses, CourseRecord::of),
+            instructorsOf(courses),
+            copy(members.enrollments(), enrollment -> {
+                synchronized (enrollment.getStudent()) {
+                    return EnrollmentRecord.of(enrollment);
+                }
+            }),
+            since == null ? List.copyOf(deletedStudents.keySet()) : members.deletedStudentIds(),
+            since == null ? List.copyOf(deletedCourses.keySet()) : members.deletedCourseCodes(),
+            members.deletedEnrollmentIds());
+    }
+
+    /**
+     * Entities, by ID, that enrollments refer to but that are missing from
+     * the listed ones because they were deleted
+     */
+    private static <T> Map<String, T> orphans(List<Enrollment> enrollments, List<T> listed,
+            Function<T, String> id, Function<Enrollment, T> referenced) {
+        Set<String> ids = listed.stream().map(id).collect(Collectors.toSet());
+        Map<String, T> orphans = new LinkedHashMap<>();
+        for (Enrollment enrollment : enrollments) {
+            T entity = referenced.apply(enrollment);
+            if (!ids.contains(id.apply(entity))) {
+                orphans.putIfAbsent(id.apply(entity), entity);
+            }
+        }
+        return orphans;
+    }
+
+    /**
+     * The courses' instructors, each once
+     */
+    private static List<InstructorRecord> instructorsOf(List<Course> courses) {
+        Map<String, InstructorRecord> instructors = new LinkedHashMap<>();
+        for (Course course : courses) {
+            Instructor instructor = course.getInstructor();
+            if (instructor != null) {
+                instructors.putIfAbsent(instructor.getId(), InstructorRecord.of(instructor));
+            }
+        }
+        return List.copyOf(instructors.values());
+    }
+
+    private static <T> List<T> concat(List<T> listed, Collection<T> orphans) {
+        if (orphans.isEmpty()) {
+            return listed;
+        }
+        List<T> all = new ArrayList<>(listed);
+        all.addAll(orphans);
+        return all;
+    }
+
+    /**
+     * Entities listed while mutations are held off
+     */
+    private record Members(LocalDateTime capturedAt, List<Student> students, List<Course> courses,
+            List<Enrollment> enrollments, List<String> deletedStudentIds, List<String> deletedCourseCodes,
+            List<String> deletedEnrollmentIds) {
+    }
+
+    private static <T, R> List<R> copy(List<T> entities, Function<T, R> mapper) {
+        return entities.stream().map(mapper).collect(Collectors.toUnmodifiableList());
+    }
+
+    public LocalDateTime getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     * Start of the change window for incremental snapshots, null for full ones
+     */
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public boolean isIncremental() {
+        return since != null;
+    }
+
+    public List<StudentRecord> getStudents() {
+        return students;
+    }
+
+    public List<CourseRecord> getCourses() {
+        return courses;
+    }
+
+    public List<InstructorRecord> getInstructors() {
+        return instructors;
+    }
+
+    public List<EnrollmentRecord> getEnrollments() {
+        return enrollments;
+    }
+
+    public List<String> getDeletedStudentIds() {
+        return deletedStudentIds;
+    }
+
+    /**
+     * Copy holding every student but only the courses the filter accepts,
+     * their instructors and the enrollments in them, e.g. one shard's part
+     * of the data.
+     * Deleted enrollments are all kept, as dropping one a shard never had
+     * does nothing.
+     */
+    public DataSnapshot withCourses(Predicate<CourseRecord> filter) {
+        List<CourseRecord> keptCourses = courses.stream()
+            .filter(filter)
+            .collect(Collectors.toUnmodifiableList());
+        Set<String> codes = keptCourses.stream().map(CourseRecord::code).collect(Collectors.toSet());
+        List<EnrollmentRecord> keptEnrollments = enrollments.stream()
+            .filter(enrollment -> codes.contains(enrollment.courseCode()))
+            .collect(Collectors.toUnmodifiableList());
+        Set<String> instructorIds = keptCourses.stream()
+            .map(CourseRecord::instructorId)
+            .filter(id -> id != null)
+            .collect(Collectors.toSet());
+        List<InstructorRecord> keptInstructors = instructors.stream()
+            .filter(instructor -> instructorIds.contains(instructor.id()))
+            .collect(Collectors.toUnmodifiableList());
+        return new DataSnapshot(capturedAt, since, students, keptCourses, keptInstructors, keptEnrollments,
+            deletedStudentIds, deletedCourseCodes, deletedEnrollmentIds);
+    }
+
+    public List<String> getDeletedCourseCodes() {
+        return deletedCourseCodes;
+    }
+
+    /**
+     * IDs of enrollments a restore dropped, as {@link EnrollmentService#findDeletedSince} gives them
+     */
+    public List<String> getDeletedEnrollmentIds() {
+        return deletedEnrollmentIds;
+    }
+}
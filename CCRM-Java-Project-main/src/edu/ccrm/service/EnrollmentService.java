@@ -2,21 +2,42 @@ package edu.ccrm.service;
 
 import edu.ccrm.domain.*;
 import edu.ccrm.exception.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Interface defining enrollment management operations.
  * Demonstrates business logic and exception handling requirements.
  */
-public interface EnrollmentService extends Searchable<Enrollment> {
+public interface EnrollmentService extends Searchable<Enrollment>, ChangeTrackable<Enrollment, String> {
+    int MAX_CREDITS_PER_SEMESTER = 18;
+
     Enrollment enroll(Student student, Course course) 
-        throws DuplicateEnrollmentException, MaxCreditLimitExceededException;
+        throws DuplicateEnrollmentException, MaxCreditLimitExceededException, PrerequisiteNotMetException;
     void withdraw(Student student, Course course);
     void assignGrade(Student student, Course course, Grade grade);
+
+    /**
+     * Adds an enrollment as it was recorded, by a backup or by the primary
+     * a replica follows, and brings it to the recorded status and grade.
+     * The checks {@link #enroll} makes passed when the enrollment was first
+     * made, so none of them run again. An existing enrollment keeps its date.
+     *
+     * @param grade null if the enrollment has none
+     */
+    Enrollment restoreEnrollment(Student student, Course course, LocalDateTime enrollmentDate,
+            Enrollment.EnrollmentStatus status, Grade grade);
+
+    Enrollment findEnrollment(Student student, Course course);
     List<Enrollment> findByStudent(Student student);
     List<Enrollment> findByCourse(Course course);
     List<Enrollment> findByStudentAndSemester(Student student, Semester semester);
     double calculateGpa(Student student, Semester semester);
     boolean hasPassedPrerequisites(Student student, Course course);
     int getCurrentCredits(Student student, Semester semester);
+
+    /**
+     * Registers a listener notified of every change made through this service
+     */
+    void addChangeListener(DataChangeListener listener);
 }
\ No newline at end of file
@@ -2,10 +2,16 @@ package edu.ccrm.service;
 
 import edu.ccrm.domain.*;
 import edu.ccrm.exception.*;
+import edu.ccrm.metrics.EnrollmentEvent;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -13,9 +19,84 @@ import java.util.stream.Collectors;
  * Implementation of EnrollmentService interface.
  * Demonstrates complex business logic, exception handling, and Stream API usage.
  */
-public class EnrollmentServiceImpl implements EnrollmentService {
-    private final Map<String, Enrollment> enrollments = new ConcurrentHashMap<>();
-    private static final int MAX_CREDITS_PER_SEMESTER = 18;
+public class EnrollmentServiceImpl implements EnrollmentService, Restorable<EnrollmentService> {
+    private static final OperationTimer ENROLL_TIMER = MetricsRegistry.getInstance().timer("enrollment.enroll");
+    private static final OperationTimer WITHDRAW_TIMER = MetricsRegistry.getInstance().timer("enrollment.withdraw");
+    private static final OperationTimer ASSIGN_GRADE_TIMER =
+        MetricsRegistry.getInstance().timer("enrollment.assignGrade");
+    private static final OperationTimer FIND_BY_STUDENT_TIMER =
+        MetricsRegistry.getInstance().timer("enrollment.findByStudent");
+    private static final OperationTimer FIND_BY_COURSE_TIMER =
+        MetricsRegistry.getInstance().timer("enrollment.findByCourse");
+    private static final OperationTimer CALCULATE_GPA_TIMER =
+        MetricsRegistry.getInstance().timer("enrollment.calculateGpa");
+    private static final LongAdder DUPLICATE_REJECTIONS =
+        MetricsRegistry.getInstance().counter("enrollment.rejected.duplicate");
+    private static final LongAdder CREDIT_LIMIT_REJECTIONS =
+        MetricsRegistry.getInstance().counter("enrollment.rejected.creditLimit");
+    private static final LongAdder PREREQUISITE_REJECTIONS =
+        MetricsRegistry.getInstance().counter("enrollment.rejected.prerequisite");
+    private static final long[] NONE = new long[0];
+
+    private volatile Map<String, Enrollment> enrollments = new ConcurrentHashMap<>();
+    // Enrollments dropped by a restore, by enrollment ID
+    private final Map<String, LocalDateTime> deletions = new ConcurrentHashMap<>();
+    private final SnapshotLock snapshotLock;
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Null when semester GPAs are computed on every call
+    private final GpaCache gpaCache;
+    // Null when prerequisites are not checked
+    private final PrerequisiteGraph prerequisiteGraph;
+    // Courses each student has passed, by student ID, as bits of the graph's ordinals
+    private volatile Map<String, long[]> passedCourses = new ConcurrentHashMap<>();
+
+    public EnrollmentServiceImpl() {
+        this(new SnapshotLock());
+    }
+
+    /**
+     * Creates a service whose mutations are coordinated with snapshots
+     * through the given lock, shared with the other services
+     */
+    public EnrollmentServiceImpl(SnapshotLock snapshotLock) {
+        this.snapshotLock = snapshotLock;
+        this.gpaCache = null;
+        this.prerequisiteGraph = null;
+    }
+
+    /**
+     * Creates a service that checks prerequisites against the course
+     * service's graph and keeps the semester GPAs and active credits of up
+     * to {@code gpaCacheEntries} student semesters. Both depend on their
+     * courses' credits and semesters too, so the cache is emptied whenever
+     * the course service saves or deletes a course.
+     *
+     * @param gpaCacheEntries number of student semesters to keep; 0 computes every GPA afresh
+     */
+    public EnrollmentServiceImpl(SnapshotLock snapshotLock, CourseService courseService,
+            int gpaCacheEntries) {
+        this.snapshotLock = snapshotLock;
+        this.gpaCache = gpaCacheEntries > 0 ? new GpaCache(gpaCacheEntries) : null;
+        this.prerequisiteGraph = courseService.getPrerequisiteGraph();
+        if (gpaCache != null) {
+            courseService.addChangeListener(new DataChangeListener() {
+                @Override
+                public void courseSaved(Course course) {
+                    gpaCache.clear();
+                }
+
+                @Override
+                public void courseDeleted(Course course) {
+                    gpaCache.clear();
+                }
+
+                @Override
+                public void contentsReplaced() {
+                    gpaCache.clear();
+                }
+            });
+        }
+    }
 
     private String generateEnrollmentId(Student student, Course course) {
         return student.getId() + "-" + course.getCode();
@@ -33,6 +114,23 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Enrollment> findModifiedSince(LocalDateTime since) {
+        return findByPredicate(e -> !e.getUpdatedAt().isBefore(since));
+    }
+
+    /**
+     * IDs of enrollments a restore dropped since the given time; students
+     * otherwise withdraw, which keeps the enrollment
+     */
+    @Override
+    public List<String> findDeletedSince(LocalDateTime since) {
+        return deletions.entrySet().stream()
+            .filter(entry -> !entry.getValue().isBefore(since))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
     @Override
     public long count() {
         return enrollments.size();
@@ -40,59 +138,189 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 
     @Override
     public Enrollment enroll(Student student, Course course) 
-            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
-        
-        // Check for duplicate enrollment
-        String enrollmentId = generateEnrollmentId(student, course);
-        if (enrollments.containsKey(enrollmentId)) {
-            throw new DuplicateEnrollmentException(
-                "Student is already enrolled in this course");
-        }
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException,
+            PrerequisiteNotMetException {
+        long start = ENROLL_TIMER.start();
+        EnrollmentEvent event = new EnrollmentEvent();
+        event.begin();
+        String outcome = EnrollmentEvent.FAILED;
+        snapshotLock.beginMutation();
+        try {
+            // Checks and update are atomic per student, so concurrent requests for the
+            // same student can neither enroll twice nor together exceed the credit limit
+            synchronized (student) {
+                // Check for duplicate enrollment
+                String enrollmentId = generateEnrollmentId(student, course);
+                if (enrollments.containsKey(enrollmentId)) {
+                    DUPLICATE_REJECTIONS.increment();
+                    outcome = EnrollmentEvent.DUPLICATE;
+                    throw new DuplicateEnrollmentException(
+                        "Student is already enrolled in this course");
+                }
 
-        // Check credit limit
-        int currentCredits = getCurrentCredits(student, course.getSemester());
-        if (currentCredits + course.getCredits() > MAX_CREDITS_PER_SEMESTER) {
-            throw new MaxCreditLimitExceededException(
-                String.format("Enrolling in this course would exceed the maximum of %d credits per semester", 
-                    MAX_CREDITS_PER_SEMESTER));
-        }
+                // Check prerequisites
+                if (!hasPassedPrerequisites(student, course)) {
+                    PREREQUISITE_REJECTIONS.increment();
+                    outcome = EnrollmentEvent.PREREQUISITE;
+                    throw new PrerequisiteNotMetException("Enrolling in " + course.getCode()
+                        + " requires passing " + String.join(", ",
+                            prerequisiteGraph.missing(course.getCode(), passedCourses(student))));
+                }
+
+                // Check credit limit
+                int currentCredits = getCurrentCredits(student, course.getSemester());
+                if (currentCredits + course.getCredits() > MAX_CREDITS_PER_SEMESTER) {
+                    CREDIT_LIMIT_REJECTIONS.increment();
+                    outcome = EnrollmentEvent.CREDIT_LIMIT;
+                    throw new MaxCreditLimitExceededException(
+                        String.format("Enrolling in this course would exceed the maximum of %d credits per semester", 
+                            MAX_CREDITS_PER_SEMESTER));
+                }
 
-        // Create and save enrollment
-        Enrollment enrollment = new Enrollment(student, course);
-        enrollments.put(enrollmentId, enrollment);
-        student.addEnrollment(enrollment);
-        return enrollment;
+                // Create and save enrollment; putIfAbsent guards against a copy of the student
+                Enrollment enrollment = new Enrollment(student, course);
+                if (enrollments.putIfAbsent(enrollmentId, enrollment) != null) {
+                    DUPLICATE_REJECTIONS.increment();
+                    outcome = EnrollmentEvent.DUPLICATE;
+                    throw new DuplicateEnrollmentException(
+                        "Student is already enrolled in this course");
+                }
+                deletions.remove(enrollmentId);
+                student.addEnrollment(enrollment);
+                invalidateGpa(student, course);
+                listeners.forEach(listener -> listener.enrolled(enrollment));
+                outcome = EnrollmentEvent.ENROLLED;
+                return enrollment;
+            }
+        } finally {
+            snapshotLock.endMutation();
+            ENROLL_TIMER.stop(start);
+            event.complete(student.getId(), course.getCode(), course.getSemester().name(), outcome);
+        }
     }
 
     @Override
     public void withdraw(Student student, Course course) {
-        String enrollmentId = generateEnrollmentId(student, course);
-        Enrollment enrollment = enrollments.get(enrollmentId);
+        long start = WITHDRAW_TIMER.start();
+        snapshotLock.beginMutation();
+        try {
+            String enrollmentId = generateEnrollmentId(student, course);
+            Enrollment enrollment = enrollments.get(enrollmentId);
         
-        if (enrollment != null && enrollment.getStatus() == Enrollment.EnrollmentStatus.ENROLLED) {
-            enrollment.withdraw();
-            student.removeEnrollment(enrollment);
+            synchronized (student) {
+                if (enrollment != null && enrollment.getStatus() == Enrollment.EnrollmentStatus.ENROLLED) {
+                    applyWithdrawal(student, enrollment);
+                }
+            }
+        } finally {
+            snapshotLock.endMutation();
+            WITHDRAW_TIMER.stop(start);
         }
     }
 
     @Override
     public void assignGrade(Student student, Course course, Grade grade) {
-        String enrollmentId = generateEnrollmentId(student, course);
-        Enrollment enrollment = enrollments.get(enrollmentId);
+        long start = ASSIGN_GRADE_TIMER.start();
+        snapshotLock.beginMutation();
+        try {
+            String enrollmentId = generateEnrollmentId(student, course);
+            Enrollment enrollment = enrollments.get(enrollmentId);
         
-        if (enrollment != null) {
-            enrollment.setGrade(grade);
+            if (enrollment != null) {
+                synchronized (student) {
+                    applyGrade(student, enrollment, grade);
+                }
+            }
+        } finally {
+            snapshotLock.endMutation();
+            ASSIGN_GRADE_TIMER.stop(start);
         }
     }
 
+    /**
+     * Creates a missing enrollment as enroll does once its checks pass,
+     * then grades or withdraws it as withdraw and assignGrade do, so
+     * listeners hear of the same changes in the same order
+     */
+    @Override
+    public Enrollment restoreEnrollment(Student student, Course course, LocalDateTime enrollmentDate,
+            Enrollment.EnrollmentStatus status, Grade grade) {
+        snapshotLock.beginMutation();
+        try {
+            synchronized (student) {
+                String enrollmentId = generateEnrollmentId(student, course);
+                Enrollment created = new Enrollment(student, course, enrollmentDate,
+                    Enrollment.EnrollmentStatus.ENROLLED, null, null, LocalDateTime.now());
+                Enrollment enrollment = enrollments.putIfAbsent(enrollmentId, created);
+                if (enrollment == null) {
+                    enrollment = created;
+                    deletions.remove(enrollmentId);
+                    student.addEnrollment(created);
+                    invalidateGpa(student, course);
+                    listeners.forEach(listener -> listener.enrolled(created));
+                }
+                if (grade != null) {
+                    if (grade != enrollment.getGrade()) {
+                        applyGrade(student, enrollment, grade);
+                    }
+                } else if (status == Enrollment.EnrollmentStatus.WITHDRAWN
+                        && enrollment.getStatus() == Enrollment.EnrollmentStatus.ENROLLED) {
+                    applyWithdrawal(student, enrollment);
+                }
+                return enrollment;
+            }
+        } finally {
+            snapshotLock.endMutation();
+        }
+    }
+
+    /**
+     * Withdraws an active enrollment; call under the student's lock
+     */
+    private void applyWithdrawal(Student student, Enrollment enrollment) {
+        enrollment.withdraw();
+        student.removeEnrollment(enrollment);
+        invalidateGpa(student, enrollment.getCourse());
+        listeners.forEach(listener -> listener.withdrawn(enrollment));
+    }
+
+    /**
+     * Grades an enrollment; call under the student's lock
+     */
+    private void applyGrade(Student student, Enrollment enrollment, Grade grade) {
+        Grade previousGrade = enrollment.getGrade();
+        Enrollment.EnrollmentStatus previousStatus = enrollment.getStatus();
+        enrollment.setGrade(grade);
+        student.recalculateGpa();
+        recordPassed(student, enrollment.getCourse(), grade);
+        invalidateGpa(student, enrollment.getCourse());
+        listeners.forEach(listener ->
+            listener.gradeAssigned(enrollment, previousGrade, previousStatus));
+    }
+
+    @Override
+    public Enrollment findEnrollment(Student student, Course course) {
+        return enrollments.get(generateEnrollmentId(student, course));
+    }
+
     @Override
     public List<Enrollment> findByStudent(Student student) {
-        return findByPredicate(e -> e.getStudent().equals(student));
+        long start = FIND_BY_STUDENT_TIMER.start();
+        try {
+            return findByPredicate(e -> e.getStudent().equals(student));
+        } finally {
+            FIND_BY_STUDENT_TIMER.stop(start);
+        }
     }
 
     @Override
     public List<Enrollment> findByCourse(Course course) {
-        return findByPredicate(e -> e.getCourse().equals(course));
+        long start = FIND_BY_COURSE_TIMER.start();
+        try {
+            return findByPredicate(e -> e.getCourse().equals(course));
+        } finally {
+            FIND_BY_COURSE_TIMER.stop(start);
+        }
     }
 
     @Override
@@ -102,40 +330,176 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             e.getCourse().getSemester() == semester);
     }
 
+    /**
+     * Answers from the GPA cache when it holds the student's semester, and
+     * otherwise computes the GPA from every enrollment and keeps it
+     */
     @Override
     public double calculateGpa(Student student, Semester semester) {
-        List<Enrollment> semesterEnrollments = findByStudentAndSemester(student, semester);
-        
-        if (semesterEnrollments.isEmpty()) {
-            return 0.0;
+        if (gpaCache == null) {
+            return computeGpa(student, semester);
+        }
+        Double cached = gpaCache.getGpa(student.getId(), semester);
+        if (cached != null) {
+            return cached;
         }
+        long stamp = gpaCache.stamp();
+        double gpa = computeGpa(student, semester);
+        gpaCache.putGpa(student.getId(), semester, gpa, stamp);
+        return gpa;
+    }
+
+    private double computeGpa(Student student, Semester semester) {
+        long start = CALCULATE_GPA_TIMER.start();
+        try {
+            List<Enrollment> semesterEnrollments = findByStudentAndSemester(student, semester);
 
-        double totalPoints = 0.0;
-        int totalCredits = 0;
+            double totalPoints = 0.0;
+            int totalCredits = 0;
 
-        for (Enrollment enrollment : semesterEnrollments) {
-            if (enrollment.getGrade() != null) {
-                int credits = enrollment.getCourse().getCredits();
-                totalPoints += enrollment.getGrade().getPoints() * credits;
-                totalCredits += credits;
+            for (Enrollment enrollment : semesterEnrollments) {
+                if (enrollment.getGrade() != null) {
+                    int credits = enrollment.getCourse().getCredits();
+                    totalPoints += enrollment.getGrade().getPoints() * credits;
+                    totalCredits += credits;
+                }
             }
+
+            return totalCredits > 0 ? totalPoints / totalCredits : 0.0;
+        } finally {
+            CALCULATE_GPA_TIMER.stop(start);
         }
+    }
 
-        return totalCredits > 0 ? totalPoints / totalCredits : 0.0;
+    /**
+     * Drops the cached GPA and credits an enrollment change affects; call under the
+     * student's lock, after the change
+     */
+    private void invalidateGpa(Student student, Course course) {
+        if (gpaCache != null) {
+            gpaCache.invalidate(student.getId(), course.getSemester());
+        }
     }
 
+    /**
+     * Compares the course's precomputed requirements with the courses the
+     * student has passed, a word at a time. A service without a graph,
+     * such as a staging instance, accepts every enrollment.
+     */
     @Override
     public boolean hasPassedPrerequisites(Student student, Course course) {
-        // This is a placeholder for prerequisite checking logic
-        // In a real implementation, would check course prerequisites and student's grades
-        return true;
+        if (prerequisiteGraph == null) {
+            return true;
+        }
+        long[] required = prerequisiteGraph.requirements(course.getCode());
+        return required.length == 0 || PrerequisiteGraph.containsAll(passedCourses(student), required);
     }
 
+    private long[] passedCourses(Student student) {
+        return passedCourses.getOrDefault(student.getId(), NONE);
+    }
+
+    /**
+     * Sets or clears the course's bit for the student; call under the
+     * student's lock
+     */
+    private void recordPassed(Student student, Course course, Grade grade) {
+        if (prerequisiteGraph != null) {
+            int ordinal = prerequisiteGraph.ordinal(course.getCode());
+            passedCourses.put(student.getId(), PrerequisiteGraph.with(passedCourses(student), ordinal,
+                grade != null && grade.isPassing()));
+        }
+    }
+
+    /**
+     * Answers from the cache when it holds the student's semester, and
+     * otherwise adds up the student's own enrollments and keeps the sum
+     */
     @Override
     public int getCurrentCredits(Student student, Semester semester) {
-        return findByStudentAndSemester(student, semester).stream()
+        if (gpaCache == null) {
+            return computeCurrentCredits(student, semester);
+        }
+        int cached = gpaCache.getCredits(student.getId(), semester);
+        if (cached >= 0) {
+            return cached;
+        }
+        long stamp = gpaCache.stamp();
+        int credits = computeCurrentCredits(student, semester);
+        gpaCache.putCredits(student.getId(), semester, credits, stamp);
+        return credits;
+    }
+
+    private int computeCurrentCredits(Student student, Semester semester) {
+        // The student holds its active enrollments, so there is no need to scan every enrollment
+        return student.getEnrolledCourses().stream()
+            .filter(e -> e.getCourse().getSemester() == semester)
             .filter(e -> e.getStatus() == Enrollment.EnrollmentStatus.ENROLLED)
             .mapToInt(e -> e.getCourse().getCredits())
             .sum();
     }
+
+    @Override
+    public void addChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Drops an enrollment recorded as deleted by a backup being restored
+     * into this staging instance, keeping a tombstone for it. Listeners are
+     * not told, so this is not for live services.
+     */
+    public void delete(String enrollmentId) {
+        snapshotLock.beginMutation();
+        try {
+            Enrollment removed = enrollments.remove(enrollmentId);
+            if (removed != null) {
+                Student student = removed.getStudent();
+                synchronized (student) {
+                    student.removeEnrollment(removed);
+                }
+                deletions.put(enrollmentId, LocalDateTime.now());
+            }
+        } finally {
+            snapshotLock.endMutation();
+        }
+    }
+
+    @Override
+    public EnrollmentService newStagingInstance(SnapshotLock snapshotLock) {
+        return new EnrollmentServiceImpl(snapshotLock);
+    }
+
+    @Override
+    public void replaceContents(EnrollmentService staged) {
+        if (!(staged instanceof EnrollmentServiceImpl stagedImpl)) {
+            throw new IllegalArgumentException("Staged service must be a EnrollmentServiceImpl");
+        }
+        Map<String, Enrollment> replacement = stagedImpl.enrollments;
+        LocalDateTime now = LocalDateTime.now();
+        // Anything that disappears in the swap needs a tombstone for the next incremental backup
+        for (String id : enrollments.keySet()) {
+            if (!replacement.containsKey(id)) {
+                deletions.put(id, now);
+            }
+        }
+        stagedImpl.deletions.forEach(deletions::putIfAbsent);
+        deletions.keySet().removeAll(replacement.keySet());
+        enrollments = replacement;
+        if (prerequisiteGraph != null) {
+            Map<String, long[]> passed = new ConcurrentHashMap<>();
+            for (Enrollment enrollment : enrollments.values()) {
+                if (enrollment.getGrade() != null && enrollment.getGrade().isPassing()) {
+                    int ordinal = prerequisiteGraph.ordinal(enrollment.getCourse().getCode());
+                    passed.merge(enrollment.getStudent().getId(), PrerequisiteGraph.with(NONE, ordinal, true),
+                        (set, bit) -> PrerequisiteGraph.with(set, ordinal, true));
+                }
+            }
+            passedCourses = passed;
+        }
+        if (gpaCache != null) {
+            gpaCache.clear();
+        }
+        listeners.forEach(DataChangeListener::contentsReplaced);
+    }
 }
\ No newline at end of file
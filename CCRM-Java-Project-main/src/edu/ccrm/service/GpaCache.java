@@ -0,0 +1,182 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Semester;
+import edu.ccrm.metrics.MetricsRegistry;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Recently used semester GPAs and active credits, keyed by student ID and
+ * semester, so asking again for a value that has not changed skips the
+ * scan of the enrollments. Lookups take no lock.
+ *
+ * A value computed while a change is being invalidated may already be out
+ * of date, so a put only stores it if nothing was invalidated for the same
+ * student, and the cache was not cleared, since the caller took its
+ * {@link #stamp}. Changes to other students do not get in the way.
+ *
+ * Holds about a fixed number of entries. Once it has more, the thread that
+ * notices drops the least recently used tenth or so, judged from a random
+ * sample of the entries' last use.
+ */
+final class GpaCache {
+    private static final LongAdder HITS = MetricsRegistry.getInstance().counter("enrollment.gpaCache.hit");
+    private static final LongAdder MISSES = MetricsRegistry.getInstance().counter("enrollment.gpaCache.miss");
+    private static final LongAdder EVICTIONS =
+        MetricsRegistry.getInstance().counter("enrollment.gpaCache.eviction");
+    private static final int EVICTION_SAMPLE = 64;
+    private static final int EVICTION_PERCENT = 10;
+    private static final int NO_CREDITS = -1;
+
+    private record Key(String studentId, Semester semester) {
+    }
+
+    /**
+     * The values known for one key; a GPA of NaN or credits of -1 are not known yet
+     */
+    private static final class Entry {
+        final double gpa;
+        final int credits;
+        volatile long lastUsed;
+
+        Entry(double gpa, int credits) {
+            this.gpa = gpa;
+            this.credits = credits;
+            this.lastUsed = System.nanoTime();
+        }
+    }
+
+    private final int capacity;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // Each invalidation takes the next tick; a stamp is the tick it was taken at
+    private final AtomicLong ticks = new AtomicLong();
+    private final Map<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private volatile long clearedAt;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    GpaCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Cached GPA, or null if it has to be computed
+     */
+    Double getGpa(String studentId, Semester semester) {
+        Entry entry = lookup(studentId, semester);
+        boolean hit = entry != null && !Double.isNaN(entry.gpa);
+        (hit ? HITS : MISSES).increment();
+        return hit ? entry.gpa : null;
+    }
+
+    /**
+     * Cached active credits, or -1 if they have to be computed
+     */
+    int getCredits(String studentId, Semester semester) {
+        Entry entry = lookup(studentId, semester);
+        int credits = entry != null ? entry.credits : NO_CREDITS;
+        (credits != NO_CREDITS ? HITS : MISSES).increment();
+        return credits;
+    }
+
+    /**
+     * Position to pass to a put, taken before computing the value
+     */
+    long stamp() {
+        return ticks.get();
+    }
+
+    void putGpa(String studentId, Semester semester, double gpa, long stamp) {
+        put(studentId, semester, stamp, old -> new Entry(gpa, old != null ? old.credits : NO_CREDITS));
+    }
+
+    void putCredits(String studentId, Semester semester, int credits, long stamp) {
+        put(studentId, semester, stamp, old -> new Entry(old != null ? old.gpa : Double.NaN, credits));
+    }
+
+    /**
+     * Forgets one student's values for one semester, and keeps values the
+     * student's in-flight computations return from being stored; call
+     * after the change is applied
+     */
+    void invalidate(String studentId, Semester semester) {
+        invalidatedAt.merge(studentId, ticks.incrementAndGet(), Math::max);
+        entries.remove(new Key(studentId, semester));
+    }
+
+    /**
+     * Forgets every value, e.g. after a course's credits or semester changed
+     */
+    void clear() {
+        clearedAt = ticks.incrementAndGet();
+        entries.clear();
+        invalidatedAt.clear();
+    }
+
+    private Entry lookup(String studentId, Semester semester) {
+        Entry entry = entries.get(new Key(studentId, semester));
+        if (entry != null) {
+            entry.lastUsed = System.nanoTime();
+        }
+        return entry;
+    }
+
+    private void put(String studentId, Semester semester, long stamp,
+            UnaryOperator<Entry> update) {
+        // The check runs under the key's bin lock, which invalidate's remove also takes,
+        // so a value is either refused or stored before the invalidation removes it
+        entries.compute(new Key(studentId, semester), (key, old) ->
+            isCurrent(studentId, stamp) ? update.apply(old) : old);
+        if (entries.size() > capacity) {
+            evict();
+        }
+    }
+
+    private boolean isCurrent(String studentId, long stamp) {
+        return clearedAt <= stamp && invalidatedAt.getOrDefault(studentId, 0L) <= stamp;
+    }
+
+    /**
+     * Drops the entries last used before the sample's tenth percentile; one
+     * thread evicts at a time and the others carry on
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long[] sample = new long[EVICTION_SAMPLE];
+            int sampled = 0;
+            int size = entries.size();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Iterator<Entry> values = entries.values().iterator();
+            // Each entry is taken with the chance that fills the sample over one pass
+            for (int seen = 0; values.hasNext() && sampled < sample.length; seen++) {
+                Entry entry = values.next();
+                if (random.nextInt(Math.max(1, size - seen)) < sample.length - sampled) {
+                    sample[sampled++] = entry.lastUsed;
+                }
+            }
+            if (sampled == 0) {
+                return;
+            }
+            Arrays.sort(sample, 0, sampled);
+            long cutoff = sample[sampled * EVICTION_PERCENT / 100];
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().lastUsed <= cutoff) {
+                    it.remove();
+                    EVICTIONS.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package edu.ccrm.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prerequisites of every course as a directed acyclic graph, with each
+ * course's transitive requirements precomputed as a bit set. Every course
+ * code the graph has seen gets a fixed ordinal, its bit in the sets, so a
+ * student's passed courses can be kept as a bit set too and checking a
+ * course's prerequisites is a few word-wide operations rather than a walk
+ * of the graph.
+ *
+ * Edges that would close a cycle are rejected. A prerequisite need not
+ * exist as a course yet, so courses can be loaded in any order. The sets
+ * are rebuilt on first use after a change; between changes reading them
+ * takes no lock.
+ */
+public class PrerequisiteGraph {
+    private static final long[] NONE = new long[0];
+
+    // Guarded by this
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> codes = new ArrayList<>();
+    private final Map<String, Set<String>> edges = new HashMap<>();
+    // Transitive requirements of each course; null until rebuilt after a change
+    private volatile Map<String, long[]> closures = Map.of();
+
+    /**
+     * The course's bit in requirement and passed-course sets
+     */
+    public synchronized int ordinal(String code) {
+        Integer ordinal = ordinals.get(code);
+        if (ordinal == null) {
+            ordinal = codes.size();
+            ordinals.put(code, ordinal);
+            codes.add(code);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Sets a course's direct prerequisites
+     *
+     * @throws IllegalArgumentException if a prerequisite already requires the course
+     */
+    public synchronized void update(String code, Collection<String> prerequisites) {
+        if (edges.getOrDefault(code, Set.of()).equals(new HashSet<>(prerequisites))) {
+            return;
+        }
+        for (String prerequisite : prerequisites) {
+            List<String> path = path(prerequisite, code);
+            if (path != null) {
+                throw new IllegalArgumentException("Prerequisite cycle: " + code + " -> "
+                    + String.join(" -> ", path));
+            }
+        }
+        ordinal(code);
+        prerequisites.forEach(this::ordinal);
+        if (prerequisites.isEmpty()) {
+            edges.remove(code);
+        } else {
+            edges.put(code, new LinkedHashSet<>(prerequisites));
+        }
+        closures = null;
+    }
+
+    /**
+     * Forgets a course's own prerequisites; courses requiring it still do
+     */
+    public synchronized void remove(String code) {
+        if (edges.remove(code) != null) {
+            closures = null;
+        }
+    }
+
+    /**
+     * Takes over another graph's prerequisites, e.g. one loaded for a
+     * restore, keeping this graph's ordinals so passed-course sets built
+     * against them stay valid
+     */
+    public void replaceWith(PrerequisiteGraph other) {
+        Map<String, Set<String>> copy;
+        synchronized (other) {
+            copy = new HashMap<>(other.edges);
+        }
+        synchronized (this) {
+            edges.clear();
+            copy.forEach((code, prerequisites) -> {
+                ordinal(code);
+                prerequisites.forEach(this::ordinal);
+                edges.put(code, new LinkedHashSet<>(prerequisites));
+            });
+            closures = null;
+        }
+    }
+
+    /**
+     * Every course that must be passed before the given one, directly or
+     * through another prerequisite. The array must not be modified.
+     */
+    public long[] requirements(String code) {
+        Map<String, long[]> current = closures;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current.getOrDefault(code, NONE);
+    }
+
+    /**
+     * How many courses must be passed before the given one. A course
+     * always needs more than any of its prerequisites, so ordering by this
+     * count puts prerequisites first.
+     */
+    public int requirementCount(String code) {
+        int count = 0;
+        for (long word : requirements(code)) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Codes of the course's requirements missing from the passed set, in
+     * ordinal order
+     */
+    public List<String> missing(String code, long[] passed) {
+        long[] required = requirements(code);
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            for (int word = 0; word < required.length; word++) {
+                long bits = required[word] & ~word(passed, word);
+                for (; bits != 0; bits &= bits - 1) {
+                    missing.add(codes.get(word * Long.SIZE + Long.numberOfTrailingZeros(bits)));
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Whether the set holds every bit of the required set
+     */
+    public static boolean containsAll(long[] set, long[] required) {
+        for (int word = 0; word < required.length; word++) {
+            if ((required[word] & ~word(set, word)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy of the set with one bit set or cleared, grown as needed; the
+     * original is left alone so readers may hold it without locking
+     */
+    public static long[] with(long[] set, int ordinal, boolean member) {
+        int word = ordinal / Long.SIZE;
+        long[] copy = Arrays.copyOf(set, Math.max(set.length, word + 1));
+        if (member) {
+            copy[word] |= 1L << ordinal;
+        } else {
+            copy[word] &= ~(1L << ordinal);
+        }
+        return copy;
+    }
+
+    private static long word(long[] set, int word) {
+        return word < set.length ? set[word] : 0L;
+    }
+
+    private synchronized Map<String, long[]> rebuild() {
+        if (closures != null) {
+            return closures;
+        }
+        Map<String, long[]> built = new HashMap<>();
+        for (String code : edges.keySet()) {
+            closure(code, built);
+        }
+        closures = built;
+        return built;
+    }
+
+    /**
+     * Requirements of one course from those of its prerequisites; the
+     * graph has no cycles, so the recursion ends
+     */
+    private long[] closure(String code, Map<String, long[]> built) {
+        long[] closure = built.get(code);
+        if (closure != null) {
+            return closure;
+        }
+        Set<String> prerequisites = edges.get(code);
+        if (prerequisites == null) {
+            return NONE;
+        }
+        closure = new long[(codes.size() + Long.SIZE - 1) / Long.SIZE];
+        for (String prerequisite : prerequisites) {
+            int ordinal = ordinals.get(prerequisite);
+            closure[ordinal / Long.SIZE] |= 1L << ordinal;
+            long[] inherited = closure(prerequisite, built);
+            for (int word = 0; word < inherited.length; word++) {
+                closure[word] |= inherited[word];
+            }
+        }
+        built.put(code, closure);
+        return closure;
+    }
+
+    /**
+     * Chain of prerequisites leading from one course to another, starting
+     * with {@code from}, or null if there is none
+     */
+    private List<String> path(String from, String to) {
+        Map<String, String> reachedFrom = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(from);
+        seen.add(from);
+        while (!pending.isEmpty()) {
+            String code = pending.pop();
+            if (code.equals(to)) {
+                List<String> path = new ArrayList<>();
+                for (String step = to; step != null; step = reachedFrom.get(step)) {
+                    path.add(0, step);
+                }
+                return path;
+            }
+            for (String prerequisite : edges.getOrDefault(code, Set.of())) {
+                if (seen.add(prerequisite)) {
+                    reachedFrom.put(prerequisite, code);
+                    pending.push(prerequisite);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.ccrm.service;
+
+/**
+ * Generic interface for services whose whole contents can be rebuilt in a
+ * separate staging instance and then swapped in at once.
+ * Demonstrates self-referential generics. The services of a shard router
+ * do not implement it: each shard restores from its own backups.
+ */
+public interface Restorable<S> {
+    /**
+     * Creates an empty instance of the same kind, coordinated through its own lock
+     */
+    S newStagingInstance(SnapshotLock snapshotLock);
+
+    /**
+     * Replaces all contents with those of a staged instance, which must not
+     * be used afterwards. Callers hold the exclusive side of the snapshot
+     * lock so no mutation or snapshot observes a partial swap.
+     */
+    void replaceContents(S staged);
+}
@@ -0,0 +1,45 @@
+package edu.ccrm.service;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Lock shared by a set of services so a snapshot never observes a
+ * half-applied operation. Mutations hold the shared side and run
+ * concurrently with each other; capturing a snapshot holds the exclusive
+ * side only for as long as it takes to list the entities it will copy.
+ */
+public class SnapshotLock {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void beginMutation() {
+        lock.readLock().lock();
+    }
+
+    public void endMutation() {
+        lock.readLock().unlock();
+    }
+
+    /**
+     * Runs the capture while no mutation is in progress
+     */
+    public <T> T capture(Supplier<T> capture) {
+        lock.writeLock().lock();
+        try {
+            return capture.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs an action while no mutation or capture is in progress
+     */
+    public void runExclusive(Runnable action) {
+        capture(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -7,10 +7,16 @@ import java.util.List;
  * Interface defining student management operations.
  * Demonstrates interface inheritance and business operations.
  */
-public interface StudentService extends Persistable<Student, String>, Searchable<Student> {
+public interface StudentService extends Persistable<Student, String>, Searchable<Student>,
+        ChangeTrackable<Student, String> {
     Student findByRegNo(String regNo);
     List<Student> findByDepartment(String department);
     double calculateAverageGpa();
     List<Student> findTopPerformers(int limit);
     void deactivateStudent(String id);
+
+    /**
+     * Registers a listener notified of every change made through this service
+     */
+    void addChangeListener(DataChangeListener listener);
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package edu.ccrm.service;
 
 import edu.ccrm.domain.Student;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -13,8 +17,34 @@ import java.util.stream.Collectors;
  * Implementation of StudentService interface.
  * Demonstrates Stream API, lambda expressions, and thread-safe collections.
  */
-public class StudentServiceImpl implements StudentService {
-    private final Map<String, Student> students = new ConcurrentHashMap<>();
+public class StudentServiceImpl implements StudentService, Restorable<StudentService> {
+    private static final OperationTimer SAVE_TIMER = MetricsRegistry.getInstance().timer("student.save");
+    private static final OperationTimer DELETE_TIMER = MetricsRegistry.getInstance().timer("student.delete");
+    private static final OperationTimer FIND_BY_REG_NO_TIMER =
+        MetricsRegistry.getInstance().timer("student.findByRegNo");
+    private static final OperationTimer FIND_BY_DEPARTMENT_TIMER =
+        MetricsRegistry.getInstance().timer("student.findByDepartment");
+    private static final OperationTimer AVERAGE_GPA_TIMER =
+        MetricsRegistry.getInstance().timer("student.calculateAverageGpa");
+    private static final OperationTimer TOP_PERFORMERS_TIMER =
+        MetricsRegistry.getInstance().timer("student.findTopPerformers");
+
+    private volatile Map<String, Student> students = new ConcurrentHashMap<>();
+    private final Map<String, LocalDateTime> deletions = new ConcurrentHashMap<>();
+    private final SnapshotLock snapshotLock;
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public StudentServiceImpl() {
+        this(new SnapshotLock());
+    }
+
+    /**
+     * Creates a service whose mutations are coordinated with snapshots
+     * through the given lock, shared with the other services
+     */
+    public StudentServiceImpl(SnapshotLock snapshotLock) {
+        this.snapshotLock = snapshotLock;
+    }
 
     @Override
     public Student findById(String id) {
@@ -23,13 +53,33 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     public Student save(Student student) {
-        students.put(student.getId(), student);
-        return student;
+        long start = SAVE_TIMER.start();
+        snapshotLock.beginMutation();
+        try {
+            students.put(student.getId(), student);
+            deletions.remove(student.getId());
+            listeners.forEach(listener -> listener.studentSaved(student));
+            return student;
+        } finally {
+            snapshotLock.endMutation();
+            SAVE_TIMER.stop(start);
+        }
     }
 
     @Override
     public void delete(String id) {
-        students.remove(id);
+        long start = DELETE_TIMER.start();
+        snapshotLock.beginMutation();
+        try {
+            Student removed = students.remove(id);
+            if (removed != null) {
+                deletions.put(id, LocalDateTime.now());
+                listeners.forEach(listener -> listener.studentDeleted(removed));
+            }
+        } finally {
+            snapshotLock.endMutation();
+            DELETE_TIMER.stop(start);
+        }
     }
 
     @Override
@@ -49,6 +99,19 @@ public class StudentServiceImpl implements StudentService {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Student> findModifiedSince(LocalDateTime since) {
+        return findByPredicate(student -> !student.getUpdatedAt().isBefore(since));
+    }
+
+    @Override
+    public List<String> findDeletedSince(LocalDateTime since) {
+        return deletions.entrySet().stream()
+            .filter(entry -> !entry.getValue().isBefore(since))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
     @Override
     public long count() {
         return students.size();
@@ -56,35 +119,55 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     public Student findByRegNo(String regNo) {
-        return students.values().stream()
-            .filter(s -> s.getRegNo().equals(regNo))
-            .findFirst()
-            .orElse(null);
+        long start = FIND_BY_REG_NO_TIMER.start();
+        try {
+            return students.values().stream()
+                .filter(s -> s.getRegNo().equals(regNo))
+                .findFirst()
+                .orElse(null);
+        } finally {
+            FIND_BY_REG_NO_TIMER.stop(start);
+        }
     }
 
     @Override
     public List<Student> findByDepartment(String department) {
-        return findByPredicate(s -> s.isActive() && 
-            s.getEnrolledCourses().stream()
-                .anyMatch(e -> e.getCourse().getDepartment().equals(department)));
+        long start = FIND_BY_DEPARTMENT_TIMER.start();
+        try {
+            return findByPredicate(s -> s.isActive() && 
+                s.getEnrolledCourses().stream()
+                    .anyMatch(e -> e.getCourse().getDepartment().equals(department)));
+        } finally {
+            FIND_BY_DEPARTMENT_TIMER.stop(start);
+        }
     }
 
     @Override
     public double calculateAverageGpa() {
-        return students.values().stream()
-            .filter(Student::isActive)
-            .mapToDouble(Student::getGpa)
-            .average()
-            .orElse(0.0);
+        long start = AVERAGE_GPA_TIMER.start();
+        try {
+            return students.values().stream()
+                .filter(Student::isActive)
+                .mapToDouble(Student::getGpa)
+                .average()
+                .orElse(0.0);
+        } finally {
+            AVERAGE_GPA_TIMER.stop(start);
+        }
     }
 
     @Override
     public List<Student> findTopPerformers(int limit) {
-        return students.values().stream()
-            .filter(Student::isActive)
-            .sorted(Comparator.comparingDouble(Student::getGpa).reversed())
-            .limit(limit)
-            .collect(Collectors.toList());
+        long start = TOP_PERFORMERS_TIMER.start();
+        try {
+            return students.values().stream()
+                .filter(Student::isActive)
+                .sorted(Comparator.comparingDouble(Student::getGpa).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+        } finally {
+            TOP_PERFORMERS_TIMER.stop(start);
+        }
     }
 
     @Override
@@ -95,4 +178,33 @@ public class StudentServiceImpl implements StudentService {
             save(student);
         }
     }
+
+    @Override
+    public void addChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public StudentService newStagingInstance(SnapshotLock snapshotLock) {
+        return new StudentServiceImpl(snapshotLock);
+    }
+
+    @Override
+    public void replaceContents(StudentService staged) {
+        if (!(staged instanceof StudentServiceImpl stagedImpl)) {
+            throw new IllegalArgumentException("Staged service must be a StudentServiceImpl");
+        }
+        Map<String, Student> replacement = stagedImpl.students;
+        LocalDateTime now = LocalDateTime.now();
+        // Anything that disappears in the swap needs a tombstone for the next incremental backup
+        for (String id : students.keySet()) {
+            if (!replacement.containsKey(id)) {
+                deletions.put(id, now);
+            }
+        }
+        stagedImpl.deletions.forEach(deletions::putIfAbsent);
+        deletions.keySet().removeAll(replacement.keySet());
+        students = replacement;
+        listeners.forEach(DataChangeListener::contentsReplaced);
+    }
 }
\ No newline at end of file
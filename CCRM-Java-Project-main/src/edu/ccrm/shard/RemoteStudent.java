@@ -0,0 +1,48 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.domain.Student;
+import java.time.LocalDate;
+
+/**
+ * A student read from the shards. Each shard only knows the grades of
+ * its own departments' courses, so the GPA is computed from the grade
+ * points and credits added up over every shard that answered.
+ */
+final class RemoteStudent extends Student {
+    private final LocalDate enrollmentDate;
+    private double gradePoints;
+    private int gradedCredits;
+    private long activeEnrollments;
+
+    RemoteStudent(String id, String regNo, String fullName, String email, boolean active,
+            LocalDate enrollmentDate) {
+        super(id, fullName, email, regNo);
+        this.enrollmentDate = enrollmentDate;
+        if (!active) {
+            setActive(false);
+        }
+    }
+
+    /**
+     * Adds one shard's share of the student's grades and enrollments
+     */
+    void addTotals(double points, int credits, long active) {
+        gradePoints += points;
+        gradedCredits += credits;
+        activeEnrollments += active;
+    }
+
+    long getActiveEnrollments() {
+        return activeEnrollments;
+    }
+
+    @Override
+    public LocalDate getEnrollmentDate() {
+        return enrollmentDate != null ? enrollmentDate : super.getEnrollmentDate();
+    }
+
+    @Override
+    public double getGpa() {
+        return gradedCredits > 0 ? gradePoints / gradedCredits : 0.0;
+    }
+}
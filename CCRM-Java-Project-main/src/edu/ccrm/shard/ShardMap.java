@@ -0,0 +1,71 @@
+package edu.ccrm.shard;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Assigns each department to a shard. Departments listed explicitly go
+ * to their shard; any other department goes to the shard its name
+ * hashes to, so new departments need no configuration. A department's
+ * courses and their enrollments all live on its shard.
+ */
+public final class ShardMap {
+    private final int shardCount;
+    private final Map<String, Integer> assignments;
+
+    public ShardMap(int shardCount, Map<String, Integer> assignments) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        assignments.forEach((department, shard) -> {
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("Department " + department + " is assigned to shard "
+                    + shard + ", but there are only " + shardCount + " shards");
+            }
+        });
+        this.shardCount = shardCount;
+        this.assignments = Map.copyOf(assignments);
+    }
+
+    /**
+     * Parses assignments written as {@code DEPT=index,DEPT=index}; an empty
+     * or null text assigns every department by hash
+     */
+    public static ShardMap parse(int shardCount, String assignments) {
+        Map<String, Integer> parsed = new LinkedHashMap<>();
+        if (assignments != null && !assignments.isBlank()) {
+            for (String assignment : assignments.split(",")) {
+                int equals = assignment.lastIndexOf('=');
+                if (equals <= 0) {
+                    throw new IllegalArgumentException("Expected DEPARTMENT=shard but got: " + assignment);
+                }
+                parsed.put(assignment.substring(0, equals).trim(),
+                    Integer.parseInt(assignment.substring(equals + 1).trim()));
+            }
+        }
+        return new ShardMap(shardCount, parsed);
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Shard holding the courses of a department
+     */
+    public int shardFor(String department) {
+        if (department == null) {
+            return 0;
+        }
+        Integer assigned = assignments.get(department);
+        return assigned != null ? assigned : Math.floorMod(department.hashCode(), shardCount);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner text = new StringJoiner(",");
+        assignments.forEach((department, shard) -> text.add(department + "=" + shard));
+        return text.toString();
+    }
+}
@@ -0,0 +1,291 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.exception.ShardUnavailableException;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import edu.ccrm.wire.WireClient;
+import edu.ccrm.wire.WireCommand;
+import edu.ccrm.wire.WireProtocol.Reply;
+import edu.ccrm.wire.WireProtocol.Status;
+import edu.ccrm.wire.WireResult;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Sends commands to the shards of a partitioned deployment over the
+ * binary protocol. Each shard is an ordinary server started with
+ * {@code serve --wire-port}; the router keeps a few idle connections to
+ * each so concurrent callers rarely wait for a connect. Queries follow
+ * their cursors, so callers always get every row.
+ *
+ * Commands for several shards run in parallel, the caller's thread
+ * taking the first shard itself, so a scatter-gather costs about one
+ * round trip to the slowest shard.
+ */
+public class ShardRouter implements Closeable {
+    public static final int DEFAULT_IDLE_CONNECTIONS = 8;
+    private static final OperationTimer REQUEST_TIMER = MetricsRegistry.getInstance().timer("shard.request");
+    private static final OperationTimer SCATTER_TIMER = MetricsRegistry.getInstance().timer("shard.scatter");
+    private static final LongAdder CONNECTS = MetricsRegistry.getInstance().counter("shard.connects");
+
+    private final List<InetSocketAddress> nodes;
+    private final ShardMap shardMap;
+    private final List<BlockingQueue<WireClient>> idleClients = new ArrayList<>();
+    private final ExecutorService executor;
+
+    /**
+     * @param nodes shard servers, in shard order
+     */
+    public ShardRouter(List<InetSocketAddress> nodes, ShardMap shardMap) {
+        if (nodes.size() != shardMap.getShardCount()) {
+            throw new IllegalArgumentException("The shard map has " + shardMap.getShardCount()
+                + " shards but " + nodes.size() + " nodes were given");
+        }
+        this.nodes = List.copyOf(nodes);
+        this.shardMap = shardMap;
+        for (int i = 0; i < nodes.size(); i++) {
+            idleClients.add(new ArrayBlockingQueue<>(DEFAULT_IDLE_CONNECTIONS));
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-shard-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Parses shard addresses written as {@code host:port,host:port}
+     */
+    public static List<InetSocketAddress> parseNodes(String nodes) {
+        List<InetSocketAddress> parsed = new ArrayList<>();
+        for (String node : nodes.split(",")) {
+            int colon = node.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Expected host:port but got: " + node);
+            }
+            parsed.add(InetSocketAddress.createUnresolved(node.substring(0, colon).trim(),
+                Integer.parseInt(node.substring(colon + 1).trim())));
+        }
+        return parsed;
+    }
+
+    public int getShardCount() {
+        return nodes.size();
+    }
+
+    public ShardMap getShardMap() {
+        return shardMap;
+    }
+
+    /**
+     * Shard holding the courses and enrollments of a department
+     */
+    public int shardFor(String department) {
+        return shardMap.shardFor(department);
+    }
+
+    /**
+     * Checks that every shard answers
+     *
+     * @throws ShardUnavailableException naming the first shard that does not
+     */
+    public void ping() {
+        broadcast(WireCommand.ping()).forEach(this::check);
+    }
+
+    /**
+     * Runs one command on a shard. Rejections come back as results; only
+     * an unreachable shard throws.
+     */
+    public WireResult execute(int shard, WireCommand command) {
+        return executeAll(shard, List.of(command)).get(0);
+    }
+
+    /**
+     * Runs the commands on a shard as pipelined batches, one result per
+     * command, fetching the remaining rows of every query that was paged
+     */
+    public List<WireResult> executeAll(int shard, List<WireCommand> commands) {
+        long start = REQUEST_TIMER.start();
+        WireClient client = borrow(shard);
+        try {
+            List<WireResult> results = new ArrayList<>(client.executePipelined(commands,
+                WireClient.DEFAULT_BATCH_SIZE, WireClient.DEFAULT_WINDOW));
+            fetchRemaining(client, commands, results);
+            release(shard, client);
+            return results;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(client);
+            throw new ShardUnavailableException("Shard " + shard + " at " + describe(shard)
+                + " failed: " + e.getMessage(), e);
+        } finally {
+            REQUEST_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Every row a query returns from one shard
+     */
+    public List<String> query(int shard, WireCommand command) {
+        return check(execute(shard, command)).rows();
+    }
+
+    /**
+     * Runs the command on every shard, returning the results in shard order
+     */
+    public List<WireResult> broadcast(WireCommand command) {
+        return scatter(shard -> execute(shard, command));
+    }
+
+    /**
+     * Runs a query on every shard, returning each shard's rows in shard order
+     */
+    public List<List<String>> queryAll(WireCommand command) {
+        return scatter(shard -> query(shard, command));
+    }
+
+    /**
+     * Runs a task for each shard in parallel and gathers the answers in shard order
+     */
+    public <T> List<T> scatter(IntFunction<T> task) {
+        long start = SCATTER_TIMER.start();
+        try {
+            List<Future<T>> futures = new ArrayList<>(nodes.size());
+            for (int shard = 1; shard < nodes.size(); shard++) {
+                int target = shard;
+                futures.add(executor.submit(() -> task.apply(target)));
+            }
+            List<T> answers = new ArrayList<>(nodes.size());
+            answers.add(task.apply(0));
+            for (Future<T> future : futures) {
+                answers.add(future.get());
+            }
+            return answers;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ShardUnavailableException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ShardUnavailableException("Interrupted while waiting for the shards", e);
+        } finally {
+            SCATTER_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Returns a result that succeeded or was only rejected; a shard that
+     * failed with an error or could not parse the request throws
+     */
+    public WireResult check(WireResult result) {
+        if (result.status() == Status.ERROR || result.status() == Status.BAD_REQUEST) {
+            throw new ShardUnavailableException("Shard request failed: " + result.message());
+        }
+        if (!result.isOk() && result.status() != Status.NOT_FOUND) {
+            throw new IllegalStateException(result.message());
+        }
+        return result;
+    }
+
+    /**
+     * Closes the idle connections and the scatter threads
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (BlockingQueue<WireClient> clients : idleClients) {
+            WireClient client;
+            while ((client = clients.poll()) != null) {
+                closeQuietly(client);
+            }
+        }
+    }
+
+    /**
+     * Fetches the rest of every paged query, sending one FETCH per open
+     * cursor in each round, and replaces the results with the complete rows
+     */
+    private static void fetchRemaining(WireClient client, List<WireCommand> commands,
+            List<WireResult> results) throws IOException {
+        List<Integer> open = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (commands.get(i).opcode().getReply() == Reply.ROWS && results.get(i).isOk()
+                    && results.get(i).cursor() != 0) {
+                WireResult first = results.get(i);
+                results.set(i, new WireResult(Status.OK, first.value(), null, new ArrayList<>(first.rows())));
+                open.add(i);
+            }
+        }
+        while (!open.isEmpty()) {
+            List<WireCommand> fetches = new ArrayList<>(open.size());
+            for (int i : open) {
+                fetches.add(WireCommand.fetch(results.get(i).cursor()));
+            }
+            List<WireResult> pages = client.executePipelined(fetches, WireClient.DEFAULT_BATCH_SIZE,
+                WireClient.DEFAULT_WINDOW);
+            List<Integer> stillOpen = new ArrayList<>();
+            for (int j = 0; j < open.size(); j++) {
+                WireResult page = pages.get(j);
+                if (!page.isOk()) {
+                    throw new IOException("Fetching rows failed: " + page.message());
+                }
+                int i = open.get(j);
+                List<String> rows = results.get(i).rows();
+                rows.addAll(page.rows());
+                results.set(i, new WireResult(Status.OK, page.value(), null, rows));
+                if (page.cursor() != 0) {
+                    stillOpen.add(i);
+                }
+            }
+            open = stillOpen;
+        }
+    }
+
+    private WireClient borrow(int shard) {
+        WireClient client = idleClients.get(shard).poll();
+        if (client != null) {
+            return client;
+        }
+        InetSocketAddress node = nodes.get(shard);
+        try {
+            CONNECTS.increment();
+            return new WireClient(node.getHostString(), node.getPort());
+        } catch (IOException e) {
+            throw new ShardUnavailableException("Shard " + shard + " at " + describe(shard)
+                + " is unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    private void release(int shard, WireClient client) {
+        if (!idleClients.get(shard).offer(client)) {
+            closeQuietly(client);
+        }
+    }
+
+    private String describe(int shard) {
+        InetSocketAddress node = nodes.get(shard);
+        return node.getHostString() + ":" + node.getPort();
+    }
+
+    private static void closeQuietly(WireClient client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            // Already broken
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.report.CourseStats;
+import edu.ccrm.report.GradeDistribution;
+import edu.ccrm.wire.WireRows;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the rows shards return back into domain objects. The objects are
+ * copies: changing one changes nothing until it is saved through the
+ * router's services.
+ */
+final class ShardRows {
+    private static final Grade[] GRADES = Grade.values();
+
+    private ShardRows() {
+    }
+
+    /**
+     * Merges each shard's rows for the same students into one student per
+     * ID, in the order they were first seen, with the totals of every shard
+     */
+    static List<RemoteStudent> students(Collection<List<String>> rowsPerShard) {
+        Map<String, RemoteStudent> students = new LinkedHashMap<>();
+        for (List<String> rows : rowsPerShard) {
+            addStudents(students, rows);
+        }
+        return new ArrayList<>(students.values());
+    }
+
+    /**
+     * Adds the rows to the students already read, creating those not seen yet
+     */
+    static void addStudents(Map<String, RemoteStudent> students, List<String> rows) {
+        for (String row : rows) {
+            String[] fields = WireRows.split(row);
+            RemoteStudent student = students.computeIfAbsent(fields[0], id -> new RemoteStudent(id,
+                fields[1], fields[2], fields[3], Boolean.parseBoolean(fields[4]),
+                WireRows.parseDate(fields[5])));
+            student.addTotals(Double.parseDouble(fields[6]), Integer.parseInt(fields[7]),
+                Long.parseLong(fields[8]));
+        }
+    }
+
+    static List<Course> courses(Collection<List<String>> rowsPerShard) {
+        List<Course> courses = new ArrayList<>();
+        for (List<String> rows : rowsPerShard) {
+            for (String row : rows) {
+                courses.add(course(WireRows.split(row), 0));
+            }
+        }
+        return courses;
+    }
+
+    static Course course(String[] fields, int offset) {
+        Course course = new Course.Builder(fields[offset])
+            .title(fields[offset + 1])
+            .credits(Integer.parseInt(fields[offset + 2]))
+            .department(fields[offset + 3].isEmpty() ? null : fields[offset + 3])
+            .semester(fields[offset + 4].isEmpty() ? null : Semester.valueOf(fields[offset + 4]))
+            .instructor(instructor(fields, offset + 6))
+            .prerequisites(WireRows.parsePrerequisites(fields, offset))
+            .build();
+        if (!Boolean.parseBoolean(fields[offset + 5])) {
+            course.setActive(false);
+        }
+        return course;
+    }
+
+    static Instructor instructor(String[] fields, int offset) {
+        return fields[offset].isEmpty() ? null : new Instructor(fields[offset], fields[offset + 1],
+            fields[offset + 2], fields[offset + 3], fields[offset + 4]);
+    }
+
+    /**
+     * Decodes enrollment rows, sharing one student and one course object
+     * per ID among them. Students and courses the caller already holds are
+     * used as they are.
+     */
+    static List<Enrollment> enrollments(Collection<List<String>> rowsPerShard, Student student,
+            Course course) {
+        Map<String, Student> students = new HashMap<>();
+        Map<String, Course> courses = new HashMap<>();
+        if (student != null) {
+            students.put(student.getId(), student);
+        }
+        if (course != null) {
+            courses.put(course.getCode(), course);
+        }
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (List<String> rows : rowsPerShard) {
+            for (String row : rows) {
+                String[] fields = WireRows.split(row);
+                int s = WireRows.ENROLLMENT_STUDENT_OFFSET;
+                Student owner = students.computeIfAbsent(fields[0], id -> new RemoteStudent(id,
+                    fields[s], fields[s + 1], fields[s + 2], Boolean.parseBoolean(fields[s + 3]), null));
+                Course enrolled = courses.computeIfAbsent(fields[1],
+                    code -> course(fields, WireRows.ENROLLMENT_COURSE_OFFSET));
+                enrollments.add(new Enrollment(owner, enrolled, WireRows.parseDateTime(fields[2]),
+                    Enrollment.EnrollmentStatus.valueOf(fields[3]),
+                    fields[4].isEmpty() ? null : Grade.valueOf(fields[4]),
+                    WireRows.parseDateTime(fields[5]), WireRows.parseDateTime(fields[6])));
+            }
+        }
+        return enrollments;
+    }
+
+    static CourseStats courseStats(String row) {
+        String[] fields = WireRows.split(row);
+        GradeDistribution grades = new GradeDistribution();
+        for (int i = 0; i < GRADES.length; i++) {
+            grades.add(GRADES[i], Long.parseLong(fields[6 + i]));
+        }
+        return new CourseStats(fields[0], fields[1], fields[2].isEmpty() ? null : fields[2],
+            Boolean.parseBoolean(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]), grades);
+    }
+}
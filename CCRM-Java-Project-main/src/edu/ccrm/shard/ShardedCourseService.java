@@ -0,0 +1,195 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.DataChangeListener;
+import edu.ccrm.service.PrerequisiteGraph;
+import edu.ccrm.wire.WireCommand;
+import edu.ccrm.wire.WireProtocol.Filter;
+import edu.ccrm.wire.WireRows;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Course service of a shard router. A course lives on the shard of its
+ * department, so queries by department go to one shard and the rest are
+ * gathered from all of them.
+ */
+public class ShardedCourseService implements CourseService {
+    private final ShardRouter router;
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ShardedCourseService(ShardRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public Course findById(String code) {
+        List<Course> courses = find(Filter.ID, code);
+        return courses.isEmpty() ? null : courses.get(0);
+    }
+
+    /**
+     * Saves the course on its department's shard. A course cannot change to
+     * a department on another shard, since its enrollments would stay behind.
+     */
+    @Override
+    public Course save(Course course) {
+        int shard = router.shardFor(course.getDepartment());
+        int current = locate(course.getCode());
+        if (current >= 0 && current != shard) {
+            throw new IllegalArgumentException("Course " + course.getCode() + " is on shard " + current
+                + " and cannot move to department " + course.getDepartment() + " on shard " + shard);
+        }
+        router.check(router.execute(shard, WireCommand.saveCourse(WireRows.course(course))));
+        listeners.forEach(listener -> listener.courseSaved(course));
+        return course;
+    }
+
+    @Override
+    public void delete(String code) {
+        Course removed = listeners.isEmpty() ? null : findById(code);
+        router.broadcast(WireCommand.deleteCourse(code)).forEach(router::check);
+        if (removed != null) {
+            listeners.forEach(listener -> listener.courseDeleted(removed));
+        }
+    }
+
+    @Override
+    public boolean exists(String code) {
+        return locate(code) >= 0;
+    }
+
+    @Override
+    public List<Course> findAll() {
+        return find(Filter.ALL, "");
+    }
+
+    /**
+     * Applies the predicate in the router to every course
+     */
+    @Override
+    public List<Course> findByPredicate(Predicate<Course> predicate) {
+        return findAll().stream()
+            .filter(predicate)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Course> findModifiedSince(LocalDateTime since) {
+        return find(Filter.MODIFIED_SINCE, since.toString());
+    }
+
+    @Override
+    public List<String> findDeletedSince(LocalDateTime since) {
+        List<String> deleted = new ArrayList<>();
+        router.queryAll(WireCommand.findCourses(Filter.DELETED_SINCE, since.toString()))
+            .forEach(deleted::addAll);
+        return deleted;
+    }
+
+    @Override
+    public long count() {
+        return router.broadcast(WireCommand.count("courses")).stream()
+            .mapToLong(result -> (long) router.check(result).value())
+            .sum();
+    }
+
+    @Override
+    public List<Course> findByInstructor(Instructor instructor) {
+        return find(Filter.INSTRUCTOR, instructor.getId()).stream()
+            .filter(Course::isActive)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Course> findByDepartment(String department) {
+        List<String> rows = router.query(router.shardFor(department),
+            WireCommand.findCourses(Filter.DEPARTMENT, department));
+        return ShardRows.courses(List.of(rows));
+    }
+
+    @Override
+    public List<Course> findBySemester(Semester semester) {
+        return find(Filter.SEMESTER, semester.name());
+    }
+
+    @Override
+    public void assignInstructor(String courseCode, Instructor instructor) {
+        // Only the course's shard has it; the others answer not found
+        router.broadcast(WireCommand.assignInstructor(courseCode, WireRows.instructor(instructor)))
+            .forEach(router::check);
+        notifySaved(courseCode);
+    }
+
+    @Override
+    public void deactivateCourse(String code) {
+        router.broadcast(WireCommand.deactivateCourse(code)).forEach(router::check);
+        notifySaved(code);
+    }
+
+    /**
+     * Checks for a cycle across all shards, then saves the course on its
+     * shard, which checks again against the courses it holds
+     */
+    @Override
+    public void setPrerequisites(String courseCode, Collection<String> prerequisites) {
+        Course course = findById(courseCode);
+        if (course != null) {
+            getPrerequisiteGraph().update(courseCode, prerequisites);
+            course.setPrerequisites(prerequisites);
+            save(course);
+        }
+    }
+
+    /**
+     * A graph built from every shard's courses as they are now; later
+     * changes do not reach it
+     */
+    @Override
+    public PrerequisiteGraph getPrerequisiteGraph() {
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        findAll().forEach(course -> graph.update(course.getCode(), course.getPrerequisites()));
+        return graph;
+    }
+
+    /**
+     * Listeners hear of changes made through this router only, not of
+     * changes other routers or clients make on the shards
+     */
+    @Override
+    public void addChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Shard holding the course, or -1 if none does
+     */
+    private int locate(String code) {
+        List<List<String>> rows = router.queryAll(WireCommand.findCourses(Filter.ID, code));
+        for (int shard = 0; shard < rows.size(); shard++) {
+            if (!rows.get(shard).isEmpty()) {
+                return shard;
+            }
+        }
+        return -1;
+    }
+
+    private List<Course> find(Filter filter, String value) {
+        return ShardRows.courses(router.queryAll(WireCommand.findCourses(filter, value)));
+    }
+
+    private void notifySaved(String code) {
+        Course course = listeners.isEmpty() ? null : findById(code);
+        if (course != null) {
+            listeners.forEach(listener -> listener.courseSaved(course));
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import edu.ccrm.service.DataChangeListener;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.wire.WireCommand;
+import edu.ccrm.wire.WireProtocol.Filter;
+import edu.ccrm.wire.WireProtocol.Status;
+import edu.ccrm.wire.WireResult;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Enrollment service of a shard router. An enrollment lives on the shard
+ * of its course's department, so changes and per-course queries go to
+ * one shard, while a student's enrollments are gathered from all.
+ *
+ * The credit limit spans shards: enrolling adds up the student's credits
+ * on every shard before the course's shard takes the enrollment. The
+ * router serializes enrollments per student, so the limit holds for all
+ * clients that enroll through the same router.
+ *
+ * Prerequisites do not: the course's shard checks them against the
+ * courses and grades it holds, so a course's prerequisites must be in
+ * departments on the same shard.
+ */
+public class ShardedEnrollmentService implements EnrollmentService {
+    private static final OperationTimer ENROLL_TIMER = MetricsRegistry.getInstance().timer("shard.enroll");
+    private static final int LOCK_STRIPES = 256;
+
+    private final ShardRouter router;
+    private final Object[] studentLocks = new Object[LOCK_STRIPES];
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ShardedEnrollmentService(ShardRouter router) {
+        this.router = router;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            studentLocks[i] = new Object();
+        }
+    }
+
+    @Override
+    public List<Enrollment> findAll() {
+        return ShardRows.enrollments(router.queryAll(WireCommand.findEnrollments(Filter.ALL, "", "")),
+            null, null);
+    }
+
+    /**
+     * Applies the predicate in the router to every enrollment
+     */
+    @Override
+    public List<Enrollment> findByPredicate(Predicate<Enrollment> predicate) {
+        return findAll().stream()
+            .filter(predicate)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Enrollment> findModifiedSince(LocalDateTime since) {
+        return ShardRows.enrollments(router.queryAll(
+            WireCommand.findEnrollments(Filter.MODIFIED_SINCE, since.toString(), "")), null, null);
+    }
+
+    @Override
+    public List<String> findDeletedSince(LocalDateTime since) {
+        // Only a restore deletes enrollments, and shards keep their own backups
+        return List.of();
+    }
+
+    @Override
+    public long count() {
+        return router.broadcast(WireCommand.count("enrollments")).stream()
+            .mapToLong(result -> (long) router.check(result).value())
+            .sum();
+    }
+
+    @Override
+    public Enrollment enroll(Student student, Course course)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException,
+            PrerequisiteNotMetException {
+        long start = ENROLL_TIMER.start();
+        int owner = router.shardFor(course.getDepartment());
+        try {
+            synchronized (studentLocks[Math.floorMod(student.getId().hashCode(), LOCK_STRIPES)]) {
+                // One round trip asks every shard for the semester's credits and the
+                // course's shard whether the student is already enrolled
+                WireCommand credits = WireCommand.currentCredits(student.getId(), course.getSemester());
+                WireCommand existing = WireCommand.findEnrollments(Filter.STUDENT_COURSE, student.getId(),
+                    course.getCode());
+                List<List<WireResult>> replies = router.scatter(shard -> router.executeAll(shard,
+                    shard == owner ? List.of(credits, existing) : List.of(credits)));
+                if (!router.check(replies.get(owner).get(1)).rows().isEmpty()) {
+                    throw new DuplicateEnrollmentException("Student is already enrolled in this course");
+                }
+                int currentCredits = 0;
+                for (List<WireResult> reply : replies) {
+                    WireResult result = router.check(reply.get(0));
+                    currentCredits += result.isOk() ? (int) result.value() : 0;
+                }
+                if (currentCredits + course.getCredits() > MAX_CREDITS_PER_SEMESTER) {
+                    throw new MaxCreditLimitExceededException(
+                        String.format("Enrolling in this course would exceed the maximum of %d credits "
+                            + "per semester", MAX_CREDITS_PER_SEMESTER));
+                }
+
+                WireResult result = router.execute(owner,
+                    WireCommand.enroll(student.getId(), course.getCode()));
+                if (result.status() == Status.DUPLICATE) {
+                    throw new DuplicateEnrollmentException(result.message());
+                }
+                if (result.status() == Status.CREDIT_LIMIT) {
+                    throw new MaxCreditLimitExceededException(result.message());
+                }
+                if (result.status() == Status.PREREQUISITE) {
+                    throw new PrerequisiteNotMetException(result.message());
+                }
+                if (result.status() == Status.NOT_FOUND) {
+                    throw new IllegalArgumentException(result.message());
+                }
+                router.check(result);
+                Enrollment enrollment = new Enrollment(student, course);
+                listeners.forEach(listener -> listener.enrolled(enrollment));
+                return enrollment;
+            }
+        } finally {
+            ENROLL_TIMER.stop(start);
+        }
+    }
+
+    @Override
+    public void withdraw(Student student, Course course) {
+        int owner = router.shardFor(course.getDepartment());
+        WireResult result = router.execute(owner, WireCommand.withdraw(student.getId(), course.getCode()));
+        if (result.isOk() && !listeners.isEmpty()) {
+            Enrollment enrollment = findEnrollment(student, course);
+            if (enrollment != null) {
+                listeners.forEach(listener -> listener.withdrawn(enrollment));
+            }
+        } else {
+            router.check(result);
+        }
+    }
+
+    @Override
+    public void assignGrade(Student student, Course course, Grade grade) {
+        int owner = router.shardFor(course.getDepartment());
+        Enrollment before = listeners.isEmpty() ? null : findEnrollment(student, course);
+        WireResult result = router.execute(owner,
+            WireCommand.assignGrade(student.getId(), course.getCode(), grade));
+        router.check(result);
+        if (result.isOk() && before != null) {
+            Grade previousGrade = before.getGrade();
+            Enrollment.EnrollmentStatus previousStatus = before.getStatus();
+            before.setGrade(grade);
+            listeners.forEach(listener -> listener.gradeAssigned(before, previousGrade, previousStatus));
+        }
+    }
+
+    /**
+     * Installs the enrollment on its course's shard, which runs none of the
+     * enrollment checks
+     */
+    @Override
+    public Enrollment restoreEnrollment(Student student, Course course, LocalDateTime enrollmentDate,
+            Enrollment.EnrollmentStatus status, Grade grade) {
+        WireResult result = router.execute(router.shardFor(course.getDepartment()),
+            WireCommand.restoreEnrollment(student.getId(), course.getCode(), enrollmentDate, status, grade));
+        if (result.status() == Status.NOT_FOUND) {
+            throw new IllegalArgumentException(result.message());
+        }
+        router.check(result);
+        Enrollment enrollment = findEnrollment(student, course);
+        listeners.forEach(listener -> listener.enrolled(enrollment));
+        return enrollment;
+    }
+
+    @Override
+    public Enrollment findEnrollment(Student student, Course course) {
+        List<String> rows = router.query(router.shardFor(course.getDepartment()),
+            WireCommand.findEnrollments(Filter.STUDENT_COURSE, student.getId(), course.getCode()));
+        List<Enrollment> enrollments = ShardRows.enrollments(List.of(rows), student, course);
+        return enrollments.isEmpty() ? null : enrollments.get(0);
+    }
+
+    /**
+     * Gathers the student's enrollments from every shard
+     */
+    @Override
+    public List<Enrollment> findByStudent(Student student) {
+        return ShardRows.enrollments(router.queryAll(
+            WireCommand.findEnrollments(Filter.STUDENT, student.getId(), "")), student, null);
+    }
+
+    @Override
+    public List<Enrollment> findByCourse(Course course) {
+        List<String> rows = router.query(router.shardFor(course.getDepartment()),
+            WireCommand.findEnrollments(Filter.COURSE, course.getCode(), ""));
+        return ShardRows.enrollments(List.of(rows), null, course);
+    }
+
+    @Override
+    public List<Enrollment> findByStudentAndSemester(Student student, Semester semester) {
+        return findByStudent(student).stream()
+            .filter(e -> e.getCourse().getSemester() == semester)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public double calculateGpa(Student student, Semester semester) {
+        double totalPoints = 0.0;
+        int totalCredits = 0;
+        for (Enrollment enrollment : findByStudentAndSemester(student, semester)) {
+            if (enrollment.getGrade() != null) {
+                int credits = enrollment.getCourse().getCredits();
+                totalPoints += enrollment.getGrade().getPoints() * credits;
+                totalCredits += credits;
+            }
+        }
+        return totalCredits > 0 ? totalPoints / totalCredits : 0.0;
+    }
+
+    /**
+     * Walks the course's prerequisites across shards and looks each one up
+     * among the courses the student has passed on any shard
+     */
+    @Override
+    public boolean hasPassedPrerequisites(Student student, Course course) {
+        Set<String> passed = findByStudent(student).stream()
+            .filter(enrollment -> enrollment.getGrade() != null && enrollment.getGrade().isPassing())
+            .map(enrollment -> enrollment.getCourse().getCode())
+            .collect(Collectors.toSet());
+        Set<String> seen = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(course.getPrerequisites());
+        while (!pending.isEmpty()) {
+            String code = pending.pop();
+            if (!seen.add(code)) {
+                continue;
+            }
+            if (!passed.contains(code)) {
+                return false;
+            }
+            ShardRows.courses(router.queryAll(WireCommand.findCourses(Filter.ID, code)))
+                .forEach(prerequisite -> pending.addAll(prerequisite.getPrerequisites()));
+        }
+        return true;
+    }
+
+    /**
+     * The student's active credits in the semester, added up over every shard
+     */
+    @Override
+    public int getCurrentCredits(Student student, Semester semester) {
+        return router.broadcast(WireCommand.currentCredits(student.getId(), semester)).stream()
+            .map(router::check)
+            .filter(WireResult::isOk)
+            .mapToInt(result -> (int) result.value())
+            .sum();
+    }
+
+    /**
+     * Listeners hear of changes made through this router only, not of
+     * changes other routers or clients make on the shards
+     */
+    @Override
+    public void addChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+}
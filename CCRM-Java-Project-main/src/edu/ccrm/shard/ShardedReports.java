@@ -0,0 +1,67 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.domain.Student;
+import edu.ccrm.report.CourseStats;
+import edu.ccrm.report.EnrollmentReport;
+import edu.ccrm.report.ReportEngine;
+import edu.ccrm.report.ReportSource;
+import edu.ccrm.report.ReportViews;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.wire.WireCommand;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports over a partitioned deployment. Each shard answers from its
+ * own report views for the courses it holds; the router adds them up by
+ * department. The GPA distribution is computed from the students'
+ * GPAs merged across shards, since a student's grades are spread over
+ * the shards of the departments they take courses in.
+ */
+public class ShardedReports implements ReportSource {
+    private final ShardRouter router;
+    private final StudentService studentService;
+
+    /**
+     * @param studentService the router's student service, whose students carry merged GPAs
+     */
+    public ShardedReports(ShardRouter router, StudentService studentService) {
+        this.router = router;
+        this.studentService = studentService;
+    }
+
+    @Override
+    public Map<String, Long> getGpaDistribution() {
+        long[] counts = new long[ReportViews.GPA_RANGES.size()];
+        for (Student student : studentService.findAll()) {
+            if (student.isActive()) {
+                counts[ReportViews.gpaBucket(student.getGpa())]++;
+            }
+        }
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            distribution.put(ReportViews.GPA_RANGES.get(i), counts[i]);
+        }
+        return distribution;
+    }
+
+    @Override
+    public EnrollmentReport getReport() {
+        List<CourseStats> courses = new ArrayList<>();
+        for (List<String> rows : router.queryAll(WireCommand.courseStats())) {
+            for (String row : rows) {
+                courses.add(ShardRows.courseStats(row));
+            }
+        }
+        return ReportEngine.assemble(courses);
+    }
+
+    @Override
+    public long countActiveEnrollments(Student student) {
+        return student instanceof RemoteStudent remote
+            ? remote.getActiveEnrollments()
+            : ReportSource.super.countActiveEnrollments(student);
+    }
+}
@@ -0,0 +1,192 @@
+package edu.ccrm.shard;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.DataChangeListener;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.wire.WireCommand;
+import edu.ccrm.wire.WireProtocol.Filter;
+import edu.ccrm.wire.WireResult;
+import edu.ccrm.wire.WireRows;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Student service of a shard router. Every shard holds every student, so
+ * changes go to all shards and identity lookups could be answered by any
+ * one; reads that need a GPA ask all of them, because each shard only
+ * holds the grades of its own departments' courses.
+ */
+public class ShardedStudentService implements StudentService {
+    private final ShardRouter router;
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ShardedStudentService(ShardRouter router) {
+        this.router = router;
+    }
+
+    /**
+     * The student with its GPA and current enrollments from every shard
+     */
+    @Override
+    public Student findById(String id) {
+        List<List<WireResult>> replies = router.scatter(shard -> router.executeAll(shard, List.of(
+            WireCommand.findStudents(Filter.ID, id),
+            WireCommand.findEnrollments(Filter.STUDENT, id, ""))));
+        Map<String, RemoteStudent> merged = new LinkedHashMap<>();
+        for (List<WireResult> reply : replies) {
+            ShardRows.addStudents(merged, router.check(reply.get(0)).rows());
+        }
+        RemoteStudent student = merged.get(id);
+        if (student == null) {
+            return null;
+        }
+        List<List<String>> enrollmentRows = replies.stream()
+            .map(reply -> router.check(reply.get(1)).rows())
+            .collect(Collectors.toList());
+        for (Enrollment enrollment : ShardRows.enrollments(enrollmentRows, student, null)) {
+            // Like a stored student, hold the enrollments that were not withdrawn
+            if (enrollment.getStatus() != Enrollment.EnrollmentStatus.WITHDRAWN) {
+                student.addEnrollment(enrollment);
+            }
+        }
+        return student;
+    }
+
+    @Override
+    public Student save(Student student) {
+        WireCommand command = WireCommand.saveStudent(WireRows.student(student));
+        router.broadcast(command).forEach(router::check);
+        listeners.forEach(listener -> listener.studentSaved(student));
+        return student;
+    }
+
+    @Override
+    public void delete(String id) {
+        Student removed = listeners.isEmpty() ? null : findById(id);
+        router.broadcast(WireCommand.deleteStudent(id)).forEach(router::check);
+        if (removed != null) {
+            listeners.forEach(listener -> listener.studentDeleted(removed));
+        }
+    }
+
+    /**
+     * Asks the first shard, which like every shard holds all students
+     */
+    @Override
+    public boolean exists(String id) {
+        return !router.query(0, WireCommand.findStudents(Filter.ID, id)).isEmpty();
+    }
+
+    @Override
+    public List<Student> findAll() {
+        return find(Filter.ALL, "");
+    }
+
+    /**
+     * Applies the predicate in the router to every student
+     */
+    @Override
+    public List<Student> findByPredicate(Predicate<Student> predicate) {
+        return findAll().stream()
+            .filter(predicate)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Student> findModifiedSince(LocalDateTime since) {
+        return find(Filter.MODIFIED_SINCE, since.toString());
+    }
+
+    @Override
+    public List<String> findDeletedSince(LocalDateTime since) {
+        return router.query(0, WireCommand.findStudents(Filter.DELETED_SINCE, since.toString()));
+    }
+
+    @Override
+    public long count() {
+        return (long) router.check(router.execute(0, WireCommand.count("students"))).value();
+    }
+
+    @Override
+    public Student findByRegNo(String regNo) {
+        List<Student> students = find(Filter.REG_NO, regNo);
+        return students.isEmpty() ? null : students.get(0);
+    }
+
+    /**
+     * Active students enrolled in the department's courses. Those are all
+     * on the department's shard; the other shards only add to their GPAs.
+     */
+    @Override
+    public List<Student> findByDepartment(String department) {
+        int owner = router.shardFor(department);
+        Map<String, RemoteStudent> students = new LinkedHashMap<>();
+        ShardRows.addStudents(students, router.query(owner, WireCommand.findStudents(Filter.DEPARTMENT,
+            department)));
+        if (students.isEmpty()) {
+            return List.of();
+        }
+        List<WireCommand> lookups = students.keySet().stream()
+            .map(id -> WireCommand.findStudents(Filter.ID, id))
+            .collect(Collectors.toList());
+        List<List<WireResult>> replies = router.scatter(shard ->
+            shard == owner ? List.of() : router.executeAll(shard, lookups));
+        for (List<WireResult> reply : replies) {
+            for (WireResult result : reply) {
+                ShardRows.addStudents(students, router.check(result).rows());
+            }
+        }
+        return new ArrayList<>(students.values());
+    }
+
+    @Override
+    public double calculateAverageGpa() {
+        return findAll().stream()
+            .filter(Student::isActive)
+            .mapToDouble(Student::getGpa)
+            .average()
+            .orElse(0.0);
+    }
+
+    @Override
+    public List<Student> findTopPerformers(int limit) {
+        return findAll().stream()
+            .filter(Student::isActive)
+            .sorted(Comparator.comparingDouble(Student::getGpa).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deactivateStudent(String id) {
+        Student student = findById(id);
+        if (student != null) {
+            student.setActive(false);
+            save(student);
+        }
+    }
+
+    /**
+     * Listeners hear of changes made through this router only, not of
+     * changes other routers or clients make on the shards
+     */
+    @Override
+    public void addChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Students matching a filter on every shard, merged by ID
+     */
+    private List<Student> find(Filter filter, String value) {
+        return new ArrayList<>(ShardRows.students(router.queryAll(WireCommand.findStudents(filter, value))));
+    }
+}
@@ -1,10 +1,16 @@
 package edu.ccrm.util;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
 /**
@@ -12,6 +18,26 @@ import java.util.function.Predicate;
  * Demonstrates recursive operations and visitor pattern.
  */
 public class RecursiveFileUtil {
+    // Default number of threads doing file I/O at once in the parallel variants
+    public static final int DEFAULT_IO_PARALLELISM = 
+        Math.max(4, Runtime.getRuntime().availableProcessors());
+    // Directories with more files than this have their files split across tasks
+    private static final int FILE_BATCH_SIZE = 64;
+
+    /**
+     * How files are reproduced by the parallel copy
+     */
+    public enum CopyMode {
+        /** Copy file contents with zero-copy channel transfers */
+        COPY,
+        /**
+         * Hard link files where the filesystem allows it, copying otherwise.
+         * Only safe when neither tree is modified in place afterwards,
+         * such as for finished backups.
+         */
+        LINK
+    }
+
     private RecursiveFileUtil() {
         // Utility class, prevent instantiation
     }
@@ -38,16 +64,219 @@ public class RecursiveFileUtil {
      * Recursively calculates total size of files in a directory
      */
     public static long calculateTotalSize(Path directory) throws IOException {
-        return Files.walk(directory)
-            .filter(Files::isRegularFile)
-            .mapToLong(path -> {
-                try {
-                    return Files.size(path);
-                } catch (IOException e) {
-                    return 0L;
+        try (var paths = Files.walk(directory)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .mapToLong(path -> {
+                    try {
+                        return Files.size(path);
+                    } catch (IOException e) {
+                        return 0L;
+                    }
+                })
+                .sum();
+        }
+    }
+
+    /**
+     * Calculates total size of files in a directory, sizing subtrees in parallel
+     */
+    public static long parallelCalculateTotalSize(Path directory) throws IOException {
+        return parallelCalculateTotalSize(directory, DEFAULT_IO_PARALLELISM);
+    }
+
+    public static long parallelCalculateTotalSize(Path directory, int parallelism) 
+            throws IOException {
+        return invoke(parallelism, new DirectoryTask(directory,
+            dir -> { },
+            (file, attrs) -> attrs.isRegularFile() ? attrs.size() : 0L,
+            dir -> { }));
+    }
+
+    /**
+     * Copies a directory tree, copying subtrees in parallel. Returns the
+     * number of bytes copied or linked.
+     */
+    public static long parallelCopyDirectory(Path source, Path target, CopyMode mode) 
+            throws IOException {
+        return parallelCopyDirectory(source, target, mode, DEFAULT_IO_PARALLELISM);
+    }
+
+    public static long parallelCopyDirectory(Path source, Path target, CopyMode mode, 
+            int parallelism) throws IOException {
+        // Stop trying links after the first failure, e.g. across filesystems
+        AtomicBoolean linksSupported = new AtomicBoolean(mode == CopyMode.LINK);
+        return invoke(parallelism, new DirectoryTask(source,
+            dir -> Files.createDirectories(target.resolve(source.relativize(dir))),
+            (file, attrs) -> copyFile(file, target.resolve(source.relativize(file)), 
+                attrs, linksSupported),
+            dir -> { }));
+    }
+
+    /**
+     * Deletes a directory tree, deleting subtrees in parallel
+     */
+    public static void parallelDeleteDirectory(Path directory) throws IOException {
+        parallelDeleteDirectory(directory, DEFAULT_IO_PARALLELISM);
+    }
+
+    public static void parallelDeleteDirectory(Path directory, int parallelism) 
+            throws IOException {
+        invoke(parallelism, new DirectoryTask(directory,
+            dir -> { },
+            (file, attrs) -> {
+                Files.delete(file);
+                return 0L;
+            },
+            Files::delete));
+    }
+
+    private static long copyFile(Path source, Path target, BasicFileAttributes attrs,
+            AtomicBoolean linksSupported) throws IOException {
+        if (attrs.isSymbolicLink()) {
+            Files.copy(source, target, LinkOption.NOFOLLOW_LINKS, StandardCopyOption.REPLACE_EXISTING);
+            return 0L;
+        }
+        if (linksSupported.get()) {
+            try {
+                Files.deleteIfExists(target);
+                Files.createLink(target, source);
+                return attrs.size();
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                linksSupported.set(false);
+            }
+        }
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                 StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // transferTo may move fewer bytes than asked, so loop until done
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            return size;
+        }
+    }
+
+    private static long invoke(int parallelism, DirectoryTask task) throws IOException {
+        // A dedicated pool bounds how many threads block on file I/O at once
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            return pool.invoke(task);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface DirectoryOperation {
+        void apply(Path directory) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FileOperation {
+        long apply(Path file, BasicFileAttributes attrs) throws IOException;
+    }
+
+    /**
+     * Processes one directory: runs the pre-visit operation, forks a task per
+     * subdirectory and per batch of files, then runs the post-visit
+     * operation once the whole subtree is done. Symbolic links are treated
+     * as files and never followed.
+     */
+    @SuppressWarnings("serial")
+    private static final class DirectoryTask extends RecursiveTask<Long> {
+        private final Path directory;
+        private final DirectoryOperation preVisit;
+        private final FileOperation visitFile;
+        private final DirectoryOperation postVisit;
+
+        DirectoryTask(Path directory, DirectoryOperation preVisit, FileOperation visitFile,
+                DirectoryOperation postVisit) {
+            this.directory = directory;
+            this.preVisit = preVisit;
+            this.visitFile = visitFile;
+            this.postVisit = postVisit;
+        }
+
+        @Override
+        protected Long compute() {
+            try {
+                preVisit.apply(directory);
+                List<ForkJoinTask<Long>> subtasks = new ArrayList<>();
+                List<Path> files = new ArrayList<>();
+                List<BasicFileAttributes> fileAttrs = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                    for (Path entry : entries) {
+                        BasicFileAttributes attrs = Files.readAttributes(entry, 
+                            BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (attrs.isDirectory()) {
+                            subtasks.add(new DirectoryTask(entry, preVisit, visitFile, postVisit));
+                        } else {
+                            files.add(entry);
+                            fileAttrs.add(attrs);
+                        }
+                    }
                 }
-            })
-            .sum();
+                if (!files.isEmpty()) {
+                    subtasks.add(new FileBatchTask(files, fileAttrs, 0, files.size(), visitFile));
+                }
+
+                long total = 0;
+                for (ForkJoinTask<Long> subtask : invokeAll(subtasks)) {
+                    total += subtask.join();
+                }
+                postVisit.apply(directory);
+                return total;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Applies a file operation to a range of files, halving the range until
+     * it is small enough to process on one thread
+     */
+    @SuppressWarnings("serial")
+    private static final class FileBatchTask extends RecursiveTask<Long> {
+        private final List<Path> files;
+        private final List<BasicFileAttributes> attrs;
+        private final int from;
+        private final int to;
+        private final FileOperation operation;
+
+        FileBatchTask(List<Path> files, List<BasicFileAttributes> attrs, int from, int to,
+                FileOperation operation) {
+            this.files = files;
+            this.attrs = attrs;
+            this.from = from;
+            this.to = to;
+            this.operation = operation;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > FILE_BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                FileBatchTask left = new FileBatchTask(files, attrs, from, middle, operation);
+                FileBatchTask right = new FileBatchTask(files, attrs, middle, to, operation);
+                left.fork();
+                return right.compute() + left.join();
+            }
+            long total = 0;
+            try {
+                for (int i = from; i < to; i++) {
+                    total += operation.apply(files.get(i), attrs.get(i));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return total;
+        }
     }
 
     /**
@@ -0,0 +1,186 @@
+package edu.ccrm.wire;
+
+import edu.ccrm.wire.WireProtocol.Opcode;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reference client for {@link WireServer}. Commands can be sent one at a
+ * time, as one batch, or as a pipeline of batches with several requests
+ * in flight, which is how bulk jobs should use it. A client is not
+ * thread-safe; open one per thread.
+ */
+public class WireClient implements Closeable {
+    public static final int DEFAULT_BATCH_SIZE = 512;
+    public static final int DEFAULT_WINDOW = 16;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    private final SocketChannel channel;
+    // Kept in write mode
+    private ByteBuffer output = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    // Kept in read mode
+    private ByteBuffer input = ByteBuffer.allocate(INITIAL_BUFFER_BYTES).flip();
+    private int nextRequestId;
+
+    public WireClient(String host, int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    }
+
+    /**
+     * Sends one command and waits for its result
+     */
+    public WireResult execute(WireCommand command) throws IOException {
+        return executePipelined(List.of(command), 1, 1).get(0);
+    }
+
+    /**
+     * Sends the commands as a single batch request
+     */
+    public List<WireResult> executeBatch(List<WireCommand> commands) throws IOException {
+        return executePipelined(commands, commands.size(), 1);
+    }
+
+    /**
+     * Sends the commands in batches of {@code batchSize}, keeping up to
+     * {@code window} requests in flight, and returns one result per
+     * command in order. Results of rejected commands are returned, not
+     * thrown. The server stops reading from a client that has megabytes
+     * of unread responses, so keep {@code batchSize * window} to some
+     * thousands of commands.
+     *
+     * @throws ProtocolException if the server rejected a whole request
+     */
+    public List<WireResult> executePipelined(List<WireCommand> commands, int batchSize, int window)
+            throws IOException {
+        if (batchSize < 1 || batchSize > WireProtocol.MAX_BATCH_COMMANDS) {
+            throw new IllegalArgumentException("Batch size must be between 1 and "
+                + WireProtocol.MAX_BATCH_COMMANDS);
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be at least 1");
+        }
+        List<WireResult> results = new ArrayList<>(commands.size());
+        ArrayDeque<int[]> inFlight = new ArrayDeque<>(window);
+        int sent = 0;
+        while (results.size() < commands.size()) {
+            while (sent < commands.size() && inFlight.size() < window) {
+                int end = Math.min(commands.size(), sent + batchSize);
+                int requestId = nextRequestId++;
+                writeRequest(requestId, commands.subList(sent, end));
+                inFlight.add(new int[] {requestId, sent, end});
+                sent = end;
+            }
+            int[] request = inFlight.remove();
+            readResponse(request[0], commands.subList(request[1], request[2]), results);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeRequest(int requestId, List<WireCommand> commands) throws IOException {
+        int frameStart = output.position();
+        while (true) {
+            try {
+                output.putInt(0);
+                output.putInt(requestId);
+                if (commands.size() == 1) {
+                    commands.get(0).write(output);
+                } else {
+                    output.put(Opcode.BATCH.getCode());
+                    output.putInt(commands.size());
+                    for (WireCommand command : commands) {
+                        command.write(output);
+                    }
+                }
+                int length = output.position() - frameStart - Integer.BYTES;
+                if (length > WireProtocol.MAX_FRAME_BYTES) {
+                    output.position(frameStart);
+                    throw new IllegalArgumentException("Request of " + length + " bytes is too large");
+                }
+                output.putInt(frameStart, length);
+                return;
+            } catch (BufferOverflowException e) {
+                output.position(frameStart);
+                if (frameStart > 0) {
+                    // Send what is queued and encode this request at the start of the buffer
+                    flush();
+                    frameStart = 0;
+                } else {
+                    output = ByteBuffer.allocate(output.capacity() * 2);
+                }
+            }
+        }
+    }
+
+    private void readResponse(int requestId, List<WireCommand> commands, List<WireResult> results)
+            throws IOException {
+        ByteBuffer frame = nextFrame();
+        int responseId = frame.getInt();
+        if (responseId != requestId) {
+            throw new ProtocolException("Expected response " + requestId + " but got " + responseId);
+        }
+        int count = frame.getInt();
+        if (count != commands.size()) {
+            WireResult rejected = WireResult.read(frame, Opcode.PING);
+            throw new ProtocolException("Request rejected: " + rejected.message());
+        }
+        for (WireCommand command : commands) {
+            results.add(WireResult.read(frame, command.opcode()));
+        }
+    }
+
+    /**
+     * Reads until a whole response frame is buffered, sending queued
+     * requests first so the server has something to answer
+     */
+    private ByteBuffer nextFrame() throws IOException {
+        while (true) {
+            if (input.remaining() >= Integer.BYTES) {
+                int length = input.getInt(input.position());
+                if (length < 0 || length > WireProtocol.MAX_FRAME_BYTES) {
+                    throw new ProtocolException("Invalid frame length " + length);
+                }
+                if (input.remaining() >= Integer.BYTES + length) {
+                    ByteBuffer frame = input.slice(input.position() + Integer.BYTES, length);
+                    input.position(input.position() + Integer.BYTES + length);
+                    return frame;
+                }
+                if (input.capacity() < Integer.BYTES + length) {
+                    ByteBuffer larger = ByteBuffer.allocate(Integer.BYTES + length);
+                    larger.put(input).flip();
+                    input = larger;
+                }
+            }
+            flush();
+            input.compact();
+            int read = channel.read(input);
+            input.flip();
+            if (read < 0) {
+                throw new EOFException("Connection closed by server");
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        output.clear();
+    }
+}
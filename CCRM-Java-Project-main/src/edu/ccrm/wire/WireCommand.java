@@ -0,0 +1,213 @@
+package edu.ccrm.wire;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.wire.WireProtocol.Filter;
+import edu.ccrm.wire.WireProtocol.Opcode;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One operation carried by the binary protocol: an opcode and its string
+ * arguments. Create commands with the factory methods, which put the
+ * arguments in the order the server expects.
+ */
+public record WireCommand(Opcode opcode, List<String> arguments) {
+    private static final WireCommand PING = new WireCommand(Opcode.PING, List.of());
+
+    public WireCommand {
+        if (opcode == Opcode.BATCH) {
+            throw new IllegalArgumentException("A batch is not a command");
+        }
+        if (arguments.size() != opcode.getArity()) {
+            throw new IllegalArgumentException(opcode + " takes " + opcode.getArity() + " arguments");
+        }
+        arguments = List.copyOf(arguments);
+    }
+
+    public static WireCommand ping() {
+        return PING;
+    }
+
+    public static WireCommand enroll(String studentId, String courseCode) {
+        return new WireCommand(Opcode.ENROLL, List.of(studentId, courseCode));
+    }
+
+    public static WireCommand withdraw(String studentId, String courseCode) {
+        return new WireCommand(Opcode.WITHDRAW, List.of(studentId, courseCode));
+    }
+
+    public static WireCommand assignGrade(String studentId, String courseCode, Grade grade) {
+        return new WireCommand(Opcode.ASSIGN_GRADE, List.of(studentId, courseCode, grade.name()));
+    }
+
+    /**
+     * Installs an enrollment as recorded, without the checks {@code ENROLL} makes
+     *
+     * @param grade null if the enrollment has none
+     */
+    public static WireCommand restoreEnrollment(String studentId, String courseCode, LocalDateTime enrollmentDate,
+            Enrollment.EnrollmentStatus status, Grade grade) {
+        return new WireCommand(Opcode.RESTORE_ENROLLMENT, List.of(studentId, courseCode,
+            enrollmentDate.toString(), status.name(), grade != null ? grade.name() : ""));
+    }
+
+    public static WireCommand addStudent(String studentId, String regNo, String fullName, String email) {
+        return new WireCommand(Opcode.ADD_STUDENT, List.of(studentId, regNo, fullName, email));
+    }
+
+    public static WireCommand deactivateStudent(String studentId) {
+        return new WireCommand(Opcode.DEACTIVATE_STUDENT, List.of(studentId));
+    }
+
+    public static WireCommand getGpa(String studentId) {
+        return new WireCommand(Opcode.GET_GPA, List.of(studentId));
+    }
+
+    /**
+     * Creates or updates a student from a {@link WireRows#student} row
+     */
+    public static WireCommand saveStudent(String row) {
+        return new WireCommand(Opcode.SAVE_STUDENT, List.of(row));
+    }
+
+    public static WireCommand deleteStudent(String studentId) {
+        return new WireCommand(Opcode.DELETE_STUDENT, List.of(studentId));
+    }
+
+    /**
+     * Creates or updates a course from a {@link WireRows#course} row
+     */
+    public static WireCommand saveCourse(String row) {
+        return new WireCommand(Opcode.SAVE_COURSE, List.of(row));
+    }
+
+    public static WireCommand deleteCourse(String courseCode) {
+        return new WireCommand(Opcode.DELETE_COURSE, List.of(courseCode));
+    }
+
+    public static WireCommand deactivateCourse(String courseCode) {
+        return new WireCommand(Opcode.DEACTIVATE_COURSE, List.of(courseCode));
+    }
+
+    /**
+     * Assigns the instructor in a {@link WireRows#instructor} row to a course
+     */
+    public static WireCommand assignInstructor(String courseCode, String instructorRow) {
+        return new WireCommand(Opcode.ASSIGN_INSTRUCTOR, List.of(courseCode, instructorRow));
+    }
+
+    public static WireCommand findStudents(Filter filter, String value) {
+        return new WireCommand(Opcode.FIND_STUDENTS, List.of(filter.name(), value));
+    }
+
+    public static WireCommand findCourses(Filter filter, String value) {
+        return new WireCommand(Opcode.FIND_COURSES, List.of(filter.name(), value));
+    }
+
+    /**
+     * @param second course code for {@link Filter#STUDENT_COURSE}, otherwise empty
+     */
+    public static WireCommand findEnrollments(Filter filter, String value, String second) {
+        return new WireCommand(Opcode.FIND_ENROLLMENTS, List.of(filter.name(), value, second));
+    }
+
+    /**
+     * Next page of the query that returned the cursor
+     */
+    public static WireCommand fetch(int cursor) {
+        return new WireCommand(Opcode.FETCH, List.of(String.valueOf(cursor)));
+    }
+
+    /**
+     * @param records {@code students}, {@code courses} or {@code enrollments}
+     */
+    public static WireCommand count(String records) {
+        return new WireCommand(Opcode.COUNT, List.of(records));
+    }
+
+    public static WireCommand currentCredits(String studentId, Semester semester) {
+        return new WireCommand(Opcode.CURRENT_CREDITS, List.of(studentId, semester.name()));
+    }
+
+    /**
+     * Per-course enrollment statistics as {@link WireRows#courseStats} rows
+     */
+    public static WireCommand courseStats() {
+        return new WireCommand(Opcode.COURSE_STATS, List.of());
+    }
+
+    /**
+     * Entries of the primary's replication log after the given one
+     *
+     * @param logId identity of the log the sequence number belongs to, empty if none
+     */
+    public static WireCommand replicate(String logId, long afterSequence) {
+        return new WireCommand(Opcode.REPLICATE, List.of(logId, String.valueOf(afterSequence)));
+    }
+
+    /**
+     * All data as commands that recreate it, with the replication log position it matches
+     */
+    public static WireCommand checkpoint() {
+        return new WireCommand(Opcode.CHECKPOINT, List.of());
+    }
+
+    public String argument(int index) {
+        return arguments.get(index);
+    }
+
+    /**
+     * Student ID of a student or enrollment command
+     */
+    public String studentId() {
+        return arguments.get(0);
+    }
+
+    /**
+     * Course code of an enrollment command
+     */
+    public String courseCode() {
+        return arguments.get(1);
+    }
+
+    /**
+     * Grade of an {@code ASSIGN_GRADE} command
+     */
+    public Grade grade() {
+        return Grade.valueOf(arguments.get(2));
+    }
+
+    /**
+     * Writes the opcode and the arguments
+     */
+    void write(ByteBuffer buffer) {
+        buffer.put(opcode.getCode());
+        for (String argument : arguments) {
+            WireProtocol.putString(buffer, argument);
+        }
+    }
+
+    /**
+     * Reads a command written by {@link #write}
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid command
+     */
+    static WireCommand read(ByteBuffer buffer) {
+        Opcode opcode = Opcode.of(buffer.get());
+        if (opcode == Opcode.BATCH) {
+            throw new IllegalArgumentException("Batches cannot be nested");
+        }
+        if (opcode.getArity() == 0) {
+            return opcode == Opcode.PING ? PING : new WireCommand(opcode, List.of());
+        }
+        List<String> arguments = new ArrayList<>(opcode.getArity());
+        for (int i = 0; i < opcode.getArity(); i++) {
+            arguments.add(WireProtocol.getString(buffer));
+        }
+        return new WireCommand(opcode, arguments);
+    }
+}
@@ -0,0 +1,237 @@
+package edu.ccrm.wire;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.exception.PrerequisiteNotMetException;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.wire.WireProtocol.Opcode;
+import edu.ccrm.wire.WireProtocol.Status;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Applies the commands of the binary protocol to a set of services. The
+ * {@link WireServer} runs its clients' commands through it, and a read
+ * replica applies its primary's log with it. Queries are not executed
+ * here, since their results are paged on a connection.
+ */
+public class WireExecutor {
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+
+    public WireExecutor(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+    }
+
+    /**
+     * Executes one command against the services. Rejections, including
+     * commands that need a connection, come back as results.
+     */
+    public WireResult execute(WireCommand command) {
+        try {
+            return switch (command.opcode()) {
+                case PING -> WireResult.OK;
+                case ENROLL -> {
+                    Student student = student(command.studentId());
+                    Course course = course(command.courseCode());
+                    if (student == null || course == null) {
+                        yield notFound(command, student, course);
+                    }
+                    try {
+                        enrollmentService.enroll(student, course);
+                        yield WireResult.OK;
+                    } catch (DuplicateEnrollmentException e) {
+                        yield WireResult.failed(Status.DUPLICATE, e.getMessage());
+                    } catch (MaxCreditLimitExceededException e) {
+                        yield WireResult.failed(Status.CREDIT_LIMIT, e.getMessage());
+                    } catch (PrerequisiteNotMetException e) {
+                        yield WireResult.failed(Status.PREREQUISITE, e.getMessage());
+                    }
+                }
+                case WITHDRAW, ASSIGN_GRADE -> {
+                    Grade grade = command.opcode() == Opcode.ASSIGN_GRADE ? command.grade() : null;
+                    Student student = student(command.studentId());
+                    Course course = course(command.courseCode());
+                    if (student == null || course == null) {
+                        yield notFound(command, student, course);
+                    }
+                    if (enrollmentService.findEnrollment(student, course) == null) {
+                        yield WireResult.failed(Status.NOT_FOUND, "Enrollment of " + command.studentId()
+                            + " in " + command.courseCode() + " not found");
+                    }
+                    if (grade == null) {
+                        enrollmentService.withdraw(student, course);
+                    } else {
+                        enrollmentService.assignGrade(student, course, grade);
+                    }
+                    yield WireResult.OK;
+                }
+                case RESTORE_ENROLLMENT -> {
+                    Student student = student(command.studentId());
+                    Course course = course(command.courseCode());
+                    if (student == null || course == null) {
+                        yield notFound(command, student, course);
+                    }
+                    enrollmentService.restoreEnrollment(student, course, LocalDateTime.parse(command.argument(2)),
+                        Enrollment.EnrollmentStatus.valueOf(command.argument(3)),
+                        command.argument(4).isEmpty() ? null : Grade.valueOf(command.argument(4)));
+                    yield WireResult.OK;
+                }
+                case ADD_STUDENT -> {
+                    if (studentService.exists(command.studentId())) {
+                        yield WireResult.failed(Status.DUPLICATE,
+                            "Student " + command.studentId() + " already exists");
+                    }
+                    studentService.save(new Student(command.studentId(), command.argument(2),
+                        command.argument(3), command.argument(1)));
+                    yield WireResult.OK;
+                }
+                case DEACTIVATE_STUDENT -> {
+                    if (!studentService.exists(command.studentId())) {
+                        yield notFound(command, null, null);
+                    }
+                    studentService.deactivateStudent(command.studentId());
+                    yield WireResult.OK;
+                }
+                case GET_GPA -> {
+                    Student student = student(command.studentId());
+                    yield student != null
+                        ? WireResult.value(student.getGpa())
+                        : notFound(command, null, null);
+                }
+                case SAVE_STUDENT -> {
+                    saveStudent(WireRows.split(command.argument(0)));
+                    yield WireResult.OK;
+                }
+                case DELETE_STUDENT -> {
+                    studentService.delete(command.argument(0));
+                    yield WireResult.OK;
+                }
+                case SAVE_COURSE -> {
+                    saveCourse(WireRows.split(command.argument(0)));
+                    yield WireResult.OK;
+                }
+                case DELETE_COURSE -> {
+                    courseService.delete(command.argument(0));
+                    yield WireResult.OK;
+                }
+                case DEACTIVATE_COURSE, ASSIGN_INSTRUCTOR -> {
+                    String code = command.argument(0);
+                    if (!courseService.exists(code)) {
+                        yield WireResult.failed(Status.NOT_FOUND, "Course " + code + " not found");
+                    }
+                    if (command.opcode() == Opcode.DEACTIVATE_COURSE) {
+                        courseService.deactivateCourse(code);
+                    } else {
+                        Instructor instructor = instructor(WireRows.split(command.argument(1)), 0);
+                        courseService.assignInstructor(code, instructor);
+                    }
+                    yield WireResult.OK;
+                }
+                case COUNT -> switch (command.argument(0)) {
+                    case "students" -> WireResult.value(studentService.count());
+                    case "courses" -> WireResult.value(courseService.count());
+                    case "enrollments" -> WireResult.value(enrollmentService.count());
+                    default -> WireResult.failed(Status.BAD_REQUEST,
+                        "Unknown records " + command.argument(0));
+                };
+                case CURRENT_CREDITS -> {
+                    Semester semester = Semester.valueOf(command.argument(1));
+                    Student student = student(command.studentId());
+                    yield student != null
+                        ? WireResult.value(enrollmentService.getCurrentCredits(student, semester))
+                        : notFound(command, null, null);
+                }
+                case FIND_STUDENTS, FIND_COURSES, FIND_ENROLLMENTS, FETCH, COURSE_STATS, REPLICATE,
+                        CHECKPOINT ->
+                    WireResult.failed(Status.BAD_REQUEST, command.opcode() + " needs a connection");
+                case BATCH -> WireResult.failed(Status.BAD_REQUEST, "Batches cannot be nested");
+            };
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            return WireResult.failed(Status.BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            return WireResult.failed(Status.ERROR, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a student from a row or updates the stored one, as an import does
+     */
+    private void saveStudent(String[] row) {
+        Student existing = student(row[0]);
+        boolean active = Boolean.parseBoolean(row[4]);
+        if (existing == null) {
+            Student student = new Student(row[0], row[2], row[3], row[1], LocalDate.parse(row[5]));
+            if (!active) {
+                student.setActive(false);
+            }
+            studentService.save(student);
+            return;
+        }
+        existing.setFullName(row[2]);
+        existing.setEmail(row[3]);
+        existing.setActive(active);
+        studentService.save(existing);
+    }
+
+    /**
+     * Creates a course from a row or updates the stored one in place
+     */
+    private void saveCourse(String[] row) {
+        Semester semester = row[4].isEmpty() ? null : Semester.valueOf(row[4]);
+        int credits = Integer.parseInt(row[2]);
+        Instructor instructor = instructor(row, 6);
+        List<String> prerequisites = WireRows.parsePrerequisites(row, 0);
+        Course course = course(row[0]);
+        if (course == null) {
+            course = new Course.Builder(row[0]).title(row[1]).credits(credits).department(row[3])
+                .semester(semester).instructor(instructor).prerequisites(prerequisites).build();
+        } else {
+            // First, so a cycle is rejected before anything changes; rows from
+            // older clients carry no prerequisites and leave them as they are
+            if (row.length > WireRows.COURSE_PREREQUISITES) {
+                courseService.setPrerequisites(row[0], prerequisites);
+            }
+            course.setTitle(row[1]);
+            course.setCredits(credits);
+            course.setDepartment(row[3]);
+            course.setSemester(semester);
+            course.setInstructor(instructor);
+        }
+        course.setActive(Boolean.parseBoolean(row[5]));
+        courseService.save(course);
+    }
+
+    private static Instructor instructor(String[] row, int offset) {
+        return row[offset].isEmpty() ? null : new Instructor(row[offset], row[offset + 1], row[offset + 2],
+            row[offset + 3], row[offset + 4]);
+    }
+
+    private Student student(String id) {
+        return studentService.findById(id);
+    }
+
+    private Course course(String code) {
+        return courseService.findById(code);
+    }
+
+    private static WireResult notFound(WireCommand command, Student student, Course course) {
+        return WireResult.failed(Status.NOT_FOUND, student == null
+            ? "Student " + command.studentId() + " not found"
+            : "Course " + command.courseCode() + " not found");
+    }
+}
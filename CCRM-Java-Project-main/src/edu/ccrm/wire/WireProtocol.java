@@ -0,0 +1,182 @@
+package edu.ccrm.wire;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary protocol for high-volume clients, the shard router and
+ * read replicas. Every message is a frame: a 4-byte big-endian length
+ * followed by that many bytes.
+ * <pre>
+ * request:  int requestId, byte opcode, the opcode's arguments as strings
+ *           int requestId, byte BATCH, int count, count x (byte opcode, arguments)
+ * response: int requestId, int count, count x result
+ * result:   byte status, then for OK a double if the opcode returns a value,
+ *           or a double cursor, int count and count x string if it returns rows;
+ *           for any other status a string message
+ * string:   unsigned short byte length, UTF-8 bytes
+ * </pre>
+ * A client may send any number of requests without waiting for the
+ * responses; they are answered in the order they were sent. The commands
+ * of a batch are applied one by one, each with its own result, so one
+ * rejected enrollment does not undo the others.
+ *
+ * Queries return their rows a page at a time. A result with a non-zero
+ * cursor has more rows, which {@code FETCH} with that cursor returns on
+ * the same connection. Row layouts are described in {@link WireRows}.
+ */
+public final class WireProtocol {
+    public static final int DEFAULT_PORT = 9090;
+    public static final int MAX_FRAME_BYTES = 1024 * 1024;
+    public static final int MAX_BATCH_COMMANDS = 16 * 1024;
+    static final int MAX_STRING_BYTES = 0xFFFF;
+    // Messages are for people, so long ones are cut short rather than bloating responses
+    static final int MAX_MESSAGE_CHARS = 200;
+    // Rows per query result, and characters of rows per response frame, keeping frames well under the limit
+    static final int PAGE_ROWS = 1000;
+    static final int PAGE_CHARS = 256 * 1024;
+
+    private WireProtocol() {
+    }
+
+    /**
+     * What an opcode returns besides its status
+     */
+    public enum Reply {
+        NONE,
+        VALUE,
+        ROWS
+    }
+
+    /**
+     * Operations a request can carry; the byte is the value on the wire
+     */
+    public enum Opcode {
+        PING(0, 0, Reply.NONE),
+        ENROLL(1, 2, Reply.NONE),
+        WITHDRAW(2, 2, Reply.NONE),
+        ASSIGN_GRADE(3, 3, Reply.NONE),
+        ADD_STUDENT(4, 4, Reply.NONE),
+        DEACTIVATE_STUDENT(5, 1, Reply.NONE),
+        GET_GPA(6, 1, Reply.VALUE),
+        BATCH(7, 0, Reply.NONE),
+        SAVE_STUDENT(8, 1, Reply.NONE),
+        DELETE_STUDENT(9, 1, Reply.NONE),
+        SAVE_COURSE(10, 1, Reply.NONE),
+        DELETE_COURSE(11, 1, Reply.NONE),
+        DEACTIVATE_COURSE(12, 1, Reply.NONE),
+        ASSIGN_INSTRUCTOR(13, 2, Reply.NONE),
+        FIND_STUDENTS(14, 2, Reply.ROWS),
+        FIND_COURSES(15, 2, Reply.ROWS),
+        FIND_ENROLLMENTS(16, 3, Reply.ROWS),
+        FETCH(17, 1, Reply.ROWS),
+        COUNT(18, 1, Reply.VALUE),
+        CURRENT_CREDITS(19, 2, Reply.VALUE),
+        COURSE_STATS(20, 0, Reply.ROWS),
+        REPLICATE(21, 2, Reply.ROWS),
+        CHECKPOINT(22, 0, Reply.ROWS),
+        RESTORE_ENROLLMENT(23, 5, Reply.NONE);
+
+        private static final Opcode[] BY_CODE = values();
+        private final byte code;
+        private final int arity;
+        private final Reply reply;
+
+        Opcode(int code, int arity, Reply reply) {
+            this.code = (byte) code;
+            this.arity = arity;
+            this.reply = reply;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+        /**
+         * Number of string arguments the command carries
+         */
+        public int getArity() {
+            return arity;
+        }
+
+        public Reply getReply() {
+            return reply;
+        }
+
+        static Opcode of(byte code) {
+            if (code < 0 || code >= BY_CODE.length) {
+                throw new IllegalArgumentException("Unknown opcode " + code);
+            }
+            return BY_CODE[code];
+        }
+    }
+
+    /**
+     * Selections the FIND commands accept as their first argument. Each
+     * FIND command supports the ones that make sense for its records.
+     */
+    public enum Filter {
+        ALL,
+        ID,
+        REG_NO,
+        DEPARTMENT,
+        SEMESTER,
+        INSTRUCTOR,
+        STUDENT,
+        COURSE,
+        STUDENT_COURSE,
+        MODIFIED_SINCE,
+        DELETED_SINCE
+    }
+
+    /**
+     * Outcome of one command
+     */
+    public enum Status {
+        OK(0),
+        NOT_FOUND(1),
+        DUPLICATE(2),
+        CREDIT_LIMIT(3),
+        BAD_REQUEST(4),
+        ERROR(5),
+        PREREQUISITE(6);
+
+        private static final Status[] BY_CODE = values();
+        private final byte code;
+
+        Status(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+        static Status of(byte code) {
+            if (code < 0 || code >= BY_CODE.length) {
+                throw new IllegalArgumentException("Unknown status " + code);
+            }
+            return BY_CODE[code];
+        }
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String longer than " + MAX_STRING_BYTES + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("String runs past the end of the frame");
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+            StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
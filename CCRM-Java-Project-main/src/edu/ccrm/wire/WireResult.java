@@ -0,0 +1,89 @@
+package edu.ccrm.wire;
+
+import edu.ccrm.wire.WireProtocol.Opcode;
+import edu.ccrm.wire.WireProtocol.Status;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of one command: a status, the value or rows the opcode
+ * returns, and a message when the command did not succeed. For queries
+ * the value is the cursor of the remaining rows, or 0 when there are none.
+ */
+public record WireResult(Status status, double value, String message, List<String> rows) {
+    static final WireResult OK = new WireResult(Status.OK, 0.0, null, List.of());
+
+    static WireResult value(double value) {
+        return new WireResult(Status.OK, value, null, List.of());
+    }
+
+    static WireResult rows(List<String> rows, int cursor) {
+        return new WireResult(Status.OK, cursor, null, rows);
+    }
+
+    static WireResult failed(Status status, String message) {
+        String text = message != null ? message : status.name();
+        if (text.length() > WireProtocol.MAX_MESSAGE_CHARS) {
+            text = text.substring(0, WireProtocol.MAX_MESSAGE_CHARS);
+        }
+        return new WireResult(status, 0.0, text, List.of());
+    }
+
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+
+    /**
+     * Cursor for fetching the rest of a query's rows, 0 if it returned them all
+     */
+    public int cursor() {
+        return (int) value;
+    }
+
+    void write(ByteBuffer buffer, Opcode opcode) {
+        buffer.put(status.getCode());
+        if (status != Status.OK) {
+            WireProtocol.putString(buffer, message);
+            return;
+        }
+        switch (opcode.getReply()) {
+            case NONE -> {
+            }
+            case VALUE -> buffer.putDouble(value);
+            case ROWS -> {
+                buffer.putDouble(value);
+                buffer.putInt(rows.size());
+                for (String row : rows) {
+                    WireProtocol.putString(buffer, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the result of a command with the given opcode
+     */
+    static WireResult read(ByteBuffer buffer, Opcode opcode) {
+        Status status = Status.of(buffer.get());
+        if (status != Status.OK) {
+            return new WireResult(status, 0.0, WireProtocol.getString(buffer), List.of());
+        }
+        return switch (opcode.getReply()) {
+            case NONE -> OK;
+            case VALUE -> value(buffer.getDouble());
+            case ROWS -> {
+                double cursor = buffer.getDouble();
+                int count = buffer.getInt();
+                if (count < 0 || count > buffer.remaining() / 2) {
+                    throw new IllegalArgumentException("Invalid row count " + count);
+                }
+                List<String> rows = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    rows.add(WireProtocol.getString(buffer));
+                }
+                yield new WireResult(Status.OK, cursor, null, rows);
+            }
+        };
+    }
+}
@@ -0,0 +1,202 @@
+package edu.ccrm.wire;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Student;
+import edu.ccrm.report.CourseStats;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Text rows carrying records over the binary protocol. A row is the
+ * record's fields joined by the ASCII unit separator, which cannot occur
+ * in names or codes, so no quoting is needed. Empty fields stand for
+ * missing values.
+ * <pre>
+ * student:     id, regNo, fullName, email, active, enrollmentDate,
+ *              gradePoints, gradedCredits, activeEnrollments
+ * instructor:  id, fullName, email, department, title
+ * course:      code, title, credits, department, semester, active, instructor fields,
+ *              prerequisite codes joined by ';'
+ * enrollment:  studentId, courseCode, enrollmentDate, status, grade, withdrawalDate, updatedAt,
+ *              the student's regNo, fullName, email and active, then the course fields
+ * courseStats: code, title, department, active, totalEnrollments, activeEnrollments,
+ *              one count per grade
+ * </pre>
+ * The student's grade points and credits cover the enrollments held by
+ * the process that wrote the row, so a router can add them up across
+ * shards to get the overall GPA.
+ */
+public final class WireRows {
+    public static final char SEPARATOR = '\u001F';
+    public static final int STUDENT_FIELDS = 9;
+    public static final int INSTRUCTOR_FIELDS = 5;
+    public static final int COURSE_FIELDS = 7 + INSTRUCTOR_FIELDS;
+    // Offset of the prerequisites within the course fields; rows from older clients end before it
+    public static final int COURSE_PREREQUISITES = 6 + INSTRUCTOR_FIELDS;
+    private static final String PREREQUISITE_SEPARATOR = ";";
+    public static final int ENROLLMENT_FIELDS = 7;
+    // Offsets of the embedded student and course fields in an enrollment row
+    public static final int ENROLLMENT_STUDENT_OFFSET = ENROLLMENT_FIELDS;
+    public static final int ENROLLMENT_COURSE_OFFSET = ENROLLMENT_FIELDS + 4;
+    private static final Grade[] GRADES = Grade.values();
+
+    private WireRows() {
+    }
+
+    public static String student(Student student) {
+        double points = 0.0;
+        int credits = 0;
+        int active = 0;
+        // Enrollment changes lock the student, so the sums match one consistent state
+        synchronized (student) {
+            for (Enrollment enrollment : student.getEnrolledCourses()) {
+                if (enrollment.getStatus() == Enrollment.EnrollmentStatus.ENROLLED) {
+                    active++;
+                }
+                if (enrollment.getGrade() != null) {
+                    points += enrollment.getGrade().getPoints() * enrollment.getCourse().getCredits();
+                    credits += enrollment.getCourse().getCredits();
+                }
+            }
+        }
+        return join(student.getId(), student.getRegNo(), student.getFullName(), student.getEmail(),
+            String.valueOf(student.isActive()), String.valueOf(student.getEnrollmentDate()),
+            String.valueOf(points), String.valueOf(credits), String.valueOf(active));
+    }
+
+    public static String instructor(Instructor instructor) {
+        return join(instructorFields(instructor));
+    }
+
+    public static String course(Course course) {
+        List<String> fields = new ArrayList<>(COURSE_FIELDS);
+        addCourseFields(fields, course);
+        return join(fields.toArray(new String[0]));
+    }
+
+    public static String enrollment(Enrollment enrollment) {
+        Student student = enrollment.getStudent();
+        List<String> fields = new ArrayList<>(ENROLLMENT_COURSE_OFFSET + COURSE_FIELDS);
+        fields.add(student.getId());
+        fields.add(enrollment.getCourse().getCode());
+        fields.add(format(enrollment.getEnrollmentDate()));
+        fields.add(enrollment.getStatus().name());
+        fields.add(enrollment.getGrade() != null ? enrollment.getGrade().name() : "");
+        fields.add(format(enrollment.getWithdrawalDate()));
+        fields.add(format(enrollment.getUpdatedAt()));
+        fields.add(student.getRegNo());
+        fields.add(student.getFullName());
+        fields.add(student.getEmail());
+        fields.add(String.valueOf(student.isActive()));
+        addCourseFields(fields, enrollment.getCourse());
+        return join(fields.toArray(new String[0]));
+    }
+
+    public static String courseStats(CourseStats stats) {
+        String[] fields = new String[6 + GRADES.length];
+        fields[0] = stats.code();
+        fields[1] = nullToEmpty(stats.title());
+        fields[2] = nullToEmpty(stats.department());
+        fields[3] = String.valueOf(stats.active());
+        fields[4] = String.valueOf(stats.totalEnrollments());
+        fields[5] = String.valueOf(stats.activeEnrollments());
+        for (int i = 0; i < GRADES.length; i++) {
+            fields[6 + i] = String.valueOf(stats.grades().getCount(GRADES[i]));
+        }
+        return join(fields);
+    }
+
+    public static String join(String... fields) {
+        StringBuilder row = new StringBuilder(fields.length * 16);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                row.append(SEPARATOR);
+            }
+            String field = nullToEmpty(fields[i]);
+            if (field.indexOf(SEPARATOR) >= 0) {
+                throw new IllegalArgumentException("Field contains the row separator: " + field);
+            }
+            row.append(field);
+        }
+        return row.toString();
+    }
+
+    /**
+     * Splits a row into its fields, keeping empty ones
+     */
+    public static String[] split(String row) {
+        List<String> fields = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < row.length(); i++) {
+            if (row.charAt(i) == SEPARATOR) {
+                fields.add(row.substring(start, i));
+                start = i + 1;
+            }
+        }
+        fields.add(row.substring(start));
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Course codes in the prerequisites field of a course row
+     */
+    public static List<String> parsePrerequisites(String[] fields, int offset) {
+        int index = offset + COURSE_PREREQUISITES;
+        if (index >= fields.length || fields[index].isEmpty()) {
+            return List.of();
+        }
+        return List.of(fields[index].split(PREREQUISITE_SEPARATOR));
+    }
+
+    public static LocalDateTime parseDateTime(String field) {
+        return field.isEmpty() ? null : LocalDateTime.parse(field);
+    }
+
+    public static LocalDate parseDate(String field) {
+        return field.isEmpty() || field.equals("null") ? null : LocalDate.parse(field);
+    }
+
+    private static void addCourseFields(List<String> fields, Course course) {
+        fields.add(course.getCode());
+        fields.add(nullToEmpty(course.getTitle()));
+        fields.add(String.valueOf(course.getCredits()));
+        fields.add(nullToEmpty(course.getDepartment()));
+        fields.add(course.getSemester() != null ? course.getSemester().name() : "");
+        fields.add(String.valueOf(course.isActive()));
+        fields.addAll(List.of(instructorFields(course.getInstructor())));
+        fields.add(prerequisites(course.getPrerequisites()));
+    }
+
+    private static String prerequisites(Collection<String> codes) {
+        for (String code : codes) {
+            if (code.contains(PREREQUISITE_SEPARATOR)) {
+                throw new IllegalArgumentException(
+                    "Course code contains the prerequisite separator: " + code);
+            }
+        }
+        return String.join(PREREQUISITE_SEPARATOR, codes);
+    }
+
+    private static String[] instructorFields(Instructor instructor) {
+        if (instructor == null) {
+            return new String[] {"", "", "", "", ""};
+        }
+        return new String[] {instructor.getId(), nullToEmpty(instructor.getFullName()),
+            nullToEmpty(instructor.getEmail()), nullToEmpty(instructor.getDepartment()),
+            nullToEmpty(instructor.getTitle())};
+    }
+
+    private static String format(LocalDateTime time) {
+        return time != null ? time.toString() : "";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
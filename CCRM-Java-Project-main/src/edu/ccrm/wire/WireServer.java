@@ -0,0 +1,510 @@
+package edu.ccrm.wire;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationTimer;
+import edu.ccrm.replication.LogEntry;
+import edu.ccrm.replication.ReplicationLog;
+import edu.ccrm.report.ReportSource;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.wire.WireProtocol.Filter;
+import edu.ccrm.wire.WireProtocol.Opcode;
+import edu.ccrm.wire.WireProtocol.Reply;
+import edu.ccrm.wire.WireProtocol.Status;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves the binary protocol described in {@link WireProtocol} from a
+ * single selector thread. Each connection reads into its own buffer, so
+ * a burst of pipelined requests is decoded and executed in one pass and
+ * the responses leave in as few writes as possible.
+ *
+ * Commands run on the selector thread. The services work in memory, so a
+ * command takes microseconds, and one thread keeps each connection's
+ * responses in order without any hand-off. A connection whose client is
+ * not reading its responses stops being read until they drain.
+ *
+ * Query results are paged. The rest of a query stays open on its
+ * connection under a cursor until it is fetched, the connection closes,
+ * or too many newer queries are left open.
+ *
+ * Given a {@link ReplicationLog}, the server also feeds read replicas:
+ * {@code CHECKPOINT} returns all data and {@code REPLICATE} the log
+ * entries after a replica's position.
+ */
+public class WireServer {
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    // Stop reading a connection once this much output is waiting for its client
+    private static final int MAX_PENDING_OUTPUT_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_OPEN_CURSORS = 64;
+    private static final OperationTimer REQUEST_TIMER = MetricsRegistry.getInstance().timer("wire.request");
+    private static final LongAdder COMMANDS = MetricsRegistry.getInstance().counter("wire.commands");
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final ReportSource reportSource;
+    private final ReplicationLog replicationLog;
+    private final WireExecutor executor;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Binds the server to the given port; 0 picks a free port
+     */
+    public WireServer(int port, StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws IOException {
+        this(port, studentService, courseService, enrollmentService, null);
+    }
+
+    /**
+     * @param reportSource answers {@code COURSE_STATS}, which is rejected when null
+     */
+    public WireServer(int port, StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, ReportSource reportSource) throws IOException {
+        this(port, studentService, courseService, enrollmentService, reportSource, null);
+    }
+
+    /**
+     * @param replicationLog answers {@code REPLICATE} and {@code CHECKPOINT}, which are rejected when null
+     */
+    public WireServer(int port, StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, ReportSource reportSource, ReplicationLog replicationLog)
+            throws IOException {
+        this.reportSource = reportSource;
+        this.replicationLog = replicationLog;
+        this.executor = new WireExecutor(studentService, courseService, enrollmentService);
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this::run, "ccrm-wire");
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the selector thread and closes every connection
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isWritable()) {
+                                connection.flush();
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.read();
+                            }
+                        }
+                    } catch (IOException e) {
+                        // The client went away or broke the protocol; drop only that connection
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Wire server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    private static void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+
+    /**
+     * Encodes the rows a query selects. The records are chosen now and
+     * encoded as the pages are sent.
+     */
+    Iterator<String> query(WireCommand command) {
+        Filter filter = Filter.valueOf(command.argument(0));
+        String value = command.argument(1);
+        return switch (command.opcode()) {
+            case FIND_STUDENTS -> filter == Filter.DELETED_SINCE
+                ? studentService.findDeletedSince(LocalDateTime.parse(value)).iterator()
+                : encode(findStudents(filter, value), WireRows::student);
+            case FIND_COURSES -> filter == Filter.DELETED_SINCE
+                ? courseService.findDeletedSince(LocalDateTime.parse(value)).iterator()
+                : encode(findCourses(filter, value), WireRows::course);
+            case FIND_ENROLLMENTS -> encode(findEnrollments(filter, value, command.argument(2)),
+                WireRows::enrollment);
+            default -> throw new IllegalArgumentException(command.opcode() + " is not a query");
+        };
+    }
+
+    private List<Student> findStudents(Filter filter, String value) {
+        return switch (filter) {
+            case ALL -> studentService.findAll();
+            case ID -> listOf(studentService.findById(value));
+            case REG_NO -> listOf(studentService.findByRegNo(value));
+            case DEPARTMENT -> studentService.findByDepartment(value);
+            case MODIFIED_SINCE -> studentService.findModifiedSince(LocalDateTime.parse(value));
+            default -> throw new IllegalArgumentException("Students cannot be found by " + filter);
+        };
+    }
+
+    private List<Course> findCourses(Filter filter, String value) {
+        return switch (filter) {
+            case ALL -> courseService.findAll();
+            case ID -> listOf(courseService.findById(value));
+            case DEPARTMENT -> courseService.findByDepartment(value);
+            case SEMESTER -> courseService.findBySemester(Semester.valueOf(value));
+            case INSTRUCTOR -> courseService.findByPredicate(course ->
+                course.getInstructor() != null && course.getInstructor().getId().equals(value));
+            case MODIFIED_SINCE -> courseService.findModifiedSince(LocalDateTime.parse(value));
+            default -> throw new IllegalArgumentException("Courses cannot be found by " + filter);
+        };
+    }
+
+    private List<Enrollment> findEnrollments(Filter filter, String value, String courseCode) {
+        return switch (filter) {
+            case ALL -> enrollmentService.findAll();
+            case STUDENT -> {
+                Student student = student(value);
+                yield student != null ? enrollmentService.findByStudent(student) : List.of();
+            }
+            case COURSE -> {
+                Course course = course(value);
+                yield course != null ? enrollmentService.findByCourse(course) : List.of();
+            }
+            case STUDENT_COURSE -> {
+                Student student = student(value);
+                Course course = course(courseCode);
+                yield student != null && course != null
+                    ? listOf(enrollmentService.findEnrollment(student, course))
+                    : List.of();
+            }
+            case MODIFIED_SINCE -> enrollmentService.findModifiedSince(LocalDateTime.parse(value));
+            default -> throw new IllegalArgumentException("Enrollments cannot be found by " + filter);
+        };
+    }
+
+    /**
+     * Statistics of every course from the report views
+     */
+    Iterator<String> courseStats() {
+        if (reportSource == null) {
+            throw new IllegalStateException("Reports are not served here");
+        }
+        return encode(new ArrayList<>(reportSource.getReport().getCourses().values()), WireRows::courseStats);
+    }
+
+    /**
+     * A header row of log identity and last sequence number, then up to a
+     * page of log entries after the replica's position; null when the log
+     * cannot continue from there
+     */
+    Iterator<String> replicate(WireCommand command) {
+        ReplicationLog log = requireReplicationLog();
+        List<String> rows = new ArrayList<>();
+        // The log's methods lock it, so holding it keeps the header and entries from one state
+        synchronized (log) {
+            List<LogEntry> entries = log.readAfter(command.argument(0), Long.parseLong(command.argument(1)),
+                WireProtocol.PAGE_ROWS - 1);
+            if (entries == null) {
+                return null;
+            }
+            rows.add(WireRows.join(log.getLogId(), String.valueOf(log.getLastSequence())));
+            entries.forEach(entry -> rows.add(entry.encode()));
+        }
+        return rows.iterator();
+    }
+
+    private ReplicationLog requireReplicationLog() {
+        if (replicationLog == null) {
+            throw new IllegalStateException("This server keeps no replication log");
+        }
+        return replicationLog;
+    }
+
+    private static <T> Iterator<String> encode(List<T> records, Function<T, String> encoder) {
+        return records.stream().map(encoder).iterator();
+    }
+
+    private static <T> List<T> listOf(T record) {
+        return record != null ? List.of(record) : List.of();
+    }
+
+    private Student student(String id) {
+        return studentService.findById(id);
+    }
+
+    private Course course(String code) {
+        return courseService.findById(code);
+    }
+
+    /**
+     * Buffers and protocol state of one client connection
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final List<WireCommand> commands = new ArrayList<>();
+        private final List<WireResult> results = new ArrayList<>();
+        // Open query results, oldest first; the oldest is dropped when too many are open
+        private final Map<Integer, Iterator<String>> cursors = new LinkedHashMap<>();
+        private int nextCursor = 1;
+        // Characters of rows already in the response being built
+        private int frameChars;
+        private ByteBuffer input = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        // Kept in write mode: bytes between 0 and position wait to be sent
+        private ByteBuffer output = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void read() throws IOException {
+            if (channel.read(input) < 0) {
+                throw new IOException("Connection closed by client");
+            }
+            input.flip();
+            while (input.remaining() >= Integer.BYTES) {
+                int length = input.getInt(input.position());
+                if (length < Integer.BYTES + 1 || length > WireProtocol.MAX_FRAME_BYTES) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                if (input.remaining() < Integer.BYTES + length) {
+                    if (input.capacity() < Integer.BYTES + length) {
+                        ByteBuffer larger = ByteBuffer.allocate(Integer.BYTES + length);
+                        larger.put(input).flip();
+                        input = larger;
+                    }
+                    break;
+                }
+                int frameEnd = input.position() + Integer.BYTES + length;
+                ByteBuffer frame = input.duplicate();
+                frame.position(input.position() + Integer.BYTES).limit(frameEnd);
+                handleFrame(frame);
+                input.position(frameEnd);
+            }
+            input.compact();
+            flush();
+        }
+
+        private void handleFrame(ByteBuffer frame) {
+            long start = REQUEST_TIMER.start();
+            int requestId = frame.getInt();
+            commands.clear();
+            results.clear();
+            try {
+                if (frame.get(frame.position()) == Opcode.BATCH.getCode()) {
+                    frame.get();
+                    int count = frame.getInt();
+                    if (count < 0 || count > WireProtocol.MAX_BATCH_COMMANDS) {
+                        throw new IllegalArgumentException("Batch of " + count + " commands");
+                    }
+                    for (int i = 0; i < count; i++) {
+                        commands.add(WireCommand.read(frame));
+                    }
+                } else {
+                    commands.add(WireCommand.read(frame));
+                }
+                if (frame.hasRemaining()) {
+                    throw new IllegalArgumentException("Unexpected bytes after the last command");
+                }
+            } catch (IllegalArgumentException | BufferUnderflowException e) {
+                // The frame boundary is known, so the connection survives a malformed request
+                commands.clear();
+                commands.add(WireCommand.ping());
+                results.add(WireResult.failed(Status.BAD_REQUEST,
+                    e.getMessage() != null ? e.getMessage() : "Truncated request"));
+            }
+            if (results.isEmpty()) {
+                frameChars = 0;
+                for (WireCommand command : commands) {
+                    COMMANDS.increment();
+                    results.add(command.opcode().getReply() == Reply.ROWS
+                        ? rows(command)
+                        : executor.execute(command));
+                }
+            }
+            writeResponse(requestId);
+            REQUEST_TIMER.stop(start);
+        }
+
+        /**
+         * Runs a query, or continues one, and returns its next page
+         */
+        private WireResult rows(WireCommand command) {
+            try {
+                if (command.opcode() == Opcode.FETCH) {
+                    int cursor = Integer.parseInt(command.argument(0));
+                    Iterator<String> remaining = cursors.remove(cursor);
+                    return remaining != null
+                        ? page(cursor, remaining)
+                        : WireResult.failed(Status.NOT_FOUND, "Cursor " + cursor + " has expired");
+                }
+                if (command.opcode() == Opcode.REPLICATE) {
+                    Iterator<String> entries = replicate(command);
+                    return entries != null
+                        ? page(nextCursor, entries)
+                        : WireResult.failed(Status.NOT_FOUND, "The log cannot continue after entry "
+                            + command.argument(1) + "; load a checkpoint");
+                }
+                Iterator<String> rows = switch (command.opcode()) {
+                    case COURSE_STATS -> courseStats();
+                    case CHECKPOINT -> requireReplicationLog().checkpoint().rows();
+                    default -> query(command);
+                };
+                return page(nextCursor, rows);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return WireResult.failed(Status.BAD_REQUEST, e.getMessage());
+            } catch (RuntimeException e) {
+                return WireResult.failed(Status.ERROR, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * Takes rows up to the page size or the response's character budget,
+         * and keeps the rest under the cursor
+         */
+        private WireResult page(int cursor, Iterator<String> rows) {
+            List<String> page = new ArrayList<>();
+            while (page.size() < WireProtocol.PAGE_ROWS && frameChars < WireProtocol.PAGE_CHARS
+                    && rows.hasNext()) {
+                String row = rows.next();
+                frameChars += row.length();
+                page.add(row);
+            }
+            if (!rows.hasNext()) {
+                return WireResult.rows(page, 0);
+            }
+            if (cursor == nextCursor) {
+                nextCursor = nextCursor == Integer.MAX_VALUE ? 1 : nextCursor + 1;
+            }
+            cursors.put(cursor, rows);
+            if (cursors.size() > MAX_OPEN_CURSORS) {
+                cursors.remove(cursors.keySet().iterator().next());
+            }
+            return WireResult.rows(page, cursor);
+        }
+
+        private void writeResponse(int requestId) {
+            int frameStart = output.position();
+            while (true) {
+                try {
+                    output.putInt(0);
+                    output.putInt(requestId);
+                    output.putInt(results.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        results.get(i).write(output, commands.get(i).opcode());
+                    }
+                    output.putInt(frameStart, output.position() - frameStart - Integer.BYTES);
+                    return;
+                } catch (BufferOverflowException e) {
+                    output.position(frameStart);
+                    output = grow(output, output.capacity() * 2);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            output.flip();
+            channel.write(output);
+            output.compact();
+            boolean pending = output.position() > 0;
+            int ops = pending ? SelectionKey.OP_WRITE : 0;
+            if (output.position() < MAX_PENDING_OUTPUT_BYTES) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (key.interestOps() != ops) {
+                key.interestOps(ops);
+            }
+        }
+
+        /**
+         * Copies a buffer in write mode into a larger one
+         */
+        private ByteBuffer grow(ByteBuffer buffer, int capacity) {
+            ByteBuffer larger = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            larger.put(buffer);
+            return larger;
+        }
+    }
+}